@@ -0,0 +1,12 @@
+package backorder;
+
+/**
+ * Order in which a {@link BackorderService} queue hands newly available stock to waiting
+ * orders.
+ */
+public enum BackorderOrdering {
+    /** Oldest backorder first. */
+    FIFO,
+    /** Higher {@link scheduling.OrderPriority} first, oldest first within a class. */
+    PRIORITY
+}
@@ -0,0 +1,389 @@
+package backorder;
+
+import domain.model.InventoryItem;
+import domain.model.Location;
+import domain.model.LocationTable;
+import domain.model.Order;
+import domain.model.OrderItem;
+import domain.model.Warehouse;
+import scheduling.OrderPriority;
+import service.CustomerService;
+import service.FulfillmentResult;
+import service.InventoryChangeListener;
+import service.InventoryService;
+import service.OrderFulfillmentService;
+import service.OrderService;
+import service.WarehouseService;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Event-driven backorders: orders that fail for lack of stock wait in a queue per
+ * (product, warehouse region) and are retried only when that product becomes available
+ * in that region.
+ *
+ * Regions are square cells of {@code regionSize} over warehouse locations; an order waits
+ * in the region of the warehouse nearest to its customer, under the first product it was
+ * short of. The service listens to {@link InventoryService}: a restock, release or new
+ * item that raises a product's available quantity looks up that one queue and wakes
+ * orders from its head while their quantity fits into what is available and not already
+ * promised to orders woken earlier. A queue stops at the first order that does not fit,
+ * so a large order is not overtaken forever by small ones. Work per stock movement is
+ * O(woken orders); nothing ever scans the backlog.
+ *
+ * Woken orders are retried on the executor, since listeners run on the warehouse's owner
+ * and must return quickly. An order still short (of the same or another product) goes
+ * back into the matching queue at its original position.
+ */
+public class BackorderService implements InventoryChangeListener {
+    public static final double DEFAULT_REGION_SIZE = 100;
+
+    private static final long NO_REGION = Long.MIN_VALUE;
+
+    private final OrderService orderService;
+    private final OrderFulfillmentService fulfillmentService;
+    private final InventoryService inventoryService;
+    private final WarehouseService warehouseService;
+    private final CustomerService customerService;
+    private final Executor executor;
+    private final double regionSize;
+    private final Comparator<Backorder> ordering;
+    private final Map<QueueKey, BackorderQueue> queues = new ConcurrentHashMap<>();
+    private final Map<UUID, Backorder> backorders = new ConcurrentHashMap<>();
+    private final Map<UUID, Long> warehouseRegions = new ConcurrentHashMap<>();
+    private final Map<Long, Set<UUID>> regionWarehouses = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final LongAdder backordered = new LongAdder();
+    private final LongAdder wakeups = new LongAdder();
+    private final LongAdder fulfilledFromBackorder = new LongAdder();
+    private final LongAdder requeued = new LongAdder();
+    // Bumped by every stock movement that raises an available quantity
+    private final AtomicLong stockRaised = new AtomicLong();
+
+    public BackorderService(OrderService orderService,
+                            OrderFulfillmentService fulfillmentService,
+                            InventoryService inventoryService,
+                            WarehouseService warehouseService,
+                            CustomerService customerService) {
+        this(orderService, fulfillmentService, inventoryService, warehouseService, customerService,
+                BackorderOrdering.FIFO, DEFAULT_REGION_SIZE, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param regionSize side of a region cell in location units; infinity puts every
+     *                   warehouse into a single region
+     * @param executor   runs fulfillment retries of woken orders
+     */
+    public BackorderService(OrderService orderService,
+                            OrderFulfillmentService fulfillmentService,
+                            InventoryService inventoryService,
+                            WarehouseService warehouseService,
+                            CustomerService customerService,
+                            BackorderOrdering ordering,
+                            double regionSize,
+                            Executor executor) {
+        this.orderService = Objects.requireNonNull(orderService, "orderService cannot be null");
+        this.fulfillmentService = Objects.requireNonNull(fulfillmentService, "fulfillmentService cannot be null");
+        this.inventoryService = Objects.requireNonNull(inventoryService, "inventoryService cannot be null");
+        this.warehouseService = Objects.requireNonNull(warehouseService, "warehouseService cannot be null");
+        this.customerService = Objects.requireNonNull(customerService, "customerService cannot be null");
+        this.executor = Objects.requireNonNull(executor, "executor cannot be null");
+        if (!(regionSize > 0)) {
+            throw new IllegalArgumentException("regionSize must be positive: " + regionSize);
+        }
+        this.regionSize = regionSize;
+        this.ordering = Objects.requireNonNull(ordering, "ordering cannot be null") == BackorderOrdering.FIFO
+                ? Comparator.comparingLong(b -> b.sequence)
+                : Comparator.<Backorder>comparingInt(b -> b.priority.ordinal()).thenComparingLong(b -> b.sequence);
+        inventoryService.addInventoryChangeListener(this);
+    }
+
+    /**
+     * Tries to fulfill an order now and backorders it if stock is short.
+     *
+     * @return completes with the first result that is not a stock shortage: fulfilled
+     *         (possibly much later, after a restock), or any other rejection. Cancelling
+     *         the future or calling {@link #cancel} drops the backorder.
+     */
+    public CompletableFuture<FulfillmentResult> fulfillOrBackorder(UUID orderId, OrderPriority priority) {
+        Objects.requireNonNull(orderId, "orderId cannot be null");
+        Objects.requireNonNull(priority, "priority cannot be null");
+
+        long stockSeen = stockRaised.get();
+        FulfillmentResult result = fulfillmentService.tryFulfillOrder(orderId);
+        if (!isShortage(result)) {
+            return CompletableFuture.completedFuture(result);
+        }
+        Order order = orderService.getOrderById(orderId);
+        Backorder backorder = new Backorder(order, priority, sequence.incrementAndGet(),
+                nearestRegion(customerService.getCustomerLocation(order.getCustomerId())));
+        backorder.result.whenComplete((done, failure) -> {
+            if (backorder.result.isCancelled()) {
+                cancel(orderId);
+            }
+        });
+        backorders.put(orderId, backorder);
+        backordered.increment();
+        enqueue(backorder, result, stockSeen);
+        return backorder.result;
+    }
+
+    /**
+     * Drops a backorder. An order already woken may still be fulfilled by its retry.
+     *
+     * @return true if the order was backordered
+     */
+    public boolean cancel(UUID orderId) {
+        Backorder backorder = backorders.remove(orderId);
+        if (backorder == null) {
+            return false;
+        }
+        BackorderQueue queue = backorder.queue;
+        if (queue != null) {
+            synchronized (queue) {
+                queue.waiting.remove(backorder);
+            }
+        }
+        backorder.result.cancel(false);
+        return true;
+    }
+
+    public int getBackorderCount() {
+        return backorders.size();
+    }
+
+    /**
+     * Orders waiting for the product in the region of the given warehouse.
+     */
+    public int getWaitingCount(UUID productId, UUID warehouseId) {
+        BackorderQueue queue = queues.get(new QueueKey(productId, regionOf(warehouseId)));
+        if (queue == null) {
+            return 0;
+        }
+        synchronized (queue) {
+            return queue.waiting.size();
+        }
+    }
+
+    public long getBackorderedCount() {
+        return backordered.sum();
+    }
+
+    public long getWakeups() {
+        return wakeups.sum();
+    }
+
+    public long getFulfilledFromBackorder() {
+        return fulfilledFromBackorder.sum();
+    }
+
+    public long getRequeued() {
+        return requeued.sum();
+    }
+
+    @Override
+    public void onInventoryChanged(InventoryItem item, int availableDelta, int reservedDelta) {
+        if (availableDelta <= 0) {
+            return;
+        }
+        // Before the queue lookup, so an order queued after the lookup sees the bump
+        stockRaised.incrementAndGet();
+        if (queues.isEmpty()) {
+            return;
+        }
+        BackorderQueue queue = queues.get(new QueueKey(item.getProductId(), regionOf(item.getWarehouseId())));
+        if (queue != null) {
+            wake(queue, item.getAvailableQuantity());
+        }
+    }
+
+    /**
+     * @param stockSeen {@link #stockRaised} as read before the failed attempt
+     */
+    private void enqueue(Backorder backorder, FulfillmentResult shortage, long stockSeen) {
+        UUID productId = shortage.getProductId() != null
+                ? shortage.getProductId()
+                : backorder.order.getOrderItems().get(0).getProductId();
+        int quantity = 0;
+        for (OrderItem item: backorder.order.getOrderItems()) {
+            if (item.getProductId().equals(productId)) {
+                quantity += item.getQuantity();
+            }
+        }
+        QueueKey key = new QueueKey(productId, backorder.region);
+        BackorderQueue queue = queues.computeIfAbsent(key, k -> new BackorderQueue());
+        synchronized (queue) {
+            if (backorder.result.isDone()) {
+                return;
+            }
+            backorder.quantity = quantity;
+            backorder.queue = queue;
+            queue.waiting.add(backorder);
+        }
+        // Stock that arrived between the failed attempt and now raised no event for this
+        // order, so look once at what the region has. Without such stock a retry would only
+        // fail again, and only one warehouse covering the order can fulfill it.
+        Set<UUID> warehouses = regionWarehouses.get(backorder.region);
+        if (warehouses != null && stockRaised.get() != stockSeen) {
+            int available = inventoryService.getLargestAvailableQuantity(warehouses, productId);
+            if (available >= quantity) {
+                wake(queue, available);
+            }
+        }
+    }
+
+    private void wake(BackorderQueue queue, long available) {
+        List<Backorder> woken = new ArrayList<>();
+        synchronized (queue) {
+            long budget = available - queue.promised;
+            while (!queue.waiting.isEmpty() && queue.waiting.first().quantity <= budget) {
+                Backorder backorder = queue.waiting.pollFirst();
+                budget -= backorder.quantity;
+                queue.promised += backorder.quantity;
+                woken.add(backorder);
+            }
+        }
+        for (Backorder backorder: woken) {
+            wakeups.increment();
+            executor.execute(() -> retry(queue, backorder));
+        }
+    }
+
+    private void retry(BackorderQueue queue, Backorder backorder) {
+        FulfillmentResult result = null;
+        RuntimeException failure = null;
+        long stockSeen = stockRaised.get();
+        if (!backorder.result.isDone()) {
+            try {
+                result = fulfillmentService.tryFulfillOrder(backorder.order.getId());
+            } catch (RuntimeException e) {
+                failure = e;
+            }
+        }
+        synchronized (queue) {
+            queue.promised -= backorder.quantity;
+        }
+
+        if (result != null && isShortage(result)) {
+            requeued.increment();
+            enqueue(backorder, result, stockSeen);
+            return;
+        }
+        backorders.remove(backorder.order.getId(), backorder);
+        if (failure != null) {
+            backorder.result.completeExceptionally(failure);
+        } else if (result != null) {
+            if (result.isFulfilled()) {
+                fulfilledFromBackorder.increment();
+            }
+            backorder.result.complete(result);
+        }
+    }
+
+    private static boolean isShortage(FulfillmentResult result) {
+        return result.getReason() == FulfillmentResult.Reason.NO_WAREHOUSE_WITH_STOCK
+                || result.getReason() == FulfillmentResult.Reason.INSUFFICIENT_STOCK;
+    }
+
+    private long nearestRegion(Location location) {
+        Warehouse nearest = null;
+        double nearestDistance = Double.MAX_VALUE;
+        for (Warehouse warehouse: warehouseService.getAllWarehouses()) {
+            regionOf(warehouse.getId());
+            if (location != null && warehouse.getLocationHandle() != LocationTable.NONE) {
+                double distance = warehouse.distanceTo(location);
+                if (distance < nearestDistance) {
+                    nearestDistance = distance;
+                    nearest = warehouse;
+                }
+            }
+        }
+        return nearest == null ? NO_REGION : regionOf(nearest.getId());
+    }
+
+    private long regionOf(UUID warehouseId) {
+        Long region = warehouseRegions.get(warehouseId);
+        if (region != null) {
+            return region;
+        }
+        long resolved = warehouseService.getWarehouseById(warehouseId)
+                .map(warehouse -> cellOf(warehouse.getLocation()))
+                .orElse(NO_REGION);
+        regionWarehouses.computeIfAbsent(resolved, k -> ConcurrentHashMap.newKeySet()).add(warehouseId);
+        warehouseRegions.put(warehouseId, resolved);
+        return resolved;
+    }
+
+    private long cellOf(Location location) {
+        if (location == null) {
+            return NO_REGION;
+        }
+        if (Double.isInfinite(regionSize)) {
+            return 0;
+        }
+        long x = (long) Math.floor(location.getLatitude() / regionSize);
+        long y = (long) Math.floor(location.getLongtitude() / regionSize);
+        return (x << 32) ^ (y & 0xFFFFFFFFL);
+    }
+
+    private static final class QueueKey {
+        private final UUID productId;
+        private final long region;
+
+        private QueueKey(UUID productId, long region) {
+            this.productId = productId;
+            this.region = region;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            QueueKey that = (QueueKey) o;
+            return region == that.region && productId.equals(that.productId);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * productId.hashCode() + Long.hashCode(region);
+        }
+    }
+
+    private final class BackorderQueue {
+        // Guarded by this
+        private final TreeSet<Backorder> waiting = new TreeSet<>(ordering);
+        // Quantity woken but not yet reserved or requeued
+        private long promised;
+    }
+
+    private static final class Backorder {
+        private final Order order;
+        private final OrderPriority priority;
+        private final long sequence;
+        private final long region;
+        private final CompletableFuture<FulfillmentResult> result = new CompletableFuture<>();
+        // Set under the queue's lock on every enqueue
+        private volatile BackorderQueue queue;
+        private int quantity;
+
+        private Backorder(Order order, OrderPriority priority, long sequence, long region) {
+            this.order = order;
+            this.priority = priority;
+            this.sequence = sequence;
+            this.region = region;
+        }
+    }
+}
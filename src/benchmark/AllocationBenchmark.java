@@ -0,0 +1,79 @@
+package benchmark;
+
+import domain.model.Order;
+import domain.model.Product;
+import domain.model.Warehouse;
+import repository.InMemoryRepository;
+import service.CustomerService;
+import service.InventoryService;
+import service.OrderFulfillmentService;
+import service.OrderService;
+import service.ProductService;
+import service.ShipmentService;
+import service.WarehouseService;
+import simulation.OrderRequest;
+import simulation.OrderStream;
+import simulation.Workload;
+import simulation.WorkloadConfig;
+import simulation.WorkloadGenerator;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Measures heap bytes allocated per fulfilled order on one thread: createOrder, fulfillOrder
+ * and shipOrder, plus repeated reads of the order's items. Orders are generated up front so
+ * the generator's allocations are not counted.
+ *
+ * Needs a HotSpot-compatible JVM (com.sun.management.ThreadMXBean).
+ *
+ * Usage: java benchmark.AllocationBenchmark [orders]
+ */
+public class AllocationBenchmark {
+    private static final int ITEM_READS = 10;
+
+    public static void main(String[] args) {
+        int orders = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        for (int round = 0; round < 5; round++) {
+            InMemoryRepository<Product> productRepository = new InMemoryRepository<>();
+            InMemoryRepository<Warehouse> warehouseRepository = new InMemoryRepository<>();
+            InventoryService inventoryService = new InventoryService(new InMemoryRepository<>(), productRepository, warehouseRepository);
+            WarehouseService warehouseService = new WarehouseService(warehouseRepository, inventoryService);
+            CustomerService customerService = new CustomerService(new InMemoryRepository<>());
+            OrderService orderService = new OrderService(new InMemoryRepository<>());
+            ShipmentService shipmentService = new ShipmentService(new InMemoryRepository<>(), inventoryService);
+            OrderFulfillmentService fulfillmentService = new OrderFulfillmentService(
+                    orderService, warehouseService, shipmentService, inventoryService, customerService);
+            Workload workload = new WorkloadGenerator(new WorkloadConfig().setWarehouses(8).setUnitsPerHub(100_000_000)).install(
+                    new ProductService(productRepository), customerService, warehouseService, inventoryService);
+
+            OrderStream stream = workload.orders(round);
+            OrderRequest[] requests = new OrderRequest[orders];
+            for (int i = 0; i < orders; i++) {
+                requests[i] = stream.next();
+            }
+
+            long fulfilled = 0;
+            long lines = 0;
+            long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+            long start = System.nanoTime();
+            for (OrderRequest request: requests) {
+                Order order = request.submit(orderService);
+                for (int read = 0; read < ITEM_READS; read++) {
+                    lines += order.getOrderItems().size();
+                }
+                if (fulfillmentService.fulfillOrder(order.getId())) {
+                    fulfillmentService.shipOrder(order.getId());
+                    fulfilled++;
+                }
+            }
+            long elapsed = System.nanoTime() - start;
+            long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+            System.out.printf("round %d: %,d bytes/order, %,.0f orders/s, %d/%d fulfilled (%.2f lines/order)%n",
+                    round, allocated / orders, orders * 1e9 / elapsed, fulfilled, orders, lines / (double) orders / ITEM_READS);
+        }
+    }
+}
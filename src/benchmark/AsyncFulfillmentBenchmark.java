@@ -0,0 +1,111 @@
+package benchmark;
+
+import domain.model.InventoryItem;
+import domain.model.Product;
+import domain.model.Warehouse;
+import repository.InMemoryRepository;
+import repository.ShardedRepository;
+import service.AsyncOrderFulfillmentService;
+import service.CustomerService;
+import service.FulfillmentExecutors;
+import service.InventoryService;
+import service.OrderFulfillmentService;
+import service.OrderService;
+import service.ProductService;
+import service.ShipmentService;
+import service.WarehouseService;
+import simulation.OrderRequest;
+import simulation.OrderStream;
+import simulation.Workload;
+import simulation.WorkloadConfig;
+import simulation.WorkloadGenerator;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Submits every order of a batch at once through {@link AsyncOrderFulfillmentService}
+ * (create, fulfill, ship) on a small pool, against a sharded inventory, and reports
+ * throughput and the peak number of orders in flight. The same batch through the
+ * synchronous services on one thread is the baseline.
+ *
+ * Usage: java -Xmx3g benchmark.AsyncFulfillmentBenchmark [orders] [threads]
+ */
+public class AsyncFulfillmentBenchmark {
+    public static void main(String[] args) throws Exception {
+        int orders = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+
+        for (int round = 0; round < 3; round++) {
+            run(orders, threads, false);
+            run(orders, threads, true);
+        }
+    }
+
+    private static void run(int orders, int threads, boolean async) throws Exception {
+        InMemoryRepository<Product> productRepository = new InMemoryRepository<>();
+        InMemoryRepository<Warehouse> warehouseRepository = new InMemoryRepository<>();
+        ShardedRepository<InventoryItem> inventoryStorage = new ShardedRepository<>(4, InventoryItem::getWarehouseId);
+        InventoryService inventoryService = new InventoryService(inventoryStorage, productRepository, warehouseRepository);
+        WarehouseService warehouseService = new WarehouseService(warehouseRepository, inventoryService);
+        CustomerService customerService = new CustomerService(new InMemoryRepository<>());
+        OrderService orderService = new OrderService(new InMemoryRepository<>());
+        ShipmentService shipmentService = new ShipmentService(new InMemoryRepository<>(), inventoryService);
+        OrderFulfillmentService fulfillmentService = new OrderFulfillmentService(
+                orderService, warehouseService, shipmentService, inventoryService, customerService);
+        Workload workload = new WorkloadGenerator(new WorkloadConfig().setWarehouses(8).setUnitsPerHub(100_000_000)).install(
+                new ProductService(productRepository), customerService, warehouseService, inventoryService);
+
+        OrderStream stream = workload.orders(1);
+        OrderRequest[] requests = new OrderRequest[orders];
+        for (int i = 0; i < orders; i++) {
+            requests[i] = stream.next();
+        }
+
+        LongAdder fulfilled = new LongAdder();
+        long started = System.nanoTime();
+        int peak = 0;
+        if (async) {
+            ExecutorService pool = Executors.newFixedThreadPool(threads);
+            AsyncOrderFulfillmentService service = new AsyncOrderFulfillmentService(
+                    orderService, fulfillmentService, shipmentService, inventoryService, new FulfillmentExecutors().setAll(pool));
+            AtomicInteger inFlight = new AtomicInteger();
+            CompletableFuture<?>[] flows = new CompletableFuture<?>[orders];
+            for (int i = 0; i < orders; i++) {
+                OrderRequest request = requests[i];
+                peak = Math.max(peak, inFlight.incrementAndGet());
+                flows[i] = service.createOrderAsync(request.getCustomerId(), request.getOrderItems(), request.isTransactional())
+                        .thenCompose(order -> service.fulfillOrderAsync(order.getId())
+                                .thenCompose(result -> {
+                                    if (!result.isFulfilled()) {
+                                        return CompletableFuture.completedFuture(null);
+                                    }
+                                    fulfilled.increment();
+                                    return service.shipOrderAsync(order.getId());
+                                }))
+                        .whenComplete((done, failure) -> inFlight.decrementAndGet());
+            }
+            CompletableFuture.allOf(flows).get(10, TimeUnit.MINUTES);
+            pool.shutdown();
+        } else {
+            for (OrderRequest request: requests) {
+                UUID orderId = request.submit(orderService).getId();
+                if (fulfillmentService.tryFulfillOrder(orderId).isFulfilled()) {
+                    fulfilled.increment();
+                    fulfillmentService.shipOrder(orderId);
+                }
+            }
+            peak = 1;
+        }
+        double seconds = (System.nanoTime() - started) / 1e9;
+        inventoryStorage.close();
+        System.out.printf("%-28s %d orders (%d fulfilled) in %.2f s = %,.0f orders/s, peak in flight %,d%n",
+                async ? "async, " + threads + " threads" : "sync, caller thread",
+                orders, fulfilled.sum(), seconds, orders / seconds, peak);
+    }
+}
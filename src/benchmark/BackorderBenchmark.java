@@ -0,0 +1,120 @@
+package benchmark;
+
+import backorder.BackorderOrdering;
+import backorder.BackorderService;
+import domain.model.Location;
+import domain.model.OrderItem;
+import domain.model.Product;
+import domain.model.ProductType;
+import domain.model.Warehouse;
+import repository.InMemoryRepository;
+import scheduling.OrderPriority;
+import service.CustomerService;
+import service.InventoryService;
+import service.OrderFulfillmentService;
+import service.OrderService;
+import service.ShipmentService;
+import service.WarehouseService;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Recovers a backlog of stocked-out orders through a series of small restocks, once by
+ * retrying every open order after each restock round (polling) and once through
+ * {@link BackorderService}, and reports fulfillment attempts, fulfilled orders and time.
+ *
+ * Usage: java benchmark.BackorderBenchmark [orders] [rounds]
+ */
+public class BackorderBenchmark {
+    private static final int WAREHOUSES = 64;
+    private static final int PRODUCTS = 200;
+    private static final int CELLS_PER_ROUND = 400;
+
+    public static void main(String[] args) {
+        int orders = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+
+        for (int round = 0; round < 3; round++) {
+            run(orders, rounds, false);
+            run(orders, rounds, true);
+        }
+    }
+
+    private static void run(int orders, int rounds, boolean eventDriven) {
+        InMemoryRepository<Product> productRepository = new InMemoryRepository<>();
+        InMemoryRepository<Warehouse> warehouseRepository = new InMemoryRepository<>();
+        InventoryService inventoryService = new InventoryService(new InMemoryRepository<>(), productRepository, warehouseRepository);
+        WarehouseService warehouseService = new WarehouseService(warehouseRepository, inventoryService);
+        CustomerService customerService = new CustomerService(new InMemoryRepository<>());
+        OrderService orderService = new OrderService(new InMemoryRepository<>());
+        ShipmentService shipmentService = new ShipmentService(new InMemoryRepository<>(), inventoryService);
+        OrderFulfillmentService fulfillmentService = new OrderFulfillmentService(
+                orderService, warehouseService, shipmentService, inventoryService, customerService);
+
+        Random random = new Random(11);
+        UUID[] warehouses = new UUID[WAREHOUSES];
+        UUID[] products = new UUID[PRODUCTS];
+        for (int p = 0; p < PRODUCTS; p++) {
+            Product product = new Product("Product" + p, ProductType.MECHANICAL, "Benchmark");
+            productRepository.save(product.getId(), product);
+            products[p] = product.getId();
+        }
+        for (int w = 0; w < WAREHOUSES; w++) {
+            warehouses[w] = warehouseService.createWarehouse("Warehouse" + w,
+                    new Location("W" + w, random.nextDouble() * 1000, random.nextDouble() * 1000), Integer.MAX_VALUE).getId();
+            for (UUID product: products) {
+                inventoryService.addInventoryItem(warehouses[w], product, 0);
+            }
+        }
+        List<UUID> orderIds = new ArrayList<>(orders);
+        for (int i = 0; i < orders; i++) {
+            UUID customerId = customerService.createCustomer("Customer" + i,
+                    new Location("C" + i, random.nextDouble() * 1000, random.nextDouble() * 1000), "c" + i + "@example.com").getId();
+            List<OrderItem> items = List.of(new OrderItem(products[random.nextInt(PRODUCTS)], 1 + random.nextInt(3)));
+            orderIds.add(orderService.createOrder(customerId, items, false).getId());
+        }
+
+        long started = System.nanoTime();
+        long attempts = 0;
+        long fulfilled = 0;
+        if (eventDriven) {
+            BackorderService backorders = new BackorderService(orderService, fulfillmentService, inventoryService,
+                    warehouseService, customerService, BackorderOrdering.FIFO, 250, Runnable::run);
+            for (UUID orderId: orderIds) {
+                backorders.fulfillOrBackorder(orderId, OrderPriority.STANDARD);
+            }
+            for (int round = 0; round < rounds; round++) {
+                restockRound(inventoryService, warehouses, products, random);
+            }
+            attempts = orders + backorders.getWakeups();
+            fulfilled = backorders.getFulfilledFromBackorder();
+        } else {
+            List<UUID> open = new ArrayList<>(orderIds);
+            for (int round = 0; round <= rounds; round++) {
+                if (round > 0) {
+                    restockRound(inventoryService, warehouses, products, random);
+                }
+                for (Iterator<UUID> it = open.iterator(); it.hasNext(); ) {
+                    attempts++;
+                    if (fulfillmentService.tryFulfillOrder(it.next()).isFulfilled()) {
+                        fulfilled++;
+                        it.remove();
+                    }
+                }
+            }
+        }
+        double seconds = (System.nanoTime() - started) / 1e9;
+        System.out.printf("%-13s %,d orders, %d restock rounds: %,d fulfillment attempts, %,d fulfilled, %.2f s%n",
+                eventDriven ? "event-driven" : "polling", orders, rounds, attempts, fulfilled, seconds);
+    }
+
+    private static void restockRound(InventoryService inventoryService, UUID[] warehouses, UUID[] products, Random random) {
+        for (int c = 0; c < CELLS_PER_ROUND; c++) {
+            inventoryService.restockWarehouse(warehouses[random.nextInt(warehouses.length)], products[random.nextInt(products.length)], 5);
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package benchmark;
+
+import domain.model.Product;
+import domain.model.ProductType;
+import repository.ChangeEvent;
+import repository.InMemoryRepository;
+import repository.OverflowPolicy;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Measures what change-data-capture costs writers, and what it saves a derived view.
+ *
+ * 1. Writer throughput of repository saves with no subscriber, with a subscriber with
+ *    unbounded demand, and with one that never requests anything (bounded buffer, drop oldest).
+ * 2. Keeping a product count per type current after a batch of updates: polling with
+ *    findAll() versus applying the batch's change events.
+ *
+ * Usage: java benchmark.ChangeStreamBenchmark [entities] [writes]
+ */
+public class ChangeStreamBenchmark {
+    public static void main(String[] args) throws Exception {
+        int entities = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int writes = args.length > 1 ? Integer.parseInt(args[1]) : 2_000_000;
+
+        for (int round = 0; round < 3; round++) {
+            System.out.printf("round %d%n", round);
+            writerThroughput("no subscriber", writes, null, 0);
+            writerThroughput("always demands", writes, OverflowPolicy.DROP_OLDEST, Long.MAX_VALUE);
+            writerThroughput("stalled", writes, OverflowPolicy.DROP_OLDEST, 0);
+            derivedView(entities);
+        }
+    }
+
+    private static void writerThroughput(String label, int writes, OverflowPolicy policy, long request) throws InterruptedException {
+        InMemoryRepository<Product> repository = new InMemoryRepository<>();
+        Product[] products = new Product[1024];
+        for (int i = 0; i < products.length; i++) {
+            products[i] = new Product("P" + i, ProductType.values()[i % ProductType.values().length], "");
+        }
+        AtomicLong received = new AtomicLong();
+        if (policy != null) {
+            repository.getChanges().subscribe(new CountingSubscriber(received, request), 8192, 256, policy);
+            while (!repository.getChanges().hasSubscribers()) {
+                Thread.onSpinWait();
+            }
+        }
+
+        long started = System.nanoTime();
+        for (int i = 0; i < writes; i++) {
+            Product product = products[i & (products.length - 1)];
+            repository.save(product.getId(), product);
+        }
+        long elapsed = System.nanoTime() - started;
+        repository.getChanges().close();
+        Thread.sleep(50);
+        System.out.printf("  %-14s %6.1f M saves/s | delivered %d, dropped %d%n",
+                label, writes / (elapsed / 1e3), received.get(), repository.getChanges().getDroppedCount());
+    }
+
+    private static void derivedView(int entities) throws InterruptedException {
+        InMemoryRepository<Product> repository = new InMemoryRepository<>();
+        ProductType[] types = ProductType.values();
+        Product[] products = new Product[entities];
+        for (int i = 0; i < entities; i++) {
+            products[i] = new Product("P" + i, types[i % types.length], "");
+            repository.save(products[i].getId(), products[i]);
+        }
+        Map<ProductType, Long> view = new EnumMap<>(ProductType.class);
+        for (Product product: repository.findAll()) {
+            view.merge(product.getType(), 1L, Long::sum);
+        }
+        Map<ProductType, Long> incremental = new EnumMap<>(view);
+        AtomicLong applied = new AtomicLong();
+        repository.getChanges().subscribe(new Flow.Subscriber<>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(List<ChangeEvent<Product>> batch) {
+                long started = System.nanoTime();
+                synchronized (incremental) {
+                    for (ChangeEvent<Product> event: batch) {
+                        if (event.getBefore() != null) {
+                            incremental.merge(event.getBefore().getType(), -1L, Long::sum);
+                        }
+                        if (event.getAfter() != null) {
+                            incremental.merge(event.getAfter().getType(), 1L, Long::sum);
+                        }
+                    }
+                }
+                applied.addAndGet(System.nanoTime() - started);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+            }
+
+            @Override
+            public void onComplete() {
+            }
+        });
+        while (!repository.getChanges().hasSubscribers()) {
+            Thread.onSpinWait();
+        }
+
+        int updates = 1000;
+        for (int i = 0; i < updates; i++) {
+            Product old = products[i * 7 % entities];
+            Product replacement = new Product(old.getId(), old.getName(), types[(old.getType().ordinal() + 1) % types.length], "");
+            repository.save(old.getId(), replacement);
+        }
+        repository.getChanges().close();
+        Thread.sleep(50);
+
+        long started = System.nanoTime();
+        Map<ProductType, Long> polled = new EnumMap<>(ProductType.class);
+        for (Product product: repository.findAll()) {
+            polled.merge(product.getType(), 1L, Long::sum);
+        }
+        long polling = System.nanoTime() - started;
+        synchronized (incremental) {
+            System.out.printf("  view after %d updates over %d entities: polling %.1f ms, incremental %.3f ms, equal=%b%n",
+                    updates, entities, polling / 1e6, applied.get() / 1e6, polled.equals(incremental));
+        }
+    }
+
+    private static final class CountingSubscriber implements Flow.Subscriber<List<ChangeEvent<Product>>> {
+        private final AtomicLong received;
+        private final long request;
+
+        private CountingSubscriber(AtomicLong received, long request) {
+            this.received = received;
+            this.request = request;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            if (request > 0) {
+                subscription.request(request);
+            }
+        }
+
+        @Override
+        public void onNext(List<ChangeEvent<Product>> batch) {
+            received.addAndGet(batch.size());
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+        }
+
+        @Override
+        public void onComplete() {
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package benchmark;
+
+import cluster.ClusterCoordinator;
+import cluster.LocalCluster;
+import domain.model.Customer;
+import domain.model.Location;
+import domain.model.LocationTable;
+import domain.model.Order;
+import domain.model.OrderItem;
+import domain.model.Product;
+import domain.model.ProductType;
+import domain.model.Warehouse;
+import repository.InMemoryRepository;
+import service.CustomerService;
+import service.OrderService;
+import service.ShipmentService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Measures aggregate fulfillment throughput of a warehouse-partitioned cluster of 1, 2, 4
+ * and 8 partition node processes on loopback, with a fixed number of orders in flight.
+ *
+ * Usage: java benchmark.ClusterScalingBenchmark [secondsPerRun] [inFlight]
+ */
+public class ClusterScalingBenchmark {
+    private static final int WAREHOUSES = 64;
+    private static final int PRODUCTS = 256;
+    private static final int CUSTOMERS = 1024;
+
+    public static void main(String[] args) throws InterruptedException {
+        int seconds = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+        int inFlight = args.length > 1 ? Integer.parseInt(args[1]) : 256;
+
+        System.out.printf("cores=%d, inFlight=%d%n", Runtime.getRuntime().availableProcessors(), inFlight);
+        for (int nodes = 1; nodes <= 8; nodes *= 2) {
+            double ordersPerSecond = run(nodes, seconds, inFlight);
+            System.out.printf("nodes=%d  %,.0f orders/s%n", nodes, ordersPerSecond);
+        }
+    }
+
+    private static double run(int nodes, int seconds, int inFlight) throws InterruptedException {
+        Random random = new Random(42);
+        OrderService orderService = new OrderService(new InMemoryRepository<>());
+        ShipmentService shipmentService = new ShipmentService(new InMemoryRepository<>(), null);
+        LocationTable locations = new LocationTable();
+        CustomerService customerService = new CustomerService(new InMemoryRepository<>(), locations);
+
+        try (LocalCluster cluster = LocalCluster.launch(nodes, "-Xmx512m");
+             ClusterCoordinator coordinator = new ClusterCoordinator(
+                     cluster.getAddresses(), orderService, shipmentService, customerService)) {
+
+            List<UUID> productIds = new ArrayList<>();
+            for (int p = 0; p < PRODUCTS; p++) {
+                Product product = new Product("Product" + p, ProductType.MECHANICAL, "benchmark");
+                coordinator.registerProduct(product);
+                productIds.add(product.getId());
+            }
+            for (int w = 0; w < WAREHOUSES; w++) {
+                Warehouse warehouse = new Warehouse("Warehouse" + w,
+                        new Location("W" + w, random.nextDouble() * 100, random.nextDouble() * 100), Integer.MAX_VALUE, locations);
+                coordinator.registerWarehouse(warehouse, w % nodes);
+                for (UUID productId: productIds) {
+                    coordinator.addInventoryItem(warehouse.getId(), productId, 1_000_000_000);
+                }
+            }
+
+            List<UUID> customerIds = new ArrayList<>();
+            for (int c = 0; c < CUSTOMERS; c++) {
+                Customer customer = customerService.createCustomer("Customer" + c,
+                        new Location("C" + c, random.nextDouble() * 100, random.nextDouble() * 100), "c" + c + "@example.com");
+                customerIds.add(customer.getId());
+            }
+
+            Semaphore window = new Semaphore(inFlight);
+            LongAdder fulfilled = new LongAdder();
+            long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+            long issued = 0;
+
+            while (System.nanoTime() < deadline) {
+                List<OrderItem> items = List.of(
+                        new OrderItem(productIds.get(random.nextInt(PRODUCTS)), 1),
+                        new OrderItem(productIds.get(random.nextInt(PRODUCTS)), 2),
+                        new OrderItem(productIds.get(random.nextInt(PRODUCTS)), 1));
+                Order order = orderService.createOrder(customerIds.get(random.nextInt(CUSTOMERS)), items, (issued & 1) == 0);
+
+                window.acquire();
+                coordinator.fulfillOrderAsync(order.getId()).whenComplete((ok, failure) -> {
+                    if (Boolean.TRUE.equals(ok)) {
+                        fulfilled.increment();
+                    }
+                    window.release();
+                });
+                issued++;
+            }
+            window.acquire(inFlight);
+            return fulfilled.sum() / (double) seconds;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package benchmark;
+
+import codec.EntityCodec;
+import domain.model.Order;
+import domain.model.OrderItem;
+import domain.model.OrderStatus;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Measures single-threaded EntityCodec throughput for orders with three items.
+ *
+ * Usage: java benchmark.CodecBenchmark [orders]
+ */
+public class CodecBenchmark {
+    private static final int BATCH = 1024;
+
+    public static void main(String[] args) {
+        int orders = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+
+        Order order = new Order(UUID.randomUUID(), UUID.randomUUID(),
+                List.of(new OrderItem(UUID.randomUUID(), 1), new OrderItem(UUID.randomUUID(), 2), new OrderItem(UUID.randomUUID(), 3)),
+                OrderStatus.CREATED, false, LocalDateTime.now(), 0);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BATCH * 256);
+
+        EntityCodec.writeOrder(buffer, order);
+        System.out.printf("encoded order size: %d bytes%n", buffer.position());
+
+        for (int round = 0; round < 5; round++) {
+            long start = System.nanoTime();
+            for (int done = 0; done < orders; done += BATCH) {
+                buffer.clear();
+                for (int i = 0; i < BATCH; i++) {
+                    EntityCodec.writeOrder(buffer, order);
+                }
+            }
+            long encodeNanos = System.nanoTime() - start;
+
+            long checksum = 0;
+            start = System.nanoTime();
+            for (int done = 0; done < orders; done += BATCH) {
+                buffer.flip();
+                for (int i = 0; i < BATCH; i++) {
+                    checksum += EntityCodec.readOrder(buffer).getVersion();
+                }
+            }
+            long decodeNanos = System.nanoTime() - start;
+
+            System.out.printf("round %d: encode %,.0f orders/s, decode %,.0f orders/s (checksum %d)%n",
+                    round, orders * 1e9 / encodeNanos, orders * 1e9 / decodeNanos, checksum);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package benchmark;
+
+import dispatch.DispatchPlan;
+import dispatch.DispatchPlanner;
+import domain.model.Location;
+import domain.model.OrderItem;
+import domain.model.Product;
+import domain.model.Warehouse;
+import repository.InMemoryRepository;
+import service.InventoryService;
+import service.ShipmentService;
+import service.WarehouseService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Plans routes for CREATED shipments spread over warehouses and reports planning time and
+ * route distance against out-and-back delivery, for a sequential pool and for the common pool.
+ *
+ * Warehouses sit on a 100 x 100 map; every shipment goes to a random point within 5 units
+ * of its warehouse and carries 1 to 5 units.
+ *
+ * Usage: java benchmark.DispatchBenchmark [shipments] [warehouses] [vehicleCapacity]
+ */
+public class DispatchBenchmark {
+    public static void main(String[] args) {
+        int shipments = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int warehouses = args.length > 1 ? Integer.parseInt(args[1]) : 500;
+        int capacity = args.length > 2 ? Integer.parseInt(args[2]) : 60;
+
+        InMemoryRepository<Product> productRepository = new InMemoryRepository<>();
+        InMemoryRepository<Warehouse> warehouseRepository = new InMemoryRepository<>();
+        InventoryService inventoryService = new InventoryService(new InMemoryRepository<>(), productRepository, warehouseRepository);
+        WarehouseService warehouseService = new WarehouseService(warehouseRepository, inventoryService);
+        ShipmentService shipmentService = new ShipmentService(new InMemoryRepository<>(), inventoryService);
+
+        Random random = new Random(42);
+        List<Warehouse> sites = new ArrayList<>(warehouses);
+        for (int w = 0; w < warehouses; w++) {
+            sites.add(warehouseService.createWarehouse("W" + w,
+                    new Location("W" + w, random.nextDouble() * 100, random.nextDouble() * 100), Integer.MAX_VALUE));
+        }
+        UUID productId = UUID.randomUUID();
+        for (int s = 0; s < shipments; s++) {
+            Warehouse warehouse = sites.get(random.nextInt(warehouses));
+            double angle = random.nextDouble() * 2 * Math.PI;
+            double radius = 5 * Math.sqrt(random.nextDouble());
+            Location destination = new Location("C" + s,
+                    warehouse.getLocation().getLatitude() + radius * Math.cos(angle),
+                    warehouse.getLocation().getLongtitude() + radius * Math.sin(angle));
+            shipmentService.createShipment(UUID.randomUUID(), UUID.randomUUID(), warehouse.getId(), destination,
+                    List.of(new OrderItem(productId, 1 + random.nextInt(5))));
+        }
+
+        ForkJoinPool sequential = new ForkJoinPool(1);
+        for (int round = 0; round < 5; round++) {
+            report("sequential ", new DispatchPlanner(shipmentService, warehouseService, capacity,
+                    DispatchPlanner.DEFAULT_MAX_CLUSTER_SIZE, sequential).plan());
+            report("commonPool(" + ForkJoinPool.getCommonPoolParallelism() + ")",
+                    new DispatchPlanner(shipmentService, warehouseService, capacity).plan());
+        }
+        sequential.shutdown();
+    }
+
+    private static void report(String label, DispatchPlan plan) {
+        System.out.printf("%-14s %d shipments -> %d routes in %d ms | distance %.0f vs %.0f out-and-back (%.1f%%)%n",
+                label, plan.getShipmentCount(), plan.getVehicleCount(), plan.getPlanningTime().toMillis(),
+                plan.getTotalDistance(), plan.getDirectDistance(),
+                100 * plan.getTotalDistance() / plan.getDirectDistance());
+    }
+}
@@ -0,0 +1,81 @@
+package benchmark;
+
+import domain.model.InventoryItem;
+import pipeline.InventoryCommandPipeline;
+import pipeline.InventoryCommandType;
+import repository.InMemoryRepository;
+
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Measures InventoryCommandPipeline throughput and batching, fire-and-forget and synchronous.
+ *
+ * Usage: java benchmark.InventoryPipelineBenchmark [commands] [producers]
+ */
+public class InventoryPipelineBenchmark {
+    private static final int CELLS = 1024;
+
+    public static void main(String[] args) throws InterruptedException {
+        int commands = args.length > 0 ? Integer.parseInt(args[0]) : 20_000_000;
+        int producers = args.length > 1 ? Integer.parseInt(args[1]) : 1;
+
+        InMemoryRepository<InventoryItem> storage = new InMemoryRepository<>();
+        UUID[] warehouseIds = new UUID[CELLS];
+        UUID[] productIds = new UUID[CELLS];
+        for (int i = 0; i < CELLS; i++) {
+            InventoryItem item = new InventoryItem(UUID.randomUUID(), UUID.randomUUID(), 1_000_000);
+            storage.save(item.getId(), item);
+            warehouseIds[i] = item.getWarehouseId();
+            productIds[i] = item.getProductId();
+        }
+
+        for (int round = 0; round < 3; round++) {
+            try (InventoryCommandPipeline pipeline = new InventoryCommandPipeline(storage, 1 << 16)) {
+                long start = System.nanoTime();
+                runProducers(producers, commands, (producer, i) -> {
+                    int cell = (i * 31 + producer) & (CELLS - 1);
+                    InventoryCommandType type = (i & 1) == 0 ? InventoryCommandType.RESTOCK : InventoryCommandType.RESERVE;
+                    pipeline.publish(type, warehouseIds[cell], productIds[cell], 1);
+                });
+                pipeline.awaitDrained();
+                report("publish", commands, System.nanoTime() - start, pipeline);
+            }
+        }
+
+        int synchronous = commands / 100;
+        try (InventoryCommandPipeline pipeline = new InventoryCommandPipeline(storage, 1 << 16)) {
+            long start = System.nanoTime();
+            runProducers(producers, synchronous, (producer, i) -> {
+                int cell = (i * 31 + producer) & (CELLS - 1);
+                pipeline.reserve(warehouseIds[cell], productIds[cell], 1);
+            });
+            report("submit ", synchronous, System.nanoTime() - start, pipeline);
+        }
+    }
+
+    private static void runProducers(int producers, int commands, Producer body) throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(producers);
+        int perProducer = commands / producers;
+        for (int p = 0; p < producers; p++) {
+            int producer = p;
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    body.produce(producer, i);
+                }
+                done.countDown();
+            });
+            thread.start();
+        }
+        done.await();
+    }
+
+    private static void report(String mode, int commands, long nanos, InventoryCommandPipeline pipeline) {
+        System.out.printf("%s %,d commands in %,d ms = %,.0f commands/s  %s%n",
+                mode, commands, nanos / 1_000_000, commands * 1e9 / nanos, pipeline.getStatistics());
+    }
+
+    private interface Producer {
+        void produce(int producer, int index);
+    }
+}
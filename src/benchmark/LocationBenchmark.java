@@ -0,0 +1,84 @@
+package benchmark;
+
+import domain.model.Customer;
+import domain.model.Location;
+import domain.model.LocationTable;
+import repository.InMemoryRepository;
+import service.CustomerService;
+
+import java.util.Random;
+
+/**
+ * Measures the heap held by the locations of many entities that share fewer distinct
+ * points (as shipments share their customers' addresses), once as one Location object per
+ * entity and once as int handles into the {@link LocationTable}; then times
+ * location-based customer queries.
+ *
+ * Usage: java benchmark.LocationBenchmark [entities] [distinctLocations] [customers]
+ */
+public class LocationBenchmark {
+
+    public static void main(String[] args) {
+        int entities = args.length > 0 ? Integer.parseInt(args[0]) : 5_000_000;
+        int distinct = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+        int customerCount = args.length > 2 ? Integer.parseInt(args[2]) : 1_000_000;
+
+        String[] names = new String[distinct];
+        for (int i = 0; i < distinct; i++) {
+            names[i] = "Address" + i;
+        }
+
+        long before = usedHeap();
+        Location[] objects = new Location[entities];
+        Random random = new Random(1);
+        for (int e = 0; e < entities; e++) {
+            int point = random.nextInt(distinct);
+            objects[e] = new Location(names[point], point * 0.001, point * 0.002);
+        }
+        long objectBytes = usedHeap() - before;
+        System.out.printf("object per entity: %,d entities, %.1f MB, %.1f bytes per entity%n",
+                objects.length, objectBytes / 1e6, (double) objectBytes / entities);
+        objects = null;
+
+        before = usedHeap();
+        LocationTable table = new LocationTable();
+        int[] handles = new int[entities];
+        random = new Random(1);
+        long started = System.nanoTime();
+        for (int e = 0; e < entities; e++) {
+            int point = random.nextInt(distinct);
+            handles[e] = table.intern(names[point], point * 0.001, point * 0.002);
+        }
+        double internNanos = (double) (System.nanoTime() - started) / entities;
+        long tableBytes = usedHeap() - before;
+        System.out.printf("table handles:     %,d entities, %,d entries, %.1f MB, %.1f bytes per entity, intern %.0f ns%n",
+                handles.length, table.size(), tableBytes / 1e6, (double) tableBytes / entities, internNanos);
+
+        CustomerService customerService = new CustomerService(new InMemoryRepository<>());
+        for (int c = 0; c < customerCount; c++) {
+            int point = random.nextInt(distinct);
+            customerService.createCustomer("Customer" + c, new Location(names[point], point * 0.001, point * 0.002),
+                    "c" + c + "@example.com");
+        }
+        for (int round = 0; round < 3; round++) {
+            int found = 0;
+            started = System.nanoTime();
+            for (int q = 0; q < 20; q++) {
+                int point = random.nextInt(distinct);
+                found += customerService.findAllCustomersInLocation(new Location("Query", point * 0.001, point * 0.002)).size();
+            }
+            System.out.printf("findAllCustomersInLocation over %,d customers: %.1f ms per query, %d matches%n",
+                    customerCount, (System.nanoTime() - started) / 20 / 1e6, found);
+        }
+        Customer any = customerService.getAllCustomers().get(0);
+        System.out.println("sample: " + any.getLocation());
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
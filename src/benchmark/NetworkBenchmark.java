@@ -0,0 +1,135 @@
+package benchmark;
+
+import domain.model.Location;
+import domain.model.Product;
+import domain.model.ProductType;
+import domain.model.Warehouse;
+import metrics.LatencyHistogram;
+import network.NodeTier;
+import network.TransferPlanner;
+import network.TransportNetwork;
+import repository.InMemoryRepository;
+import service.InventoryService;
+import service.WarehouseService;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Builds a three-echelon network (suppliers, distribution centers, regional warehouses)
+ * and measures route queries: the cold first query per source, warm queries served from
+ * the cached trees, queries right after a lane change, and transfer-then-ship plans.
+ *
+ * Usage: java benchmark.NetworkBenchmark [regionalWarehouses] [queries]
+ */
+public class NetworkBenchmark {
+    private static final int SUPPLIERS = 20;
+    private static final int DISTRIBUTION_CENTERS = 100;
+
+    public static void main(String[] args) {
+        int regionalCount = args.length > 0 ? Integer.parseInt(args[0]) : 2_000;
+        int queries = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+
+        InMemoryRepository<Product> productRepository = new InMemoryRepository<>();
+        InMemoryRepository<Warehouse> warehouseRepository = new InMemoryRepository<>();
+        InventoryService inventoryService = new InventoryService(new InMemoryRepository<>(), productRepository, warehouseRepository);
+        WarehouseService warehouseService = new WarehouseService(warehouseRepository, inventoryService);
+        Product product = new Product("Product", ProductType.MECHANICAL, "Benchmark");
+        productRepository.save(product.getId(), product);
+
+        Random random = new Random(5);
+        TransportNetwork network = new TransportNetwork();
+        List<Warehouse> suppliers = create(warehouseService, network, NodeTier.SUPPLIER, SUPPLIERS, random);
+        List<Warehouse> dcs = create(warehouseService, network, NodeTier.DISTRIBUTION_CENTER, DISTRIBUTION_CENTERS, random);
+        List<Warehouse> regional = create(warehouseService, network, NodeTier.REGIONAL_WAREHOUSE, regionalCount, random);
+        for (Warehouse supplier: suppliers) {
+            connectNearest(network, supplier, dcs, 10);
+        }
+        for (Warehouse dc: dcs) {
+            connectNearest(network, dc, dcs, 5);
+            connectNearest(network, dc, regional, 3 * regionalCount / DISTRIBUTION_CENTERS);
+            inventoryService.addInventoryItem(dc.getId(), product.getId(), 1_000);
+        }
+        for (Warehouse warehouse: regional) {
+            connectNearest(network, warehouse, regional, 3);
+        }
+        System.out.printf("network: %d nodes, version %d%n", SUPPLIERS + DISTRIBUTION_CENTERS + regionalCount, network.getVersion());
+
+        List<Warehouse> sources = new ArrayList<>(suppliers);
+        sources.addAll(dcs);
+        for (int round = 0; round < 3; round++) {
+            network.setLane(dcs.get(0).getId(), regional.get(0).getId(), 1 + round, Duration.ofHours(4));
+            LatencyHistogram cold = new LatencyHistogram();
+            for (Warehouse source: sources) {
+                long started = System.nanoTime();
+                network.pathCost(source.getId(), regional.get(random.nextInt(regionalCount)).getId());
+                cold.recordValue(System.nanoTime() - started);
+            }
+            LatencyHistogram warmCost = new LatencyHistogram();
+            LatencyHistogram warmPath = new LatencyHistogram();
+            long reachable = 0;
+            for (int q = 0; q < queries; q++) {
+                UUID from = sources.get(random.nextInt(sources.size())).getId();
+                UUID to = regional.get(random.nextInt(regionalCount)).getId();
+                long started = System.nanoTime();
+                if (q % 2 == 0) {
+                    if (network.pathCost(from, to) < Double.POSITIVE_INFINITY) {
+                        reachable++;
+                    }
+                    warmCost.recordValue(System.nanoTime() - started);
+                } else {
+                    if (network.shortestPath(from, to).isPresent()) {
+                        reachable++;
+                    }
+                    warmPath.recordValue(System.nanoTime() - started);
+                }
+            }
+            System.out.printf("cold (Dijkstra) p50 %.1f us, p99 %.1f us | warm cost p50 %.2f us, p99 %.2f us | warm path p50 %.2f us, p99 %.2f us | %.1f%% reachable%n",
+                    cold.getValueAtPercentile(50) / 1e3, cold.getValueAtPercentile(99) / 1e3,
+                    warmCost.getValueAtPercentile(50) / 1e3, warmCost.getValueAtPercentile(99) / 1e3,
+                    warmPath.getValueAtPercentile(50) / 1e3, warmPath.getValueAtPercentile(99) / 1e3,
+                    100.0 * reachable / queries);
+        }
+
+        TransferPlanner planner = new TransferPlanner(network, inventoryService, 1.0);
+        LatencyHistogram plans = new LatencyHistogram();
+        int transfers = 0;
+        for (int p = 0; p < 20_000; p++) {
+            Location customer = new Location("C", random.nextDouble() * 1000, random.nextDouble() * 1000);
+            long started = System.nanoTime();
+            if (planner.plan(product.getId(), 1, customer).orElseThrow().isTransfer()) {
+                transfers++;
+            }
+            plans.recordValue(System.nanoTime() - started);
+        }
+        System.out.printf("plans: p50 %.1f us, p99 %.1f us, %d of 20000 transfer-then-ship%n",
+                plans.getValueAtPercentile(50) / 1e3, plans.getValueAtPercentile(99) / 1e3, transfers);
+    }
+
+    private static List<Warehouse> create(WarehouseService warehouseService, TransportNetwork network,
+                                          NodeTier tier, int count, Random random) {
+        List<Warehouse> created = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Warehouse warehouse = warehouseService.createWarehouse(tier + "-" + i,
+                    new Location(tier + "-" + i, random.nextDouble() * 1000, random.nextDouble() * 1000), Integer.MAX_VALUE);
+            network.addWarehouse(warehouse, tier);
+            created.add(warehouse);
+        }
+        return created;
+    }
+
+    // Lanes to the k nearest targets, costed by distance, at 60 distance units an hour
+    private static void connectNearest(TransportNetwork network, Warehouse from, List<Warehouse> targets, int k) {
+        List<Warehouse> sorted = new ArrayList<>(targets);
+        sorted.remove(from);
+        sorted.sort(Comparator.comparingDouble(w -> w.distanceTo(from.getLocation())));
+        for (Warehouse to: sorted.subList(0, Math.min(k, sorted.size()))) {
+            double distance = to.distanceTo(from.getLocation());
+            network.setLane(from.getId(), to.getId(), distance, Duration.ofMinutes((long) (distance)));
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package benchmark;
+
+import domain.model.Product;
+import domain.model.Warehouse;
+import repository.InMemoryRepository;
+import service.CustomerService;
+import service.InventoryService;
+import service.OrderFulfillmentService;
+import service.OrderService;
+import service.ProductService;
+import service.ShipmentService;
+import service.WarehouseService;
+import simulation.LoadDriver;
+import simulation.LoadResult;
+import simulation.Workload;
+import simulation.WorkloadConfig;
+import simulation.WorkloadGenerator;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Ramps an open-loop createOrder -> fulfillOrder -> shipOrder load against the in-memory
+ * services until the p99 response time or the achieved rate breaks down, then prints the
+ * percentile distribution at the knee and at the first step past it.
+ *
+ * Usage: java benchmark.OpenLoopLoadBenchmark [workers] [initialRate] [stepSeconds] [p99LimitMillis]
+ */
+public class OpenLoopLoadBenchmark {
+    public static void main(String[] args) {
+        int workers = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+        double initialRate = args.length > 1 ? Double.parseDouble(args[1]) : 1_000;
+        Duration step = Duration.ofSeconds(args.length > 2 ? Long.parseLong(args[2]) : 5);
+        Duration p99Limit = Duration.ofMillis(args.length > 3 ? Long.parseLong(args[3]) : 10);
+
+        InMemoryRepository<Product> productRepository = new InMemoryRepository<>();
+        InMemoryRepository<Warehouse> warehouseRepository = new InMemoryRepository<>();
+        InventoryService inventoryService = new InventoryService(new InMemoryRepository<>(), productRepository, warehouseRepository);
+        WarehouseService warehouseService = new WarehouseService(warehouseRepository, inventoryService);
+        CustomerService customerService = new CustomerService(new InMemoryRepository<>());
+        OrderService orderService = new OrderService(new InMemoryRepository<>());
+        ShipmentService shipmentService = new ShipmentService(new InMemoryRepository<>(), inventoryService);
+        OrderFulfillmentService fulfillmentService = new OrderFulfillmentService(
+                orderService, warehouseService, shipmentService, inventoryService, customerService);
+
+        Workload workload = new WorkloadGenerator(new WorkloadConfig().setUnitsPerHub(100_000_000)).install(
+                new ProductService(productRepository), customerService, warehouseService, inventoryService);
+        LoadDriver driver = new LoadDriver(orderService, fulfillmentService, workload, workers);
+
+        // Warm up the JIT before measuring
+        driver.run(initialRate, Duration.ofSeconds(2));
+
+        List<LoadResult> ramp = driver.ramp(initialRate, 1.5, 20, step, p99Limit);
+        for (LoadResult result: ramp) {
+            System.out.println(result);
+        }
+
+        LoadResult knee = LoadDriver.knee(ramp, p99Limit);
+        if (knee != null) {
+            System.out.printf("%nknee at %.0f orders/s, response time (ms):%n", knee.getTargetRate());
+            System.out.print(knee.getResponseTime().percentileReport(1_000_000.0));
+        }
+        LoadResult past = ramp.get(ramp.size() - 1);
+        if (past != knee) {
+            System.out.printf("%npast the knee at %.0f orders/s, response time (ms):%n", past.getTargetRate());
+            System.out.print(past.getResponseTime().percentileReport(1_000_000.0));
+            System.out.println("service time (ms):");
+            System.out.print(past.getServiceTime().percentileReport(1_000_000.0));
+        }
+    }
+}
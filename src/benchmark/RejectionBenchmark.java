@@ -0,0 +1,90 @@
+package benchmark;
+
+import domain.model.Location;
+import domain.model.Order;
+import domain.model.OrderItem;
+import domain.model.Product;
+import domain.model.ProductType;
+import domain.model.Warehouse;
+import exceptions.InsufficientStockException;
+import repository.InMemoryRepository;
+import service.CustomerService;
+import service.InventoryService;
+import service.OrderFulfillmentService;
+import service.OrderService;
+import service.ProductService;
+import service.ShipmentService;
+import service.WarehouseService;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Measures the cost of rejecting orders that cannot be filled, per rejection on one thread:
+ * reserveStock throwing InsufficientStockException, tryReserveStock, and a full
+ * tryFulfillOrder that finds no warehouse with stock.
+ *
+ * Needs a HotSpot-compatible JVM (com.sun.management.ThreadMXBean).
+ *
+ * Usage: java benchmark.RejectionBenchmark [rejections]
+ */
+public class RejectionBenchmark {
+    public static void main(String[] args) {
+        int rejections = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        InMemoryRepository<Product> productRepository = new InMemoryRepository<>();
+        InMemoryRepository<Warehouse> warehouseRepository = new InMemoryRepository<>();
+        InventoryService inventoryService = new InventoryService(new InMemoryRepository<>(), productRepository, warehouseRepository);
+        WarehouseService warehouseService = new WarehouseService(warehouseRepository, inventoryService);
+        CustomerService customerService = new CustomerService(new InMemoryRepository<>());
+        OrderService orderService = new OrderService(new InMemoryRepository<>());
+        OrderFulfillmentService fulfillmentService = new OrderFulfillmentService(orderService, warehouseService,
+                new ShipmentService(new InMemoryRepository<>(), inventoryService), inventoryService, customerService);
+
+        Product product = new ProductService(productRepository).createNewProduct("Scarce", ProductType.ELECTRONIC, "N/A");
+        UUID warehouseId = warehouseService.createWarehouse("Warehouse", new Location("Hub", 0, 0), 1_000).getId();
+        inventoryService.addInventoryItem(warehouseId, product.getId(), 10);
+        UUID customerId = customerService.createCustomer("Customer", new Location("Home", 1, 1), "c@example.com").getId();
+
+        List<OrderItem> tooMany = List.of(new OrderItem(product.getId(), 11));
+        Order order = orderService.createOrder(customerId, tooMany, true);
+
+        for (int round = 0; round < 5; round++) {
+            long allocated = threads.getThreadAllocatedBytes(threadId);
+            long start = System.nanoTime();
+            for (int i = 0; i < rejections; i++) {
+                try {
+                    inventoryService.reserveStock(warehouseId, tooMany);
+                } catch (InsufficientStockException e) {
+                    // expected
+                }
+            }
+            report(round, "reserveStock (throws)", rejections, start, allocated, threads, threadId);
+
+            allocated = threads.getThreadAllocatedBytes(threadId);
+            start = System.nanoTime();
+            for (int i = 0; i < rejections; i++) {
+                inventoryService.tryReserveStock(warehouseId, tooMany);
+            }
+            report(round, "tryReserveStock", rejections, start, allocated, threads, threadId);
+
+            allocated = threads.getThreadAllocatedBytes(threadId);
+            start = System.nanoTime();
+            for (int i = 0; i < rejections; i++) {
+                fulfillmentService.tryFulfillOrder(order.getId());
+            }
+            report(round, "tryFulfillOrder", rejections, start, allocated, threads, threadId);
+        }
+    }
+
+    private static void report(int round, String path, int rejections, long start, long allocatedBefore,
+                               com.sun.management.ThreadMXBean threads, long threadId) {
+        long elapsed = System.nanoTime() - start;
+        long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        System.out.printf("round %d: %-22s %6.0f ns, %5d bytes per rejection%n",
+                round, path, elapsed / (double) rejections, allocated / rejections);
+    }
+}
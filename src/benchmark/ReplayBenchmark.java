@@ -0,0 +1,177 @@
+package benchmark;
+
+import domain.model.Location;
+import domain.model.Order;
+import domain.model.OrderItem;
+import domain.model.Product;
+import domain.model.ProductType;
+import replay.CommandRecorder;
+import replay.CommandReplayer;
+import replay.ReplayResult;
+import replay.ServiceGraph;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Runs the same create/fulfill/ship flows against two identical service graphs, one
+ * directly and one through a {@link CommandRecorder}, alternating in small batches so both see
+ * the same JIT and GC conditions, and reports the recorder's added latency per command as
+ * the median over the paired batches.
+ * Then replays the log at maximum speed and at 10x and checks the state digests.
+ *
+ * Usage: java benchmark.ReplayBenchmark [flows]
+ */
+public class ReplayBenchmark {
+    private static final int WAREHOUSES = 32;
+    private static final int PRODUCTS = 100;
+    private static final int CUSTOMERS = 1_000;
+    private static final int BATCH = 100;
+
+    public static void main(String[] args) throws IOException {
+        int flows = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+
+        Path log = Files.createTempFile("commands", ".log");
+        try {
+            for (int round = 0; round < 3; round++) {
+                run(flows, log);
+            }
+        } finally {
+            Files.deleteIfExists(log);
+        }
+    }
+
+    private static void run(int flows, Path log) throws IOException {
+        ServiceGraph direct = new ServiceGraph();
+        ServiceGraph recorded = new ServiceGraph();
+        Fixture directFixture = new Fixture(direct);
+        Fixture recordedFixture = new Fixture(recorded);
+
+        long directNanos = 0;
+        long recordedNanos = 0;
+        double[] ratios = new double[flows / BATCH];
+        long commands;
+        try (CommandRecorder recorder = new CommandRecorder(recorded, log)) {
+            Random directRandom = new Random(3);
+            Random recordedRandom = new Random(3);
+            for (int batch = 0; batch < ratios.length; batch++) {
+                // Alternate which side goes first, so neither always runs on a warmer cache
+                long directBatch = 0;
+                long recordedBatch = 0;
+                for (int side = 0; side < 2; side++) {
+                    long started = System.nanoTime();
+                    if ((side + batch) % 2 == 0) {
+                        for (int i = 0; i < BATCH; i++) {
+                            directFlow(direct, directFixture, directRandom);
+                        }
+                        directBatch = System.nanoTime() - started;
+                    } else {
+                        for (int i = 0; i < BATCH; i++) {
+                            recordedFlow(recorder, recordedFixture, recordedRandom);
+                        }
+                        recordedBatch = System.nanoTime() - started;
+                    }
+                }
+                directNanos += directBatch;
+                recordedNanos += recordedBatch;
+                ratios[batch] = (double) recordedBatch / directBatch;
+            }
+            commands = recorder.getCommandCount();
+        }
+
+        double directPerCommand = (double) directNanos / commands;
+        double recordedPerCommand = (double) recordedNanos / commands;
+        // The median of paired batches filters out GC pauses that hit only one side
+        Arrays.sort(ratios);
+        System.out.printf("%,d commands, log %,d KB: direct %.2f us/command, recorded %.2f us/command, median overhead %+.2f%%%n",
+                commands, Files.size(log) / 1024, directPerCommand / 1e3, recordedPerCommand / 1e3,
+                100 * (ratios[ratios.length / 2] - 1));
+
+        for (double speed: new double[] {CommandReplayer.MAX_SPEED, 10}) {
+            ReplayResult result = new CommandReplayer(speed).replay(log);
+            System.out.printf("  replay %-4s %,d commands in %d ms (recorded %d ms), %d mismatched outcomes, digest %s%n",
+                    speed == CommandReplayer.MAX_SPEED ? "max" : (int) speed + "x",
+                    result.getCommands(), result.getReplayDuration().toMillis(), result.getRecordedDuration().toMillis(),
+                    result.getMismatchedOutcomes(), result.isDigestMatch() ? "matches" : "DIFFERS");
+        }
+    }
+
+    private static void directFlow(ServiceGraph graph, Fixture fixture, Random random) {
+        if (random.nextInt(20) == 0) {
+            graph.getInventoryService().restockWarehouse(fixture.warehouse(random), fixture.product(random), 50);
+        }
+        Order order = graph.getOrderService().createOrder(fixture.customer(random), fixture.items(random), false);
+        if (graph.getFulfillmentService().tryFulfillOrder(order.getId()).isFulfilled()) {
+            graph.getFulfillmentService().shipOrder(order.getId());
+        } else {
+            graph.getOrderService().cancelOrder(order.getId());
+        }
+    }
+
+    private static void recordedFlow(CommandRecorder recorder, Fixture fixture, Random random) {
+        if (random.nextInt(20) == 0) {
+            recorder.restockWarehouse(fixture.warehouse(random), fixture.product(random), 50);
+        }
+        Order order = recorder.createOrder(fixture.customer(random), fixture.items(random), false);
+        if (recorder.tryFulfillOrder(order.getId()).isFulfilled()) {
+            recorder.shipOrder(order.getId());
+        } else {
+            recorder.cancelOrder(order.getId());
+        }
+    }
+
+    /**
+     * Master data and stock of one graph, built from a fixed seed so both graphs match.
+     */
+    private static final class Fixture {
+        private final UUID[] warehouses = new UUID[WAREHOUSES];
+        private final UUID[] products = new UUID[PRODUCTS];
+        private final UUID[] customers = new UUID[CUSTOMERS];
+
+        private Fixture(ServiceGraph graph) {
+            Random random = new Random(7);
+            for (int p = 0; p < PRODUCTS; p++) {
+                Product product = new Product("Product" + p, ProductType.MECHANICAL, "Benchmark");
+                graph.getProductRepository().save(product.getId(), product);
+                products[p] = product.getId();
+            }
+            for (int w = 0; w < WAREHOUSES; w++) {
+                warehouses[w] = graph.getWarehouseService().createWarehouse("Warehouse" + w,
+                        new Location("W" + w, random.nextDouble() * 1000, random.nextDouble() * 1000), Integer.MAX_VALUE).getId();
+                for (UUID product: products) {
+                    graph.getInventoryService().addInventoryItem(warehouses[w], product, 200);
+                }
+            }
+            for (int c = 0; c < CUSTOMERS; c++) {
+                customers[c] = graph.getCustomerService().createCustomer("Customer" + c,
+                        new Location("C" + c, random.nextDouble() * 1000, random.nextDouble() * 1000), "c" + c + "@example.com").getId();
+            }
+        }
+
+        private UUID warehouse(Random random) {
+            return warehouses[random.nextInt(WAREHOUSES)];
+        }
+
+        private UUID product(Random random) {
+            return products[random.nextInt(PRODUCTS)];
+        }
+
+        private UUID customer(Random random) {
+            return customers[random.nextInt(CUSTOMERS)];
+        }
+
+        private List<OrderItem> items(Random random) {
+            int count = 1 + random.nextInt(3);
+            OrderItem[] items = new OrderItem[count];
+            for (int i = 0; i < count; i++) {
+                items[i] = new OrderItem(product(random), 1 + random.nextInt(4));
+            }
+            return List.of(items);
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package benchmark;
+
+import domain.model.Location;
+import domain.model.OrderItem;
+import domain.model.Product;
+import domain.model.ProductType;
+import domain.model.Warehouse;
+import repository.InMemoryRepository;
+import scheduling.OrderPriority;
+import scheduling.OrderScheduler;
+import service.CustomerService;
+import service.FulfillmentResult;
+import service.InventoryService;
+import service.OrderFulfillmentService;
+import service.OrderService;
+import service.ShipmentService;
+import service.WarehouseService;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Two measurements of {@link OrderScheduler}.
+ *
+ * Shortage: a burst of single-unit orders (20% express, 50% standard, 30% bulk, with
+ * tighter deadlines for faster classes) for a product with stock for a third of them,
+ * fulfilled once in arrival order on one thread and once through the scheduler. Prints
+ * the share of each class that got stock. With a one-hour maxWait, express orders due
+ * later than that compete on age with everything else.
+ *
+ * Queue: producer threads submit orders that do not exist while workers drain them, so
+ * fulfillment returns at once and the run measures submit and dispatch under contention.
+ *
+ * Usage: java benchmark.SchedulerBenchmark [orders] [producers] [workers]
+ */
+public class SchedulerBenchmark {
+    private static final OrderPriority[] MIX = {
+            OrderPriority.EXPRESS, OrderPriority.EXPRESS,
+            OrderPriority.STANDARD, OrderPriority.STANDARD, OrderPriority.STANDARD, OrderPriority.STANDARD, OrderPriority.STANDARD,
+            OrderPriority.BULK, OrderPriority.BULK, OrderPriority.BULK};
+
+    public static void main(String[] args) throws Exception {
+        int orders = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int producers = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        int workers = args.length > 2 ? Integer.parseInt(args[2]) : 4;
+
+        for (int round = 0; round < 3; round++) {
+            shortage(orders, workers, false);
+            shortage(orders, workers, true);
+        }
+        for (int round = 0; round < 3; round++) {
+            queue(orders * 10, producers, workers);
+        }
+    }
+
+    private static void shortage(int orders, int workers, boolean scheduled) {
+        InMemoryRepository<Product> productRepository = new InMemoryRepository<>();
+        InMemoryRepository<Warehouse> warehouseRepository = new InMemoryRepository<>();
+        InventoryService inventoryService = new InventoryService(new InMemoryRepository<>(), productRepository, warehouseRepository);
+        WarehouseService warehouseService = new WarehouseService(warehouseRepository, inventoryService);
+        CustomerService customerService = new CustomerService(new InMemoryRepository<>());
+        OrderService orderService = new OrderService(new InMemoryRepository<>());
+        ShipmentService shipmentService = new ShipmentService(new InMemoryRepository<>(), inventoryService);
+        OrderFulfillmentService fulfillmentService = new OrderFulfillmentService(
+                orderService, warehouseService, shipmentService, inventoryService, customerService);
+
+        Product product = new Product("Product", ProductType.MECHANICAL, "Benchmark");
+        productRepository.save(product.getId(), product);
+        UUID warehouseId = warehouseService.createWarehouse("Warehouse", new Location("W", 0, 0), Integer.MAX_VALUE).getId();
+        inventoryService.addInventoryItem(warehouseId, product.getId(), orders / 3);
+        UUID customerId = customerService.createCustomer("Customer", new Location("C", 1, 1), "c@example.com").getId();
+
+        Random random = new Random(7);
+        Instant now = Instant.now();
+        UUID[] orderIds = new UUID[orders];
+        OrderPriority[] priorities = new OrderPriority[orders];
+        Instant[] deadlines = new Instant[orders];
+        List<OrderItem> items = List.of(new OrderItem(product.getId(), 1));
+        for (int i = 0; i < orders; i++) {
+            orderIds[i] = orderService.createOrder(customerId, items, false).getId();
+            priorities[i] = MIX[random.nextInt(MIX.length)];
+            deadlines[i] = now.plus(Duration.ofMinutes(random.nextInt(deadlineWindowMinutes(priorities[i]))));
+        }
+
+        Map<OrderPriority, int[]> counts = new EnumMap<>(OrderPriority.class);
+        for (OrderPriority priority: OrderPriority.values()) {
+            counts.put(priority, new int[2]);
+        }
+        long started = System.nanoTime();
+        if (scheduled) {
+            OrderScheduler scheduler = new OrderScheduler(fulfillmentService, workers, Duration.ofHours(1), Clock.systemUTC());
+            CompletableFuture<?>[] results = new CompletableFuture<?>[orders];
+            for (int i = 0; i < orders; i++) {
+                results[i] = scheduler.submit(orderIds[i], priorities[i], deadlines[i]);
+            }
+            scheduler.start();
+            CompletableFuture.allOf(results).orTimeout(10, TimeUnit.MINUTES).join();
+            for (int i = 0; i < orders; i++) {
+                tally(counts.get(priorities[i]), (FulfillmentResult) results[i].join());
+            }
+            scheduler.close();
+        } else {
+            for (int i = 0; i < orders; i++) {
+                tally(counts.get(priorities[i]), fulfillmentService.tryFulfillOrder(orderIds[i]));
+            }
+        }
+        double seconds = (System.nanoTime() - started) / 1e9;
+
+        StringBuilder shares = new StringBuilder();
+        for (Map.Entry<OrderPriority, int[]> entry: counts.entrySet()) {
+            int[] count = entry.getValue();
+            shares.append(String.format(" %s %5.1f%%", entry.getKey(), 100.0 * count[1] / Math.max(1, count[0])));
+        }
+        System.out.printf("%-22s %,d orders in %.2f s, fulfilled:%s%n",
+                scheduled ? "scheduled, " + workers + " workers" : "arrival order", orders, seconds, shares);
+    }
+
+    // Express orders are promised within two hours, standard within a day, bulk within three
+    private static int deadlineWindowMinutes(OrderPriority priority) {
+        switch (priority) {
+            case EXPRESS:
+                return 2 * 60;
+            case STANDARD:
+                return 24 * 60;
+            default:
+                return 72 * 60;
+        }
+    }
+
+    private static void tally(int[] count, FulfillmentResult result) {
+        count[0]++;
+        if (result.isFulfilled()) {
+            count[1]++;
+        }
+    }
+
+    private static void queue(int orders, int producers, int workers) throws Exception {
+        OrderService orderService = new OrderService(new InMemoryRepository<>());
+        InMemoryRepository<Product> productRepository = new InMemoryRepository<>();
+        InMemoryRepository<Warehouse> warehouseRepository = new InMemoryRepository<>();
+        InventoryService inventoryService = new InventoryService(new InMemoryRepository<>(), productRepository, warehouseRepository);
+        OrderFulfillmentService fulfillmentService = new OrderFulfillmentService(orderService,
+                new WarehouseService(warehouseRepository, inventoryService),
+                new ShipmentService(new InMemoryRepository<>(), inventoryService),
+                inventoryService,
+                new CustomerService(new InMemoryRepository<>()));
+
+        OrderScheduler scheduler = new OrderScheduler(fulfillmentService, workers, Duration.ofMinutes(10), Clock.systemUTC());
+        scheduler.start();
+        int perProducer = orders / producers;
+        CompletableFuture<?>[] last = new CompletableFuture<?>[producers];
+        Thread[] threads = new Thread[producers];
+        long started = System.nanoTime();
+        for (int p = 0; p < producers; p++) {
+            int producer = p;
+            threads[p] = new Thread(() -> {
+                Random random = new Random(producer);
+                Instant now = Instant.now();
+                CompletableFuture<FulfillmentResult> result = null;
+                for (int i = 0; i < perProducer; i++) {
+                    result = scheduler.submit(UUID.randomUUID(), MIX[random.nextInt(MIX.length)],
+                            now.plusSeconds(random.nextInt(3600)));
+                }
+                last[producer] = result;
+            });
+            threads[p].start();
+        }
+        for (Thread thread: threads) {
+            thread.join();
+        }
+        double submitSeconds = (System.nanoTime() - started) / 1e9;
+        while (scheduler.getQueueSize() > 0) {
+            Thread.sleep(1);
+        }
+        CompletableFuture.allOf(last).orTimeout(1, TimeUnit.MINUTES).join();
+        double seconds = (System.nanoTime() - started) / 1e9;
+        scheduler.close();
+
+        long total = (long) perProducer * producers;
+        System.out.printf("queue, %d producers, %d workers: %,d submits/s, %,d dispatched/s; express p99 wait %.1f ms%n",
+                producers, workers, (long) (total / submitSeconds), (long) (total / seconds),
+                scheduler.getStatistics(OrderPriority.EXPRESS).getP99QueueWaitNanos() / 1e6);
+    }
+}
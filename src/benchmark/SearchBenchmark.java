@@ -0,0 +1,82 @@
+package benchmark;
+
+import metrics.LatencyHistogram;
+import search.TextIndex;
+
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/**
+ * Builds a TextIndex over synthetic customer names and emails and measures top-10 prefix and
+ * fuzzy query latency on one thread. Names are made of random syllables, so the vocabulary
+ * grows with the number of entries much like real surnames do.
+ *
+ * Usage: java -Xmx4g benchmark.SearchBenchmark [entries] [queries]
+ */
+public class SearchBenchmark {
+    private static final String[] SYLLABLES = {
+            "an", "ber", "cal", "da", "el", "fi", "gor", "ha", "is", "jo", "ka", "lin", "mar", "ne", "o",
+            "pa", "qui", "ro", "sa", "ten", "u", "vi", "wen", "xa", "ya", "zu", "chi", "sta", "mon", "der"};
+    private static final String[] DOMAINS = {"example.com", "mail.net", "corp.org", "shop.io"};
+    private static final int LIMIT = 10;
+
+    public static void main(String[] args) {
+        int entries = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int queries = args.length > 1 ? Integer.parseInt(args[1]) : 100_000;
+
+        SplittableRandom random = new SplittableRandom(42);
+        TextIndex index = new TextIndex();
+        String[] sampleNames = new String[10_000];
+        long start = System.nanoTime();
+        for (int i = 0; i < entries; i++) {
+            String first = word(random, 2);
+            String last = word(random, 3);
+            index.put(UUID.randomUUID(), first + " " + last, first + "." + last + i + "@" + DOMAINS[random.nextInt(DOMAINS.length)]);
+            if (i < sampleNames.length) {
+                sampleNames[i] = last;
+            }
+        }
+        System.out.printf("indexed %,d entries in %d ms, used heap %d MB%n", entries, (System.nanoTime() - start) / 1_000_000,
+                (Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory()) >> 20);
+
+        for (int round = 0; round < 3; round++) {
+            LatencyHistogram prefix = new LatencyHistogram();
+            LatencyHistogram fuzzy = new LatencyHistogram();
+            long hits = 0;
+            for (int q = 0; q < queries; q++) {
+                String name = sampleNames[random.nextInt(sampleNames.length)];
+
+                String typed = name.substring(0, 2 + random.nextInt(name.length() - 1));
+                long t0 = System.nanoTime();
+                hits += index.searchPrefix(typed, LIMIT).size();
+                long t1 = System.nanoTime();
+                hits += index.searchFuzzy(typo(random, name), LIMIT).size();
+                long t2 = System.nanoTime();
+
+                prefix.recordValue(t1 - t0);
+                fuzzy.recordValue(t2 - t1);
+            }
+            System.out.printf("round %d: prefix p50=%.1fus p99=%.1fus max=%.1fus | fuzzy p50=%.1fus p99=%.1fus max=%.1fus | %.1f hits/query%n",
+                    round,
+                    prefix.getValueAtPercentile(50) / 1e3, prefix.getValueAtPercentile(99) / 1e3, prefix.getMaxValue() / 1e3,
+                    fuzzy.getValueAtPercentile(50) / 1e3, fuzzy.getValueAtPercentile(99) / 1e3, fuzzy.getMaxValue() / 1e3,
+                    hits / (2.0 * queries));
+        }
+    }
+
+    private static String word(SplittableRandom random, int maxSyllables) {
+        StringBuilder word = new StringBuilder();
+        int syllables = 2 + random.nextInt(maxSyllables);
+        for (int s = 0; s < syllables; s++) {
+            word.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+        }
+        word.setCharAt(0, Character.toUpperCase(word.charAt(0)));
+        return word.toString();
+    }
+
+    private static String typo(SplittableRandom random, String word) {
+        char[] chars = word.toLowerCase().toCharArray();
+        chars[1 + random.nextInt(chars.length - 1)] = (char) ('a' + random.nextInt(26));
+        return new String(chars);
+    }
+}
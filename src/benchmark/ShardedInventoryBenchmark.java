@@ -0,0 +1,89 @@
+package benchmark;
+
+import domain.model.InventoryItem;
+import domain.model.Location;
+import domain.model.LocationTable;
+import domain.model.OrderItem;
+import domain.model.Product;
+import domain.model.ProductType;
+import domain.model.Warehouse;
+import repository.InMemoryRepository;
+import repository.ShardedRepository;
+import service.InventoryService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Measures reserve/release throughput of InventoryService on top of a ShardedRepository
+ * for increasing shard counts.
+ *
+ * Usage: java benchmark.ShardedInventoryBenchmark [clientThreads] [secondsPerRun]
+ */
+public class ShardedInventoryBenchmark {
+    private static final int WAREHOUSES = 64;
+    private static final int PRODUCTS_PER_WAREHOUSE = 16;
+
+    public static void main(String[] args) throws InterruptedException {
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors() * 4;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+
+        System.out.printf("clients=%d, cores=%d%n", clients, Runtime.getRuntime().availableProcessors());
+        for (int shards = 1; shards <= 8; shards *= 2) {
+            double opsPerSecond = run(shards, clients, seconds);
+            System.out.printf("shards=%d  %,.0f ops/s%n", shards, opsPerSecond);
+        }
+    }
+
+    private static double run(int shardCount, int clients, int seconds) throws InterruptedException {
+        InMemoryRepository<Product> products = new InMemoryRepository<>();
+        InMemoryRepository<Warehouse> warehouses = new InMemoryRepository<>();
+        List<UUID> warehouseIds = new ArrayList<>();
+        List<UUID> productIds = new ArrayList<>();
+
+        try (ShardedRepository<InventoryItem> inventory = new ShardedRepository<>(shardCount, InventoryItem::getWarehouseId)) {
+            InventoryService inventoryService = new InventoryService(inventory, products, warehouses);
+
+            for (int p = 0; p < PRODUCTS_PER_WAREHOUSE; p++) {
+                Product product = new Product("Product" + p, ProductType.MECHANICAL, "benchmark");
+                products.save(product.getId(), product);
+                productIds.add(product.getId());
+            }
+            LocationTable locations = new LocationTable();
+            for (int w = 0; w < WAREHOUSES; w++) {
+                Warehouse warehouse = new Warehouse("Warehouse" + w, new Location("W" + w, w, w), Integer.MAX_VALUE, locations);
+                warehouses.save(warehouse.getId(), warehouse);
+                warehouseIds.add(warehouse.getId());
+                for (UUID productId: productIds) {
+                    inventoryService.addInventoryItem(warehouse.getId(), productId, 1_000_000);
+                }
+            }
+
+            LongAdder operations = new LongAdder();
+            CountDownLatch done = new CountDownLatch(clients);
+            long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+
+            for (int c = 0; c < clients; c++) {
+                Thread client = new Thread(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    while (System.nanoTime() < deadline) {
+                        UUID warehouseId = warehouseIds.get(random.nextInt(WAREHOUSES));
+                        UUID productId = productIds.get(random.nextInt(PRODUCTS_PER_WAREHOUSE));
+                        inventoryService.reserveStock(warehouseId, List.of(new OrderItem(productId, 1)));
+                        inventoryService.releaseStock(warehouseId, productId, 1);
+                        operations.add(2);
+                    }
+                    done.countDown();
+                });
+                client.setDaemon(true);
+                client.start();
+            }
+            done.await();
+            return operations.sum() / (double) seconds;
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package benchmark;
+
+import domain.model.InventoryItem;
+import domain.model.Location;
+import domain.model.OrderItem;
+import domain.model.Product;
+import domain.model.ProductType;
+import replay.ServiceGraph;
+import repository.Snapshot;
+import repository.SnapshotManager;
+import repository.VersionStore;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs reserve/release cycles on every warehouse's own writer thread, which keep each
+ * item's available plus reserved quantity constant, and reports the writers' throughput
+ * without snapshots, with snapshots enabled, and with a reporter that scans all inventory
+ * through snapshots back to back. The reporter also scans the live items and counts items
+ * caught mid-movement: live scans tear, snapshot scans must not.
+ *
+ * Usage: java benchmark.SnapshotBenchmark [writers] [itemsPerWarehouse] [seconds]
+ */
+public class SnapshotBenchmark {
+    private static final int STOCK = 1_000;
+
+    public static void main(String[] args) throws InterruptedException {
+        int writers = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+        int items = args.length > 1 ? Integer.parseInt(args[1]) : 2_000;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 2;
+
+        for (int round = 0; round < 3; round++) {
+            run("no snapshots", writers, items, seconds, false, false);
+            run("snapshots", writers, items, seconds, true, false);
+            run("snapshots+reporter", writers, items, seconds, true, true);
+        }
+    }
+
+    private static void run(String label, int writers, int items, int seconds, boolean snapshots, boolean reporting)
+            throws InterruptedException {
+        ServiceGraph graph = new ServiceGraph();
+        List<UUID> productIds = new ArrayList<>();
+        for (int p = 0; p < items; p++) {
+            Product product = new Product("Product" + p, ProductType.MECHANICAL, "Benchmark");
+            graph.getProductRepository().save(product.getId(), product);
+            productIds.add(product.getId());
+        }
+        List<UUID> warehouseIds = new ArrayList<>();
+        for (int w = 0; w < writers; w++) {
+            UUID warehouseId = graph.getWarehouseService()
+                    .createWarehouse("Warehouse" + w, new Location("W" + w, w, w), Integer.MAX_VALUE).getId();
+            for (UUID productId: productIds) {
+                graph.getInventoryService().addInventoryItem(warehouseId, productId, STOCK);
+            }
+            warehouseIds.add(warehouseId);
+        }
+        SnapshotManager manager = new SnapshotManager();
+        VersionStore<InventoryItem> inventory = snapshots ? graph.getInventoryService().enableSnapshots(manager) : null;
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        LongAdder cycles = new LongAdder();
+        List<Thread> threads = new ArrayList<>();
+        for (int w = 0; w < writers; w++) {
+            UUID warehouseId = warehouseIds.get(w);
+            Random random = new Random(w);
+            threads.add(new Thread(() -> {
+                long done = 0;
+                while (running.get()) {
+                    UUID productId = productIds.get(random.nextInt(productIds.size()));
+                    int quantity = 1 + random.nextInt(10);
+                    graph.getInventoryService().reserveStock(warehouseId, List.of(new OrderItem(productId, quantity)));
+                    graph.getInventoryService().releaseStock(warehouseId, productId, quantity);
+                    done++;
+                }
+                cycles.add(done);
+            }));
+        }
+        Reporter reporter = reporting ? new Reporter(graph, manager, inventory, running) : null;
+        if (reporter != null) {
+            threads.add(new Thread(reporter));
+        }
+
+        threads.forEach(Thread::start);
+        Thread.sleep(seconds * 1000L);
+        running.set(false);
+        for (Thread thread: threads) {
+            thread.join();
+        }
+
+        System.out.printf("%-19s %,12.0f cycles/s", label, cycles.sum() / (double) seconds);
+        if (reporter != null) {
+            System.out.printf(", %,d snapshot scans of %,d items at %.1f ms, torn items: live %,d snapshot %,d, max retained versions %,d",
+                    reporter.scans, writers * items, reporter.scanNanos / 1e6 / Math.max(1, reporter.scans),
+                    reporter.tornLive, reporter.tornSnapshot, reporter.maxVersions);
+        }
+        if (inventory != null) {
+            System.out.printf(", versions after %,d", inventory.getVersionCount());
+        }
+        System.out.println();
+    }
+
+    private static final class Reporter implements Runnable {
+        private final ServiceGraph graph;
+        private final SnapshotManager manager;
+        private final VersionStore<InventoryItem> inventory;
+        private final AtomicBoolean running;
+        private long scans;
+        private long scanNanos;
+        private long tornLive;
+        private long tornSnapshot;
+        private long maxVersions;
+
+        private Reporter(ServiceGraph graph, SnapshotManager manager, VersionStore<InventoryItem> inventory,
+                         AtomicBoolean running) {
+            this.graph = graph;
+            this.manager = manager;
+            this.inventory = inventory;
+            this.running = running;
+        }
+
+        @Override
+        public void run() {
+            while (running.get()) {
+                long started = System.nanoTime();
+                try (Snapshot snapshot = manager.open()) {
+                    for (InventoryItem item: inventory.findAll(snapshot)) {
+                        if (item.getTotalQuantity() != STOCK) {
+                            tornSnapshot++;
+                        }
+                    }
+                    scanNanos += System.nanoTime() - started;
+                    scans++;
+                    maxVersions = Math.max(maxVersions, inventory.getVersionCount());
+                }
+                for (InventoryItem item: graph.getInventoryRepository().findAll()) {
+                    // Two separate reads of fields the writer updates one after the other
+                    if (item.getAvailableQuantity() + item.getReservedQuantity() != STOCK) {
+                        tornLive++;
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package benchmark;
+
+import repository.TimeBucketIndex;
+
+import java.time.LocalDateTime;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Loads a day of shipment timestamps into a {@link TimeBucketIndex} and compares window
+ * queries against a full scan of the same timestamps. Timestamps arrive roughly in order,
+ * with a little jitter, as they do from concurrent writers.
+ *
+ * Usage: java -Xmx2g benchmark.TimeIndexBenchmark [shipments] [warehouses]
+ */
+public class TimeIndexBenchmark {
+    private static final LocalDateTime DAY = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    public static void main(String[] args) {
+        int shipments = args.length > 0 ? Integer.parseInt(args[0]) : 5_000_000;
+        int warehouses = args.length > 1 ? Integer.parseInt(args[1]) : 500;
+
+        Random random = new Random(42);
+        UUID[] warehouseIds = new UUID[warehouses];
+        for (int w = 0; w < warehouses; w++) {
+            warehouseIds[w] = UUID.randomUUID();
+        }
+        TimeBucketIndex index = new TimeBucketIndex();
+        LocalDateTime[] times = new LocalDateTime[shipments];
+        UUID[] owners = new UUID[shipments];
+        long dayNanos = 86_400_000_000_000L;
+
+        long started = System.nanoTime();
+        for (int s = 0; s < shipments; s++) {
+            long jitter = (long) (random.nextGaussian() * 50_000_000);
+            long offset = Math.max(0, Math.min(dayNanos - 1, dayNanos / shipments * s + jitter));
+            times[s] = DAY.plusNanos(offset);
+            owners[s] = warehouseIds[random.nextInt(warehouses)];
+            index.add(new UUID(0, s), owners[s], times[s]);
+        }
+        System.out.printf("indexed %d shipments in %d ms%n", shipments, (System.nanoTime() - started) / 1_000_000);
+
+        for (int round = 0; round < 5; round++) {
+            LocalDateTime from = DAY.plusMinutes(random.nextInt(23 * 60));
+            LocalDateTime to = from.plusHours(1);
+            UUID warehouse = warehouseIds[random.nextInt(warehouses)];
+
+            long t0 = System.nanoTime();
+            int all = index.find(from, to).size();
+            long t1 = System.nanoTime();
+            int one = index.find(warehouse, from, to).size();
+            long t2 = System.nanoTime();
+            long day = index.count(warehouse, DAY, DAY.plusDays(1));
+            long t3 = System.nanoTime();
+            int scanned = 0;
+            for (int s = 0; s < shipments; s++) {
+                if (owners[s] == warehouse && !times[s].isBefore(from) && times[s].isBefore(to)) {
+                    scanned++;
+                }
+            }
+            long t4 = System.nanoTime();
+
+            System.out.printf("1h window: all %d in %.2f ms (%d buckets) | warehouse %d in %.3f ms, day count %d in %.3f ms | full scan %d in %.1f ms%n",
+                    all, (t1 - t0) / 1e6, index.bucketsInRange(from, to), one, (t2 - t1) / 1e6,
+                    day, (t3 - t2) / 1e6, scanned, (t4 - t3) / 1e6);
+        }
+    }
+}
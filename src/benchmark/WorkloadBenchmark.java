@@ -0,0 +1,51 @@
+package benchmark;
+
+import domain.model.Product;
+import domain.model.Warehouse;
+import repository.InMemoryRepository;
+import service.CustomerService;
+import service.InventoryService;
+import service.ProductService;
+import service.WarehouseService;
+import simulation.OrderStream;
+import simulation.Workload;
+import simulation.WorkloadConfig;
+import simulation.WorkloadGenerator;
+
+/**
+ * Measures how long installing the default workload takes and how fast its order stream
+ * generates orders on one thread.
+ *
+ * Usage: java benchmark.WorkloadBenchmark [orders]
+ */
+public class WorkloadBenchmark {
+    public static void main(String[] args) {
+        int orders = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+
+        InMemoryRepository<Product> productRepository = new InMemoryRepository<>();
+        InMemoryRepository<Warehouse> warehouseRepository = new InMemoryRepository<>();
+        InventoryService inventoryService = new InventoryService(new InMemoryRepository<>(), productRepository, warehouseRepository);
+
+        long start = System.nanoTime();
+        Workload workload = new WorkloadGenerator(new WorkloadConfig()).install(
+                new ProductService(productRepository),
+                new CustomerService(new InMemoryRepository<>()),
+                new WarehouseService(warehouseRepository, inventoryService),
+                inventoryService);
+        System.out.printf("installed %d products, %d customers, %d warehouses in %d ms%n",
+                workload.getProductsByRank().size(), workload.getCustomers().size(), workload.getWarehouses().size(),
+                (System.nanoTime() - start) / 1_000_000);
+
+        for (int round = 0; round < 5; round++) {
+            OrderStream stream = workload.orders(round);
+            long lines = 0;
+            start = System.nanoTime();
+            for (int i = 0; i < orders; i++) {
+                lines += stream.next().getOrderItems().size();
+            }
+            long elapsed = System.nanoTime() - start;
+            System.out.printf("round %d: %,.0f orders/s (%.2f lines/order)%n",
+                    round, orders * 1e9 / elapsed, lines / (double) orders);
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package bulk;
+
+/**
+ * Input formats accepted by the {@link BulkLoader}.
+ */
+public enum BulkFormat {
+    CSV,    // Comma-separated values with a header row naming the columns
+    NDJSON  // One flat JSON object per line
+}
@@ -0,0 +1,48 @@
+package bulk;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Outcome of one bulk load: how many rows were inserted or rejected, and a sample of
+ * rejection reasons (capped so a bad file cannot flood memory).
+ */
+public class BulkLoadReport {
+    private final long loaded;
+    private final long rejected;
+    private final List<String> sampleErrors;
+    private final Duration elapsed;
+
+    public BulkLoadReport(long loaded, long rejected, List<String> sampleErrors, Duration elapsed) {
+        this.loaded = loaded;
+        this.rejected = rejected;
+        this.sampleErrors = List.copyOf(sampleErrors);
+        this.elapsed = elapsed;
+    }
+
+    public long getLoaded() {
+        return loaded;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public List<String> getSampleErrors() {
+        return sampleErrors;
+    }
+
+    public Duration getElapsed() {
+        return elapsed;
+    }
+
+    @Override
+    public String toString() {
+        return "BulkLoadReport{" +
+                "loaded=" + loaded +
+                ", rejected=" + rejected +
+                ", elapsed=" + elapsed.toMillis() + "ms" +
+                ", sampleErrors=" + sampleErrors +
+                '}';
+    }
+}
@@ -0,0 +1,344 @@
+package bulk;
+
+import domain.model.Customer;
+import domain.model.InventoryItem;
+import domain.model.InventoryKey;
+import domain.model.Location;
+import domain.model.LocationTable;
+import domain.model.Product;
+import domain.model.ProductType;
+import domain.model.Warehouse;
+import repository.InMemoryRepositoryInterface;
+import repository.UniqueIndex;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Bulk import of master data and inventory from CSV or newline-delimited JSON files.
+ *
+ * A load runs in three phases:
+ * 1. the file is split into newline-aligned chunks that are memory-mapped and parsed in
+ *    parallel on the loader's pool, with bad rows rejected rather than failing the file;
+ * 2. references are validated in batch: each distinct product and warehouse id referenced
+ *    by inventory rows is looked up once and the answer shared across all chunks;
+ * 3. rows are partitioned by their unique key and inserted in parallel straight into the
+ *    repositories with the ID-preserving constructors, skipping keys and ids that already
+ *    exist. Duplicate detection uses repository indexes and a per-load id set instead of
+ *    scans, so loading is linear.
+ *
+ * Column names (CSV header or JSON field names):
+ * products   id, name, type, description
+ * customers  id, name, location, latitude, longitude, email
+ * warehouses id, name, location, latitude, longitude, maxCapacity
+ * inventory  id, productId, warehouseId, reservedQuantity, availableQuantity
+ * A blank id generates a new one. Customer and warehouse locations are interned into the
+ * loader's {@link LocationTable}, normally that of the graph the repositories belong to.
+ *
+ * Rows are saved straight into the repositories, bypassing the services. Repository
+ * indexes, such as the customers' location index, follow every save. Services that keep
+ * other state derived from their storage (search indexes, warehouse utilization, backorder
+ * wake-ups) only pick it up on construction, so either build them after loading or register
+ * them with {@link #onProductLoaded}, {@link #onCustomerLoaded} and {@link #onInventoryLoaded}
+ * to be handed every row once it is saved.
+ */
+public class BulkLoader {
+    private static final int MAX_SAMPLE_ERRORS = 20;
+
+    private static final List<String> PRODUCT_COLUMNS = List.of("id", "name", "type", "description");
+    private static final List<String> CUSTOMER_COLUMNS = List.of("id", "name", "location", "latitude", "longitude", "email");
+    private static final List<String> WAREHOUSE_COLUMNS = List.of("id", "name", "location", "latitude", "longitude", "maxCapacity");
+    private static final List<String> INVENTORY_COLUMNS = List.of("id", "productId", "warehouseId", "reservedQuantity", "availableQuantity");
+
+    private final InMemoryRepositoryInterface<Product> productRepository;
+    private final InMemoryRepositoryInterface<Customer> customerRepository;
+    private final InMemoryRepositoryInterface<Warehouse> warehouseRepository;
+    private final InMemoryRepositoryInterface<InventoryItem> inventoryRepository;
+    private final UniqueIndex<InventoryKey, InventoryItem> inventoryIndex;
+    private final LocationTable locations;
+    private final ForkJoinPool pool;
+    private volatile Consumer<Product> productListener = product -> { };
+    private volatile Consumer<Customer> customerListener = customer -> { };
+    private volatile Consumer<InventoryItem> inventoryListener = item -> { };
+
+    public BulkLoader(InMemoryRepositoryInterface<Product> productRepository,
+                      InMemoryRepositoryInterface<Customer> customerRepository,
+                      InMemoryRepositoryInterface<Warehouse> warehouseRepository,
+                      InMemoryRepositoryInterface<InventoryItem> inventoryRepository,
+                      LocationTable locations) {
+        this(productRepository, customerRepository, warehouseRepository, inventoryRepository, locations,
+                ForkJoinPool.commonPool());
+    }
+
+    public BulkLoader(InMemoryRepositoryInterface<Product> productRepository,
+                      InMemoryRepositoryInterface<Customer> customerRepository,
+                      InMemoryRepositoryInterface<Warehouse> warehouseRepository,
+                      InMemoryRepositoryInterface<InventoryItem> inventoryRepository,
+                      LocationTable locations,
+                      ForkJoinPool pool) {
+        this.productRepository = Objects.requireNonNull(productRepository, "productRepository cannot be null");
+        this.customerRepository = Objects.requireNonNull(customerRepository, "customerRepository cannot be null");
+        this.warehouseRepository = Objects.requireNonNull(warehouseRepository, "warehouseRepository cannot be null");
+        this.inventoryRepository = Objects.requireNonNull(inventoryRepository, "inventoryRepository cannot be null");
+        this.inventoryIndex = inventoryRepository.createUniqueIndex(InventoryKey::of);
+        this.locations = Objects.requireNonNull(locations, "locations cannot be null");
+        this.pool = Objects.requireNonNull(pool, "pool cannot be null");
+    }
+
+    /**
+     * Hands every product saved by later loads to the listener, such as
+     * {@link service.ProductService#onLoaded}. Called on the loader's pool threads.
+     */
+    public BulkLoader onProductLoaded(Consumer<Product> listener) {
+        this.productListener = Objects.requireNonNull(listener, "listener cannot be null");
+        return this;
+    }
+
+    /**
+     * Hands every customer saved by later loads to the listener, such as
+     * {@link service.CustomerService#onLoaded}. Called on the loader's pool threads.
+     */
+    public BulkLoader onCustomerLoaded(Consumer<Customer> listener) {
+        this.customerListener = Objects.requireNonNull(listener, "listener cannot be null");
+        return this;
+    }
+
+    /**
+     * Hands every inventory item saved by later loads to the listener, such as
+     * {@link service.InventoryService#onLoaded}. Called on the loader's pool threads.
+     */
+    public BulkLoader onInventoryLoaded(Consumer<InventoryItem> listener) {
+        this.inventoryListener = Objects.requireNonNull(listener, "listener cannot be null");
+        return this;
+    }
+
+    public BulkLoadReport loadProducts(Path file, BulkFormat format) {
+        return load(file, format, PRODUCT_COLUMNS, BulkLoader::toProduct, row -> true,
+                productRepository, Product::getId, Product::getId, product -> productRepository.existsById(product.getId()),
+                productListener);
+    }
+
+    public BulkLoadReport loadCustomers(Path file, BulkFormat format) {
+        return load(file, format, CUSTOMER_COLUMNS, this::toCustomer, row -> true,
+                customerRepository, Customer::getId, Customer::getId, customer -> customerRepository.existsById(customer.getId()),
+                customerListener);
+    }
+
+    public BulkLoadReport loadWarehouses(Path file, BulkFormat format) {
+        return load(file, format, WAREHOUSE_COLUMNS, this::toWarehouse, row -> true,
+                warehouseRepository, Warehouse::getId, Warehouse::getId, warehouse -> warehouseRepository.existsById(warehouse.getId()),
+                warehouse -> { });
+    }
+
+    /**
+     * Loads inventory rows. Rows that reference an unknown product or warehouse, or a
+     * warehouse/product cell that already has an inventory item, are rejected.
+     */
+    public BulkLoadReport loadInventory(Path file, BulkFormat format) {
+        Map<UUID, Boolean> knownProducts = new ConcurrentHashMap<>();
+        Map<UUID, Boolean> knownWarehouses = new ConcurrentHashMap<>();
+        Predicate<InventoryItem> referencesExist = item ->
+                knownProducts.computeIfAbsent(item.getProductId(), productRepository::existsById)
+                        && knownWarehouses.computeIfAbsent(item.getWarehouseId(), warehouseRepository::existsById);
+
+        return load(file, format, INVENTORY_COLUMNS, BulkLoader::toInventoryItem, referencesExist,
+                inventoryRepository, InventoryItem::getId, InventoryKey::of, item -> inventoryIndex.contains(InventoryKey.of(item)),
+                inventoryListener);
+    }
+
+    private <T> BulkLoadReport load(Path file, BulkFormat format, List<String> columns,
+                                    Function<String[], T> mapper, Predicate<T> referencesExist,
+                                    InMemoryRepositoryInterface<T> repository, Function<T, UUID> idOf,
+                                    Function<T, Object> uniqueKeyOf, Predicate<T> alreadyExists,
+                                    Consumer<T> onLoaded) {
+        Objects.requireNonNull(file, "file cannot be null");
+        Objects.requireNonNull(format, "format cannot be null");
+        long started = System.nanoTime();
+        Rejections rejections = new Rejections();
+
+        List<List<T>> parsed;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long[] bodyStart = {0};
+            int[] positions = null;
+            if (format == BulkFormat.CSV) {
+                String header = ChunkedFileReader.readFirstLine(channel, bodyStart);
+                positions = header == null ? null : columnPositions(RecordParser.parseCsv(header), columns);
+            }
+            int[] csvPositions = positions;
+
+            List<ChunkedFileReader.Chunk> chunks =
+                    ChunkedFileReader.split(channel, bodyStart[0], pool.getParallelism() * 4);
+            parsed = pool.submit(() -> chunks.parallelStream()
+                    .map(chunk -> parseChunk(channel, chunk, format, columns, csvPositions, mapper, referencesExist, rejections))
+                    .toList()).join();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read " + file, e);
+        }
+
+        // Rows sharing a unique key land in the same partition, in file order, so the
+        // exists-then-save check below cannot race with another partition.
+        int partitionCount = pool.getParallelism();
+        List<List<T>> partitions = new ArrayList<>(partitionCount);
+        for (int i = 0; i < partitionCount; i++) {
+            partitions.add(new ArrayList<>());
+        }
+        for (List<T> rows: parsed) {
+            for (T row: rows) {
+                partitions.get(Math.floorMod(uniqueKeyOf.apply(row).hashCode(), partitionCount)).add(row);
+            }
+        }
+
+        LongAdder loaded = new LongAdder();
+        // Rows sharing an id but not a unique key can sit in different partitions; the first
+        // to claim the id wins instead of the later save silently replacing the earlier one
+        Set<UUID> claimedIds = ConcurrentHashMap.newKeySet();
+        pool.submit(() -> partitions.parallelStream().forEach(partition -> {
+            for (T row: partition) {
+                if (alreadyExists.test(row)) {
+                    rejections.reject("Duplicate " + uniqueKeyOf.apply(row));
+                    continue;
+                }
+                UUID id = idOf.apply(row);
+                if (!claimedIds.add(id) || repository.existsById(id)) {
+                    rejections.reject("Duplicate id " + id);
+                    continue;
+                }
+                repository.save(id, row);
+                onLoaded.accept(row);
+                loaded.increment();
+            }
+        })).join();
+
+        return new BulkLoadReport(loaded.sum(), rejections.count.sum(), rejections.samples(),
+                Duration.ofNanos(System.nanoTime() - started));
+    }
+
+    private static <T> List<T> parseChunk(FileChannel channel, ChunkedFileReader.Chunk chunk, BulkFormat format,
+                                          List<String> columns, int[] csvPositions, Function<String[], T> mapper,
+                                          Predicate<T> referencesExist, Rejections rejections) {
+        List<T> rows = new ArrayList<>();
+        try {
+            ChunkedFileReader.forEachLine(channel, chunk, (line, offset) -> {
+                try {
+                    String[] values = format == BulkFormat.CSV
+                            ? project(RecordParser.parseCsv(line), csvPositions)
+                            : project(RecordParser.parseJson(line), columns);
+                    T row = mapper.apply(values);
+                    if (referencesExist.test(row)) {
+                        rows.add(row);
+                    } else {
+                        rejections.reject("Unknown reference at byte " + offset);
+                    }
+                } catch (RuntimeException e) {
+                    rejections.reject("Invalid row at byte " + offset + ": " + e.getMessage());
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return rows;
+    }
+
+    private static int[] columnPositions(List<String> header, List<String> columns) {
+        int[] positions = new int[columns.size()];
+        for (int i = 0; i < columns.size(); i++) {
+            positions[i] = header.indexOf(columns.get(i));
+            if (positions[i] < 0) {
+                throw new IllegalArgumentException("CSV header is missing column " + columns.get(i));
+            }
+        }
+        return positions;
+    }
+
+    private static String[] project(List<String> fields, int[] positions) {
+        if (positions == null) {
+            throw new IllegalArgumentException("CSV file has no header");
+        }
+        String[] values = new String[positions.length];
+        for (int i = 0; i < positions.length; i++) {
+            values[i] = positions[i] < fields.size() ? fields.get(positions[i]) : null;
+        }
+        return values;
+    }
+
+    private static String[] project(Map<String, String> fields, List<String> columns) {
+        String[] values = new String[columns.size()];
+        for (int i = 0; i < columns.size(); i++) {
+            values[i] = fields.get(columns.get(i));
+        }
+        return values;
+    }
+
+    private static Product toProduct(String[] values) {
+        return new Product(id(values[0]), required(values[1], "name"),
+                ProductType.valueOf(required(values[2], "type")), values[3]);
+    }
+
+    private Customer toCustomer(String[] values) {
+        return new Customer(id(values[0]), required(values[1], "name"),
+                location(values[2], values[3], values[4]), values[5], locations);
+    }
+
+    private Warehouse toWarehouse(String[] values) {
+        return new Warehouse(id(values[0]), required(values[1], "name"),
+                location(values[2], values[3], values[4]), Integer.parseInt(required(values[5], "maxCapacity")), locations);
+    }
+
+    private static InventoryItem toInventoryItem(String[] values) {
+        int reserved = values[3] == null || values[3].isEmpty() ? 0 : Integer.parseInt(values[3]);
+        int available = Integer.parseInt(required(values[4], "availableQuantity"));
+        if (reserved < 0 || available < 0) {
+            throw new IllegalArgumentException("Quantities cannot be negative");
+        }
+        return new InventoryItem(id(values[0]), UUID.fromString(required(values[1], "productId")),
+                UUID.fromString(required(values[2], "warehouseId")), reserved, available);
+    }
+
+    private static Location location(String name, String latitude, String longitude) {
+        return new Location(required(name, "location"),
+                Double.parseDouble(required(latitude, "latitude")),
+                Double.parseDouble(required(longitude, "longitude")));
+    }
+
+    private static UUID id(String value) {
+        return value == null || value.isEmpty() ? UUID.randomUUID() : UUID.fromString(value);
+    }
+
+    private static String required(String value, String column) {
+        if (value == null || value.isEmpty()) {
+            throw new IllegalArgumentException("Missing " + column);
+        }
+        return value;
+    }
+
+    private static final class Rejections {
+        private final LongAdder count = new LongAdder();
+        private final List<String> samples = new ArrayList<>();
+
+        private void reject(String reason) {
+            count.increment();
+            synchronized (samples) {
+                if (samples.size() < MAX_SAMPLE_ERRORS) {
+                    samples.add(reason);
+                }
+            }
+        }
+
+        private List<String> samples() {
+            synchronized (samples) {
+                return new ArrayList<>(samples);
+            }
+        }
+    }
+}
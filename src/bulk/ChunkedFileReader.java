@@ -0,0 +1,132 @@
+package bulk;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Splits a file into newline-aligned chunks and walks the lines of a chunk through a
+ * read-only memory mapping, so chunks can be parsed independently and in parallel.
+ */
+final class ChunkedFileReader {
+    // Keeps every mapping well below the 2 GB limit of a single MappedByteBuffer
+    private static final long MAX_CHUNK_BYTES = 64L * 1024 * 1024;
+
+    interface LineConsumer {
+        void accept(String line, long offset);
+    }
+
+    static final class Chunk {
+        final long start;
+        final long end;
+
+        Chunk(long start, long end) {
+            this.start = start;
+            this.end = end;
+        }
+    }
+
+    private ChunkedFileReader() {
+    }
+
+    /**
+     * Reads the first line of the file.
+     *
+     * @return the line, or null if the file is empty; endOffset[0] receives the offset after it
+     */
+    static String readFirstLine(FileChannel channel, long[] endOffset) throws IOException {
+        long size = channel.size();
+        if (size == 0) {
+            endOffset[0] = 0;
+            return null;
+        }
+        long end = nextLineStart(channel, 0, size);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, end);
+        byte[] bytes = new byte[(int) end];
+        buffer.get(bytes);
+        endOffset[0] = end;
+        return trimLineEnd(new String(bytes, StandardCharsets.UTF_8));
+    }
+
+    static List<Chunk> split(FileChannel channel, long from, int targetChunks) throws IOException {
+        long size = channel.size();
+        long length = size - from;
+        List<Chunk> chunks = new ArrayList<>();
+        if (length <= 0) {
+            return chunks;
+        }
+
+        long chunkBytes = Math.min(MAX_CHUNK_BYTES, Math.max(1, length / Math.max(1, targetChunks)));
+        long start = from;
+        while (start < size) {
+            long end = start + chunkBytes >= size ? size : nextLineStart(channel, start + chunkBytes, size);
+            chunks.add(new Chunk(start, end));
+            start = end;
+        }
+        return chunks;
+    }
+
+    static void forEachLine(FileChannel channel, Chunk chunk, LineConsumer consumer) throws IOException {
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, chunk.start, chunk.end - chunk.start);
+        byte[] line = new byte[256];
+        int length = 0;
+        long lineStart = chunk.start;
+
+        while (buffer.hasRemaining()) {
+            byte b = buffer.get();
+            if (b == '\n') {
+                emit(line, length, lineStart, consumer);
+                length = 0;
+                lineStart = chunk.start + buffer.position();
+                continue;
+            }
+            if (length == line.length) {
+                line = Arrays.copyOf(line, line.length * 2);
+            }
+            line[length++] = b;
+        }
+        emit(line, length, lineStart, consumer);
+    }
+
+    private static void emit(byte[] line, int length, long offset, LineConsumer consumer) {
+        if (length > 0 && line[length - 1] == '\r') {
+            length--;
+        }
+        if (length == 0) {
+            return;
+        }
+        consumer.accept(new String(line, 0, length, StandardCharsets.UTF_8), offset);
+    }
+
+    private static long nextLineStart(FileChannel channel, long position, long size) throws IOException {
+        ByteBuffer window = ByteBuffer.allocate(8192);
+        long cursor = position;
+        while (cursor < size) {
+            window.clear();
+            int read = channel.read(window, cursor);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (window.get(i) == '\n') {
+                    return cursor + i + 1;
+                }
+            }
+            cursor += read;
+        }
+        return size;
+    }
+
+    private static String trimLineEnd(String line) {
+        int end = line.length();
+        while (end > 0 && (line.charAt(end - 1) == '\n' || line.charAt(end - 1) == '\r')) {
+            end--;
+        }
+        return line.substring(0, end);
+    }
+}
@@ -0,0 +1,146 @@
+package bulk;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Minimal line parsers for the bulk formats: RFC 4180 style CSV fields and flat JSON
+ * objects whose values are strings, numbers, booleans or null.
+ */
+final class RecordParser {
+
+    private RecordParser() {
+    }
+
+    static List<String> parseCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    static Map<String, String> parseJson(String line) {
+        Map<String, String> values = new HashMap<>();
+        int[] position = {skipWhitespace(line, 0)};
+        expect(line, position, '{');
+
+        if (peek(line, position) == '}') {
+            position[0]++;
+            return values;
+        }
+        while (true) {
+            String key = readString(line, position);
+            expect(line, position, ':');
+            values.put(key, readValue(line, position));
+
+            char next = peek(line, position);
+            position[0]++;
+            if (next == '}') {
+                return values;
+            }
+            if (next != ',') {
+                throw new IllegalArgumentException("Expected ',' or '}' at " + (position[0] - 1));
+            }
+        }
+    }
+
+    private static String readValue(String line, int[] position) {
+        char c = peek(line, position);
+        if (c == '"') {
+            return readString(line, position);
+        }
+        int start = position[0];
+        while (position[0] < line.length() && ",} \t".indexOf(line.charAt(position[0])) < 0) {
+            position[0]++;
+        }
+        String literal = line.substring(start, position[0]);
+        if (literal.isEmpty()) {
+            throw new IllegalArgumentException("Expected a value at " + start);
+        }
+        return literal.equals("null") ? null : literal;
+    }
+
+    private static String readString(String line, int[] position) {
+        expect(line, position, '"');
+        StringBuilder value = new StringBuilder();
+        while (position[0] < line.length()) {
+            char c = line.charAt(position[0]++);
+            if (c == '"') {
+                return value.toString();
+            }
+            if (c != '\\') {
+                value.append(c);
+                continue;
+            }
+            if (position[0] >= line.length()) {
+                break;
+            }
+            char escaped = line.charAt(position[0]++);
+            switch (escaped) {
+                case 'n': value.append('\n'); break;
+                case 't': value.append('\t'); break;
+                case 'r': value.append('\r'); break;
+                case 'b': value.append('\b'); break;
+                case 'f': value.append('\f'); break;
+                case 'u':
+                    if (position[0] + 4 > line.length()) {
+                        throw new IllegalArgumentException("Truncated unicode escape");
+                    }
+                    value.append((char) Integer.parseInt(line.substring(position[0], position[0] + 4), 16));
+                    position[0] += 4;
+                    break;
+                default: value.append(escaped);
+            }
+        }
+        throw new IllegalArgumentException("Unterminated string");
+    }
+
+    private static void expect(String line, int[] position, char expected) {
+        if (peek(line, position) != expected) {
+            throw new IllegalArgumentException("Expected '" + expected + "' at " + position[0]);
+        }
+        position[0]++;
+    }
+
+    private static char peek(String line, int[] position) {
+        position[0] = skipWhitespace(line, position[0]);
+        if (position[0] >= line.length()) {
+            throw new IllegalArgumentException("Unexpected end of line");
+        }
+        return line.charAt(position[0]);
+    }
+
+    private static int skipWhitespace(String line, int position) {
+        while (position < line.length() && Character.isWhitespace(line.charAt(position))) {
+            position++;
+        }
+        return position;
+    }
+}
@@ -0,0 +1,338 @@
+package cluster;
+
+import codec.EntityCodec;
+import domain.model.Location;
+import domain.model.Order;
+import domain.model.OrderItem;
+import domain.model.OrderStatus;
+import domain.model.Product;
+import domain.model.Warehouse;
+import exceptions.ClusterException;
+import exceptions.OrderNotFoundException;
+import service.CustomerService;
+import service.OrderService;
+import service.ShipmentService;
+
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Routes order fulfillment across partition nodes that each own a subset of the
+ * warehouses and their inventory. Orders, customers and shipments stay local to the
+ * coordinator.
+ *
+ * Fulfilling an order takes three round trips, each fanned out in parallel:
+ * 1. FIND_CANDIDATES to every node, to learn which warehouses have stock for which items;
+ * 2. PREPARE to every node holding a chosen warehouse, reserving stock tentatively;
+ * 3. COMMIT to all of them if every PREPARE succeeded, otherwise ABORT to those that did.
+ *
+ * Warehouse choice follows {@link service.OrderFulfillmentService}: transactional orders
+ * go to the closest warehouse that can ship every item, others send each item to the
+ * closest warehouse that has it. Stock that moves between steps 1 and 2 makes a PREPARE
+ * fail, in which case the order is reported as not fulfilled and nothing stays reserved.
+ */
+public class ClusterCoordinator implements AutoCloseable {
+    private final NioClient client;
+    private final OrderService orderService;
+    private final ShipmentService shipmentService;
+    private final CustomerService customerService;
+    private final Map<UUID, PlacedWarehouse> warehouses = new ConcurrentHashMap<>();
+    private final AtomicLong transactionIds = new AtomicLong();
+    // Orders between their CREATED check and their status update, so no order is reserved twice
+    private final Set<UUID> inFlight = ConcurrentHashMap.newKeySet();
+
+    public ClusterCoordinator(List<InetSocketAddress> nodes,
+                              OrderService orderService,
+                              ShipmentService shipmentService,
+                              CustomerService customerService) {
+        Objects.requireNonNull(nodes, "nodes cannot be null");
+        Objects.requireNonNull(orderService, "orderService cannot be null");
+        Objects.requireNonNull(shipmentService, "shipmentService cannot be null");
+        Objects.requireNonNull(customerService, "customerService cannot be null");
+        if (nodes.isEmpty()) {
+            throw new IllegalArgumentException("nodes cannot be empty");
+        }
+
+        this.client = new NioClient(nodes);
+        this.orderService = orderService;
+        this.shipmentService = shipmentService;
+        this.customerService = customerService;
+    }
+
+    public int getNodeCount() {
+        return client.nodeCount();
+    }
+
+    /**
+     * Returns the node that owns a warehouse by default, based on its id.
+     */
+    public int partitionOf(UUID warehouseId) {
+        return Math.floorMod(warehouseId.hashCode(), client.nodeCount());
+    }
+
+    public void registerProduct(Product product) {
+        List<CompletableFuture<Reply>> replies = new ArrayList<>();
+        for (int node = 0; node < client.nodeCount(); node++) {
+            replies.add(client.send(node, MessageType.LOAD_PRODUCT, buffer -> EntityCodec.writeProduct(buffer, product)));
+        }
+        replies.forEach(ClusterCoordinator::await);
+    }
+
+    public void registerWarehouse(Warehouse warehouse) {
+        registerWarehouse(warehouse, partitionOf(warehouse.getId()));
+    }
+
+    public void registerWarehouse(Warehouse warehouse, int node) {
+        Objects.requireNonNull(warehouse, "warehouse cannot be null");
+        if (node < 0 || node >= client.nodeCount()) {
+            throw new IllegalArgumentException("node must be between 0 and " + (client.nodeCount() - 1) + ": " + node);
+        }
+
+        await(client.send(node, MessageType.LOAD_WAREHOUSE, buffer -> EntityCodec.writeWarehouse(buffer, warehouse)));
+        warehouses.put(warehouse.getId(), new PlacedWarehouse(warehouse, node));
+    }
+
+    public void addInventoryItem(UUID warehouseId, UUID productId, int initialQuantity) {
+        await(client.send(nodeOf(warehouseId), MessageType.LOAD_INVENTORY, buffer -> {
+            EntityCodec.writeUuid(buffer, warehouseId);
+            EntityCodec.writeUuid(buffer, productId);
+            buffer.putInt(initialQuantity);
+        }));
+    }
+
+    public int getAvailableQuantity(UUID warehouseId, UUID productId) {
+        Reply reply = await(client.send(nodeOf(warehouseId), MessageType.AVAILABLE_QUANTITY, buffer -> {
+            EntityCodec.writeUuid(buffer, warehouseId);
+            EntityCodec.writeUuid(buffer, productId);
+        }));
+        return reply.payload.getInt();
+    }
+
+    public boolean fulfillOrder(UUID orderId) {
+        return await(fulfillOrderAsync(orderId));
+    }
+
+    /**
+     * Fulfills an order without blocking the caller. The future completes with false when
+     * the order does not exist, is no longer CREATED, is already being fulfilled through
+     * this coordinator, or no warehouse can take it; exceptionally with a
+     * {@link ClusterException} when a node cannot be reached, and with the lookup's
+     * exception when the order's customer is unknown.
+     */
+    public CompletableFuture<Boolean> fulfillOrderAsync(UUID orderId) {
+        Objects.requireNonNull(orderId, "orderId cannot be null");
+        if (!inFlight.add(orderId)) {
+            return CompletableFuture.completedFuture(false);
+        }
+        CompletableFuture<Boolean> result;
+        try {
+            result = fulfill(orderId);
+        } catch (RuntimeException e) {
+            result = CompletableFuture.failedFuture(e);
+        }
+        return result.whenComplete((fulfilled, failure) -> inFlight.remove(orderId));
+    }
+
+    private CompletableFuture<Boolean> fulfill(UUID orderId) {
+        Order order;
+        try {
+            order = orderService.getOrderById(orderId);
+        } catch (OrderNotFoundException e) {
+            return CompletableFuture.completedFuture(false);
+        }
+        if (order.getStatus() != OrderStatus.CREATED) {
+            return CompletableFuture.completedFuture(false);
+        }
+        Location customerLocation = customerService.getCustomerLocation(order.getCustomerId());
+        List<OrderItem> orderItems = order.getOrderItems();
+
+        return findCandidates(orderItems).thenCompose(candidates -> {
+            Map<UUID, List<OrderItem>> allocations = order.isTransactional()
+                    ? allocateTransactional(orderItems, candidates, customerLocation)
+                    : allocatePerItem(orderItems, candidates, customerLocation);
+            if (allocations.isEmpty()) {
+                return CompletableFuture.completedFuture(false);
+            }
+            return reserve(allocations).thenApply(committed -> {
+                if (committed) {
+                    allocations.forEach((warehouseId, items) -> shipmentService.createShipment(
+                            orderId, order.getCustomerId(), warehouseId, customerLocation, items));
+                    orderService.updateStatus(orderId, OrderStatus.ALLOCATED);
+                }
+                return committed;
+            });
+        });
+    }
+
+    @Override
+    public void close() {
+        client.close();
+    }
+
+    private CompletableFuture<List<Candidate>> findCandidates(List<OrderItem> orderItems) {
+        List<CompletableFuture<Reply>> replies = new ArrayList<>(client.nodeCount());
+        for (int node = 0; node < client.nodeCount(); node++) {
+            replies.add(client.send(node, MessageType.FIND_CANDIDATES, buffer -> EntityCodec.writeOrderItems(buffer, orderItems)));
+        }
+
+        return CompletableFuture.allOf(replies.toArray(new CompletableFuture<?>[0])).thenApply(ignored -> {
+            List<Candidate> candidates = new ArrayList<>();
+            for (CompletableFuture<Reply> reply: replies) {
+                ByteBuffer payload = reply.join().payload;
+                int count = payload.getInt();
+                for (int i = 0; i < count; i++) {
+                    PlacedWarehouse placed = warehouses.get(EntityCodec.readUuid(payload));
+                    boolean[] available = new boolean[orderItems.size()];
+                    for (int item = 0; item < available.length; item++) {
+                        available[item] = payload.get() == 1;
+                    }
+                    if (placed != null) {
+                        candidates.add(new Candidate(placed.warehouse, available));
+                    }
+                }
+            }
+            return candidates;
+        });
+    }
+
+    private static Map<UUID, List<OrderItem>> allocateTransactional(List<OrderItem> orderItems,
+                                                                    List<Candidate> candidates,
+                                                                    Location location) {
+        Candidate best = null;
+        double bestDistance = Double.MAX_VALUE;
+        for (Candidate candidate: candidates) {
+            double distance = candidate.warehouse.distanceTo(location);
+            if (candidate.hasAll() && distance < bestDistance) {
+                best = candidate;
+                bestDistance = distance;
+            }
+        }
+        return best == null ? Collections.emptyMap() : Map.of(best.warehouse.getId(), orderItems);
+    }
+
+    private static Map<UUID, List<OrderItem>> allocatePerItem(List<OrderItem> orderItems,
+                                                              List<Candidate> candidates,
+                                                              Location location) {
+        Map<UUID, List<OrderItem>> allocations = new LinkedHashMap<>();
+        for (int item = 0; item < orderItems.size(); item++) {
+            Candidate best = null;
+            double bestDistance = Double.MAX_VALUE;
+            for (Candidate candidate: candidates) {
+                double distance = candidate.warehouse.distanceTo(location);
+                if (candidate.available[item] && distance < bestDistance) {
+                    best = candidate;
+                    bestDistance = distance;
+                }
+            }
+            if (best != null) {
+                allocations.computeIfAbsent(best.warehouse.getId(), k -> new ArrayList<>()).add(orderItems.get(item));
+            }
+        }
+        return allocations;
+    }
+
+    private CompletableFuture<Boolean> reserve(Map<UUID, List<OrderItem>> allocations) {
+        long transactionId = transactionIds.incrementAndGet();
+
+        Map<Integer, Map<UUID, List<OrderItem>>> allocationsByNode = new HashMap<>();
+        allocations.forEach((warehouseId, items) ->
+                allocationsByNode.computeIfAbsent(nodeOf(warehouseId), k -> new LinkedHashMap<>()).put(warehouseId, items));
+
+        Map<Integer, CompletableFuture<Reply>> prepares = new HashMap<>();
+        allocationsByNode.forEach((node, nodeAllocations) ->
+                prepares.put(node, client.send(node, MessageType.PREPARE, buffer -> {
+                    buffer.putLong(transactionId);
+                    PartitionNode.writeAllocations(buffer, nodeAllocations);
+                })));
+
+        // Wait for every vote, failed ones included, so no reservation is left unresolved
+        CompletableFuture<?>[] votes = prepares.values().stream()
+                .map(prepare -> prepare.handle((reply, failure) -> null))
+                .toArray(CompletableFuture[]::new);
+
+        return CompletableFuture.allOf(votes).thenCompose(ignored -> {
+            boolean commit = prepares.values().stream()
+                    .allMatch(prepare -> !prepare.isCompletedExceptionally() && prepare.join().status == ReplyStatus.OK);
+            MessageType decision = commit ? MessageType.COMMIT : MessageType.ABORT;
+
+            List<CompletableFuture<Reply>> acknowledgements = new ArrayList<>();
+            prepares.forEach((node, prepare) -> {
+                if (!prepare.isCompletedExceptionally() && prepare.join().status == ReplyStatus.OK) {
+                    acknowledgements.add(client.send(node, decision, buffer -> buffer.putLong(transactionId)));
+                }
+            });
+
+            CompletableFuture<Void> decided = CompletableFuture.allOf(acknowledgements.toArray(new CompletableFuture<?>[0]));
+            CompletableFuture<?> failedPrepare = prepares.values().stream()
+                    .filter(CompletableFuture::isCompletedExceptionally)
+                    .findFirst()
+                    .orElse(null);
+            if (failedPrepare != null) {
+                // Propagate the transport failure once the surviving nodes have aborted
+                return decided.thenCompose(done -> failedPrepare.thenApply(reply -> false));
+            }
+            return decided.thenApply(done -> commit);
+        });
+    }
+
+    private int nodeOf(UUID warehouseId) {
+        PlacedWarehouse placed = warehouses.get(warehouseId);
+        if (placed == null) {
+            throw new ClusterException("Warehouse " + warehouseId + " is not registered with the cluster");
+        }
+        return placed.node;
+    }
+
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private static final class PlacedWarehouse {
+        private final Warehouse warehouse;
+        private final int node;
+
+        private PlacedWarehouse(Warehouse warehouse, int node) {
+            this.warehouse = warehouse;
+            this.node = node;
+        }
+    }
+
+    private static final class Candidate {
+        private final Warehouse warehouse;
+        private final boolean[] available;
+
+        private Candidate(Warehouse warehouse, boolean[] available) {
+            this.warehouse = warehouse;
+            this.available = available;
+        }
+
+        private boolean hasAll() {
+            for (boolean item: available) {
+                if (!item) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package cluster;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Length-prefixed framing shared by client and server.
+ *
+ * Request:  int length, long correlationId, byte messageType, payload
+ * Reply:    int length, long correlationId, byte replyStatus, payload
+ *
+ * The length covers everything after the length field itself.
+ */
+final class Frames {
+    static final int LENGTH_BYTES = Integer.BYTES;
+    static final int HEADER_BYTES = Long.BYTES + Byte.BYTES;
+    static final int MAX_FRAME_BYTES = 16 * 1024 * 1024;
+
+    private Frames() {
+    }
+
+    /**
+     * Returns the length of the complete frame at the buffer's position, or -1 when more
+     * bytes are needed. The buffer is in read mode and its position is not moved.
+     */
+    static int completeFrameLength(ByteBuffer buffer) {
+        if (buffer.remaining() < LENGTH_BYTES) {
+            return -1;
+        }
+        int length = buffer.getInt(buffer.position());
+        if (length < HEADER_BYTES || length > MAX_FRAME_BYTES) {
+            throw new IllegalStateException("Corrupt frame length " + length);
+        }
+        return buffer.remaining() >= LENGTH_BYTES + length ? length : -1;
+    }
+
+    /**
+     * Returns a buffer in write mode with room for at least {@code required} more bytes,
+     * copying the current contents over when it has to grow.
+     */
+    static ByteBuffer ensureCapacity(ByteBuffer buffer, int required) {
+        if (buffer.remaining() >= required) {
+            return buffer;
+        }
+        int capacity = buffer.capacity();
+        while (capacity - buffer.position() < required) {
+            capacity *= 2;
+        }
+        ByteBuffer grown = ByteBuffer.allocate(capacity);
+        buffer.flip();
+        grown.put(buffer);
+        return grown;
+    }
+}
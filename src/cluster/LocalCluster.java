@@ -0,0 +1,104 @@
+package cluster;
+
+import exceptions.ClusterException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Launches {@link PartitionNode}s as child JVM processes on this machine, using the
+ * current classpath, and waits until each one reports the loopback port it listens on.
+ */
+public class LocalCluster implements AutoCloseable {
+    private final List<Process> processes = new ArrayList<>();
+    private final List<InetSocketAddress> addresses = new ArrayList<>();
+
+    private LocalCluster() {
+    }
+
+    public static LocalCluster launch(int nodes, String... jvmOptions) {
+        if (nodes <= 0) {
+            throw new IllegalArgumentException("nodes must be positive: " + nodes);
+        }
+
+        LocalCluster cluster = new LocalCluster();
+        try {
+            for (int i = 0; i < nodes; i++) {
+                cluster.start(jvmOptions);
+            }
+            return cluster;
+        } catch (RuntimeException e) {
+            cluster.close();
+            throw e;
+        }
+    }
+
+    public List<InetSocketAddress> getAddresses() {
+        return List.copyOf(addresses);
+    }
+
+    /**
+     * Closes every node's standard input, which makes it shut down, and kills the ones
+     * that are still running after a grace period.
+     */
+    @Override
+    public void close() {
+        for (Process process: processes) {
+            try {
+                process.getOutputStream().close();
+            } catch (IOException e) {
+                // The process is already gone
+            }
+        }
+        for (Process process: processes) {
+            try {
+                if (!process.waitFor(5, TimeUnit.SECONDS)) {
+                    process.destroyForcibly();
+                }
+            } catch (InterruptedException e) {
+                process.destroyForcibly();
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void start(String[] jvmOptions) {
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(List.of(jvmOptions));
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(PartitionNode.class.getName());
+        command.add("0");
+
+        Process process;
+        try {
+            process = new ProcessBuilder(command)
+                    .redirectError(ProcessBuilder.Redirect.INHERIT)
+                    .start();
+        } catch (IOException e) {
+            throw new ClusterException("Cannot launch partition node", e);
+        }
+        processes.add(process);
+
+        BufferedReader stdout = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8));
+        try {
+            String line = stdout.readLine();
+            if (line == null || !line.startsWith("READY ")) {
+                throw new ClusterException("Partition node did not start, first output: " + line);
+            }
+            int port = Integer.parseInt(line.substring("READY ".length()).trim());
+            addresses.add(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+        } catch (IOException e) {
+            throw new ClusterException("Cannot read partition node output", e);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package cluster;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Handles one request on the server's I/O thread. The reply payload is written into
+ * {@code reply}; the returned status is sent in front of it.
+ */
+interface MessageHandler {
+    ReplyStatus handle(MessageType type, ByteBuffer request, ByteBuffer reply);
+}
@@ -0,0 +1,16 @@
+package cluster;
+
+/**
+ * Requests a coordinator can send to a partition node. Encoded on the wire by ordinal,
+ * so new types must be appended.
+ */
+public enum MessageType {
+    LOAD_PRODUCT,
+    LOAD_WAREHOUSE,
+    LOAD_INVENTORY,
+    AVAILABLE_QUANTITY,
+    FIND_CANDIDATES,
+    PREPARE,
+    COMMIT,
+    ABORT
+}
@@ -0,0 +1,252 @@
+package cluster;
+
+import codec.EntityCodec;
+import exceptions.ClusterException;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Non-blocking client holding one connection per node, all served by a single selector
+ * thread.
+ *
+ * Any thread may send. A request is framed straight into the connection's outbound
+ * buffer and the I/O thread is woken at most once per batch of sends, so many in-flight
+ * requests share a single write. Replies are matched by correlation id and complete
+ * their futures on the I/O thread; continuations must therefore never block.
+ */
+final class NioClient implements AutoCloseable {
+    private static final int BUFFER_BYTES = 64 * 1024;
+    private static final ReplyStatus[] REPLY_STATUSES = ReplyStatus.values();
+
+    private final Selector selector;
+    private final List<Connection> connections = new ArrayList<>();
+    private final Queue<Connection> flushQueue = new ConcurrentLinkedQueue<>();
+    private final AtomicLong correlationIds = new AtomicLong();
+    private final Thread ioThread;
+    private volatile boolean running = true;
+
+    NioClient(List<InetSocketAddress> addresses) {
+        try {
+            this.selector = Selector.open();
+            for (InetSocketAddress address: addresses) {
+                SocketChannel channel = SocketChannel.open(address);
+                channel.configureBlocking(false);
+                channel.socket().setTcpNoDelay(true);
+                Connection connection = new Connection(address, channel);
+                connection.key = channel.register(selector, SelectionKey.OP_READ, connection);
+                connections.add(connection);
+            }
+        } catch (IOException e) {
+            throw new ClusterException("Cannot connect to " + addresses, e);
+        }
+
+        this.ioThread = new Thread(this::run, "cluster-client-io");
+        this.ioThread.setDaemon(true);
+        this.ioThread.start();
+    }
+
+    int nodeCount() {
+        return connections.size();
+    }
+
+    /**
+     * Sends a request to a node. The payload writer may be invoked more than once if the
+     * outbound buffer has to grow, so it must only write.
+     */
+    CompletableFuture<Reply> send(int node, MessageType type, Consumer<ByteBuffer> payload) {
+        Connection connection = connections.get(node);
+        long correlationId = correlationIds.incrementAndGet();
+        CompletableFuture<Reply> reply = new CompletableFuture<>();
+        connection.pending.put(correlationId, reply);
+
+        synchronized (connection) {
+            if (connection.failure != null) {
+                connection.pending.remove(correlationId);
+                reply.completeExceptionally(connection.failure);
+                return reply;
+            }
+            frame(connection, correlationId, type, payload);
+        }
+
+        if (connection.flushScheduled.compareAndSet(false, true)) {
+            flushQueue.add(connection);
+            selector.wakeup();
+        }
+        return reply;
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        selector.wakeup();
+        try {
+            ioThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void frame(Connection connection, long correlationId, MessageType type, Consumer<ByteBuffer> payload) {
+        while (true) {
+            ByteBuffer outbound = connection.outbound;
+            int start = outbound.position();
+            try {
+                outbound.putInt(0);
+                outbound.putLong(correlationId);
+                EntityCodec.writeEnum(outbound, type);
+                payload.accept(outbound);
+                outbound.putInt(start, outbound.position() - start - Frames.LENGTH_BYTES);
+                return;
+            } catch (BufferOverflowException e) {
+                outbound.position(start);
+                connection.outbound = Frames.ensureCapacity(outbound, outbound.capacity());
+            }
+        }
+    }
+
+    private void run() {
+        try {
+            while (running) {
+                selector.select();
+
+                Connection scheduled;
+                while ((scheduled = flushQueue.poll()) != null) {
+                    scheduled.flushScheduled.set(false);
+                    handle(scheduled, false);
+                }
+
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    handle((Connection) key.attachment(), key.isValid() && key.isReadable());
+                }
+            }
+        } catch (IOException | ClosedSelectorException e) {
+            connections.forEach(connection -> fail(connection, new ClusterException("Client selector failed", e)));
+        } finally {
+            for (Connection connection: connections) {
+                fail(connection, new ClusterException("Client closed"));
+            }
+            try {
+                selector.close();
+            } catch (IOException e) {
+                // Shutting down anyway
+            }
+        }
+    }
+
+    private void handle(Connection connection, boolean readable) {
+        if (connection.failure != null) {
+            return;
+        }
+        try {
+            if (readable) {
+                read(connection);
+            }
+            flush(connection);
+        } catch (IOException | IllegalStateException e) {
+            fail(connection, new ClusterException("Connection to " + connection.address + " failed", e));
+        }
+    }
+
+    private void read(Connection connection) throws IOException {
+        if (connection.channel.read(connection.inbound) < 0) {
+            throw new IOException("Connection closed by peer");
+        }
+
+        connection.inbound.flip();
+        int length;
+        while ((length = Frames.completeFrameLength(connection.inbound)) >= 0) {
+            connection.inbound.getInt();
+            long correlationId = connection.inbound.getLong();
+            ReplyStatus status = EntityCodec.readEnum(connection.inbound, REPLY_STATUSES);
+
+            byte[] payload = new byte[length - Frames.HEADER_BYTES];
+            connection.inbound.get(payload);
+            CompletableFuture<Reply> reply = connection.pending.remove(correlationId);
+            if (reply == null) {
+                continue;
+            }
+            ByteBuffer payloadBuffer = ByteBuffer.wrap(payload);
+            if (status == ReplyStatus.ERROR) {
+                reply.completeExceptionally(new ClusterException(
+                        "Node " + connection.address + " failed: " + EntityCodec.readString(payloadBuffer)));
+            } else {
+                reply.complete(new Reply(status, payloadBuffer));
+            }
+        }
+        connection.inbound.compact();
+        if (!connection.inbound.hasRemaining()) {
+            connection.inbound = Frames.ensureCapacity(connection.inbound, connection.inbound.capacity());
+        }
+    }
+
+    private void flush(Connection connection) throws IOException {
+        synchronized (connection) {
+            ByteBuffer outbound = connection.outbound;
+            if (outbound.position() == 0) {
+                return;
+            }
+            outbound.flip();
+            connection.channel.write(outbound);
+            boolean pending = outbound.hasRemaining();
+            outbound.compact();
+            connection.key.interestOps(pending ? SelectionKey.OP_READ | SelectionKey.OP_WRITE : SelectionKey.OP_READ);
+        }
+    }
+
+    private static void fail(Connection connection, ClusterException failure) {
+        synchronized (connection) {
+            if (connection.failure == null) {
+                connection.failure = failure;
+            }
+        }
+        try {
+            connection.channel.close();
+        } catch (IOException e) {
+            // Already failing every pending request below
+        }
+        for (Map.Entry<Long, CompletableFuture<Reply>> entry: connection.pending.entrySet()) {
+            if (connection.pending.remove(entry.getKey(), entry.getValue())) {
+                entry.getValue().completeExceptionally(connection.failure);
+            }
+        }
+    }
+
+    private static final class Connection {
+        private final InetSocketAddress address;
+        private final SocketChannel channel;
+        private final Map<Long, CompletableFuture<Reply>> pending = new ConcurrentHashMap<>();
+        private final AtomicBoolean flushScheduled = new AtomicBoolean();
+        private SelectionKey key;
+        // Guarded by the connection's monitor
+        private ByteBuffer outbound = ByteBuffer.allocate(BUFFER_BYTES);
+        private volatile ClusterException failure;
+        // Owned by the I/O thread
+        private ByteBuffer inbound = ByteBuffer.allocate(BUFFER_BYTES);
+
+        private Connection(InetSocketAddress address, SocketChannel channel) {
+            this.address = address;
+            this.channel = channel;
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package cluster;
+
+import codec.EntityCodec;
+import exceptions.ClusterException;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+
+/**
+ * Non-blocking request/reply server on a single selector thread.
+ *
+ * Every request is handed to the {@link MessageHandler} on the I/O thread, in arrival
+ * order, which makes that thread the single writer of whatever state the handler owns.
+ * Replies are appended to the connection's outbound buffer and flushed once all complete
+ * frames from a read have been handled, so pipelined requests are answered in batches.
+ */
+final class NioServer implements AutoCloseable {
+    private static final int BUFFER_BYTES = 64 * 1024;
+    private static final MessageType[] MESSAGE_TYPES = MessageType.values();
+
+    private final MessageHandler handler;
+    private final Selector selector;
+    private final ServerSocketChannel serverChannel;
+    private final Thread ioThread;
+    private ByteBuffer scratch = ByteBuffer.allocate(BUFFER_BYTES);
+    private volatile boolean running = true;
+
+    NioServer(InetSocketAddress address, MessageHandler handler, String threadName) {
+        this.handler = handler;
+        try {
+            this.selector = Selector.open();
+            this.serverChannel = ServerSocketChannel.open();
+            serverChannel.bind(address);
+            serverChannel.configureBlocking(false);
+            serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        } catch (IOException e) {
+            throw new ClusterException("Cannot listen on " + address, e);
+        }
+
+        this.ioThread = new Thread(this::run, threadName);
+        this.ioThread.setDaemon(true);
+        this.ioThread.start();
+    }
+
+    int getPort() {
+        return serverChannel.socket().getLocalPort();
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        selector.wakeup();
+        try {
+            ioThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        try {
+            while (running) {
+                selector.select();
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    try {
+                        if (key.isAcceptable()) {
+                            accept();
+                        } else {
+                            Connection connection = (Connection) key.attachment();
+                            if (key.isReadable()) {
+                                read(connection);
+                            }
+                            if (key.isValid() && key.isWritable()) {
+                                flush(connection);
+                            }
+                        }
+                    } catch (IOException | IllegalStateException e) {
+                        // The peer went away or sent garbage; drop only this connection
+                        key.cancel();
+                        key.channel().close();
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new ClusterException("Server selector failed", e);
+        } finally {
+            closeQuietly();
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel = serverChannel.accept();
+        if (channel == null) {
+            return;
+        }
+        channel.configureBlocking(false);
+        channel.socket().setTcpNoDelay(true);
+        Connection connection = new Connection(channel);
+        connection.key = channel.register(selector, SelectionKey.OP_READ, connection);
+    }
+
+    private void read(Connection connection) throws IOException {
+        if (connection.channel.read(connection.inbound) < 0) {
+            throw new IOException("Connection closed by peer");
+        }
+
+        connection.inbound.flip();
+        int length;
+        while ((length = Frames.completeFrameLength(connection.inbound)) >= 0) {
+            int frameEnd = connection.inbound.position() + Frames.LENGTH_BYTES + length;
+            connection.inbound.getInt();
+            long correlationId = connection.inbound.getLong();
+            MessageType type = EntityCodec.readEnum(connection.inbound, MESSAGE_TYPES);
+
+            ByteBuffer request = connection.inbound.slice();
+            request.limit(frameEnd - connection.inbound.position());
+            reply(connection, correlationId, type, request);
+            connection.inbound.position(frameEnd);
+        }
+        connection.inbound.compact();
+        if (!connection.inbound.hasRemaining()) {
+            connection.inbound = Frames.ensureCapacity(connection.inbound, connection.inbound.capacity());
+        }
+
+        flush(connection);
+    }
+
+    private void reply(Connection connection, long correlationId, MessageType type, ByteBuffer request) {
+        scratch.clear();
+        ReplyStatus status;
+        try {
+            status = handler.handle(type, request, scratch);
+        } catch (BufferOverflowException e) {
+            // Replies are built from handler state, not from a retryable writer, so the
+            // scratch buffer only grows for the next reply and this one reports the error
+            scratch = ByteBuffer.allocate(scratch.capacity() * 2);
+            status = error(new ClusterException("Reply to " + type + " exceeds " + scratch.capacity() / 2 + " bytes"));
+        } catch (RuntimeException e) {
+            status = error(e);
+        }
+        scratch.flip();
+
+        int length = Frames.HEADER_BYTES + scratch.remaining();
+        connection.outbound = Frames.ensureCapacity(connection.outbound, Frames.LENGTH_BYTES + length);
+        connection.outbound.putInt(length);
+        connection.outbound.putLong(correlationId);
+        EntityCodec.writeEnum(connection.outbound, status);
+        connection.outbound.put(scratch);
+    }
+
+    private ReplyStatus error(RuntimeException e) {
+        scratch.clear();
+        EntityCodec.writeString(scratch, e.getClass().getSimpleName() + ": " + e.getMessage());
+        return ReplyStatus.ERROR;
+    }
+
+    private void flush(Connection connection) throws IOException {
+        connection.outbound.flip();
+        connection.channel.write(connection.outbound);
+        boolean pending = connection.outbound.hasRemaining();
+        connection.outbound.compact();
+        connection.key.interestOps(pending ? SelectionKey.OP_READ | SelectionKey.OP_WRITE : SelectionKey.OP_READ);
+    }
+
+    private void closeQuietly() {
+        try {
+            for (SelectionKey key: selector.keys()) {
+                key.channel().close();
+            }
+            selector.close();
+        } catch (IOException e) {
+            // Shutting down anyway
+        }
+    }
+
+    private static final class Connection {
+        private final SocketChannel channel;
+        private SelectionKey key;
+        private ByteBuffer inbound = ByteBuffer.allocate(BUFFER_BYTES);
+        private ByteBuffer outbound = ByteBuffer.allocate(BUFFER_BYTES);
+
+        private Connection(SocketChannel channel) {
+            this.channel = channel;
+        }
+    }
+}
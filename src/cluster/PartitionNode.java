@@ -0,0 +1,222 @@
+package cluster;
+
+import codec.EntityCodec;
+import domain.model.InventoryItem;
+import domain.model.LocationTable;
+import domain.model.OrderItem;
+import domain.model.Product;
+import domain.model.Warehouse;
+import exceptions.InventoryItemNotFoundException;
+import repository.InMemoryRepository;
+import service.InventoryService;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * One member of a warehouse-partitioned cluster. Owns a subset of the warehouses, their
+ * inventory items and a replica of the product catalogue, and answers coordinator requests
+ * over loopback.
+ *
+ * All requests run on the server's I/O thread, so the node needs no locking: a PREPARE
+ * checks every allocation before reserving any of them, and reservations stay parked under
+ * the transaction id until the coordinator sends COMMIT or ABORT. COMMIT deducts the
+ * reserved stock, which from then on belongs to the coordinator's shipments; ABORT releases
+ * it. A PREPARE that fails part-way releases what it had already reserved.
+ *
+ * Run as a process with {@code java cluster.PartitionNode [port]}. The node prints
+ * {@code READY <port>} once it is listening and exits when its standard input is closed,
+ * so it never outlives the process that launched it.
+ */
+public class PartitionNode implements MessageHandler, AutoCloseable {
+    private final InMemoryRepository<Product> productRepository = new InMemoryRepository<>();
+    private final InMemoryRepository<Warehouse> warehouseRepository = new InMemoryRepository<>();
+    private final LocationTable locations = new LocationTable();
+    private final InventoryService inventoryService =
+            new InventoryService(new InMemoryRepository<>(), productRepository, warehouseRepository);
+    private final List<UUID> warehouseIds = new ArrayList<>();
+    private final Map<Long, List<Allocation>> prepared = new HashMap<>();
+    private final NioServer server;
+
+    private PartitionNode(int port) {
+        this.server = new NioServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), this, "partition-node-" + port);
+    }
+
+    /**
+     * Starts a node listening on the loopback interface; port 0 picks a free port.
+     */
+    public static PartitionNode start(int port) {
+        return new PartitionNode(port);
+    }
+
+    public int getPort() {
+        return server.getPort();
+    }
+
+    @Override
+    public void close() {
+        server.close();
+    }
+
+    @Override
+    public ReplyStatus handle(MessageType type, ByteBuffer request, ByteBuffer reply) {
+        switch (type) {
+            case LOAD_PRODUCT:
+                Product product = EntityCodec.readProduct(request);
+                productRepository.save(product.getId(), product);
+                return ReplyStatus.OK;
+            case LOAD_WAREHOUSE:
+                Warehouse warehouse = EntityCodec.readWarehouse(request, locations);
+                if (!warehouseRepository.existsById(warehouse.getId())) {
+                    warehouseIds.add(warehouse.getId());
+                }
+                warehouseRepository.save(warehouse.getId(), warehouse);
+                return ReplyStatus.OK;
+            case LOAD_INVENTORY:
+                inventoryService.addInventoryItem(EntityCodec.readUuid(request), EntityCodec.readUuid(request), request.getInt());
+                return ReplyStatus.OK;
+            case AVAILABLE_QUANTITY:
+                reply.putInt(inventoryService.getAvailableQuantity(EntityCodec.readUuid(request), EntityCodec.readUuid(request)));
+                return ReplyStatus.OK;
+            case FIND_CANDIDATES:
+                findCandidates(EntityCodec.readOrderItems(request), reply);
+                return ReplyStatus.OK;
+            case PREPARE:
+                return prepare(request.getLong(), readAllocations(request));
+            case COMMIT:
+                commit(request.getLong());
+                return ReplyStatus.OK;
+            case ABORT:
+                abort(request.getLong());
+                return ReplyStatus.OK;
+            default:
+                throw new IllegalArgumentException("Unsupported message type " + type);
+        }
+    }
+
+    /**
+     * Replies with every local warehouse that can fulfil at least one of the items:
+     * int count, then per warehouse its id and one byte per item (1 if it has enough stock).
+     */
+    private void findCandidates(List<OrderItem> orderItems, ByteBuffer reply) {
+        int countPosition = reply.position();
+        reply.putInt(0);
+        int count = 0;
+
+        for (UUID warehouseId: warehouseIds) {
+            int start = reply.position();
+            EntityCodec.writeUuid(reply, warehouseId);
+            boolean any = false;
+            for (OrderItem orderItem: orderItems) {
+                boolean available = inventoryService.canFulfillItems(warehouseId, List.of(orderItem));
+                reply.put(available ? (byte) 1 : (byte) 0);
+                any |= available;
+            }
+            if (any) {
+                count++;
+            } else {
+                reply.position(start);
+            }
+        }
+        reply.putInt(countPosition, count);
+    }
+
+    private ReplyStatus prepare(long transactionId, List<Allocation> allocations) {
+        for (Allocation allocation: allocations) {
+            if (!warehouseRepository.existsById(allocation.warehouseId)
+                    || !inventoryService.canFulfillItems(allocation.warehouseId, allocation.orderItems)) {
+                return ReplyStatus.REJECTED;
+            }
+        }
+        List<Allocation> reserved = new ArrayList<>(allocations.size());
+        try {
+            for (Allocation allocation: allocations) {
+                // All or nothing per warehouse, so only earlier allocations need undoing
+                inventoryService.reserveStock(allocation.warehouseId, allocation.orderItems);
+                reserved.add(allocation);
+            }
+        } catch (RuntimeException e) {
+            release(reserved);
+            return ReplyStatus.REJECTED;
+        }
+        prepared.put(transactionId, allocations);
+        return ReplyStatus.OK;
+    }
+
+    private void commit(long transactionId) {
+        List<Allocation> allocations = prepared.remove(transactionId);
+        if (allocations == null) {
+            return;
+        }
+        for (Allocation allocation: allocations) {
+            for (OrderItem orderItem: allocation.orderItems) {
+                inventoryService.deductStock(allocation.warehouseId, orderItem.getProductId(), orderItem.getQuantity());
+            }
+        }
+    }
+
+    private void abort(long transactionId) {
+        List<Allocation> allocations = prepared.remove(transactionId);
+        if (allocations != null) {
+            release(allocations);
+        }
+    }
+
+    private void release(List<Allocation> allocations) {
+        for (Allocation allocation: allocations) {
+            for (OrderItem orderItem: allocation.orderItems) {
+                inventoryService.releaseStock(allocation.warehouseId, orderItem.getProductId(), orderItem.getQuantity());
+            }
+        }
+    }
+
+    static void writeAllocations(ByteBuffer buffer, Map<UUID, List<OrderItem>> allocations) {
+        buffer.putInt(allocations.size());
+        for (Map.Entry<UUID, List<OrderItem>> entry: allocations.entrySet()) {
+            EntityCodec.writeUuid(buffer, entry.getKey());
+            EntityCodec.writeOrderItems(buffer, entry.getValue());
+        }
+    }
+
+    private static List<Allocation> readAllocations(ByteBuffer buffer) {
+        int count = buffer.getInt();
+        List<Allocation> allocations = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            allocations.add(new Allocation(EntityCodec.readUuid(buffer), EntityCodec.readOrderItems(buffer)));
+        }
+        return allocations;
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 0;
+
+        try (PartitionNode node = start(port)) {
+            System.out.println("READY " + node.getPort());
+            System.out.flush();
+
+            BufferedReader stdin = new BufferedReader(new InputStreamReader(System.in));
+            while (stdin.readLine() != null) {
+                // Block until the launcher closes our standard input
+            }
+        }
+    }
+
+    private static final class Allocation {
+        private final UUID warehouseId;
+        private final List<OrderItem> orderItems;
+
+        private Allocation(UUID warehouseId, List<OrderItem> orderItems) {
+            this.warehouseId = warehouseId;
+            this.orderItems = orderItems;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package cluster;
+
+import java.nio.ByteBuffer;
+
+final class Reply {
+    final ReplyStatus status;
+    final ByteBuffer payload;
+
+    Reply(ReplyStatus status, ByteBuffer payload) {
+        this.status = status;
+        this.payload = payload;
+    }
+}
@@ -0,0 +1,7 @@
+package cluster;
+
+public enum ReplyStatus {
+    OK,
+    REJECTED,
+    ERROR
+}
@@ -0,0 +1,389 @@
+package codec;
+
+import domain.model.*;
+import exceptions.CodecException;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Hand-written binary codec for the domain entities.
+ *
+ * Every record starts with a type tag byte and a schema version byte, so readers can keep
+ * decoding older records after a schema changes. Field encodings:
+ * - UUID: two longs (most, then least significant bits)
+ * - enum: one byte holding the ordinal (-1 for null); new constants must be appended
+ * - LocalDateTime: epoch microseconds in UTC as a long (Long.MIN_VALUE for null)
+ * - String: int UTF-8 byte length (-1 for null) followed by the bytes
+ * - List: int element count followed by the elements
+ * - Location: presence byte, then name, latitude and longitude
+ *
+ * Writers encode straight into the caller's ByteBuffer without intermediate arrays.
+ * A buffer that is too small raises {@link java.nio.BufferOverflowException}.
+ */
+public final class EntityCodec {
+    public static final byte PRODUCT = 1;
+    public static final byte CUSTOMER = 2;
+    public static final byte WAREHOUSE = 3;
+    public static final byte INVENTORY_ITEM = 4;
+    public static final byte ORDER = 5;
+    public static final byte SHIPMENT = 6;
+    public static final byte ORDER_ITEM = 7;
+    public static final byte LOCATION = 8;
+
+    static final byte SCHEMA_V1 = 1;
+
+    private static final OrderStatus[] ORDER_STATUSES = OrderStatus.values();
+    private static final ShipmentStatus[] SHIPMENT_STATUSES = ShipmentStatus.values();
+    private static final ProductType[] PRODUCT_TYPES = ProductType.values();
+    private static final ThreadLocal<byte[]> SCRATCH = ThreadLocal.withInitial(() -> new byte[256]);
+
+    private EntityCodec() {
+    }
+
+    /**
+     * Writes any supported entity, tagged with its type.
+     */
+    public static void write(ByteBuffer buffer, Object entity) {
+        if (entity instanceof Order) {
+            writeOrder(buffer, (Order) entity);
+        } else if (entity instanceof Shipment) {
+            writeShipment(buffer, (Shipment) entity);
+        } else if (entity instanceof InventoryItem) {
+            writeInventoryItem(buffer, (InventoryItem) entity);
+        } else if (entity instanceof Product) {
+            writeProduct(buffer, (Product) entity);
+        } else if (entity instanceof Customer) {
+            writeCustomer(buffer, (Customer) entity);
+        } else if (entity instanceof Warehouse) {
+            writeWarehouse(buffer, (Warehouse) entity);
+        } else if (entity instanceof OrderItem) {
+            writeOrderItem(buffer, (OrderItem) entity);
+        } else if (entity instanceof Location) {
+            writeLocationRecord(buffer, (Location) entity);
+        } else {
+            throw new CodecException("Unsupported entity type " + (entity == null ? "null" : entity.getClass().getName()));
+        }
+    }
+
+    /**
+     * Reads the next tagged record, whatever its type. Locations of customers, warehouses
+     * and shipments are interned into the given table.
+     */
+    public static Object read(ByteBuffer buffer, LocationTable locations) {
+        byte tag = buffer.get(buffer.position());
+        switch (tag) {
+            case ORDER: return readOrder(buffer);
+            case SHIPMENT: return readShipment(buffer, locations);
+            case INVENTORY_ITEM: return readInventoryItem(buffer);
+            case PRODUCT: return readProduct(buffer);
+            case CUSTOMER: return readCustomer(buffer, locations);
+            case WAREHOUSE: return readWarehouse(buffer, locations);
+            case ORDER_ITEM: return readOrderItem(buffer);
+            case LOCATION: return readLocationRecord(buffer);
+            default: throw new CodecException("Unknown record type " + tag);
+        }
+    }
+
+    public static void writeOrder(ByteBuffer buffer, Order order) {
+        header(buffer, ORDER);
+        writeUuid(buffer, order.getId());
+        writeUuid(buffer, order.getCustomerId());
+        writeEnum(buffer, order.getStatus());
+        buffer.put(order.isTransactional() ? (byte) 1 : (byte) 0);
+        writeTimestamp(buffer, order.getCreatedAt());
+        buffer.putLong(order.getVersion());
+        writeOrderItems(buffer, order.getOrderItems());
+    }
+
+    public static Order readOrder(ByteBuffer buffer) {
+        checkHeader(buffer, ORDER);
+        UUID id = readUuid(buffer);
+        UUID customerId = readUuid(buffer);
+        OrderStatus status = readEnum(buffer, ORDER_STATUSES);
+        boolean transactional = buffer.get() != 0;
+        LocalDateTime createdAt = readTimestamp(buffer);
+        long version = buffer.getLong();
+        List<OrderItem> orderItems = readOrderItems(buffer);
+        return new Order(id, customerId, orderItems, status, transactional, createdAt, version);
+    }
+
+    public static void writeShipment(ByteBuffer buffer, Shipment shipment) {
+        header(buffer, SHIPMENT);
+        writeUuid(buffer, shipment.getId());
+        writeUuid(buffer, shipment.getOrderId());
+        writeUuid(buffer, shipment.getWarehouseId());
+        writeUuid(buffer, shipment.getCustomerId());
+        writeLocation(buffer, shipment.getDestination());
+        writeEnum(buffer, shipment.getStatus());
+        writeTimestamp(buffer, shipment.getCreatedAt());
+        writeTimestamp(buffer, shipment.getShippedAt());
+        buffer.putLong(shipment.getVersion());
+        writeOrderItems(buffer, shipment.getShipmentItems());
+    }
+
+    public static Shipment readShipment(ByteBuffer buffer, LocationTable locations) {
+        checkHeader(buffer, SHIPMENT);
+        UUID id = readUuid(buffer);
+        UUID orderId = readUuid(buffer);
+        UUID warehouseId = readUuid(buffer);
+        UUID customerId = readUuid(buffer);
+        Location destination = readLocation(buffer);
+        ShipmentStatus status = readEnum(buffer, SHIPMENT_STATUSES);
+        LocalDateTime createdAt = readTimestamp(buffer);
+        LocalDateTime shippedAt = readTimestamp(buffer);
+        long version = buffer.getLong();
+        List<OrderItem> shipmentItems = readOrderItems(buffer);
+        return new Shipment(id, orderId, warehouseId, customerId, destination, shipmentItems,
+                status, createdAt, shippedAt, version, locations);
+    }
+
+    public static void writeInventoryItem(ByteBuffer buffer, InventoryItem item) {
+        header(buffer, INVENTORY_ITEM);
+        writeUuid(buffer, item.getId());
+        writeUuid(buffer, item.getProductId());
+        writeUuid(buffer, item.getWarehouseId());
+        buffer.putInt(item.getReservedQuantity());
+        buffer.putInt(item.getAvailableQuantity());
+    }
+
+    public static InventoryItem readInventoryItem(ByteBuffer buffer) {
+        checkHeader(buffer, INVENTORY_ITEM);
+        UUID id = readUuid(buffer);
+        UUID productId = readUuid(buffer);
+        UUID warehouseId = readUuid(buffer);
+        int reserved = buffer.getInt();
+        int available = buffer.getInt();
+        return new InventoryItem(id, productId, warehouseId, reserved, available);
+    }
+
+    public static void writeProduct(ByteBuffer buffer, Product product) {
+        header(buffer, PRODUCT);
+        writeUuid(buffer, product.getId());
+        writeString(buffer, product.getName());
+        writeEnum(buffer, product.getType());
+        writeString(buffer, product.getDescription());
+    }
+
+    public static Product readProduct(ByteBuffer buffer) {
+        checkHeader(buffer, PRODUCT);
+        UUID id = readUuid(buffer);
+        String name = readString(buffer);
+        ProductType type = readEnum(buffer, PRODUCT_TYPES);
+        String description = readString(buffer);
+        return new Product(id, name, type, description);
+    }
+
+    public static void writeCustomer(ByteBuffer buffer, Customer customer) {
+        header(buffer, CUSTOMER);
+        writeUuid(buffer, customer.getId());
+        writeString(buffer, customer.getName());
+        writeLocation(buffer, customer.getLocation());
+        writeString(buffer, customer.getEmail());
+    }
+
+    public static Customer readCustomer(ByteBuffer buffer, LocationTable locations) {
+        checkHeader(buffer, CUSTOMER);
+        UUID id = readUuid(buffer);
+        String name = readString(buffer);
+        Location location = readLocation(buffer);
+        String email = readString(buffer);
+        return new Customer(id, name, location, email, locations);
+    }
+
+    public static void writeWarehouse(ByteBuffer buffer, Warehouse warehouse) {
+        header(buffer, WAREHOUSE);
+        writeUuid(buffer, warehouse.getId());
+        writeString(buffer, warehouse.getName());
+        writeLocation(buffer, warehouse.getLocation());
+        buffer.putInt(warehouse.getMaxCapacity());
+    }
+
+    public static Warehouse readWarehouse(ByteBuffer buffer, LocationTable locations) {
+        checkHeader(buffer, WAREHOUSE);
+        UUID id = readUuid(buffer);
+        String name = readString(buffer);
+        Location location = readLocation(buffer);
+        int maxCapacity = buffer.getInt();
+        return new Warehouse(id, name, location, maxCapacity, locations);
+    }
+
+    public static void writeOrderItem(ByteBuffer buffer, OrderItem orderItem) {
+        header(buffer, ORDER_ITEM);
+        writeUuid(buffer, orderItem.getProductId());
+        buffer.putInt(orderItem.getQuantity());
+    }
+
+    public static OrderItem readOrderItem(ByteBuffer buffer) {
+        checkHeader(buffer, ORDER_ITEM);
+        return new OrderItem(readUuid(buffer), buffer.getInt());
+    }
+
+    public static void writeLocationRecord(ByteBuffer buffer, Location location) {
+        header(buffer, LOCATION);
+        writeLocation(buffer, location);
+    }
+
+    public static Location readLocationRecord(ByteBuffer buffer) {
+        checkHeader(buffer, LOCATION);
+        return readLocation(buffer);
+    }
+
+    // Field encodings, shared with other binary formats
+
+    public static void writeUuid(ByteBuffer buffer, UUID id) {
+        buffer.putLong(id.getMostSignificantBits());
+        buffer.putLong(id.getLeastSignificantBits());
+    }
+
+    public static UUID readUuid(ByteBuffer buffer) {
+        long most = buffer.getLong();
+        long least = buffer.getLong();
+        return new UUID(most, least);
+    }
+
+    public static void writeTimestamp(ByteBuffer buffer, LocalDateTime timestamp) {
+        if (timestamp == null) {
+            buffer.putLong(Long.MIN_VALUE);
+            return;
+        }
+        buffer.putLong(timestamp.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + timestamp.getNano() / 1_000);
+    }
+
+    public static LocalDateTime readTimestamp(ByteBuffer buffer) {
+        long micros = buffer.getLong();
+        if (micros == Long.MIN_VALUE) {
+            return null;
+        }
+        long seconds = Math.floorDiv(micros, 1_000_000L);
+        int nanos = (int) Math.floorMod(micros, 1_000_000L) * 1_000;
+        return LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC);
+    }
+
+    public static void writeString(ByteBuffer buffer, String value) {
+        if (value == null) {
+            buffer.putInt(-1);
+            return;
+        }
+        int lengthPosition = buffer.position();
+        buffer.putInt(0);
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                buffer.put((byte) c);
+            } else if (c < 0x800) {
+                buffer.put((byte) (0xC0 | (c >> 6)));
+                buffer.put((byte) (0x80 | (c & 0x3F)));
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length()
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                buffer.put((byte) (0xF0 | (codePoint >> 18)));
+                buffer.put((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+                buffer.put((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+                buffer.put((byte) (0x80 | (codePoint & 0x3F)));
+            } else {
+                // Lone surrogates are encoded as-is (CESU style) rather than dropped
+                buffer.put((byte) (0xE0 | (c >> 12)));
+                buffer.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+                buffer.put((byte) (0x80 | (c & 0x3F)));
+            }
+        }
+        buffer.putInt(lengthPosition, buffer.position() - lengthPosition - Integer.BYTES);
+    }
+
+    public static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        if (buffer.hasArray()) {
+            String value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+            buffer.position(buffer.position() + length);
+            return value;
+        }
+        byte[] scratch = SCRATCH.get();
+        if (scratch.length < length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+            SCRATCH.set(scratch);
+        }
+        buffer.get(scratch, 0, length);
+        return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+
+    public static void writeEnum(ByteBuffer buffer, Enum<?> value) {
+        buffer.put(value == null ? (byte) -1 : (byte) value.ordinal());
+    }
+
+    public static <E extends Enum<E>> E readEnum(ByteBuffer buffer, E[] values) {
+        byte ordinal = buffer.get();
+        if (ordinal == -1) {
+            return null;
+        }
+        if (ordinal < 0 || ordinal >= values.length) {
+            throw new CodecException("Unknown ordinal " + ordinal + " for " + values.getClass().getComponentType().getSimpleName());
+        }
+        return values[ordinal];
+    }
+
+    public static void writeLocation(ByteBuffer buffer, Location location) {
+        if (location == null) {
+            buffer.put((byte) 0);
+            return;
+        }
+        buffer.put((byte) 1);
+        writeString(buffer, location.getName());
+        buffer.putDouble(location.getLatitude());
+        buffer.putDouble(location.getLongtitude());
+    }
+
+    public static Location readLocation(ByteBuffer buffer) {
+        if (buffer.get() == 0) {
+            return null;
+        }
+        String name = readString(buffer);
+        double latitude = buffer.getDouble();
+        double longitude = buffer.getDouble();
+        return new Location(name, latitude, longitude);
+    }
+
+    public static void writeOrderItems(ByteBuffer buffer, List<OrderItem> orderItems) {
+        buffer.putInt(orderItems.size());
+        for (int i = 0; i < orderItems.size(); i++) {
+            OrderItem orderItem = orderItems.get(i);
+            writeUuid(buffer, orderItem.getProductId());
+            buffer.putInt(orderItem.getQuantity());
+        }
+    }
+
+    public static OrderItemList readOrderItems(ByteBuffer buffer) {
+        int count = buffer.getInt();
+        if (count < 0) {
+            throw new CodecException("Negative list length " + count);
+        }
+        OrderItem[] orderItems = new OrderItem[count];
+        for (int i = 0; i < count; i++) {
+            orderItems[i] = new OrderItem(readUuid(buffer), buffer.getInt());
+        }
+        return OrderItemList.of(orderItems);
+    }
+
+    private static void header(ByteBuffer buffer, byte tag) {
+        buffer.put(tag);
+        buffer.put(SCHEMA_V1);
+    }
+
+    private static void checkHeader(ByteBuffer buffer, byte expectedTag) {
+        byte tag = buffer.get();
+        if (tag != expectedTag) {
+            throw new CodecException("Expected record type " + expectedTag + " but found " + tag);
+        }
+        byte schema = buffer.get();
+        if (schema != SCHEMA_V1) {
+            throw new CodecException("Unsupported schema version " + schema + " for record type " + tag);
+        }
+    }
+}
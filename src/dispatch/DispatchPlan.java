@@ -0,0 +1,78 @@
+package dispatch;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Routes planned by one {@link DispatchPlanner#plan()} run, with the KPIs a simulation
+ * reports: total route distance, vehicles used, and the distance saved compared with
+ * driving every shipment out and back on its own.
+ */
+public class DispatchPlan {
+    private final List<Route> routes;
+    private final int shipments;
+    private final int skipped;
+    private final double totalDistance;
+    private final double directDistance;
+    private final Duration planningTime;
+
+    public DispatchPlan(List<Route> routes, int skipped, double directDistance, Duration planningTime) {
+        this.routes = List.copyOf(routes);
+        this.skipped = skipped;
+        this.directDistance = directDistance;
+        this.planningTime = planningTime;
+        int shipments = 0;
+        double totalDistance = 0;
+        for (Route route: this.routes) {
+            shipments += route.getShipmentIds().size();
+            totalDistance += route.getDistance();
+        }
+        this.shipments = shipments;
+        this.totalDistance = totalDistance;
+    }
+
+    public List<Route> getRoutes() {
+        return routes;
+    }
+
+    public int getVehicleCount() {
+        return routes.size();
+    }
+
+    /**
+     * Shipments placed on a route.
+     */
+    public int getShipmentCount() {
+        return shipments;
+    }
+
+    /**
+     * CREATED shipments left out because they have no destination or their warehouse is gone.
+     */
+    public int getSkippedCount() {
+        return skipped;
+    }
+
+    public double getTotalDistance() {
+        return totalDistance;
+    }
+
+    /**
+     * Distance if every routed shipment had its own out-and-back trip.
+     */
+    public double getDirectDistance() {
+        return directDistance;
+    }
+
+    public Duration getPlanningTime() {
+        return planningTime;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT,
+                "DispatchPlan{shipments=%d, skipped=%d, vehicles=%d, totalDistance=%.1f, directDistance=%.1f, planningTime=%dms}",
+                shipments, skipped, routes.size(), totalDistance, directDistance, planningTime.toMillis());
+    }
+}
@@ -0,0 +1,205 @@
+package dispatch;
+
+import domain.model.Location;
+import domain.model.LocationTable;
+import domain.model.Shipment;
+import domain.model.ShipmentStatus;
+import domain.model.Warehouse;
+import service.ShipmentService;
+import service.WarehouseService;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Consolidates CREATED shipments into vehicle routes, per warehouse.
+ *
+ * Each warehouse's shipments are swept by polar angle around the warehouse and cut into
+ * clusters of at most {@code maxClusterSize} neighbouring destinations. Every cluster is
+ * routed by {@link RouteSolver} (savings plus 2-opt) under the vehicle capacity, counted
+ * in item units. Warehouses are planned as fork-join tasks, and a warehouse with several
+ * clusters forks one subtask per cluster, so a few busy warehouses still spread over the pool.
+ *
+ * Planning only reads shipments; it does not change their status.
+ */
+public class DispatchPlanner {
+    public static final int DEFAULT_MAX_CLUSTER_SIZE = 200;
+
+    private final ShipmentService shipmentService;
+    private final WarehouseService warehouseService;
+    private final int vehicleCapacity;
+    private final int maxClusterSize;
+    private final ForkJoinPool pool;
+
+    public DispatchPlanner(ShipmentService shipmentService, WarehouseService warehouseService, int vehicleCapacity) {
+        this(shipmentService, warehouseService, vehicleCapacity, DEFAULT_MAX_CLUSTER_SIZE, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param maxClusterSize most shipments routed together; savings costs O(n^2 log n) in it
+     */
+    public DispatchPlanner(ShipmentService shipmentService,
+                           WarehouseService warehouseService,
+                           int vehicleCapacity,
+                           int maxClusterSize,
+                           ForkJoinPool pool) {
+        this.shipmentService = Objects.requireNonNull(shipmentService, "shipmentService cannot be null");
+        this.warehouseService = Objects.requireNonNull(warehouseService, "warehouseService cannot be null");
+        if (vehicleCapacity <= 0) {
+            throw new IllegalArgumentException("vehicleCapacity must be positive: " + vehicleCapacity);
+        }
+        if (maxClusterSize <= 0) {
+            throw new IllegalArgumentException("maxClusterSize must be positive: " + maxClusterSize);
+        }
+        this.vehicleCapacity = vehicleCapacity;
+        this.maxClusterSize = maxClusterSize;
+        this.pool = Objects.requireNonNull(pool, "pool cannot be null");
+    }
+
+    /**
+     * Plans routes for every shipment that is CREATED right now.
+     */
+    public DispatchPlan plan() {
+        long started = System.nanoTime();
+        Map<UUID, List<Shipment>> byWarehouse = new LinkedHashMap<>();
+        int skipped = 0;
+        for (Shipment shipment: shipmentService.getShipmentsByStatus(ShipmentStatus.CREATED)) {
+            if (shipment.getDestinationHandle() == LocationTable.NONE) {
+                skipped++;
+                continue;
+            }
+            byWarehouse.computeIfAbsent(shipment.getWarehouseId(), k -> new ArrayList<>()).add(shipment);
+        }
+
+        List<WarehouseTask> tasks = new ArrayList<>(byWarehouse.size());
+        for (Map.Entry<UUID, List<Shipment>> entry: byWarehouse.entrySet()) {
+            Optional<Warehouse> warehouse = warehouseService.getWarehouseById(entry.getKey());
+            if (warehouse.isEmpty() || warehouse.get().getLocationHandle() == LocationTable.NONE) {
+                skipped += entry.getValue().size();
+                continue;
+            }
+            tasks.add(new WarehouseTask(warehouse.get(), entry.getValue()));
+        }
+        pool.invoke(new RecursiveTask<Void>() {
+            @Override
+            protected Void compute() {
+                invokeAll(tasks);
+                return null;
+            }
+        });
+
+        List<Route> routes = new ArrayList<>();
+        double directDistance = 0;
+        for (WarehouseTask task: tasks) {
+            routes.addAll(task.join());
+            directDistance += task.directDistance;
+        }
+        return new DispatchPlan(routes, skipped, directDistance, Duration.ofNanos(System.nanoTime() - started));
+    }
+
+    private final class WarehouseTask extends RecursiveTask<List<Route>> {
+        private final Warehouse warehouse;
+        private final List<Shipment> shipments;
+        private double directDistance;
+
+        private WarehouseTask(Warehouse warehouse, List<Shipment> shipments) {
+            this.warehouse = warehouse;
+            this.shipments = shipments;
+        }
+
+        @Override
+        protected List<Route> compute() {
+            Location depot = warehouse.getLocation();
+            int n = shipments.size();
+            double[] xs = new double[n];
+            double[] ys = new double[n];
+            // Sort by angle around the depot with one primitive sort: positive float bits
+            // order like the float, and the low half carries the shipment's index
+            long[] byAngle = new long[n];
+            for (int i = 0; i < n; i++) {
+                Location destination = shipments.get(i).getDestination();
+                xs[i] = destination.getLatitude();
+                ys[i] = destination.getLongtitude();
+                double dx = xs[i] - depot.getLatitude();
+                double dy = ys[i] - depot.getLongtitude();
+                directDistance += 2 * Math.sqrt(dx * dx + dy * dy);
+                float angle = (float) (Math.atan2(dy, dx) + Math.PI + 1);
+                byAngle[i] = ((long) Float.floatToIntBits(angle) << 32) | i;
+            }
+            Arrays.sort(byAngle);
+
+            // Even clusters rather than full ones plus a small remainder
+            int clusters = (n + maxClusterSize - 1) / maxClusterSize;
+            List<ClusterTask> subtasks = new ArrayList<>(clusters);
+            for (int c = 0; c < clusters; c++) {
+                int from = (int) ((long) n * c / clusters);
+                int to = (int) ((long) n * (c + 1) / clusters);
+                int[] members = new int[to - from];
+                for (int k = from; k < to; k++) {
+                    members[k - from] = (int) byAngle[k];
+                }
+                subtasks.add(new ClusterTask(this, members, xs, ys));
+            }
+            if (subtasks.size() == 1) {
+                return subtasks.get(0).compute();
+            }
+            invokeAll(subtasks);
+            List<Route> routes = new ArrayList<>();
+            for (ClusterTask subtask: subtasks) {
+                routes.addAll(subtask.join());
+            }
+            return routes;
+        }
+    }
+
+    private final class ClusterTask extends RecursiveTask<List<Route>> {
+        private final WarehouseTask parent;
+        private final int[] members;
+        private final double[] allXs;
+        private final double[] allYs;
+
+        private ClusterTask(WarehouseTask parent, int[] members, double[] allXs, double[] allYs) {
+            this.parent = parent;
+            this.members = members;
+            this.allXs = allXs;
+            this.allYs = allYs;
+        }
+
+        @Override
+        protected List<Route> compute() {
+            Location depot = parent.warehouse.getLocation();
+            int n = members.length;
+            double[] xs = new double[n];
+            double[] ys = new double[n];
+            int[] loads = new int[n];
+            for (int k = 0; k < n; k++) {
+                xs[k] = allXs[members[k]];
+                ys[k] = allYs[members[k]];
+                loads[k] = (int) Math.min(Integer.MAX_VALUE, parent.shipments.get(members[k]).getShipmentItems().totalQuantity());
+            }
+
+            List<int[]> solved = RouteSolver.solve(depot.getLatitude(), depot.getLongtitude(), xs, ys, loads, vehicleCapacity);
+            List<Route> routes = new ArrayList<>(solved.size());
+            for (int[] stops: solved) {
+                List<UUID> shipmentIds = new ArrayList<>(stops.length);
+                int load = 0;
+                for (int stop: stops) {
+                    shipmentIds.add(parent.shipments.get(members[stop]).getId());
+                    load += loads[stop];
+                }
+                double distance = RouteSolver.tourLength(depot.getLatitude(), depot.getLongtitude(), xs, ys, stops);
+                routes.add(new Route(parent.warehouse.getId(), shipmentIds, load, distance));
+            }
+            return routes;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package dispatch;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * One vehicle's planned tour: out of the warehouse, through its shipments' destinations in
+ * order, and back.
+ */
+public class Route {
+    private final UUID warehouseId;
+    private final List<UUID> shipmentIds;
+    private final int load;
+    private final double distance;
+
+    public Route(UUID warehouseId, List<UUID> shipmentIds, int load, double distance) {
+        this.warehouseId = warehouseId;
+        this.shipmentIds = List.copyOf(shipmentIds);
+        this.load = load;
+        this.distance = distance;
+    }
+
+    public UUID getWarehouseId() {
+        return warehouseId;
+    }
+
+    /**
+     * Shipments in delivery order.
+     */
+    public List<UUID> getShipmentIds() {
+        return shipmentIds;
+    }
+
+    /**
+     * Total units carried, summed over the shipments' items.
+     */
+    public int getLoad() {
+        return load;
+    }
+
+    /**
+     * Length of the closed tour, in {@code Location.calculateDistanceTo} units.
+     */
+    public double getDistance() {
+        return distance;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "Route{warehouseId=%s, stops=%d, load=%d, distance=%.3f}",
+                warehouseId, shipmentIds.size(), load, distance);
+    }
+}
@@ -0,0 +1,180 @@
+package dispatch;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Capacity-constrained vehicle routing heuristic for one depot: Clarke-Wright savings
+ * followed by 2-opt on every route.
+ *
+ * Savings starts with one out-and-back route per stop and merges the pair of route ends
+ * i, j with the largest saving d(0,i) + d(0,j) - d(i,j), as long as the merged load fits a
+ * vehicle. That costs O(n^2 log n), so callers keep n to a cluster of a few hundred stops.
+ *
+ * Distances are Euclidean, like {@code Location.calculateDistanceTo}. Stateless.
+ */
+final class RouteSolver {
+    private static final int MAX_TWO_OPT_PASSES = 50;
+    private static final double EPSILON = 1e-12;
+
+    private RouteSolver() {
+    }
+
+    /**
+     * Returns routes over stops 0..n-1, each in visiting order from the depot. A stop whose
+     * load alone exceeds the capacity gets a route of its own.
+     */
+    static List<int[]> solve(double depotX, double depotY, double[] xs, double[] ys, int[] loads, int capacity) {
+        int n = xs.length;
+        // Node 0 is the depot, stop i is node i + 1
+        double[] x = new double[n + 1];
+        double[] y = new double[n + 1];
+        x[0] = depotX;
+        y[0] = depotY;
+        System.arraycopy(xs, 0, x, 1, n);
+        System.arraycopy(ys, 0, y, 1, n);
+
+        int[][] members = new int[n + 1][];
+        int[] routeOf = new int[n + 1];
+        int[] routeLoad = new int[n + 1];
+        for (int i = 1; i <= n; i++) {
+            members[i] = new int[] {i};
+            routeOf[i] = i;
+            routeLoad[i] = loads[i - 1];
+        }
+
+        for (long key: positiveSavings(x, y, n)) {
+            int pair = (int) key;
+            int i = pair / (n + 1);
+            int j = pair % (n + 1);
+            int ri = routeOf[i];
+            int rj = routeOf[j];
+            if (ri == rj || (long) routeLoad[ri] + routeLoad[rj] > capacity
+                    || !isEnd(members[ri], i) || !isEnd(members[rj], j)) {
+                continue;
+            }
+            // Join ...-i with j-...
+            if (members[ri][members[ri].length - 1] != i) {
+                reverse(members[ri], 0, members[ri].length - 1);
+            }
+            if (members[rj][0] != j) {
+                reverse(members[rj], 0, members[rj].length - 1);
+            }
+            int[] merged = Arrays.copyOf(members[ri], members[ri].length + members[rj].length);
+            System.arraycopy(members[rj], 0, merged, members[ri].length, members[rj].length);
+            for (int node: members[rj]) {
+                routeOf[node] = ri;
+            }
+            members[ri] = merged;
+            members[rj] = null;
+            routeLoad[ri] += routeLoad[rj];
+        }
+
+        List<int[]> routes = new ArrayList<>();
+        for (int r = 1; r <= n; r++) {
+            if (members[r] == null) {
+                continue;
+            }
+            int[] route = twoOpt(members[r], x, y);
+            for (int k = 0; k < route.length; k++) {
+                route[k]--;
+            }
+            routes.add(route);
+        }
+        return routes;
+    }
+
+    /**
+     * Length of the closed tour depot -> stops in order -> depot.
+     */
+    static double tourLength(double depotX, double depotY, double[] xs, double[] ys, int[] route) {
+        double length = 0;
+        double px = depotX;
+        double py = depotY;
+        for (int stop: route) {
+            length += distance(xs[stop] - px, ys[stop] - py);
+            px = xs[stop];
+            py = ys[stop];
+        }
+        return length + distance(depotX - px, depotY - py);
+    }
+
+    /**
+     * Pairs with a positive saving, largest saving first. Each key packs the saving's float
+     * bits (which sort like the value for positive floats) above the pair index, so the
+     * whole list is one primitive sort instead of a sort of boxed pair objects.
+     */
+    private static long[] positiveSavings(double[] x, double[] y, int n) {
+        long[] keys = new long[n * (n - 1) / 2];
+        int count = 0;
+        for (int i = 1; i <= n; i++) {
+            double toI = distance(x, y, 0, i);
+            for (int j = i + 1; j <= n; j++) {
+                float saving = (float) (toI + distance(x, y, 0, j) - distance(x, y, i, j));
+                if (saving > 0) {
+                    keys[count++] = ((long) Float.floatToIntBits(saving) << 32) | (i * (n + 1) + j);
+                }
+            }
+        }
+        long[] sorted = Arrays.copyOf(keys, count);
+        Arrays.sort(sorted);
+        for (int a = 0, b = count - 1; a < b; a++, b--) {
+            long swap = sorted[a];
+            sorted[a] = sorted[b];
+            sorted[b] = swap;
+        }
+        return sorted;
+    }
+
+    /**
+     * First-improvement 2-opt on the closed tour through the depot (node 0).
+     */
+    private static int[] twoOpt(int[] stops, double[] x, double[] y) {
+        if (stops.length < 3) {
+            return stops;
+        }
+        int[] tour = new int[stops.length + 2];
+        System.arraycopy(stops, 0, tour, 1, stops.length);
+
+        boolean improved = true;
+        for (int pass = 0; improved && pass < MAX_TWO_OPT_PASSES; pass++) {
+            improved = false;
+            for (int i = 0; i < tour.length - 3; i++) {
+                for (int j = i + 2; j < tour.length - 1; j++) {
+                    int a = tour[i];
+                    int b = tour[i + 1];
+                    int c = tour[j];
+                    int d = tour[j + 1];
+                    double delta = distance(x, y, a, c) + distance(x, y, b, d)
+                            - distance(x, y, a, b) - distance(x, y, c, d);
+                    if (delta < -EPSILON) {
+                        reverse(tour, i + 1, j);
+                        improved = true;
+                    }
+                }
+            }
+        }
+        return Arrays.copyOfRange(tour, 1, tour.length - 1);
+    }
+
+    private static boolean isEnd(int[] route, int node) {
+        return route[0] == node || route[route.length - 1] == node;
+    }
+
+    private static void reverse(int[] values, int from, int to) {
+        for (; from < to; from++, to--) {
+            int swap = values[from];
+            values[from] = values[to];
+            values[to] = swap;
+        }
+    }
+
+    private static double distance(double[] x, double[] y, int a, int b) {
+        return distance(x[a] - x[b], y[a] - y[b]);
+    }
+
+    private static double distance(double dx, double dy) {
+        return Math.sqrt(dx * dx + dy * dy);
+    }
+}
@@ -1,5 +1,6 @@
 package domain.model;
 
+import java.util.Objects;
 import java.util.UUID;
 
 /**
@@ -8,21 +9,20 @@ import java.util.UUID;
 public class Customer {
     private final UUID id;
     private String name;
-    private Location location;
+    private final LocationTable locations;
+    private int location; // Handle in locations
     private String email;
 
-    public Customer(String name, Location location, String email) {
-        this.id = UUID.randomUUID();
-        this.name = name;
-        this.location = location;
-        this.email = email;
+    public Customer(String name, Location location, String email, LocationTable locations) {
+        this(UUID.randomUUID(), name, location, email, locations);
     }
 
     // Constructor for loading existing customers (e.g., from repository)
-    public Customer(UUID id, String name, Location location, String email) {
+    public Customer(UUID id, String name, Location location, String email, LocationTable locations) {
         this.id = id;
         this.name = name;
-        this.location = location;
+        this.locations = Objects.requireNonNull(locations, "locations cannot be null");
+        this.location = locations.intern(location);
         this.email = email;
     }
 
@@ -36,6 +36,10 @@ public class Customer {
     }
 
     public Location getLocation() {
+        return locations.get(location);
+    }
+
+    public int getLocationHandle() {
         return location;
     }
 
@@ -49,7 +53,7 @@ public class Customer {
     }
 
     public void setLocation(Location location) {
-        this.location = location;
+        this.location = locations.intern(location);
     }
 
     public void setEmail(String email) {
@@ -61,7 +65,7 @@ public class Customer {
         return "Customer{" +
                 "id='" + id + '\'' +
                 ", name='" + name + '\'' +
-                ", location='" + location + '\'' +
+                ", location='" + getLocation() + '\'' +
                 ", email='" + email + '\'' +
                 '}';
     }
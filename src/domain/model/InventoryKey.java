@@ -0,0 +1,53 @@
+package domain.model;
+
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Identifies an inventory cell: one product in one warehouse.
+ * This is a value object used as a lookup key.
+ */
+public final class InventoryKey {
+    private final UUID warehouseId;
+    private final UUID productId;
+
+    public InventoryKey(UUID warehouseId, UUID productId) {
+        this.warehouseId = Objects.requireNonNull(warehouseId, "warehouseId cannot be null");
+        this.productId = Objects.requireNonNull(productId, "productId cannot be null");
+    }
+
+    public static InventoryKey of(InventoryItem item) {
+        return new InventoryKey(item.getWarehouseId(), item.getProductId());
+    }
+
+    public UUID getWarehouseId() {
+        return warehouseId;
+    }
+
+    public UUID getProductId() {
+        return productId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        InventoryKey that = (InventoryKey) o;
+        return warehouseId.equals(that.warehouseId) && productId.equals(that.productId);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = warehouseId.hashCode();
+        result = 31 * result + productId.hashCode();
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "InventoryKey{" +
+                "warehouseId='" + warehouseId + '\'' +
+                ", productId='" + productId + '\'' +
+                '}';
+    }
+}
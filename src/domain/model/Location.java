@@ -1,16 +1,29 @@
 package domain.model;
 
-import java.util.Objects;
-
-public class Location {
+/**
+ * Immutable named point on the map. Two locations are equal when their coordinates are.
+ *
+ * Entities do not keep Location objects; they keep a handle into the {@link LocationTable}
+ * and hand out Locations materialized from it.
+ */
+public final class Location {
     private final String name;
     private final double latitude;
     private final double longtitude;
+    // Table and handle when materialized from a table, so interning it there again is free
+    final LocationTable table;
+    final int handle;
 
     public Location(String name, double lat, double lon) {
+        this(name, lat, lon, null, LocationTable.NONE);
+    }
+
+    Location(String name, double lat, double lon, LocationTable table, int handle) {
         this.name = name;
         this.latitude = lat;
         this.longtitude = lon;
+        this.table = table;
+        this.handle = handle;
     }
 
     public String getName() {
@@ -33,15 +46,27 @@ public class Location {
 
     @Override
     public boolean equals(Object obj) {
-        if (this.equals(obj)) { return true;}
-        if (obj.getClass() != this.getClass()) { return false; }
-
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null || obj.getClass() != this.getClass()) {
+            return false;
+        }
         Location location = (Location) obj;
-        return Objects.equals(this.getLongtitude(), location.getLongtitude()) && Objects.equals(this.getLatitude(), location.getLatitude());
+        return Double.compare(latitude, location.latitude) == 0 && Double.compare(longtitude, location.longtitude) == 0;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(this.latitude, this.longtitude);
+        return 31 * Double.hashCode(latitude) + Double.hashCode(longtitude);
+    }
+
+    @Override
+    public String toString() {
+        return "Location{" +
+                "name='" + name + '\'' +
+                ", latitude=" + latitude +
+                ", longtitude=" + longtitude +
+                '}';
     }
 }
@@ -0,0 +1,185 @@
+package domain.model;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Canonical store of the locations that customers, warehouses and shipments refer to.
+ *
+ * Each distinct location (name and coordinates) is interned once and identified by an int
+ * handle; entities keep only the handle. Coordinates live in primitive arrays and names in
+ * a parallel array, in fixed-size pages that never move once written, so a handle stays
+ * valid forever and readers need no lock. Interning is serialized and looks the location
+ * up in an open-addressing table of handles first, so equal locations share one entry
+ * however many entities point at them.
+ *
+ * Entries are never removed, so each service graph owns a table and hands it to the
+ * entities it creates or decodes; the table grows with the graph and is freed with it.
+ *
+ * {@link #get} materializes a short-lived {@link Location} that remembers its table and
+ * handle, so passing it back to an entity of the same table interns it without a lookup.
+ * Distance and coordinate checks by handle read the arrays directly and allocate nothing.
+ */
+public final class LocationTable {
+    public static final int NONE = -1;
+
+    private static final int PAGE_BITS = 14;
+    private static final int PAGE_SIZE = 1 << PAGE_BITS;
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
+
+    // Pages of interleaved latitude/longitude pairs and of names, replaced (never changed) when a page is added
+    private volatile double[][] coordinatePages = new double[0][];
+    private volatile String[][] namePages = new String[0][];
+    // Guarded by this
+    private int size;
+    private int[] slots = new int[1024]; // handle + 1, or 0 for an empty slot
+
+    /**
+     * Returns the handle of an equal entry, adding one if there is none; {@link #NONE} for null.
+     */
+    public int intern(Location location) {
+        if (location == null) {
+            return NONE;
+        }
+        if (location.table == this) {
+            return location.handle;
+        }
+        return intern(location.getName(), location.getLatitude(), location.getLongtitude());
+    }
+
+    public synchronized int intern(String name, double latitude, double longitude) {
+        int slot = slotOf(name, latitude, longitude);
+        if (slots[slot] != 0) {
+            return slots[slot] - 1;
+        }
+        int handle = size;
+        if ((handle & PAGE_MASK) == 0) {
+            addPage();
+        }
+        double[] coordinates = coordinatePages[handle >>> PAGE_BITS];
+        coordinates[2 * (handle & PAGE_MASK)] = latitude;
+        coordinates[2 * (handle & PAGE_MASK) + 1] = longitude;
+        namePages[handle >>> PAGE_BITS][handle & PAGE_MASK] = name;
+        slots[slot] = handle + 1;
+        size++;
+        if (size * 2 > slots.length) {
+            resize();
+        }
+        return handle;
+    }
+
+    /**
+     * Handle of an entry equal in name and coordinates, or {@link #NONE} without adding one.
+     */
+    public synchronized int find(Location location) {
+        if (location == null) {
+            return NONE;
+        }
+        int slot = slotOf(location.getName(), location.getLatitude(), location.getLongtitude());
+        return slots[slot] - 1;
+    }
+
+    /**
+     * The location behind a handle, or null for {@link #NONE}.
+     */
+    public Location get(int handle) {
+        if (handle == NONE) {
+            return null;
+        }
+        return new Location(getName(handle), getLatitude(handle), getLongitude(handle), this, handle);
+    }
+
+    public String getName(int handle) {
+        return namePages[handle >>> PAGE_BITS][handle & PAGE_MASK];
+    }
+
+    public double getLatitude(int handle) {
+        return coordinatePages[handle >>> PAGE_BITS][2 * (handle & PAGE_MASK)];
+    }
+
+    public double getLongitude(int handle) {
+        return coordinatePages[handle >>> PAGE_BITS][2 * (handle & PAGE_MASK) + 1];
+    }
+
+    /**
+     * Distance between an entry and a location, like {@link Location#calculateDistanceTo}.
+     */
+    public double distance(int handle, Location location) {
+        double[] coordinates = coordinatePages[handle >>> PAGE_BITS];
+        double dx = coordinates[2 * (handle & PAGE_MASK)] - location.getLatitude();
+        double dy = coordinates[2 * (handle & PAGE_MASK) + 1] - location.getLongtitude();
+        return Math.sqrt((dx * dx) + (dy * dy));
+    }
+
+    /**
+     * Whether an entry lies at the location's coordinates, which is what {@link Location#equals}
+     * compares. False if either is missing.
+     */
+    public boolean isAt(int handle, Location location) {
+        if (handle == NONE || location == null) {
+            return false;
+        }
+        if (location.table == this && handle == location.handle) {
+            return true;
+        }
+        return Double.compare(getLatitude(handle), location.getLatitude()) == 0
+                && Double.compare(getLongitude(handle), location.getLongtitude()) == 0;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    // Called with the lock held: the slot holding an equal entry, or the empty slot where it belongs
+    private int slotOf(String name, double latitude, double longitude) {
+        int mask = slots.length - 1;
+        int slot = hash(name, latitude, longitude) & mask;
+        while (slots[slot] != 0) {
+            int handle = slots[slot] - 1;
+            if (Double.compare(getLatitude(handle), latitude) == 0
+                    && Double.compare(getLongitude(handle), longitude) == 0
+                    && Objects.equals(getName(handle), name)) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    // Called with the lock held
+    private void addPage() {
+        int pages = coordinatePages.length;
+        double[][] coordinates = Arrays.copyOf(coordinatePages, pages + 1);
+        String[][] names = Arrays.copyOf(namePages, pages + 1);
+        coordinates[pages] = new double[2 * PAGE_SIZE];
+        names[pages] = new String[PAGE_SIZE];
+        coordinatePages = coordinates;
+        namePages = names;
+    }
+
+    // Called with the lock held
+    private void resize() {
+        int[] old = slots;
+        slots = new int[old.length * 2];
+        int mask = slots.length - 1;
+        for (int entry: old) {
+            if (entry != 0) {
+                int handle = entry - 1;
+                int slot = hash(getName(handle), getLatitude(handle), getLongitude(handle)) & mask;
+                while (slots[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                slots[slot] = entry;
+            }
+        }
+    }
+
+    private static int hash(String name, double latitude, double longitude) {
+        long h = Double.doubleToLongBits(latitude) * 0x9E3779B97F4A7C15L
+                + Double.doubleToLongBits(longitude) * 0xC2B2AE3D27D4EB4FL
+                + Objects.hashCode(name);
+        h ^= h >>> 29;
+        h *= 0xBF58476D1CE4E5B9L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
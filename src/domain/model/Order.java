@@ -1,39 +1,47 @@
 package domain.model;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
 /**
  * Represents a customer order in the supply chain system.
+ * Status changes produce a new instance with the next version (see {@link #withStatus}).
  */
-public class Order {
+public class Order implements Versioned {
     private final UUID id;
     private final UUID customerId;
-    private final List<OrderItem> orderItems;
-    private OrderStatus status;
+    private final OrderItemList orderItems;
+    private final OrderStatus status;
     private final boolean isTransactional;
     private final LocalDateTime createdAt;
+    private final long version;
 
     public Order(UUID customerId, List<OrderItem> orderItems, boolean isTransactional) {
         this.id = UUID.randomUUID();
         this.customerId = customerId;
-        this.orderItems = new ArrayList<>(orderItems); // Defensive copy
+        this.orderItems = OrderItemList.of(orderItems); // Copies unless already immutable
         this.status = OrderStatus.CREATED;
         this.isTransactional = isTransactional;
         this.createdAt = LocalDateTime.now();
+        this.version = 0;
     }
 
     // Constructor for loading existing orders (e.g., from repository)
     public Order(UUID id, UUID customerId, List<OrderItem> orderItems, OrderStatus status,
                  boolean isTransactional, LocalDateTime createdAt) {
+        this(id, customerId, orderItems, status, isTransactional, createdAt, 0);
+    }
+
+    public Order(UUID id, UUID customerId, List<OrderItem> orderItems, OrderStatus status,
+                 boolean isTransactional, LocalDateTime createdAt, long version) {
         this.id = id;
         this.customerId = customerId;
-        this.orderItems = new ArrayList<>(orderItems);
+        this.orderItems = OrderItemList.of(orderItems);
         this.status = status;
         this.isTransactional = isTransactional;
         this.createdAt = createdAt;
+        this.version = version;
     }
 
     // Getters
@@ -45,8 +53,8 @@ public class Order {
         return customerId;
     }
 
-    public List<OrderItem> getOrderItems() {
-        return new ArrayList<>(orderItems); // Return defensive copy
+    public OrderItemList getOrderItems() {
+        return orderItems;
     }
 
     public OrderStatus getStatus() {
@@ -61,9 +69,16 @@ public class Order {
         return createdAt;
     }
 
-    // Setters
-    public void setStatus(OrderStatus status) {
-        this.status = status;
+    @Override
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Returns a copy of this order in the given status with the next version.
+     */
+    public Order withStatus(OrderStatus status) {
+        return new Order(id, customerId, orderItems, status, isTransactional, createdAt, version + 1);
     }
 
     @Override
@@ -75,6 +90,7 @@ public class Order {
                 ", status=" + status +
                 ", isTransactional=" + isTransactional +
                 ", createdAt=" + createdAt +
+                ", version=" + version +
                 '}';
     }
 }
@@ -4,9 +4,9 @@ import java.util.UUID;
 
 /**
  * Represents an item in an order (product + quantity).
- * This is a value object, not an entity (no ID needed).
+ * This is an immutable value object, not an entity (no ID needed), and can be shared freely.
  */
-public class OrderItem {
+public final class OrderItem {
     private final UUID productId;
     private final int quantity;
 
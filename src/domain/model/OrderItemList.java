@@ -0,0 +1,89 @@
+package domain.model;
+
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.function.Consumer;
+
+/**
+ * Immutable, array-backed list of order items.
+ *
+ * Orders and shipments hold their items in one of these and hand it out directly, so reads
+ * never copy. Because {@link OrderItem} is immutable too, a list can be shared between
+ * versions of an order, its shipments and callers without defensive copies.
+ * All mutators throw {@link UnsupportedOperationException}.
+ */
+public final class OrderItemList extends AbstractList<OrderItem> implements RandomAccess {
+    private static final OrderItemList EMPTY = new OrderItemList(new OrderItem[0]);
+
+    private final OrderItem[] items;
+
+    private OrderItemList(OrderItem[] items) {
+        this.items = items;
+    }
+
+    /**
+     * Returns the given items as an OrderItemList, copying them only if they are not one already.
+     *
+     * @throws NullPointerException if the collection or any item is null
+     */
+    public static OrderItemList of(Collection<? extends OrderItem> items) {
+        Objects.requireNonNull(items, "items cannot be null");
+        if (items instanceof OrderItemList) {
+            return (OrderItemList) items;
+        }
+        return wrap(items.toArray(new OrderItem[0]));
+    }
+
+    public static OrderItemList of(OrderItem... items) {
+        return wrap(items.clone());
+    }
+
+    public static OrderItemList empty() {
+        return EMPTY;
+    }
+
+    private static OrderItemList wrap(OrderItem[] items) {
+        if (items.length == 0) {
+            return EMPTY;
+        }
+        for (OrderItem item: items) {
+            Objects.requireNonNull(item, "items cannot contain null");
+        }
+        return new OrderItemList(items);
+    }
+
+    @Override
+    public OrderItem get(int index) {
+        return items[index];
+    }
+
+    @Override
+    public int size() {
+        return items.length;
+    }
+
+    /**
+     * Sum of the quantities of all items.
+     */
+    public long totalQuantity() {
+        long total = 0;
+        for (OrderItem item: items) {
+            total += item.getQuantity();
+        }
+        return total;
+    }
+
+    @Override
+    public void forEach(Consumer<? super OrderItem> action) {
+        for (OrderItem item: items) {
+            action.accept(item);
+        }
+    }
+
+    @Override
+    public Object[] toArray() {
+        return items.clone();
+    }
+}
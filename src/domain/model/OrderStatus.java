@@ -7,5 +7,19 @@ public enum OrderStatus {
     CREATED,    // Order has been created but not yet allocated
     ALLOCATED,  // Inventory has been reserved and shipments created
     SHIPPED,    // All shipments have been shipped
-    CANCELLED   // Order has been cancelled
+    CANCELLED;  // Order has been cancelled
+
+    /**
+     * Valid lifecycle moves: CREATED -> ALLOCATED -> SHIPPED, and cancellation before shipping.
+     */
+    public boolean canTransitionTo(OrderStatus next) {
+        switch (this) {
+            case CREATED:
+                return next == ALLOCATED || next == CANCELLED;
+            case ALLOCATED:
+                return next == SHIPPED || next == CANCELLED;
+            default:
+                return false;
+        }
+    }
 }
@@ -1,50 +1,71 @@
 package domain.model;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 import java.util.UUID;
 
 /**
  * Represents a shipment from a warehouse to a customer.
  * Each shipment is associated with one order and one warehouse.
+ * Status changes produce a new instance with the next version (see {@link #withStatus}).
  */
-public class Shipment {
+public class Shipment implements Versioned {
     private final UUID id;
     private final UUID orderId;
     private final UUID warehouseId;
     private final UUID customerId;
-    private final Location destination;
-    private final List<OrderItem> shipmentItems;
-    private ShipmentStatus status;
+    private final LocationTable locations;
+    private final int destination; // Handle in locations
+    private final OrderItemList shipmentItems;
+    private final ShipmentStatus status;
     private final LocalDateTime createdAt;
-    private LocalDateTime shippedAt;
+    private final LocalDateTime shippedAt;
+    private final long version;
 
-    public Shipment(UUID orderId, UUID warehouseId, UUID customerId, Location destination, List<OrderItem> shipmentItems) {
+    public Shipment(UUID orderId, UUID warehouseId, UUID customerId, Location destination, List<OrderItem> shipmentItems,
+                    LocationTable locations) {
         this.id = UUID.randomUUID();
         this.orderId = orderId;
         this.warehouseId = warehouseId;
         this.customerId = customerId;
-        this.destination = destination;
-        this.shipmentItems = new ArrayList<>(shipmentItems); // Defensive copy
+        this.locations = Objects.requireNonNull(locations, "locations cannot be null");
+        this.destination = locations.intern(destination);
+        this.shipmentItems = OrderItemList.of(shipmentItems); // Copies unless already immutable
         this.status = ShipmentStatus.CREATED;
         this.createdAt = LocalDateTime.now();
         this.shippedAt = null;
+        this.version = 0;
     }
 
     // Constructor for loading existing shipments (e.g., from repository)
     public Shipment(UUID id, UUID orderId, UUID warehouseId, UUID customerId, Location destination,
                     List<OrderItem> shipmentItems, ShipmentStatus status, 
-                    LocalDateTime createdAt, LocalDateTime shippedAt) {
+                    LocalDateTime createdAt, LocalDateTime shippedAt, LocationTable locations) {
+        this(id, orderId, warehouseId, customerId, destination, shipmentItems, status, createdAt, shippedAt, 0, locations);
+    }
+
+    public Shipment(UUID id, UUID orderId, UUID warehouseId, UUID customerId, Location destination,
+                    List<OrderItem> shipmentItems, ShipmentStatus status,
+                    LocalDateTime createdAt, LocalDateTime shippedAt, long version, LocationTable locations) {
+        this(id, orderId, warehouseId, customerId, Objects.requireNonNull(locations, "locations cannot be null"),
+                locations.intern(destination), shipmentItems, status, createdAt, shippedAt, version);
+    }
+
+    private Shipment(UUID id, UUID orderId, UUID warehouseId, UUID customerId, LocationTable locations, int destination,
+                     List<OrderItem> shipmentItems, ShipmentStatus status,
+                     LocalDateTime createdAt, LocalDateTime shippedAt, long version) {
         this.id = id;
         this.orderId = orderId;
         this.warehouseId = warehouseId;
         this.customerId = customerId;
+        this.locations = locations;
         this.destination = destination;
-        this.shipmentItems = new ArrayList<>(shipmentItems);
+        this.shipmentItems = OrderItemList.of(shipmentItems);
         this.status = status;
         this.createdAt = createdAt;
         this.shippedAt = shippedAt;
+        this.version = version;
     }
 
     // Getters
@@ -64,8 +85,8 @@ public class Shipment {
         return customerId;
     }
 
-    public List<OrderItem> getShipmentItems() {
-        return new ArrayList<>(shipmentItems); // Return defensive copy
+    public OrderItemList getShipmentItems() {
+        return shipmentItems;
     }
 
     public ShipmentStatus getStatus() {
@@ -80,13 +101,25 @@ public class Shipment {
         return shippedAt;
     }
 
-    // Setters
-    public void setStatus(ShipmentStatus status) {
-        this.status = status;
+    public Location getDestination() {
+        return locations.get(destination);
     }
 
-    public void setShippedAt(LocalDateTime shippedAt) {
-        this.shippedAt = shippedAt;
+    public int getDestinationHandle() {
+        return destination;
+    }
+
+    @Override
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Returns a copy of this shipment in the given status with the next version.
+     */
+    public Shipment withStatus(ShipmentStatus status, LocalDateTime shippedAt) {
+        return new Shipment(id, orderId, warehouseId, customerId, locations, destination, shipmentItems,
+                status, createdAt, shippedAt, version + 1);
     }
 
     @Override
@@ -100,6 +133,7 @@ public class Shipment {
                 ", status=" + status +
                 ", createdAt=" + createdAt +
                 ", shippedAt=" + shippedAt +
+                ", version=" + version +
                 '}';
     }
 }
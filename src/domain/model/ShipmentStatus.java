@@ -8,5 +8,20 @@ public enum ShipmentStatus {
     SHIPPED,    // Shipment has been shipped
     DELIVERED,  // Shipment has been delivered to customer
     CANCELLED, // Shipment has been cancelled
-    FAILED      // Shipment failed
+    FAILED;     // Shipment failed
+
+    /**
+     * Valid lifecycle moves: CREATED -> SHIPPED -> DELIVERED; a shipment can be cancelled
+     * before it leaves and can fail at any point until it is delivered.
+     */
+    public boolean canTransitionTo(ShipmentStatus next) {
+        switch (this) {
+            case CREATED:
+                return next == SHIPPED || next == CANCELLED || next == FAILED;
+            case SHIPPED:
+                return next == DELIVERED || next == FAILED;
+            default:
+                return false;
+        }
+    }
 }
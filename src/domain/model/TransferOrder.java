@@ -0,0 +1,127 @@
+package domain.model;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Moves a quantity of one product from a source warehouse to a destination warehouse along
+ * a route of network nodes. Immutable: status changes produce a new instance with the next
+ * version (see {@link #withStatus}).
+ */
+public class TransferOrder implements Versioned {
+    private final UUID id;
+    private final UUID productId;
+    private final UUID sourceWarehouseId;
+    private final UUID destinationWarehouseId;
+    private final int quantity;
+    private final List<UUID> route;
+    private final Duration transitTime;
+    private final TransferStatus status;
+    private final Instant createdAt;
+    private final Instant dispatchedAt;
+    private final long version;
+
+    public TransferOrder(UUID productId, UUID sourceWarehouseId, UUID destinationWarehouseId, int quantity,
+                         List<UUID> route, Duration transitTime, Instant createdAt) {
+        this(UUID.randomUUID(), productId, sourceWarehouseId, destinationWarehouseId, quantity, route, transitTime,
+                TransferStatus.RESERVED, createdAt, null, 0);
+    }
+
+    public TransferOrder(UUID id, UUID productId, UUID sourceWarehouseId, UUID destinationWarehouseId, int quantity,
+                         List<UUID> route, Duration transitTime, TransferStatus status,
+                         Instant createdAt, Instant dispatchedAt, long version) {
+        this.id = id;
+        this.productId = productId;
+        this.sourceWarehouseId = sourceWarehouseId;
+        this.destinationWarehouseId = destinationWarehouseId;
+        this.quantity = quantity;
+        this.route = List.copyOf(route);
+        this.transitTime = transitTime;
+        this.status = status;
+        this.createdAt = createdAt;
+        this.dispatchedAt = dispatchedAt;
+        this.version = version;
+    }
+
+    // Getters
+    public UUID getId() {
+        return id;
+    }
+
+    public UUID getProductId() {
+        return productId;
+    }
+
+    public UUID getSourceWarehouseId() {
+        return sourceWarehouseId;
+    }
+
+    public UUID getDestinationWarehouseId() {
+        return destinationWarehouseId;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    /**
+     * Network nodes the stock passes through, from source to destination.
+     */
+    public List<UUID> getRoute() {
+        return route;
+    }
+
+    public Duration getTransitTime() {
+        return transitTime;
+    }
+
+    public TransferStatus getStatus() {
+        return status;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public Instant getDispatchedAt() {
+        return dispatchedAt;
+    }
+
+    /**
+     * When the stock reaches the destination, or null until it is dispatched.
+     */
+    public Instant getArrivesAt() {
+        return dispatchedAt == null ? null : dispatchedAt.plus(transitTime);
+    }
+
+    @Override
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Returns a copy of this transfer in the given status with the next version.
+     */
+    public TransferOrder withStatus(TransferStatus status, Instant dispatchedAt) {
+        return new TransferOrder(id, productId, sourceWarehouseId, destinationWarehouseId, quantity, route, transitTime,
+                status, createdAt, dispatchedAt, version + 1);
+    }
+
+    @Override
+    public String toString() {
+        return "TransferOrder{" +
+                "id='" + id + '\'' +
+                ", productId='" + productId + '\'' +
+                ", sourceWarehouseId='" + sourceWarehouseId + '\'' +
+                ", destinationWarehouseId='" + destinationWarehouseId + '\'' +
+                ", quantity=" + quantity +
+                ", route=" + route +
+                ", status=" + status +
+                ", createdAt=" + createdAt +
+                ", dispatchedAt=" + dispatchedAt +
+                ", version=" + version +
+                '}';
+    }
+}
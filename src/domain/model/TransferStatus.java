@@ -0,0 +1,25 @@
+package domain.model;
+
+/**
+ * Represents the status of a stock transfer between two warehouses.
+ */
+public enum TransferStatus {
+    RESERVED,   // Stock is reserved at the source warehouse
+    IN_TRANSIT, // Stock has left the source warehouse
+    RECEIVED,   // Stock has been added to the destination warehouse
+    CANCELLED;  // Transfer was cancelled before it left; the reservation is released
+
+    /**
+     * Valid lifecycle moves: RESERVED -> IN_TRANSIT -> RECEIVED, and cancellation before dispatch.
+     */
+    public boolean canTransitionTo(TransferStatus next) {
+        switch (this) {
+            case RESERVED:
+                return next == IN_TRANSIT || next == CANCELLED;
+            case IN_TRANSIT:
+                return next == RECEIVED;
+            default:
+                return false;
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package domain.model;
+
+/**
+ * An entity that carries a version number. Every replacement of a versioned entity in a
+ * repository is expected to carry a higher version, which lets writers detect conflicting
+ * concurrent updates with compare-and-save instead of locking.
+ */
+public interface Versioned {
+    long getVersion();
+}
@@ -1,5 +1,6 @@
 package domain.model;
 
+import java.util.Objects;
 import java.util.UUID;
 
 /**
@@ -8,21 +9,20 @@ import java.util.UUID;
 public class Warehouse {
     private final UUID id;
     private String name;
-    private Location location;
+    private final LocationTable locations;
+    private int location; // Handle in locations
     private int maxCapacity;
 
-    public Warehouse(String name, Location location, int maxCapacity) {
-        this.id = UUID.randomUUID();
-        this.name = name;
-        this.location = location;
-        this.maxCapacity = maxCapacity;
+    public Warehouse(String name, Location location, int maxCapacity, LocationTable locations) {
+        this(UUID.randomUUID(), name, location, maxCapacity, locations);
     }
 
     // Constructor for loading existing warehouses (e.g., from repository)
-    public Warehouse(UUID id, String name, Location location, int maxCapacity) {
+    public Warehouse(UUID id, String name, Location location, int maxCapacity, LocationTable locations) {
         this.id = id;
         this.name = name;
-        this.location = location;
+        this.locations = Objects.requireNonNull(locations, "locations cannot be null");
+        this.location = locations.intern(location);
         this.maxCapacity = maxCapacity;
     }
 
@@ -36,6 +36,10 @@ public class Warehouse {
     }
 
     public Location getLocation() {
+        return locations.get(location);
+    }
+
+    public int getLocationHandle() {
         return location;
     }
 
@@ -49,7 +53,7 @@ public class Warehouse {
     }
 
     public void setLocation(Location location) {
-        this.location = location;
+        this.location = locations.intern(location);
     }
 
     public void setMaxCapacity(int maxCapacity) {
@@ -57,7 +61,7 @@ public class Warehouse {
     }
 
     public double distanceTo(Location location) {
-        return location.calculateDistanceTo(this.location);
+        return locations.distance(this.location, location);
     }
 
     @Override
@@ -65,7 +69,7 @@ public class Warehouse {
         return "Warehouse{" +
                 "id='" + id + '\'' +
                 ", name='" + name + '\'' +
-                ", location='" + location + '\'' +
+                ", location='" + getLocation() + '\'' +
                 ", maxCapacity=" + maxCapacity +
                 '}';
     }
@@ -0,0 +1,7 @@
+package exceptions;
+
+public class ChangeStreamOverflowException extends SupplyChainException {
+    public ChangeStreamOverflowException(int bufferCapacity, long lastDeliveredSequence) {
+        super("Change subscriber fell more than " + bufferCapacity + " events behind after sequence " + lastDeliveredSequence);
+    }
+}
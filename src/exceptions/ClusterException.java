@@ -0,0 +1,11 @@
+package exceptions;
+
+public class ClusterException extends SupplyChainException {
+    public ClusterException(String message) {
+        super(message);
+    }
+
+    public ClusterException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
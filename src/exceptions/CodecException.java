@@ -0,0 +1,7 @@
+package exceptions;
+
+public class CodecException extends SupplyChainException {
+    public CodecException(String message) {
+        super(message);
+    }
+}
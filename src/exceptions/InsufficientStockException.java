@@ -1,21 +1,55 @@
 package exceptions;
 
-import java.util.Objects;
 import java.util.UUID;
 
 public class InsufficientStockException extends SupplyChainException{
     private final UUID productId;
     private final UUID warehouseId;
+    private final int requestedQuantity;
+    private final int availableQuantity;
 
     public InsufficientStockException(UUID productId, UUID warehouseId, int requestedQuantity, int availableQuantity) {
-        super(
-                "Insufficient stock. Product=" + productId +
-                        ", Warehouse=" + warehouseId +
-                        ", requested quantity=" + String.valueOf(requestedQuantity) +
-                        ", available quantity=" + String.valueOf(availableQuantity)
-        );
+        this(productId, warehouseId, requestedQuantity, availableQuantity, true);
+    }
+
+    private InsufficientStockException(UUID productId, UUID warehouseId, int requestedQuantity, int availableQuantity,
+                                       boolean writableStackTrace) {
+        super(writableStackTrace);
         this.productId = productId;
         this.warehouseId = warehouseId;
+        this.requestedQuantity = requestedQuantity;
+        this.availableQuantity = availableQuantity;
+    }
+
+    /**
+     * Variant without a stack trace, for rejections that are expected and frequent.
+     */
+    public static InsufficientStockException stackless(UUID productId, UUID warehouseId,
+                                                       int requestedQuantity, int availableQuantity) {
+        return new InsufficientStockException(productId, warehouseId, requestedQuantity, availableQuantity, false);
     }
 
+    public UUID getProductId() {
+        return productId;
+    }
+
+    public UUID getWarehouseId() {
+        return warehouseId;
+    }
+
+    public int getRequestedQuantity() {
+        return requestedQuantity;
+    }
+
+    public int getAvailableQuantity() {
+        return availableQuantity;
+    }
+
+    @Override
+    protected String buildMessage() {
+        return "Insufficient stock. Product=" + productId +
+                ", Warehouse=" + warehouseId +
+                ", requested quantity=" + requestedQuantity +
+                ", available quantity=" + availableQuantity;
+    }
 }
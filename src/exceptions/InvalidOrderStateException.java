@@ -0,0 +1,34 @@
+package exceptions;
+
+import domain.model.OrderStatus;
+
+import java.util.UUID;
+
+public class InvalidOrderStateException extends SupplyChainException {
+    private final UUID orderId;
+    private final OrderStatus currentStatus;
+    private final OrderStatus requestedStatus;
+
+    public InvalidOrderStateException(UUID orderId, OrderStatus currentStatus, OrderStatus requestedStatus) {
+        super(
+                "Invalid order state transition. Order=" + orderId +
+                        ", current status=" + currentStatus +
+                        ", requested status=" + requestedStatus
+        );
+        this.orderId = orderId;
+        this.currentStatus = currentStatus;
+        this.requestedStatus = requestedStatus;
+    }
+
+    public UUID getOrderId() {
+        return orderId;
+    }
+
+    public OrderStatus getCurrentStatus() {
+        return currentStatus;
+    }
+
+    public OrderStatus getRequestedStatus() {
+        return requestedStatus;
+    }
+}
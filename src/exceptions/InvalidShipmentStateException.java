@@ -0,0 +1,34 @@
+package exceptions;
+
+import domain.model.ShipmentStatus;
+
+import java.util.UUID;
+
+public class InvalidShipmentStateException extends SupplyChainException {
+    private final UUID shipmentId;
+    private final ShipmentStatus currentStatus;
+    private final ShipmentStatus requestedStatus;
+
+    public InvalidShipmentStateException(UUID shipmentId, ShipmentStatus currentStatus, ShipmentStatus requestedStatus) {
+        super(
+                "Invalid shipment state transition. Shipment=" + shipmentId +
+                        ", current status=" + currentStatus +
+                        ", requested status=" + requestedStatus
+        );
+        this.shipmentId = shipmentId;
+        this.currentStatus = currentStatus;
+        this.requestedStatus = requestedStatus;
+    }
+
+    public UUID getShipmentId() {
+        return shipmentId;
+    }
+
+    public ShipmentStatus getCurrentStatus() {
+        return currentStatus;
+    }
+
+    public ShipmentStatus getRequestedStatus() {
+        return requestedStatus;
+    }
+}
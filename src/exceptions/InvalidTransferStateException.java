@@ -0,0 +1,34 @@
+package exceptions;
+
+import domain.model.TransferStatus;
+
+import java.util.UUID;
+
+public class InvalidTransferStateException extends SupplyChainException {
+    private final UUID transferId;
+    private final TransferStatus currentStatus;
+    private final TransferStatus requestedStatus;
+
+    public InvalidTransferStateException(UUID transferId, TransferStatus currentStatus, TransferStatus requestedStatus) {
+        super(
+                "Invalid transfer state transition. Transfer=" + transferId +
+                        ", current status=" + currentStatus +
+                        ", requested status=" + requestedStatus
+        );
+        this.transferId = transferId;
+        this.currentStatus = currentStatus;
+        this.requestedStatus = requestedStatus;
+    }
+
+    public UUID getTransferId() {
+        return transferId;
+    }
+
+    public TransferStatus getCurrentStatus() {
+        return currentStatus;
+    }
+
+    public TransferStatus getRequestedStatus() {
+        return requestedStatus;
+    }
+}
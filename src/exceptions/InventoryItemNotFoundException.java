@@ -1,7 +1,5 @@
 package exceptions;
 
-import domain.model.InventoryItem;
-
 import java.util.UUID;
 
 public class InventoryItemNotFoundException extends SupplyChainException{
@@ -10,14 +8,22 @@ public class InventoryItemNotFoundException extends SupplyChainException{
     private final UUID warehouseId;
 
     public InventoryItemNotFoundException(UUID productId, UUID warehouseId) {
-        super(
-                "Inventory item not found. Product=" + productId +
-                        ", Warehouse=" + warehouseId
-        );
+        this(productId, warehouseId, true);
+    }
+
+    private InventoryItemNotFoundException(UUID productId, UUID warehouseId, boolean writableStackTrace) {
+        super(writableStackTrace);
         this.productId = productId;
         this.warehouseId = warehouseId;
     }
 
+    /**
+     * Variant without a stack trace, for rejections that are expected and frequent.
+     */
+    public static InventoryItemNotFoundException stackless(UUID productId, UUID warehouseId) {
+        return new InventoryItemNotFoundException(productId, warehouseId, false);
+    }
+
     public UUID getProductId() {
         return productId;
     }
@@ -25,4 +31,10 @@ public class InventoryItemNotFoundException extends SupplyChainException{
     public UUID getWarehouseId() {
         return warehouseId;
     }
+
+    @Override
+    protected String buildMessage() {
+        return "Inventory item not found. Product=" + productId +
+                ", Warehouse=" + warehouseId;
+    }
 }
@@ -5,4 +5,15 @@ public class NoAvailableWarehouseException extends SupplyChainException{
     public NoAvailableWarehouseException(String message) {
         super(message);
     }
+
+    private NoAvailableWarehouseException(String message, boolean writableStackTrace) {
+        super(message, writableStackTrace);
+    }
+
+    /**
+     * Variant without a stack trace, for rejections that are expected and frequent.
+     */
+    public static NoAvailableWarehouseException stackless(String message) {
+        return new NoAvailableWarehouseException(message, false);
+    }
 }
@@ -0,0 +1,22 @@
+package exceptions;
+
+import java.util.UUID;
+
+public class NoRouteException extends SupplyChainException {
+    private final UUID from;
+    private final UUID to;
+
+    public NoRouteException(UUID from, UUID to) {
+        super("No route in the transport network from " + from + " to " + to);
+        this.from = from;
+        this.to = to;
+    }
+
+    public UUID getFrom() {
+        return from;
+    }
+
+    public UUID getTo() {
+        return to;
+    }
+}
@@ -8,4 +8,40 @@ public class SupplyChainException extends RuntimeException{
     public SupplyChainException(String message, Throwable cause) {
         super(message, cause);
     }
+
+    /**
+     * For exceptions whose message is only built by {@link #buildMessage()} when someone
+     * asks for it.
+     */
+    protected SupplyChainException() {
+        this(true);
+    }
+
+    /**
+     * Like {@link #SupplyChainException()}; stackless variants, for expected business
+     * outcomes that can be raised many times a second, pass false and capture no stack trace.
+     */
+    protected SupplyChainException(boolean writableStackTrace) {
+        super(null, null, false, writableStackTrace);
+    }
+
+    /**
+     * Like {@link #SupplyChainException(boolean)}, for outcomes whose message is already at hand.
+     */
+    protected SupplyChainException(String message, boolean writableStackTrace) {
+        super(message, null, false, writableStackTrace);
+    }
+
+    @Override
+    public String getMessage() {
+        String message = super.getMessage();
+        return message != null ? message : buildMessage();
+    }
+
+    /**
+     * Builds the message of an exception created without one.
+     */
+    protected String buildMessage() {
+        return null;
+    }
 }
@@ -0,0 +1,8 @@
+package exceptions;
+
+public class TransferNotFoundException extends SupplyChainException{
+
+    public TransferNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,21 @@
+package exceptions;
+
+import java.util.UUID;
+
+public class WarehouseCapacityExceededException extends SupplyChainException {
+    private final UUID warehouseId;
+
+    public WarehouseCapacityExceededException(UUID warehouseId, long requestedUnits, long usedUnits, int maxCapacity) {
+        super(
+                "Warehouse capacity exceeded. Warehouse=" + warehouseId +
+                        ", requested units=" + requestedUnits +
+                        ", used units=" + usedUnits +
+                        ", max capacity=" + maxCapacity
+        );
+        this.warehouseId = warehouseId;
+    }
+
+    public UUID getWarehouseId() {
+        return warehouseId;
+    }
+}
@@ -0,0 +1,36 @@
+package exceptions;
+
+/**
+ * Backpressure signal: warehouses with enough stock exist, but every one of them has a
+ * full pick/pack queue. Callers should retry later rather than treat the order as
+ * unfulfillable.
+ */
+public class WarehouseSaturatedException extends SupplyChainException {
+    private final int saturatedWarehouses;
+
+    public WarehouseSaturatedException(String message) {
+        super(message);
+        this.saturatedWarehouses = -1;
+    }
+
+    public WarehouseSaturatedException(int saturatedWarehouses) {
+        this(saturatedWarehouses, true);
+    }
+
+    private WarehouseSaturatedException(int saturatedWarehouses, boolean writableStackTrace) {
+        super(writableStackTrace);
+        this.saturatedWarehouses = saturatedWarehouses;
+    }
+
+    /**
+     * Variant without a stack trace, for backpressure signals raised many times a second.
+     */
+    public static WarehouseSaturatedException stackless(int saturatedWarehouses) {
+        return new WarehouseSaturatedException(saturatedWarehouses, false);
+    }
+
+    @Override
+    protected String buildMessage() {
+        return "All " + saturatedWarehouses + " warehouses with stock are saturated";
+    }
+}
@@ -0,0 +1,153 @@
+package metrics;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size, log-linear histogram of non-negative long values (typically nanoseconds),
+ * in the style of HdrHistogram.
+ *
+ * Values below 128 are counted exactly. Above that every power-of-two range is split into
+ * 64 equal sub-buckets, so any recorded value is reported with a relative error below
+ * 1/64 (about 1.6%) across the whole long range, using under 4000 counters.
+ *
+ * Recording is lock-free and safe from any number of threads. Reads taken while values are
+ * being recorded are approximate snapshots.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int HALF_SUB_BUCKETS = SUB_BUCKETS / 2;
+    private static final int BUCKETS = SUB_BUCKETS + (64 - SUB_BUCKET_BITS) * HALF_SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong totalCount = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+
+    public void recordValue(long value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("value cannot be negative: " + value);
+        }
+        counts.incrementAndGet(indexOf(value));
+        totalCount.incrementAndGet();
+        sum.addAndGet(value);
+        max.accumulateAndGet(value, Math::max);
+    }
+
+    /**
+     * Adds every count of another histogram to this one.
+     */
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < BUCKETS; i++) {
+            long count = other.counts.get(i);
+            if (count != 0) {
+                counts.addAndGet(i, count);
+            }
+        }
+        totalCount.addAndGet(other.totalCount.get());
+        sum.addAndGet(other.sum.get());
+        max.accumulateAndGet(other.max.get(), Math::max);
+    }
+
+    public long getTotalCount() {
+        return totalCount.get();
+    }
+
+    public long getMaxValue() {
+        return max.get();
+    }
+
+    public double getMean() {
+        long count = totalCount.get();
+        return count == 0 ? 0 : sum.get() / (double) count;
+    }
+
+    /**
+     * Returns the smallest value that at least the given percentage of recorded values are
+     * at or below, rounded up to the top of its bucket (and capped at the recorded maximum).
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("percentile must be between 0 and 100: " + percentile);
+        }
+        long count = totalCount.get();
+        if (count == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= target) {
+                return Math.min(highestEquivalentValue(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    /**
+     * Formats the distribution as an HdrHistogram-style percentile table: value, percentile,
+     * cumulative count and 1/(1-percentile), with values divided by {@code unitScale}
+     * (for example 1_000_000.0 to print nanoseconds as milliseconds).
+     */
+    public String percentileReport(double unitScale) {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format(Locale.ROOT, "%12s %14s %12s %14s%n", "Value", "Percentile", "TotalCount", "1/(1-Percentile)"));
+
+        long count = totalCount.get();
+        if (count > 0) {
+            // Halve the remaining distance to 100% at every step, as HdrHistogram does
+            double percentile = 0;
+            for (int step = 0; step < 20 && percentile < 100; step++) {
+                appendRow(report, percentile, count, unitScale);
+                percentile = 100 - (100 - percentile) / 2;
+                if (percentile / 100 * count > count - 1) {
+                    break;
+                }
+            }
+            appendRow(report, 100, count, unitScale);
+        }
+
+        report.append(String.format(Locale.ROOT, "#[Mean = %.3f, Max = %.3f, TotalCount = %d]%n",
+                getMean() / unitScale, max.get() / unitScale, count));
+        return report.toString();
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+        totalCount.set(0);
+        sum.set(0);
+        max.set(0);
+    }
+
+    private void appendRow(StringBuilder report, double percentile, long count, double unitScale) {
+        long value = getValueAtPercentile(percentile);
+        long cumulative = Math.min(count, Math.max(1, (long) Math.ceil(percentile / 100 * count)));
+        String inverse = percentile >= 100 ? "inf" : String.format(Locale.ROOT, "%.2f", 1 / (1 - percentile / 100));
+        report.append(String.format(Locale.ROOT, "%12.3f %14.12f %12d %14s%n",
+                value / unitScale, percentile / 100, cumulative, inverse));
+    }
+
+    static int indexOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - (SUB_BUCKET_BITS - 1);
+        int top = (int) (value >>> shift);
+        return SUB_BUCKETS + (shift - 1) * HALF_SUB_BUCKETS + (top - HALF_SUB_BUCKETS);
+    }
+
+    static long highestEquivalentValue(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = (index - SUB_BUCKETS) / HALF_SUB_BUCKETS + 1;
+        long top = (index - SUB_BUCKETS) % HALF_SUB_BUCKETS + HALF_SUB_BUCKETS;
+        long lowest = top << shift;
+        return lowest + (1L << shift) - 1;
+    }
+}
@@ -0,0 +1,77 @@
+package metrics;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * {@link LatencyHistogram} over a sliding window of recent intervals, for example the last
+ * four hours in hourly slices.
+ *
+ * Values are recorded against the timestamp of the event they measure, not the wall clock,
+ * so replays and simulations get the same windows as live traffic. A ring holds one
+ * histogram per interval; the slot of an interval that has aged out is replaced by a fresh
+ * histogram the first time a newer interval needs it, and values older than the window are
+ * dropped. Histograms are only allocated for intervals that saw a value.
+ *
+ * Recording is lock-free. A value racing with the rotation of its slot can be lost, which
+ * is fine for percentiles.
+ */
+public class RollingLatencyHistogram {
+    private final long intervalNanos;
+    private final AtomicReferenceArray<Slice> slices;
+
+    public RollingLatencyHistogram(Duration interval, int intervals) {
+        this.intervalNanos = interval.toNanos();
+        if (intervalNanos <= 0) {
+            throw new IllegalArgumentException("interval must be positive: " + interval);
+        }
+        if (intervals <= 0) {
+            throw new IllegalArgumentException("intervals must be positive: " + intervals);
+        }
+        this.slices = new AtomicReferenceArray<>(intervals);
+    }
+
+    /**
+     * Records a value for the event at the given timestamp (nanoseconds on any fixed scale).
+     */
+    public void recordValue(long timestampNanos, long value) {
+        long interval = Math.floorDiv(timestampNanos, intervalNanos);
+        int index = (int) Math.floorMod(interval, (long) slices.length());
+        while (true) {
+            Slice slice = slices.get(index);
+            if (slice != null && slice.interval == interval) {
+                slice.histogram.recordValue(value);
+                return;
+            }
+            if (slice != null && slice.interval > interval) {
+                return; // Older than the window
+            }
+            slices.compareAndSet(index, slice, new Slice(interval));
+        }
+    }
+
+    /**
+     * Returns a merged copy of the intervals in the window that ends with the interval
+     * containing the given timestamp.
+     */
+    public LatencyHistogram snapshot(long nowNanos) {
+        long newest = Math.floorDiv(nowNanos, intervalNanos);
+        LatencyHistogram merged = new LatencyHistogram();
+        for (int i = 0; i < slices.length(); i++) {
+            Slice slice = slices.get(i);
+            if (slice != null && slice.interval <= newest && slice.interval > newest - slices.length()) {
+                merged.add(slice.histogram);
+            }
+        }
+        return merged;
+    }
+
+    private static final class Slice {
+        private final long interval;
+        private final LatencyHistogram histogram = new LatencyHistogram();
+
+        private Slice(long interval) {
+            this.interval = interval;
+        }
+    }
+}
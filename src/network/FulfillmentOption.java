@@ -0,0 +1,84 @@
+package network;
+
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * One way to get a quantity of a product to a customer: ship it directly from a warehouse
+ * that has it, or transfer it through the network to another warehouse first and ship
+ * from there. Produced by {@link TransferPlanner}.
+ */
+public final class FulfillmentOption {
+    private final UUID productId;
+    private final int quantity;
+    private final UUID sourceWarehouseId;
+    private final UUID shipFromWarehouseId;
+    private final NetworkPath transferPath;
+    private final double cost;
+
+    FulfillmentOption(UUID productId, int quantity, UUID sourceWarehouseId, UUID shipFromWarehouseId,
+                      NetworkPath transferPath, double cost) {
+        this.productId = productId;
+        this.quantity = quantity;
+        this.sourceWarehouseId = sourceWarehouseId;
+        this.shipFromWarehouseId = shipFromWarehouseId;
+        this.transferPath = transferPath;
+        this.cost = cost;
+    }
+
+    public UUID getProductId() {
+        return productId;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    /**
+     * Warehouse that has the stock now.
+     */
+    public UUID getSourceWarehouseId() {
+        return sourceWarehouseId;
+    }
+
+    /**
+     * Warehouse that ships to the customer; the source itself unless this is a transfer.
+     */
+    public UUID getShipFromWarehouseId() {
+        return shipFromWarehouseId;
+    }
+
+    public boolean isTransfer() {
+        return transferPath != null;
+    }
+
+    /**
+     * Route of the transfer, or null for a direct shipment.
+     */
+    public NetworkPath getTransferPath() {
+        return transferPath;
+    }
+
+    public Duration getTransferTime() {
+        return transferPath == null ? Duration.ZERO : transferPath.getTransitTime();
+    }
+
+    /**
+     * Transfer lane costs plus the last-mile cost from the ship-from warehouse.
+     */
+    public double getCost() {
+        return cost;
+    }
+
+    @Override
+    public String toString() {
+        return "FulfillmentOption{" +
+                "productId=" + productId +
+                ", quantity=" + quantity +
+                ", sourceWarehouseId=" + sourceWarehouseId +
+                ", shipFromWarehouseId=" + shipFromWarehouseId +
+                ", transferPath=" + transferPath +
+                ", cost=" + cost +
+                '}';
+    }
+}
@@ -0,0 +1,58 @@
+package network;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Directed transport lane between two network nodes, with the cost of moving stock along
+ * it and its transit time.
+ */
+public final class Lane {
+    private final UUID from;
+    private final UUID to;
+    private final double cost;
+    private final Duration transitTime;
+
+    public Lane(UUID from, UUID to, double cost, Duration transitTime) {
+        this.from = Objects.requireNonNull(from, "from cannot be null");
+        this.to = Objects.requireNonNull(to, "to cannot be null");
+        this.transitTime = Objects.requireNonNull(transitTime, "transitTime cannot be null");
+        if (from.equals(to)) {
+            throw new IllegalArgumentException("A lane needs two different nodes: " + from);
+        }
+        if (!(cost >= 0) || Double.isInfinite(cost)) {
+            throw new IllegalArgumentException("cost must be finite and non-negative: " + cost);
+        }
+        if (transitTime.isNegative()) {
+            throw new IllegalArgumentException("transitTime cannot be negative: " + transitTime);
+        }
+        this.cost = cost;
+    }
+
+    public UUID getFrom() {
+        return from;
+    }
+
+    public UUID getTo() {
+        return to;
+    }
+
+    public double getCost() {
+        return cost;
+    }
+
+    public Duration getTransitTime() {
+        return transitTime;
+    }
+
+    @Override
+    public String toString() {
+        return "Lane{" +
+                "from=" + from +
+                ", to=" + to +
+                ", cost=" + cost +
+                ", transitTime=" + transitTime +
+                '}';
+    }
+}
@@ -0,0 +1,54 @@
+package network;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Cheapest route between two network nodes: the nodes visited, in order and including
+ * both ends, with the summed lane cost and transit time.
+ */
+public final class NetworkPath {
+    private final List<UUID> nodes;
+    private final double cost;
+    private final Duration transitTime;
+
+    NetworkPath(List<UUID> nodes, double cost, Duration transitTime) {
+        this.nodes = List.copyOf(nodes);
+        this.cost = cost;
+        this.transitTime = transitTime;
+    }
+
+    public List<UUID> getNodes() {
+        return nodes;
+    }
+
+    public UUID getOrigin() {
+        return nodes.get(0);
+    }
+
+    public UUID getDestination() {
+        return nodes.get(nodes.size() - 1);
+    }
+
+    public int getLaneCount() {
+        return nodes.size() - 1;
+    }
+
+    public double getCost() {
+        return cost;
+    }
+
+    public Duration getTransitTime() {
+        return transitTime;
+    }
+
+    @Override
+    public String toString() {
+        return "NetworkPath{" +
+                "nodes=" + nodes +
+                ", cost=" + cost +
+                ", transitTime=" + transitTime +
+                '}';
+    }
+}
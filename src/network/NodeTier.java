@@ -0,0 +1,11 @@
+package network;
+
+/**
+ * Echelon of a node in the {@link TransportNetwork}: stock flows from suppliers through
+ * distribution centers to regional warehouses, which ship to customers.
+ */
+public enum NodeTier {
+    SUPPLIER,
+    DISTRIBUTION_CENTER,
+    REGIONAL_WAREHOUSE
+}
@@ -0,0 +1,121 @@
+package network;
+
+import domain.model.Location;
+import domain.model.OrderItem;
+import service.InventoryService;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Chooses between shipping directly and transfer-then-ship for one product and quantity.
+ *
+ * Customers are served by regional warehouses. The planner takes the few regional
+ * warehouses nearest to the customer as ship-from candidates and every network node that
+ * has the whole quantity available as a source. Each (source, candidate) pair costs the
+ * cheapest transfer path between them (zero if they are the same warehouse) plus the
+ * last-mile distance times {@code lastMileCostPerUnit}; the cheapest pair wins. Transfer
+ * costs come from the network's cached shortest-path trees, so a plan costs
+ * O(nodes + sources * candidates) lookups.
+ */
+public class TransferPlanner {
+    public static final int DEFAULT_CANDIDATES = 8;
+
+    private final TransportNetwork network;
+    private final InventoryService inventoryService;
+    private final double lastMileCostPerUnit;
+    private final int candidates;
+
+    public TransferPlanner(TransportNetwork network, InventoryService inventoryService, double lastMileCostPerUnit) {
+        this(network, inventoryService, lastMileCostPerUnit, DEFAULT_CANDIDATES);
+    }
+
+    /**
+     * @param lastMileCostPerUnit cost of one location unit of customer delivery, in lane cost units
+     * @param candidates          regional warehouses nearest to the customer considered for shipping
+     */
+    public TransferPlanner(TransportNetwork network, InventoryService inventoryService, double lastMileCostPerUnit, int candidates) {
+        this.network = Objects.requireNonNull(network, "network cannot be null");
+        this.inventoryService = Objects.requireNonNull(inventoryService, "inventoryService cannot be null");
+        if (!(lastMileCostPerUnit >= 0) || Double.isInfinite(lastMileCostPerUnit)) {
+            throw new IllegalArgumentException("lastMileCostPerUnit must be finite and non-negative: " + lastMileCostPerUnit);
+        }
+        if (candidates <= 0) {
+            throw new IllegalArgumentException("candidates must be positive: " + candidates);
+        }
+        this.lastMileCostPerUnit = lastMileCostPerUnit;
+        this.candidates = candidates;
+    }
+
+    /**
+     * @return the cheapest option, or empty if no node has the quantity or none can reach a
+     *         regional warehouse near the customer
+     */
+    public Optional<FulfillmentOption> plan(UUID productId, int quantity, Location destination) {
+        Objects.requireNonNull(productId, "productId cannot be null");
+        Objects.requireNonNull(destination, "destination cannot be null");
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("quantity must be positive: " + quantity);
+        }
+
+        List<UUID> shipFrom = nearestRegionalWarehouses(destination);
+        double[] lastMile = new double[shipFrom.size()];
+        for (int c = 0; c < lastMile.length; c++) {
+            lastMile[c] = lastMileCostPerUnit * network.getLocation(shipFrom.get(c)).orElseThrow().calculateDistanceTo(destination);
+        }
+
+        List<OrderItem> items = List.of(new OrderItem(productId, quantity));
+        UUID bestSource = null;
+        int bestCandidate = -1;
+        double bestCost = Double.POSITIVE_INFINITY;
+        for (NodeTier tier: NodeTier.values()) {
+            for (UUID source: network.getNodes(tier)) {
+                if (!inventoryService.canFulfillItems(source, items)) {
+                    continue;
+                }
+                for (int c = 0; c < lastMile.length; c++) {
+                    double cost = network.pathCost(source, shipFrom.get(c)) + lastMile[c];
+                    if (cost < bestCost) {
+                        bestCost = cost;
+                        bestSource = source;
+                        bestCandidate = c;
+                    }
+                }
+            }
+        }
+        if (bestSource == null) {
+            return Optional.empty();
+        }
+        UUID shipFromId = shipFrom.get(bestCandidate);
+        NetworkPath path = bestSource.equals(shipFromId) ? null : network.shortestPath(bestSource, shipFromId).orElseThrow();
+        return Optional.of(new FulfillmentOption(productId, quantity, bestSource, shipFromId, path, bestCost));
+    }
+
+    private List<UUID> nearestRegionalWarehouses(Location destination) {
+        List<UUID> regional = new ArrayList<>();
+        for (UUID id: network.getNodes(NodeTier.REGIONAL_WAREHOUSE)) {
+            if (network.getLocation(id).isPresent()) {
+                regional.add(id);
+            }
+        }
+        if (regional.size() <= candidates) {
+            return regional;
+        }
+        // Sort (distance, position) pairs packed into longs; distances are non-negative
+        long[] keyed = new long[regional.size()];
+        for (int i = 0; i < keyed.length; i++) {
+            float distance = (float) network.getLocation(regional.get(i)).orElseThrow().calculateDistanceTo(destination);
+            keyed[i] = ((long) Float.floatToIntBits(distance) << 32) | i;
+        }
+        Arrays.sort(keyed);
+        List<UUID> nearest = new ArrayList<>(candidates);
+        for (int i = 0; i < candidates; i++) {
+            nearest.add(regional.get((int) keyed[i]));
+        }
+        return nearest;
+    }
+}
@@ -0,0 +1,202 @@
+package network;
+
+import domain.model.OrderItem;
+import domain.model.TransferOrder;
+import domain.model.TransferStatus;
+import exceptions.InvalidTransferStateException;
+import exceptions.NoRouteException;
+import exceptions.TransferNotFoundException;
+import exceptions.WarehouseCapacityExceededException;
+import repository.InMemoryRepository;
+import service.InventoryService;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.UUID;
+
+/**
+ * Inter-warehouse transfer orders over a {@link TransportNetwork}.
+ *
+ * Creating a transfer routes it along the network's cheapest path and reserves the stock
+ * at the source. Dispatching deducts the reserved stock; receiving adds it to the
+ * destination, creating the inventory item there if needed. Since receiving is an
+ * ordinary stock increase, inventory listeners (replenishment, backorders) react to it
+ * like to any restock.
+ *
+ * Status changes use compare-and-save on the stored transfer and are validated by
+ * {@link TransferStatus#canTransitionTo}, like shipments. Arrivals are delivered by
+ * {@link #receiveArrived()}, which applies every transfer whose transit time has passed
+ * by the service's clock.
+ */
+public class TransferService {
+    private final InMemoryRepository<TransferOrder> storage;
+    private final InventoryService inventoryService;
+    private final TransportNetwork network;
+    private final Clock clock;
+    // Guarded by itself
+    private final PriorityQueue<TransferOrder> inTransit =
+            new PriorityQueue<>(Comparator.comparing(TransferOrder::getArrivesAt));
+
+    public TransferService(InMemoryRepository<TransferOrder> storage,
+                           InventoryService inventoryService,
+                           TransportNetwork network,
+                           Clock clock) {
+        this.storage = Objects.requireNonNull(storage, "storage cannot be null");
+        this.inventoryService = Objects.requireNonNull(inventoryService, "inventoryService cannot be null");
+        this.network = Objects.requireNonNull(network, "network cannot be null");
+        this.clock = Objects.requireNonNull(clock, "clock cannot be null");
+    }
+
+    /**
+     * Routes a transfer and reserves its stock at the source.
+     *
+     * @throws NoRouteException if no lanes lead from the source to the destination
+     * @throws exceptions.InsufficientStockException if the source does not have the quantity available
+     */
+    public TransferOrder createTransfer(UUID productId, UUID sourceWarehouseId, UUID destinationWarehouseId, int quantity) {
+        Objects.requireNonNull(productId, "productId cannot be null");
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("quantity must be positive: " + quantity);
+        }
+        NetworkPath path = network.shortestPath(sourceWarehouseId, destinationWarehouseId)
+                .orElseThrow(() -> new NoRouteException(sourceWarehouseId, destinationWarehouseId));
+
+        inventoryService.reserveStock(sourceWarehouseId, List.of(new OrderItem(productId, quantity)));
+        TransferOrder transfer = new TransferOrder(productId, sourceWarehouseId, destinationWarehouseId, quantity,
+                path.getNodes(), path.getTransitTime(), clock.instant());
+        storage.save(transfer.getId(), transfer);
+        return transfer;
+    }
+
+    /**
+     * Starts the transfer of a transfer-then-ship option, towards its ship-from warehouse.
+     */
+    public TransferOrder createTransfer(FulfillmentOption option) {
+        if (!option.isTransfer()) {
+            throw new IllegalArgumentException("Option ships directly from " + option.getSourceWarehouseId());
+        }
+        return createTransfer(option.getProductId(), option.getSourceWarehouseId(), option.getShipFromWarehouseId(), option.getQuantity());
+    }
+
+    public TransferOrder getTransferById(UUID id) {
+        return storage.findById(id)
+                .orElseThrow(() -> new TransferNotFoundException("Transfer " + id + " not found"));
+    }
+
+    public List<TransferOrder> getTransfersByStatus(TransferStatus status) {
+        List<TransferOrder> transfers = new ArrayList<>();
+        for (TransferOrder transfer: storage.findAll()) {
+            if (transfer.getStatus() == status) {
+                transfers.add(transfer);
+            }
+        }
+        return transfers;
+    }
+
+    /**
+     * Stock leaves the source: the reservation is deducted and the transit time starts.
+     * If the deduction fails the transfer goes back to reserved.
+     */
+    public TransferOrder dispatch(UUID transferId) {
+        // Claim the transition first so concurrent callers cannot deduct the same stock twice
+        TransferOrder dispatched = transition(transferId, TransferStatus.IN_TRANSIT);
+        try {
+            inventoryService.deductStock(dispatched.getSourceWarehouseId(), dispatched.getProductId(), dispatched.getQuantity());
+        } catch (RuntimeException e) {
+            storage.compareAndSave(transferId, dispatched.getVersion(), dispatched.withStatus(TransferStatus.RESERVED, null));
+            throw e;
+        }
+        synchronized (inTransit) {
+            inTransit.add(dispatched);
+        }
+        return dispatched;
+    }
+
+    /**
+     * Cancels a transfer that has not left yet and releases its reservation.
+     */
+    public void cancel(UUID transferId) {
+        TransferOrder cancelled = transition(transferId, TransferStatus.CANCELLED);
+        inventoryService.releaseStock(cancelled.getSourceWarehouseId(), cancelled.getProductId(), cancelled.getQuantity());
+    }
+
+    /**
+     * Adds the transferred stock to the destination, whether or not its transit time has passed.
+     *
+     * If adding the stock fails the transfer stays in transit.
+     *
+     * @throws WarehouseCapacityExceededException if the destination is full
+     */
+    public TransferOrder receive(UUID transferId) {
+        // Claim the transition first so concurrent callers cannot add the same stock twice
+        TransferOrder received = transition(transferId, TransferStatus.RECEIVED);
+        try {
+            inventoryService.receiveStock(received.getDestinationWarehouseId(), received.getProductId(), received.getQuantity());
+        } catch (RuntimeException e) {
+            storage.compareAndSave(transferId, received.getVersion(),
+                    received.withStatus(TransferStatus.IN_TRANSIT, received.getDispatchedAt()));
+            throw e;
+        }
+        return received;
+    }
+
+    /**
+     * Receives every transfer that has arrived by the service's clock. Transfers whose
+     * destination is full stay in transit and are tried again on the next call. Any other
+     * failure is rethrown after the transfers not yet received are queued again.
+     *
+     * @return the number of transfers received
+     */
+    public int receiveArrived() {
+        Instant now = clock.instant();
+        List<TransferOrder> arrived = new ArrayList<>();
+        synchronized (inTransit) {
+            while (!inTransit.isEmpty() && !inTransit.peek().getArrivesAt().isAfter(now)) {
+                arrived.add(inTransit.poll());
+            }
+        }
+
+        int received = 0;
+        for (int i = 0; i < arrived.size(); i++) {
+            TransferOrder transfer = arrived.get(i);
+            try {
+                if (getTransferById(transfer.getId()).getStatus() != TransferStatus.IN_TRANSIT) {
+                    continue; // Received by an explicit call meanwhile
+                }
+                receive(transfer.getId());
+                received++;
+            } catch (WarehouseCapacityExceededException e) {
+                requeue(arrived.subList(i, i + 1));
+            } catch (RuntimeException e) {
+                requeue(arrived.subList(i, arrived.size()));
+                throw e;
+            }
+        }
+        return received;
+    }
+
+    private void requeue(List<TransferOrder> transfers) {
+        synchronized (inTransit) {
+            inTransit.addAll(transfers);
+        }
+    }
+
+    private TransferOrder transition(UUID transferId, TransferStatus status) {
+        while (true) {
+            TransferOrder current = getTransferById(transferId);
+            if (!current.getStatus().canTransitionTo(status)) {
+                throw new InvalidTransferStateException(transferId, current.getStatus(), status);
+            }
+            Instant dispatchedAt = status == TransferStatus.IN_TRANSIT ? clock.instant() : current.getDispatchedAt();
+            TransferOrder updated = current.withStatus(status, dispatchedAt);
+            if (storage.compareAndSave(transferId, current.getVersion(), updated)) {
+                return updated;
+            }
+        }
+    }
+}
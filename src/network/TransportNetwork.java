@@ -0,0 +1,406 @@
+package network;
+
+import domain.model.Location;
+import domain.model.Warehouse;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Directed graph of suppliers, distribution centers and regional warehouses, joined by
+ * {@link Lane}s, with cheapest-path queries by lane cost.
+ *
+ * Nodes are identified by id (a warehouse's node id is the warehouse id) and carry their
+ * {@link Location} for last-mile estimates. Queries run against an immutable snapshot of
+ * the graph in compressed adjacency arrays. The first query from a source runs Dijkstra
+ * once and keeps the whole shortest-path tree of that source in the snapshot, so every
+ * later query from the same source is an array lookup plus a walk along the path. Any
+ * change to nodes or lanes drops the snapshot and with it every cached tree; the next
+ * query rebuilds it.
+ *
+ * Safe for concurrent use. Changes are serialized; queries never block on each other.
+ */
+public class TransportNetwork {
+    // Guarded by this
+    private final Map<UUID, Node> nodes = new LinkedHashMap<>();
+    private long version;
+    private volatile Graph graph;
+
+    public synchronized void addNode(UUID id, NodeTier tier, Location location) {
+        Objects.requireNonNull(id, "id cannot be null");
+        Objects.requireNonNull(tier, "tier cannot be null");
+        Node existing = nodes.get(id);
+        Node node = new Node(id, tier, location);
+        if (existing != null) {
+            node.lanes.putAll(existing.lanes);
+        }
+        nodes.put(id, node);
+        changed();
+    }
+
+    public void addWarehouse(Warehouse warehouse, NodeTier tier) {
+        addNode(warehouse.getId(), tier, warehouse.getLocation());
+    }
+
+    /**
+     * Removes a node together with every lane into or out of it.
+     */
+    public synchronized boolean removeNode(UUID id) {
+        if (nodes.remove(id) == null) {
+            return false;
+        }
+        for (Node node: nodes.values()) {
+            node.lanes.remove(id);
+        }
+        changed();
+        return true;
+    }
+
+    /**
+     * Adds the lane from one node to another, or replaces its cost and transit time.
+     */
+    public synchronized Lane setLane(UUID from, UUID to, double cost, Duration transitTime) {
+        Lane lane = new Lane(from, to, cost, transitTime);
+        Node origin = nodes.get(from);
+        if (origin == null || !nodes.containsKey(to)) {
+            throw new IllegalArgumentException("Unknown node: " + (origin == null ? from : to));
+        }
+        origin.lanes.put(to, lane);
+        changed();
+        return lane;
+    }
+
+    public synchronized boolean removeLane(UUID from, UUID to) {
+        Node origin = nodes.get(from);
+        if (origin == null || origin.lanes.remove(to) == null) {
+            return false;
+        }
+        changed();
+        return true;
+    }
+
+    public synchronized Optional<Lane> getLane(UUID from, UUID to) {
+        Node origin = nodes.get(from);
+        return origin == null ? Optional.empty() : Optional.ofNullable(origin.lanes.get(to));
+    }
+
+    public synchronized List<Lane> getLanes(UUID from) {
+        Node origin = nodes.get(from);
+        return origin == null ? List.of() : List.copyOf(origin.lanes.values());
+    }
+
+    public boolean containsNode(UUID id) {
+        return snapshot().index.containsKey(id);
+    }
+
+    public Optional<NodeTier> getTier(UUID id) {
+        Graph g = snapshot();
+        Integer node = g.index.get(id);
+        return node == null ? Optional.empty() : Optional.of(g.tiers[node]);
+    }
+
+    public Optional<Location> getLocation(UUID id) {
+        Graph g = snapshot();
+        Integer node = g.index.get(id);
+        return node == null ? Optional.empty() : Optional.ofNullable(g.locations[node]);
+    }
+
+    public List<UUID> getNodes(NodeTier tier) {
+        Graph g = snapshot();
+        List<UUID> ids = new ArrayList<>();
+        for (int node = 0; node < g.ids.length; node++) {
+            if (g.tiers[node] == tier) {
+                ids.add(g.ids[node]);
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Number of changes to nodes and lanes so far.
+     */
+    public synchronized long getVersion() {
+        return version;
+    }
+
+    /**
+     * Sources whose shortest-path tree is cached in the current snapshot.
+     */
+    public int getCachedSourceCount() {
+        Graph g = graph;
+        if (g == null) {
+            return 0;
+        }
+        int count = 0;
+        for (int node = 0; node < g.ids.length; node++) {
+            if (g.trees.get(node) != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Cheapest path by lane cost, or empty if either node is unknown or no lanes lead from
+     * one to the other.
+     */
+    public Optional<NetworkPath> shortestPath(UUID from, UUID to) {
+        Graph g = snapshot();
+        Integer source = g.index.get(from);
+        Integer target = g.index.get(to);
+        if (source == null || target == null) {
+            return Optional.empty();
+        }
+        Tree tree = g.tree(source);
+        if (Double.isInfinite(tree.cost[target])) {
+            return Optional.empty();
+        }
+        int hops = 0;
+        for (int node = target; node != source; node = tree.previous[node]) {
+            hops++;
+        }
+        UUID[] path = new UUID[hops + 1];
+        for (int node = target, at = hops; at >= 0; node = tree.previous[node], at--) {
+            path[at] = g.ids[node];
+        }
+        return Optional.of(new NetworkPath(Arrays.asList(path), tree.cost[target], Duration.ofNanos(tree.transitNanos[target])));
+    }
+
+    /**
+     * Cost of the cheapest path, or infinity if there is none. Allocates nothing once the
+     * source's tree is cached, so it suits inner loops of planners.
+     */
+    public double pathCost(UUID from, UUID to) {
+        Graph g = snapshot();
+        Integer source = g.index.get(from);
+        Integer target = g.index.get(to);
+        if (source == null || target == null) {
+            return Double.POSITIVE_INFINITY;
+        }
+        return g.tree(source).cost[target];
+    }
+
+    private void changed() {
+        version++;
+        graph = null;
+    }
+
+    private Graph snapshot() {
+        Graph g = graph;
+        if (g != null) {
+            return g;
+        }
+        synchronized (this) {
+            if (graph == null) {
+                graph = new Graph(nodes);
+            }
+            return graph;
+        }
+    }
+
+    private static final class Node {
+        private final UUID id;
+        private final NodeTier tier;
+        private final Location location;
+        private final Map<UUID, Lane> lanes = new LinkedHashMap<>();
+
+        private Node(UUID id, NodeTier tier, Location location) {
+            this.id = id;
+            this.tier = tier;
+            this.location = location;
+        }
+    }
+
+    /**
+     * Immutable copy of the network in compressed sparse row form: the lanes out of node i
+     * are entries offsets[i] until offsets[i + 1] of the lane arrays.
+     */
+    private static final class Graph {
+        private final UUID[] ids;
+        private final NodeTier[] tiers;
+        private final Location[] locations;
+        private final Map<UUID, Integer> index;
+        private final int[] offsets;
+        private final int[] targets;
+        private final double[] costs;
+        private final long[] transitNanos;
+        private final AtomicReferenceArray<Tree> trees;
+
+        private Graph(Map<UUID, Node> nodes) {
+            int n = nodes.size();
+            ids = new UUID[n];
+            tiers = new NodeTier[n];
+            locations = new Location[n];
+            index = new HashMap<>(n * 2);
+            int laneCount = 0;
+            int i = 0;
+            for (Node node: nodes.values()) {
+                ids[i] = node.id;
+                tiers[i] = node.tier;
+                locations[i] = node.location;
+                index.put(node.id, i++);
+                laneCount += node.lanes.size();
+            }
+
+            offsets = new int[n + 1];
+            targets = new int[laneCount];
+            costs = new double[laneCount];
+            transitNanos = new long[laneCount];
+            int at = 0;
+            i = 0;
+            for (Node node: nodes.values()) {
+                offsets[i++] = at;
+                for (Lane lane: node.lanes.values()) {
+                    targets[at] = index.get(lane.getTo());
+                    costs[at] = lane.getCost();
+                    transitNanos[at] = lane.getTransitTime().toNanos();
+                    at++;
+                }
+            }
+            offsets[n] = at;
+            trees = new AtomicReferenceArray<>(n);
+        }
+
+        private Tree tree(int source) {
+            Tree tree = trees.get(source);
+            if (tree == null) {
+                // Two threads may race to build the same tree; both results are identical
+                tree = dijkstra(source);
+                trees.set(source, tree);
+            }
+            return tree;
+        }
+
+        private Tree dijkstra(int source) {
+            int n = ids.length;
+            double[] cost = new double[n];
+            long[] transit = new long[n];
+            int[] previous = new int[n];
+            Arrays.fill(cost, Double.POSITIVE_INFINITY);
+            Arrays.fill(previous, -1);
+            cost[source] = 0;
+
+            IndexedHeap heap = new IndexedHeap(n, cost);
+            heap.push(source);
+            while (!heap.isEmpty()) {
+                int node = heap.pop();
+                for (int lane = offsets[node]; lane < offsets[node + 1]; lane++) {
+                    int next = targets[lane];
+                    double candidate = cost[node] + costs[lane];
+                    if (candidate < cost[next]) {
+                        cost[next] = candidate;
+                        transit[next] = transit[node] + transitNanos[lane];
+                        previous[next] = node;
+                        heap.pushOrDecrease(next);
+                    }
+                }
+            }
+            return new Tree(cost, transit, previous);
+        }
+    }
+
+    private static final class Tree {
+        private final double[] cost;
+        private final long[] transitNanos;
+        private final int[] previous;
+
+        private Tree(double[] cost, long[] transitNanos, int[] previous) {
+            this.cost = cost;
+            this.transitNanos = transitNanos;
+            this.previous = previous;
+        }
+    }
+
+    /**
+     * Binary min-heap of node indexes keyed by an external cost array, with decrease-key.
+     */
+    private static final class IndexedHeap {
+        private final int[] heap;
+        private final int[] position;
+        private final double[] keys;
+        private int size;
+
+        private IndexedHeap(int capacity, double[] keys) {
+            this.heap = new int[capacity];
+            this.position = new int[capacity];
+            this.keys = keys;
+            Arrays.fill(position, -1);
+        }
+
+        private boolean isEmpty() {
+            return size == 0;
+        }
+
+        private void push(int node) {
+            heap[size] = node;
+            position[node] = size;
+            siftUp(size++);
+        }
+
+        private void pushOrDecrease(int node) {
+            if (position[node] < 0) {
+                push(node);
+            } else {
+                siftUp(position[node]);
+            }
+        }
+
+        private int pop() {
+            int top = heap[0];
+            // With non-negative lane costs a settled node never improves, so it is not pushed again
+            position[top] = -1;
+            size--;
+            if (size > 0) {
+                heap[0] = heap[size];
+                position[heap[0]] = 0;
+                siftDown(0);
+            }
+            return top;
+        }
+
+        private void siftUp(int at) {
+            int node = heap[at];
+            while (at > 0) {
+                int parent = (at - 1) >>> 1;
+                if (keys[heap[parent]] <= keys[node]) {
+                    break;
+                }
+                heap[at] = heap[parent];
+                position[heap[at]] = at;
+                at = parent;
+            }
+            heap[at] = node;
+            position[node] = at;
+        }
+
+        private void siftDown(int at) {
+            int node = heap[at];
+            while (true) {
+                int child = 2 * at + 1;
+                if (child >= size) {
+                    break;
+                }
+                if (child + 1 < size && keys[heap[child + 1]] < keys[heap[child]]) {
+                    child++;
+                }
+                if (keys[heap[child]] >= keys[node]) {
+                    break;
+                }
+                heap[at] = heap[child];
+                position[heap[at]] = at;
+                at = child;
+            }
+            heap[at] = node;
+            position[node] = at;
+        }
+    }
+}
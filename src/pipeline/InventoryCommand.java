@@ -0,0 +1,26 @@
+package pipeline;
+
+import java.util.UUID;
+
+/**
+ * A pre-allocated ring buffer slot. Producers overwrite the fields in place instead of
+ * allocating a command object per call.
+ */
+final class InventoryCommand {
+    InventoryCommandType type;
+    UUID warehouseId;
+    UUID productId;
+    int quantity;
+    boolean awaited;
+    InventoryCommandResult result;
+
+    // Sequence whose result has been written by the consumer
+    volatile long completedSequence;
+    // Sequence after which the slot may be claimed again
+    volatile long releasedSequence;
+
+    InventoryCommand(long initialSequence) {
+        this.completedSequence = initialSequence;
+        this.releasedSequence = initialSequence;
+    }
+}
@@ -0,0 +1,275 @@
+package pipeline;
+
+import domain.model.InventoryItem;
+import domain.model.InventoryKey;
+import repository.InMemoryRepositoryInterface;
+import repository.UniqueIndex;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Inventory command pipeline built on a pre-allocated ring buffer, in the style of the
+ * LMAX Disruptor.
+ *
+ * Producers claim a sequence, fill the matching slot in place and publish it. A single
+ * consumer thread applies every published command in sequence order, draining as many
+ * contiguous commands as are available per batch, and writes the result back into the
+ * slot. Synchronous callers spin on their own slot until the result is there; the slot is
+ * only handed out again once that caller has read it.
+ *
+ * Nothing is allocated per command: slots, results and the warehouse/product lookup table
+ * are reused. A command that throws while being applied completes as
+ * {@link InventoryCommandResult#FAILED} and does not stop the consumer. Closing drains
+ * what was claimed and then seals the claim counter, so a publish racing with close either
+ * gets applied or is rejected, never left waiting. The consumer is the single writer of every inventory item it has looked up,
+ * so those items must not be mutated through other paths while the pipeline is running.
+ */
+public class InventoryCommandPipeline implements AutoCloseable {
+    private static final int HISTOGRAM_BUCKETS = 32;
+    // Claim counter value once the consumer has exited; every later claim stays negative
+    private static final long SEALED = Long.MIN_VALUE;
+
+    private final UniqueIndex<InventoryKey, InventoryItem> itemIndex;
+    private final InventoryCommand[] slots;
+    private final int mask;
+    private final AtomicLong claimed = new AtomicLong();
+    private final AtomicLongArray published;
+    private final Thread consumer;
+    private volatile boolean running = true;
+
+    // Owned by the consumer thread
+    private final Map<UUID, Map<UUID, InventoryItem>> itemsByWarehouse = new HashMap<>();
+    private long batches;
+    private long maxBatchSize;
+    private final long[] batchSizeHistogram = new long[HISTOGRAM_BUCKETS];
+    // Published after every batch so statistics reads see the counters above
+    private volatile long consumed = -1;
+
+    public InventoryCommandPipeline(InMemoryRepositoryInterface<InventoryItem> storage, int capacity) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("capacity must be a positive power of two: " + capacity);
+        }
+        this.itemIndex = Objects.requireNonNull(storage, "storage cannot be null").createUniqueIndex(InventoryKey::of);
+        this.slots = new InventoryCommand[capacity];
+        this.mask = capacity - 1;
+        this.published = new AtomicLongArray(capacity);
+
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new InventoryCommand(i - capacity);
+            published.set(i, i - capacity);
+        }
+
+        this.consumer = new Thread(this::consume, "inventory-command-pipeline");
+        this.consumer.setDaemon(true);
+        this.consumer.start();
+    }
+
+    public InventoryCommandResult reserve(UUID warehouseId, UUID productId, int quantity) {
+        return submit(InventoryCommandType.RESERVE, warehouseId, productId, quantity);
+    }
+
+    public InventoryCommandResult release(UUID warehouseId, UUID productId, int quantity) {
+        return submit(InventoryCommandType.RELEASE, warehouseId, productId, quantity);
+    }
+
+    public InventoryCommandResult deduct(UUID warehouseId, UUID productId, int quantity) {
+        return submit(InventoryCommandType.DEDUCT, warehouseId, productId, quantity);
+    }
+
+    public InventoryCommandResult restock(UUID warehouseId, UUID productId, int quantity) {
+        return submit(InventoryCommandType.RESTOCK, warehouseId, productId, quantity);
+    }
+
+    /**
+     * Publishes a command and waits until the consumer has applied it.
+     */
+    public InventoryCommandResult submit(InventoryCommandType type, UUID warehouseId, UUID productId, int quantity) {
+        long sequence = publish(type, warehouseId, productId, quantity, true);
+        InventoryCommand slot = slots[(int) sequence & mask];
+
+        for (int idle = 0; slot.completedSequence != sequence; idle++) {
+            idle(idle);
+        }
+        InventoryCommandResult result = slot.result;
+        slot.releasedSequence = sequence;
+        return result;
+    }
+
+    /**
+     * Publishes a command without waiting for its result (fire-and-forget).
+     */
+    public void publish(InventoryCommandType type, UUID warehouseId, UUID productId, int quantity) {
+        publish(type, warehouseId, productId, quantity, false);
+    }
+
+    /**
+     * Blocks until every command published so far has been applied.
+     */
+    public void awaitDrained() {
+        long claimedSoFar = claimed.get();
+        if (claimedSoFar < 0) {
+            // Sealed: the consumer exited after applying everything claimed
+            return;
+        }
+        long target = claimedSoFar - 1;
+        for (int idle = 0; consumed < target; idle++) {
+            idle(idle);
+        }
+    }
+
+    public PipelineStatistics getStatistics() {
+        // Reading the consumer's cursor first makes the batch counters written before it visible
+        long commands = consumed + 1;
+        return new PipelineStatistics(commands, batches, maxBatchSize, batchSizeHistogram);
+    }
+
+    @Override
+    public void close() {
+        awaitDrained();
+        running = false;
+        LockSupport.unpark(consumer);
+        try {
+            consumer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private long publish(InventoryCommandType type, UUID warehouseId, UUID productId, int quantity, boolean awaited) {
+        Objects.requireNonNull(type, "type cannot be null");
+        Objects.requireNonNull(warehouseId, "warehouseId cannot be null");
+        Objects.requireNonNull(productId, "productId cannot be null");
+        if (!running) {
+            throw new IllegalStateException("Pipeline is closed");
+        }
+
+        long sequence = claimed.getAndIncrement();
+        if (sequence < 0) {
+            throw new IllegalStateException("Pipeline is closed");
+        }
+        int index = (int) sequence & mask;
+        InventoryCommand slot = slots[index];
+
+        // Wait for the previous occupant of this slot to be consumed and read
+        long previous = sequence - slots.length;
+        for (int idle = 0; slot.releasedSequence < previous; idle++) {
+            idle(idle);
+        }
+
+        slot.type = type;
+        slot.warehouseId = warehouseId;
+        slot.productId = productId;
+        slot.quantity = quantity;
+        slot.awaited = awaited;
+        published.set(index, sequence);
+        return sequence;
+    }
+
+    private void consume() {
+        long next = 0;
+        int idle = 0;
+
+        while (true) {
+            long batchSize = 0;
+            while (batchSize < slots.length && published.get((int) next & mask) == next) {
+                InventoryCommand slot = slots[(int) next & mask];
+                try {
+                    slot.result = apply(slot);
+                } catch (RuntimeException e) {
+                    slot.result = InventoryCommandResult.FAILED;
+                }
+                slot.completedSequence = next;
+                if (!slot.awaited) {
+                    slot.releasedSequence = next;
+                }
+                next++;
+                batchSize++;
+            }
+
+            if (batchSize == 0) {
+                // Exit only if nothing was claimed beyond what has been applied, and make sure nothing will be
+                if (!running && claimed.compareAndSet(next, SEALED)) {
+                    return;
+                }
+                idle(idle++);
+                continue;
+            }
+            idle = 0;
+            batches++;
+            maxBatchSize = Math.max(maxBatchSize, batchSize);
+            batchSizeHistogram[63 - Long.numberOfLeadingZeros(batchSize)]++;
+            consumed = next - 1;
+        }
+    }
+
+    private InventoryCommandResult apply(InventoryCommand command) {
+        if (command.quantity < 0) {
+            return InventoryCommandResult.INVALID_QUANTITY;
+        }
+        InventoryItem item = lookup(command.warehouseId, command.productId);
+        if (item == null) {
+            return InventoryCommandResult.ITEM_NOT_FOUND;
+        }
+
+        int quantity = command.quantity;
+        switch (command.type) {
+            case RESERVE:
+                if (quantity > item.getAvailableQuantity()) {
+                    return InventoryCommandResult.INSUFFICIENT_AVAILABLE;
+                }
+                item.reserve(quantity);
+                return InventoryCommandResult.SUCCESS;
+            case RELEASE:
+                if (quantity > item.getReservedQuantity()) {
+                    return InventoryCommandResult.INSUFFICIENT_RESERVED;
+                }
+                item.release(quantity);
+                return InventoryCommandResult.SUCCESS;
+            case DEDUCT:
+                if (quantity > item.getReservedQuantity()) {
+                    return InventoryCommandResult.INSUFFICIENT_RESERVED;
+                }
+                item.deduct(quantity);
+                return InventoryCommandResult.SUCCESS;
+            case RESTOCK:
+                if (quantity > Integer.MAX_VALUE - item.getAvailableQuantity()) {
+                    return InventoryCommandResult.INVALID_QUANTITY;
+                }
+                item.restock(quantity);
+                return InventoryCommandResult.SUCCESS;
+            default:
+                throw new IllegalStateException("Unknown command type " + command.type);
+        }
+    }
+
+    private InventoryItem lookup(UUID warehouseId, UUID productId) {
+        Map<UUID, InventoryItem> items = itemsByWarehouse.get(warehouseId);
+        InventoryItem item = items == null ? null : items.get(productId);
+        if (item != null) {
+            return item;
+        }
+
+        // First touch of this cell: load it from the repository and keep it for later commands
+        item = itemIndex.find(new InventoryKey(warehouseId, productId)).orElse(null);
+        if (item != null) {
+            itemsByWarehouse.computeIfAbsent(warehouseId, k -> new HashMap<>()).put(productId, item);
+        }
+        return item;
+    }
+
+    private static void idle(int iteration) {
+        if (iteration < 64) {
+            Thread.onSpinWait();
+        } else if (iteration < 128) {
+            Thread.yield();
+        } else {
+            LockSupport.parkNanos(20_000);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package pipeline;
+
+/**
+ * Outcome of an inventory command applied by the {@link InventoryCommandPipeline}.
+ * Results are reported as constants rather than exceptions so the consumer never allocates.
+ */
+public enum InventoryCommandResult {
+    SUCCESS,
+    INSUFFICIENT_AVAILABLE,  // Reserve exceeded the available quantity
+    INSUFFICIENT_RESERVED,   // Release or deduct exceeded the reserved quantity
+    ITEM_NOT_FOUND,          // No inventory item for the warehouse and product
+    INVALID_QUANTITY,        // Quantity was negative, or a restock would overflow the item
+    FAILED                   // Applying the command threw; the consumer carries on with the next one
+}
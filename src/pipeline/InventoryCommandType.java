@@ -0,0 +1,11 @@
+package pipeline;
+
+/**
+ * Inventory mutations that can be published to the {@link InventoryCommandPipeline}.
+ */
+public enum InventoryCommandType {
+    RESERVE,    // Move quantity from available to reserved
+    RELEASE,    // Move quantity from reserved back to available
+    DEDUCT,     // Remove quantity from reserved (shipping)
+    RESTOCK     // Add quantity to available
+}
@@ -0,0 +1,56 @@
+package pipeline;
+
+import java.util.Arrays;
+
+/**
+ * Snapshot of how the {@link InventoryCommandPipeline} consumer has been batching work.
+ * batchSizeHistogram[i] counts batches whose size was in [2^i, 2^(i+1)).
+ */
+public class PipelineStatistics {
+    private final long commands;
+    private final long batches;
+    private final long maxBatchSize;
+    private final long[] batchSizeHistogram;
+
+    public PipelineStatistics(long commands, long batches, long maxBatchSize, long[] batchSizeHistogram) {
+        this.commands = commands;
+        this.batches = batches;
+        this.maxBatchSize = maxBatchSize;
+        this.batchSizeHistogram = batchSizeHistogram.clone();
+    }
+
+    public long getCommands() {
+        return commands;
+    }
+
+    public long getBatches() {
+        return batches;
+    }
+
+    public long getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    public double getAverageBatchSize() {
+        return batches == 0 ? 0 : (double) commands / batches;
+    }
+
+    public long[] getBatchSizeHistogram() {
+        return batchSizeHistogram.clone();
+    }
+
+    @Override
+    public String toString() {
+        int last = batchSizeHistogram.length - 1;
+        while (last > 0 && batchSizeHistogram[last] == 0) {
+            last--;
+        }
+        return "PipelineStatistics{" +
+                "commands=" + commands +
+                ", batches=" + batches +
+                ", averageBatchSize=" + String.format("%.2f", getAverageBatchSize()) +
+                ", maxBatchSize=" + maxBatchSize +
+                ", batchSizeHistogram=" + Arrays.toString(Arrays.copyOf(batchSizeHistogram, last + 1)) +
+                '}';
+    }
+}
@@ -0,0 +1,110 @@
+package replay;
+
+import codec.EntityCodec;
+import domain.model.Customer;
+import domain.model.InventoryItem;
+import domain.model.Product;
+import domain.model.Warehouse;
+import exceptions.CodecException;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * Binary layout of a command log, shared by recorder and replayer.
+ *
+ * Header:   int magic, byte version, then the snapshot: products, warehouses, customers
+ *           and inventory items, each as an int count followed by {@link EntityCodec} records
+ * Commands: byte type, long nanoseconds since recording started, byte outcome, then
+ *           - CREATE_ORDER: customer id, transactional byte, order items, order id (zero if it failed)
+ *           - FULFILL_ORDER, SHIP_ORDER, CANCEL_ORDER: order id
+ *           - RESTOCK: warehouse id, product id, int quantity
+ * Trailer:  an END command followed by the long command count and the final {@link StateDigest}
+ *
+ * The outcome is {@link #OK} or {@link #FAILED}; for FULFILL_ORDER it is the ordinal of the
+ * {@link service.FulfillmentResult.Reason}, or {@link #FULFILL_FAILED} if it threw. All
+ * numbers are big-endian.
+ */
+final class CommandLog {
+    static final int MAGIC = 0x53434C47; // "SCLG"
+    static final byte VERSION = 1;
+
+    static final byte CREATE_ORDER = 1;
+    static final byte FULFILL_ORDER = 2;
+    static final byte SHIP_ORDER = 3;
+    static final byte CANCEL_ORDER = 4;
+    static final byte RESTOCK = 5;
+    static final byte END = 127;
+
+    static final byte OK = 0;
+    static final byte FAILED = 1;
+    static final byte FULFILL_FAILED = -1;
+
+    static final int COMMAND_HEADER_BYTES = Byte.BYTES + Long.BYTES + Byte.BYTES;
+    static final int UUID_BYTES = 2 * Long.BYTES;
+    static final int ORDER_ITEM_BYTES = UUID_BYTES + Integer.BYTES;
+
+    private CommandLog() {
+    }
+
+    /**
+     * Encodes the log header and snapshot into a heap buffer, growing it as needed, and
+     * returns it flipped for writing out.
+     */
+    static ByteBuffer encodeHeader(List<Product> products, List<Warehouse> warehouses,
+                                   List<Customer> customers, List<InventoryItem> inventoryItems) {
+        int capacity = 64 * 1024;
+        while (true) {
+            ByteBuffer buffer = ByteBuffer.allocate(capacity);
+            try {
+                buffer.putInt(MAGIC);
+                buffer.put(VERSION);
+                writeAll(buffer, products);
+                writeAll(buffer, warehouses);
+                writeAll(buffer, customers);
+                writeAll(buffer, inventoryItems);
+                return buffer.flip();
+            } catch (BufferOverflowException e) {
+                capacity *= 2;
+            }
+        }
+    }
+
+    static void checkHeader(ByteBuffer buffer) {
+        int magic = buffer.getInt();
+        if (magic != MAGIC) {
+            throw new CodecException(String.format("Not a command log (magic %08x)", magic));
+        }
+        byte version = buffer.get();
+        if (version != VERSION) {
+            throw new CodecException("Unsupported command log version " + version);
+        }
+    }
+
+    static int readCount(ByteBuffer buffer) {
+        int count = buffer.getInt();
+        if (count < 0) {
+            throw new CodecException("Negative snapshot count " + count);
+        }
+        return count;
+    }
+
+    static void writeDigest(ByteBuffer buffer, StateDigest digest) {
+        buffer.putInt(digest.getOrders());
+        buffer.putInt(digest.getShipments());
+        buffer.putInt(digest.getInventoryItems());
+        buffer.putLong(digest.getHash());
+    }
+
+    static StateDigest readDigest(ByteBuffer buffer) {
+        return new StateDigest(buffer.getInt(), buffer.getInt(), buffer.getInt(), buffer.getLong());
+    }
+
+    private static void writeAll(ByteBuffer buffer, List<?> entities) {
+        buffer.putInt(entities.size());
+        for (Object entity: entities) {
+            EntityCodec.write(buffer, entity);
+        }
+    }
+}
@@ -0,0 +1,298 @@
+package replay;
+
+import codec.EntityCodec;
+import domain.model.Order;
+import domain.model.OrderItem;
+import exceptions.WarehouseSaturatedException;
+import service.FulfillmentResult;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Runs service-level commands against a {@link ServiceGraph} and records each one, with
+ * its timing and outcome, to a binary command log that {@link CommandReplayer} can replay.
+ *
+ * The log starts with a snapshot of the graph's master data and inventory, which does not
+ * include orders or shipments, so it must be opened before any orders are placed. Callers encode their command into an in-memory
+ * block under a short lock, after the command has run; a background thread writes full
+ * blocks to the file. Callers never wait for I/O, and blocks are recycled, so recording
+ * costs a clock read and a few dozen bytes copied per command.
+ *
+ * The log order is the order in which commands finished. Commands racing on the same
+ * stock may have run in another order, so replaying a log recorded from several threads
+ * can legitimately end in a different state; single-threaded recordings replay exactly.
+ *
+ * {@link #close()} appends the graph's final {@link StateDigest}, which the replayer
+ * checks. Callers must be quiescent by then.
+ */
+public class CommandRecorder implements AutoCloseable {
+    static final int BLOCK_BYTES = 64 * 1024;
+    private static final ByteBuffer END_OF_LOG = ByteBuffer.allocate(0);
+
+    private final ServiceGraph graph;
+    private final FileChannel channel;
+    private final long startNanos;
+    private final BlockingQueue<ByteBuffer> fullBlocks = new LinkedBlockingQueue<>();
+    private final Queue<ByteBuffer> freeBlocks = new ConcurrentLinkedQueue<>();
+    private final Thread writer;
+    private volatile boolean closed;
+    private volatile IOException writeFailure;
+    // Guarded by this
+    private ByteBuffer block = ByteBuffer.allocateDirect(BLOCK_BYTES);
+    private long commands;
+
+    /**
+     * Creates or truncates the log file and writes the snapshot of the graph's current
+     * products, warehouses, customers and inventory.
+     *
+     * @throws IllegalStateException if the graph already has orders or shipments, which the
+     *         snapshot cannot carry
+     */
+    public CommandRecorder(ServiceGraph graph, Path file) throws IOException {
+        this.graph = Objects.requireNonNull(graph, "graph cannot be null");
+        if (!graph.getOrderRepository().findAll().isEmpty() || !graph.getShipmentRepository().findAll().isEmpty()) {
+            throw new IllegalStateException("Recording must start before any orders are placed");
+        }
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        ByteBuffer header = CommandLog.encodeHeader(
+                graph.getProductRepository().findAll(),
+                graph.getWarehouseRepository().findAll(),
+                graph.getCustomerRepository().findAll(),
+                graph.getInventoryRepository().findAll());
+        try {
+            while (header.hasRemaining()) {
+                channel.write(header);
+            }
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        this.startNanos = System.nanoTime();
+        this.writer = new Thread(this::writeBlocks, "command-log-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    public Order createOrder(UUID customerId, List<OrderItem> orderItems, boolean isTransactional) {
+        ensureOpen();
+        Order order;
+        try {
+            order = graph.getOrderService().createOrder(customerId, orderItems, isTransactional);
+        } catch (RuntimeException e) {
+            recordCreateOrder(customerId, orderItems, isTransactional, null);
+            throw e;
+        }
+        recordCreateOrder(customerId, orderItems, isTransactional, order.getId());
+        return order;
+    }
+
+    /**
+     * Like {@link service.OrderFulfillmentService#fulfillOrder}: false for expected
+     * rejections, and an exception if every warehouse with the stock is saturated.
+     */
+    public boolean fulfillOrder(UUID orderId) {
+        FulfillmentResult result = tryFulfillOrder(orderId);
+        if (result.getReason() == FulfillmentResult.Reason.WAREHOUSES_SATURATED) {
+            throw new WarehouseSaturatedException("All warehouses with stock for order " + orderId + " are saturated");
+        }
+        return result.isFulfilled();
+    }
+
+    public FulfillmentResult tryFulfillOrder(UUID orderId) {
+        ensureOpen();
+        FulfillmentResult result;
+        try {
+            result = graph.getFulfillmentService().tryFulfillOrder(orderId);
+        } catch (RuntimeException e) {
+            record(CommandLog.FULFILL_ORDER, CommandLog.FULFILL_FAILED, orderId);
+            throw e;
+        }
+        record(CommandLog.FULFILL_ORDER, (byte) result.getReason().ordinal(), orderId);
+        return result;
+    }
+
+    public void shipOrder(UUID orderId) {
+        ensureOpen();
+        try {
+            graph.getFulfillmentService().shipOrder(orderId);
+        } catch (RuntimeException e) {
+            record(CommandLog.SHIP_ORDER, CommandLog.FAILED, orderId);
+            throw e;
+        }
+        record(CommandLog.SHIP_ORDER, CommandLog.OK, orderId);
+    }
+
+    public void cancelOrder(UUID orderId) {
+        ensureOpen();
+        try {
+            graph.getOrderService().cancelOrder(orderId);
+        } catch (RuntimeException e) {
+            record(CommandLog.CANCEL_ORDER, CommandLog.FAILED, orderId);
+            throw e;
+        }
+        record(CommandLog.CANCEL_ORDER, CommandLog.OK, orderId);
+    }
+
+    public void restockWarehouse(UUID warehouseId, UUID productId, int quantity) {
+        ensureOpen();
+        try {
+            graph.getInventoryService().restockWarehouse(warehouseId, productId, quantity);
+        } catch (RuntimeException e) {
+            recordRestock(warehouseId, productId, quantity, CommandLog.FAILED);
+            throw e;
+        }
+        recordRestock(warehouseId, productId, quantity, CommandLog.OK);
+    }
+
+    public ServiceGraph getGraph() {
+        return graph;
+    }
+
+    public synchronized long getCommandCount() {
+        return commands;
+    }
+
+    /**
+     * Hands the partly filled block to the writer, so everything recorded so far reaches
+     * the file without waiting for the block to fill up.
+     */
+    public synchronized void flush() {
+        if (block.position() > 0) {
+            handOff();
+        }
+    }
+
+    /**
+     * Appends the trailer with the graph's final digest, writes out every block and closes
+     * the file.
+     *
+     * @throws IOException if writing any part of the log failed
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            long recorded = commands;
+            ByteBuffer buffer = reserve(CommandLog.COMMAND_HEADER_BYTES + Long.BYTES + 3 * Integer.BYTES + Long.BYTES);
+            header(buffer, CommandLog.END, CommandLog.OK);
+            buffer.putLong(recorded);
+            CommandLog.writeDigest(buffer, StateDigest.of(graph));
+            handOff();
+            fullBlocks.add(END_OF_LOG);
+        }
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            if (writeFailure != null) {
+                throw writeFailure;
+            }
+            channel.force(false);
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void recordCreateOrder(UUID customerId, List<OrderItem> orderItems, boolean isTransactional, UUID orderId) {
+        int size = CommandLog.COMMAND_HEADER_BYTES + 2 * CommandLog.UUID_BYTES + Byte.BYTES
+                + Integer.BYTES + orderItems.size() * CommandLog.ORDER_ITEM_BYTES;
+        synchronized (this) {
+            ByteBuffer buffer = reserve(size);
+            header(buffer, CommandLog.CREATE_ORDER, orderId == null ? CommandLog.FAILED : CommandLog.OK);
+            EntityCodec.writeUuid(buffer, customerId);
+            buffer.put(isTransactional ? (byte) 1 : (byte) 0);
+            EntityCodec.writeOrderItems(buffer, orderItems);
+            EntityCodec.writeUuid(buffer, orderId == null ? new UUID(0, 0) : orderId);
+        }
+    }
+
+    private synchronized void record(byte type, byte outcome, UUID orderId) {
+        ByteBuffer buffer = reserve(CommandLog.COMMAND_HEADER_BYTES + CommandLog.UUID_BYTES);
+        header(buffer, type, outcome);
+        EntityCodec.writeUuid(buffer, orderId);
+    }
+
+    private synchronized void recordRestock(UUID warehouseId, UUID productId, int quantity, byte outcome) {
+        ByteBuffer buffer = reserve(CommandLog.COMMAND_HEADER_BYTES + 2 * CommandLog.UUID_BYTES + Integer.BYTES);
+        header(buffer, CommandLog.RESTOCK, outcome);
+        EntityCodec.writeUuid(buffer, warehouseId);
+        EntityCodec.writeUuid(buffer, productId);
+        buffer.putInt(quantity);
+    }
+
+    // Called with the lock held; the timestamp is taken here so the log is in time order
+    private void header(ByteBuffer buffer, byte type, byte outcome) {
+        buffer.put(type);
+        buffer.putLong(System.nanoTime() - startNanos);
+        buffer.put(outcome);
+        commands++;
+    }
+
+    // Called with the lock held
+    private ByteBuffer reserve(int size) {
+        if (block.remaining() < size) {
+            handOff();
+            if (block.remaining() < size) {
+                // A command larger than a block gets a block of its own
+                block = ByteBuffer.allocate(size);
+            }
+        }
+        return block;
+    }
+
+    // Called with the lock held
+    private void handOff() {
+        fullBlocks.add(block.flip());
+        ByteBuffer next = freeBlocks.poll();
+        block = next != null ? next : ByteBuffer.allocateDirect(BLOCK_BYTES);
+    }
+
+    private void writeBlocks() {
+        while (true) {
+            ByteBuffer full;
+            try {
+                full = fullBlocks.take();
+            } catch (InterruptedException e) {
+                continue; // Only close() ends the writer, so that no recorded block is lost
+            }
+            if (full == END_OF_LOG) {
+                return;
+            }
+            if (writeFailure == null) {
+                try {
+                    while (full.hasRemaining()) {
+                        channel.write(full);
+                    }
+                } catch (IOException e) {
+                    writeFailure = e; // Reported by close(); later blocks are dropped
+                }
+            }
+            if (full.capacity() == BLOCK_BYTES) {
+                freeBlocks.add(full.clear());
+            }
+        }
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("Command recorder is closed");
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package replay;
+
+import codec.EntityCodec;
+import domain.model.Customer;
+import domain.model.InventoryItem;
+import domain.model.LocationTable;
+import domain.model.Order;
+import domain.model.OrderItem;
+import domain.model.OrderItemList;
+import domain.model.Product;
+import domain.model.Warehouse;
+import exceptions.CodecException;
+import repository.InMemoryRepository;
+import service.InventoryService;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Re-executes a command log written by {@link CommandRecorder} against a fresh
+ * {@link ServiceGraph} built from the log's snapshot, then compares the final state with
+ * the digest the recorder appended.
+ *
+ * Commands run one at a time in log order. At speed 1 each command starts at its recorded
+ * offset from the start of the replay, at speed N at 1/N of it, and at {@link #MAX_SPEED}
+ * as soon as the previous one is done. A replay that falls behind schedule does not skip
+ * commands; it runs them back to back until it catches up.
+ *
+ * Orders get new ids when they are created again, so order ids in later commands are
+ * translated to the ids of the replayed orders.
+ */
+public class CommandReplayer {
+    public static final double MAX_SPEED = Double.POSITIVE_INFINITY;
+
+    private final double speed;
+
+    /**
+     * @param speed how many times faster than recorded to replay, or {@link #MAX_SPEED}
+     */
+    public CommandReplayer(double speed) {
+        if (!(speed > 0)) {
+            throw new IllegalArgumentException("speed must be positive: " + speed);
+        }
+        this.speed = speed;
+    }
+
+    /**
+     * @throws CodecException if the file is not a command log or ends before the recorder's trailer
+     */
+    public ReplayResult replay(Path log) throws IOException {
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(log, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        try {
+            return replay(buffer);
+        } catch (BufferUnderflowException e) {
+            throw new CodecException("Command log " + log + " ends without a trailer; was the recorder closed?");
+        }
+    }
+
+    private ReplayResult replay(ByteBuffer buffer) {
+        CommandLog.checkHeader(buffer);
+        ServiceGraph graph = restore(buffer);
+        Map<UUID, UUID> orderIds = new HashMap<>();
+        long commands = 0;
+        long mismatched = 0;
+        long started = System.nanoTime();
+        while (true) {
+            byte type = buffer.get();
+            long offset = buffer.getLong();
+            byte outcome = buffer.get();
+            if (speed != MAX_SPEED) {
+                waitUntil(started + (long) (offset / speed));
+            }
+            if (type == CommandLog.END) {
+                long recorded = buffer.getLong();
+                StateDigest recordedDigest = CommandLog.readDigest(buffer);
+                if (recorded != commands) {
+                    throw new CodecException("Command log holds " + commands + " commands, recorder wrote " + recorded);
+                }
+                return new ReplayResult(commands, mismatched, Duration.ofNanos(offset),
+                        Duration.ofNanos(System.nanoTime() - started), recordedDigest, StateDigest.of(graph), graph);
+            }
+            if (execute(type, outcome, buffer, graph, orderIds) != outcome) {
+                mismatched++;
+            }
+            commands++;
+        }
+    }
+
+    private static byte execute(byte type, byte outcome, ByteBuffer buffer, ServiceGraph graph, Map<UUID, UUID> orderIds) {
+        switch (type) {
+            case CommandLog.CREATE_ORDER: {
+                UUID customerId = EntityCodec.readUuid(buffer);
+                boolean isTransactional = buffer.get() == 1;
+                OrderItemList orderItems = EntityCodec.readOrderItems(buffer);
+                UUID recordedId = EntityCodec.readUuid(buffer);
+                try {
+                    Order order = graph.getOrderService().createOrder(customerId, orderItems, isTransactional);
+                    if (outcome == CommandLog.OK) {
+                        orderIds.put(recordedId, order.getId());
+                    }
+                    return CommandLog.OK;
+                } catch (RuntimeException e) {
+                    return CommandLog.FAILED;
+                }
+            }
+            case CommandLog.FULFILL_ORDER: {
+                UUID orderId = replayedId(orderIds, EntityCodec.readUuid(buffer));
+                try {
+                    return (byte) graph.getFulfillmentService().tryFulfillOrder(orderId).getReason().ordinal();
+                } catch (RuntimeException e) {
+                    return CommandLog.FULFILL_FAILED;
+                }
+            }
+            case CommandLog.SHIP_ORDER: {
+                UUID orderId = replayedId(orderIds, EntityCodec.readUuid(buffer));
+                try {
+                    graph.getFulfillmentService().shipOrder(orderId);
+                    return CommandLog.OK;
+                } catch (RuntimeException e) {
+                    return CommandLog.FAILED;
+                }
+            }
+            case CommandLog.CANCEL_ORDER: {
+                UUID orderId = replayedId(orderIds, EntityCodec.readUuid(buffer));
+                try {
+                    graph.getOrderService().cancelOrder(orderId);
+                    return CommandLog.OK;
+                } catch (RuntimeException e) {
+                    return CommandLog.FAILED;
+                }
+            }
+            case CommandLog.RESTOCK: {
+                UUID warehouseId = EntityCodec.readUuid(buffer);
+                UUID productId = EntityCodec.readUuid(buffer);
+                int quantity = buffer.getInt();
+                try {
+                    graph.getInventoryService().restockWarehouse(warehouseId, productId, quantity);
+                    return CommandLog.OK;
+                } catch (RuntimeException e) {
+                    return CommandLog.FAILED;
+                }
+            }
+            default:
+                throw new CodecException("Unknown command type " + type + " at offset " + (buffer.position() - CommandLog.COMMAND_HEADER_BYTES));
+        }
+    }
+
+    // Ids of orders the recording never created, as in commands that failed for an unknown
+    // order, are replayed unchanged
+    private static UUID replayedId(Map<UUID, UUID> orderIds, UUID recordedId) {
+        return orderIds.getOrDefault(recordedId, recordedId);
+    }
+
+    private static ServiceGraph restore(ByteBuffer buffer) {
+        LocationTable locations = new LocationTable();
+        InMemoryRepository<Product> products = new InMemoryRepository<>();
+        for (int i = CommandLog.readCount(buffer); i > 0; i--) {
+            Product product = EntityCodec.readProduct(buffer);
+            products.save(product.getId(), product);
+        }
+        InMemoryRepository<Warehouse> warehouses = new InMemoryRepository<>();
+        for (int i = CommandLog.readCount(buffer); i > 0; i--) {
+            Warehouse warehouse = EntityCodec.readWarehouse(buffer, locations);
+            warehouses.save(warehouse.getId(), warehouse);
+        }
+        InMemoryRepository<Customer> customers = new InMemoryRepository<>();
+        for (int i = CommandLog.readCount(buffer); i > 0; i--) {
+            Customer customer = EntityCodec.readCustomer(buffer, locations);
+            customers.save(customer.getId(), customer);
+        }
+        ServiceGraph graph = new ServiceGraph(locations, products, warehouses, customers);
+
+        // Through the service rather than the repository, so utilization tracking sees the stock
+        InventoryService inventoryService = graph.getInventoryService();
+        for (int i = CommandLog.readCount(buffer); i > 0; i--) {
+            InventoryItem item = EntityCodec.readInventoryItem(buffer);
+            int reserved = item.getReservedQuantity();
+            inventoryService.addInventoryItem(item.getWarehouseId(), item.getProductId(), item.getAvailableQuantity() + reserved);
+            if (reserved > 0) {
+                inventoryService.reserveStock(item.getWarehouseId(), List.of(new OrderItem(item.getProductId(), reserved)));
+            }
+        }
+        return graph;
+    }
+
+    private static void waitUntil(long deadline) {
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            if (remaining > 50_000) {
+                LockSupport.parkNanos(remaining - 20_000);
+            } else {
+                Thread.onSpinWait();
+            }
+        }
+    }
+}
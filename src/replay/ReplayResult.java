@@ -0,0 +1,81 @@
+package replay;
+
+import java.time.Duration;
+
+/**
+ * Outcome of replaying a command log: how many commands ran, how many of them ended
+ * differently than when recorded, how long it took, and both state digests.
+ */
+public final class ReplayResult {
+    private final long commands;
+    private final long mismatchedOutcomes;
+    private final Duration recordedDuration;
+    private final Duration replayDuration;
+    private final StateDigest recordedDigest;
+    private final StateDigest replayedDigest;
+    private final ServiceGraph graph;
+
+    ReplayResult(long commands, long mismatchedOutcomes, Duration recordedDuration, Duration replayDuration,
+                 StateDigest recordedDigest, StateDigest replayedDigest, ServiceGraph graph) {
+        this.commands = commands;
+        this.mismatchedOutcomes = mismatchedOutcomes;
+        this.recordedDuration = recordedDuration;
+        this.replayDuration = replayDuration;
+        this.recordedDigest = recordedDigest;
+        this.replayedDigest = replayedDigest;
+        this.graph = graph;
+    }
+
+    public long getCommands() {
+        return commands;
+    }
+
+    /**
+     * Commands that succeeded where the recording failed or vice versa, or that were
+     * fulfilled or rejected for a different reason.
+     */
+    public long getMismatchedOutcomes() {
+        return mismatchedOutcomes;
+    }
+
+    /**
+     * Time from the start of the recording to its last command.
+     */
+    public Duration getRecordedDuration() {
+        return recordedDuration;
+    }
+
+    public Duration getReplayDuration() {
+        return replayDuration;
+    }
+
+    public StateDigest getRecordedDigest() {
+        return recordedDigest;
+    }
+
+    public StateDigest getReplayedDigest() {
+        return replayedDigest;
+    }
+
+    public boolean isDigestMatch() {
+        return recordedDigest.equals(replayedDigest);
+    }
+
+    /**
+     * The graph the log was replayed into, for inspecting the replayed state.
+     */
+    public ServiceGraph getGraph() {
+        return graph;
+    }
+
+    @Override
+    public String toString() {
+        return "ReplayResult{" +
+                "commands=" + commands +
+                ", mismatchedOutcomes=" + mismatchedOutcomes +
+                ", recordedDuration=" + recordedDuration +
+                ", replayDuration=" + replayDuration +
+                ", digestMatch=" + isDigestMatch() +
+                '}';
+    }
+}
@@ -0,0 +1,121 @@
+package replay;
+
+import domain.model.Customer;
+import domain.model.InventoryItem;
+import domain.model.LocationTable;
+import domain.model.Order;
+import domain.model.Product;
+import domain.model.Shipment;
+import domain.model.Warehouse;
+import repository.InMemoryRepository;
+import service.CustomerService;
+import service.InventoryService;
+import service.OrderFulfillmentService;
+import service.OrderService;
+import service.ShipmentService;
+import service.WarehouseCostFunction;
+import service.WarehouseService;
+import service.WarehouseStations;
+
+/**
+ * The repositories and services that recorded commands run against, wired the default way.
+ *
+ * A recorder snapshots the master data and inventory of its graph; a replayer builds a
+ * fresh graph from that snapshot, keeping product, warehouse and customer ids.
+ *
+ * Customers, warehouses and shipments of a graph intern their locations into the graph's
+ * {@link LocationTable}, which is freed along with the graph.
+ */
+public class ServiceGraph {
+    private final LocationTable locations;
+    private final InMemoryRepository<Product> productRepository;
+    private final InMemoryRepository<Warehouse> warehouseRepository;
+    private final InMemoryRepository<Customer> customerRepository;
+    private final InMemoryRepository<InventoryItem> inventoryRepository = new InMemoryRepository<>();
+    private final InMemoryRepository<Order> orderRepository = new InMemoryRepository<>();
+    private final InMemoryRepository<Shipment> shipmentRepository = new InMemoryRepository<>();
+    private final InventoryService inventoryService;
+    private final WarehouseService warehouseService;
+    private final CustomerService customerService;
+    private final OrderService orderService;
+    private final ShipmentService shipmentService;
+    private final OrderFulfillmentService fulfillmentService;
+
+    public ServiceGraph() {
+        this(new LocationTable(), new InMemoryRepository<>(), new InMemoryRepository<>(), new InMemoryRepository<>());
+    }
+
+    /**
+     * Wires services over master data that is already stored, so that services indexing
+     * their storage on construction see it. The master data's locations belong to the table.
+     */
+    ServiceGraph(LocationTable locations,
+                 InMemoryRepository<Product> productRepository,
+                 InMemoryRepository<Warehouse> warehouseRepository,
+                 InMemoryRepository<Customer> customerRepository) {
+        this.locations = locations;
+        this.productRepository = productRepository;
+        this.warehouseRepository = warehouseRepository;
+        this.customerRepository = customerRepository;
+        this.inventoryService = new InventoryService(inventoryRepository, productRepository, warehouseRepository);
+        this.warehouseService = new WarehouseService(warehouseRepository, inventoryService,
+                WarehouseCostFunction.distance(), new WarehouseStations(), locations);
+        this.customerService = new CustomerService(customerRepository, locations);
+        this.orderService = new OrderService(orderRepository);
+        this.shipmentService = new ShipmentService(shipmentRepository, inventoryService, new WarehouseStations(), locations);
+        this.fulfillmentService = new OrderFulfillmentService(
+                orderService, warehouseService, shipmentService, inventoryService, customerService);
+    }
+
+    public LocationTable getLocations() {
+        return locations;
+    }
+
+    public InMemoryRepository<Product> getProductRepository() {
+        return productRepository;
+    }
+
+    public InMemoryRepository<Warehouse> getWarehouseRepository() {
+        return warehouseRepository;
+    }
+
+    public InMemoryRepository<Customer> getCustomerRepository() {
+        return customerRepository;
+    }
+
+    public InMemoryRepository<InventoryItem> getInventoryRepository() {
+        return inventoryRepository;
+    }
+
+    public InMemoryRepository<Order> getOrderRepository() {
+        return orderRepository;
+    }
+
+    public InMemoryRepository<Shipment> getShipmentRepository() {
+        return shipmentRepository;
+    }
+
+    public InventoryService getInventoryService() {
+        return inventoryService;
+    }
+
+    public WarehouseService getWarehouseService() {
+        return warehouseService;
+    }
+
+    public CustomerService getCustomerService() {
+        return customerService;
+    }
+
+    public OrderService getOrderService() {
+        return orderService;
+    }
+
+    public ShipmentService getShipmentService() {
+        return shipmentService;
+    }
+
+    public OrderFulfillmentService getFulfillmentService() {
+        return fulfillmentService;
+    }
+}
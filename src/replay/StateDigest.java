@@ -0,0 +1,117 @@
+package replay;
+
+import domain.model.InventoryItem;
+import domain.model.Order;
+import domain.model.OrderItemList;
+import domain.model.Shipment;
+
+import java.util.UUID;
+
+/**
+ * Fingerprint of a service graph's orders, shipments and inventory.
+ *
+ * Orders and shipments get new ids when a log is replayed, so they are hashed by content
+ * (customer, status, items, warehouse) rather than by id. Entities are hashed one by one
+ * and the hashes summed, which makes the digest independent of iteration order without
+ * sorting anything.
+ */
+public final class StateDigest {
+    private final int orders;
+    private final int shipments;
+    private final int inventoryItems;
+    private final long hash;
+
+    StateDigest(int orders, int shipments, int inventoryItems, long hash) {
+        this.orders = orders;
+        this.shipments = shipments;
+        this.inventoryItems = inventoryItems;
+        this.hash = hash;
+    }
+
+    public static StateDigest of(ServiceGraph graph) {
+        long hash = 0;
+        int orders = 0;
+        for (Order order: graph.getOrderRepository().findAll()) {
+            long h = mix(uuid(order.getCustomerId()), order.getStatus().ordinal());
+            h = mix(h, order.isTransactional() ? 1 : 0);
+            hash += mix(items(h, order.getOrderItems()), 1);
+            orders++;
+        }
+        int shipments = 0;
+        for (Shipment shipment: graph.getShipmentRepository().findAll()) {
+            long h = mix(uuid(shipment.getWarehouseId()), uuid(shipment.getCustomerId()));
+            h = mix(h, shipment.getStatus().ordinal());
+            hash += mix(items(h, shipment.getShipmentItems()), 2);
+            shipments++;
+        }
+        int inventoryItems = 0;
+        for (InventoryItem item: graph.getInventoryRepository().findAll()) {
+            long h = mix(uuid(item.getWarehouseId()), uuid(item.getProductId()));
+            h = mix(h, item.getAvailableQuantity());
+            h = mix(h, item.getReservedQuantity());
+            hash += mix(h, 3);
+            inventoryItems++;
+        }
+        return new StateDigest(orders, shipments, inventoryItems, hash);
+    }
+
+    public int getOrders() {
+        return orders;
+    }
+
+    public int getShipments() {
+        return shipments;
+    }
+
+    public int getInventoryItems() {
+        return inventoryItems;
+    }
+
+    public long getHash() {
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof StateDigest)) {
+            return false;
+        }
+        StateDigest other = (StateDigest) o;
+        return orders == other.orders && shipments == other.shipments
+                && inventoryItems == other.inventoryItems && hash == other.hash;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(hash);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("StateDigest{orders=%d, shipments=%d, inventoryItems=%d, hash=%016x}",
+                orders, shipments, inventoryItems, hash);
+    }
+
+    private static long items(long h, OrderItemList items) {
+        for (int i = 0; i < items.size(); i++) {
+            h = mix(h, uuid(items.get(i).getProductId()));
+            h = mix(h, items.get(i).getQuantity());
+        }
+        return h;
+    }
+
+    private static long uuid(UUID id) {
+        return id.getMostSignificantBits() * 31 + id.getLeastSignificantBits();
+    }
+
+    // SplitMix64 finalizer over the running hash and the next value
+    private static long mix(long h, long value) {
+        long z = h * 0x9E3779B97F4A7C15L + value;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
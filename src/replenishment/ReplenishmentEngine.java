@@ -0,0 +1,204 @@
+package replenishment;
+
+import domain.model.InventoryItem;
+import domain.model.InventoryKey;
+import domain.model.OrderItem;
+import exceptions.WarehouseCapacityExceededException;
+import service.InventoryChangeListener;
+import service.InventoryService;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Automatic (s, S) replenishment driven by inventory change events.
+ *
+ * The engine listens to {@link InventoryService} and looks only at the item that just
+ * lost available stock. If that item's inventory position (available plus quantity already
+ * on order) has fallen to its reorder point, a restock up to the order-up-to level is
+ * scheduled for now + lead time. Nothing ever iterates over all inventory cells, so the
+ * cost per stock movement is constant regardless of how many cells have policies.
+ *
+ * Policies are resolved per cell first, then per product (SKU), then per warehouse; cells
+ * without any policy are ignored. A new policy takes effect on the cell's next change.
+ *
+ * Restocks are delivered by {@link #processDue()}, which applies everything due by the
+ * engine's clock, one batched restock command per warehouse. Simulations drive it with a
+ * controllable {@link Clock}; live systems call it periodically.
+ */
+public class ReplenishmentEngine implements InventoryChangeListener {
+    private final InventoryService inventoryService;
+    private final Clock clock;
+    private final Map<InventoryKey, ReplenishmentPolicy> cellPolicies = new ConcurrentHashMap<>();
+    private final Map<UUID, ReplenishmentPolicy> productPolicies = new ConcurrentHashMap<>();
+    private final Map<UUID, ReplenishmentPolicy> warehousePolicies = new ConcurrentHashMap<>();
+    private final Map<InventoryKey, Integer> onOrder = new ConcurrentHashMap<>();
+    // Guarded by itself
+    private final PriorityQueue<PendingRestock> schedule = new PriorityQueue<>(PendingRestock.order());
+    private final AtomicLong sequence = new AtomicLong();
+    private final LongAdder scheduledRestocks = new LongAdder();
+    private final LongAdder deliveredRestocks = new LongAdder();
+    private final LongAdder rejectedRestocks = new LongAdder();
+
+    public ReplenishmentEngine(InventoryService inventoryService, Clock clock) {
+        this.inventoryService = Objects.requireNonNull(inventoryService, "inventoryService cannot be null");
+        this.clock = Objects.requireNonNull(clock, "clock cannot be null");
+        inventoryService.addInventoryChangeListener(this);
+    }
+
+    public void setPolicy(UUID warehouseId, UUID productId, ReplenishmentPolicy policy) {
+        cellPolicies.put(new InventoryKey(warehouseId, productId), Objects.requireNonNull(policy, "policy cannot be null"));
+    }
+
+    public void setProductPolicy(UUID productId, ReplenishmentPolicy policy) {
+        productPolicies.put(Objects.requireNonNull(productId, "productId cannot be null"),
+                Objects.requireNonNull(policy, "policy cannot be null"));
+    }
+
+    public void setWarehousePolicy(UUID warehouseId, ReplenishmentPolicy policy) {
+        warehousePolicies.put(Objects.requireNonNull(warehouseId, "warehouseId cannot be null"),
+                Objects.requireNonNull(policy, "policy cannot be null"));
+    }
+
+    public Optional<ReplenishmentPolicy> getPolicy(UUID warehouseId, UUID productId) {
+        return Optional.ofNullable(policyFor(new InventoryKey(warehouseId, productId)));
+    }
+
+    @Override
+    public void onInventoryChanged(InventoryItem item, int availableDelta, int reservedDelta) {
+        // Only a drop in available stock can push the position down to the reorder point
+        if (availableDelta >= 0) {
+            return;
+        }
+        InventoryKey key = InventoryKey.of(item);
+        ReplenishmentPolicy policy = policyFor(key);
+        // The position is never below the available quantity, so most calls stop here
+        if (policy == null || item.getAvailableQuantity() > policy.getReorderPoint()) {
+            return;
+        }
+
+        onOrder.compute(key, (k, outstanding) -> {
+            int ordered = outstanding == null ? 0 : outstanding;
+            int position = item.getAvailableQuantity() + ordered;
+            if (position > policy.getReorderPoint()) {
+                return outstanding;
+            }
+            int quantity = policy.getOrderUpToLevel() - position;
+            Instant dueAt = clock.instant().plus(policy.getLeadTime());
+            synchronized (schedule) {
+                schedule.add(new PendingRestock(k, quantity, dueAt, sequence.incrementAndGet()));
+            }
+            scheduledRestocks.increment();
+            return ordered + quantity;
+        });
+    }
+
+    /**
+     * Delivers every restock that is due by the engine's clock, batched per warehouse.
+     * A batch that would overfill its warehouse is dropped as a whole; the affected cells
+     * reorder on their next stock drop.
+     *
+     * @return the number of restocks delivered
+     */
+    public int processDue() {
+        Instant now = clock.instant();
+        Map<UUID, List<PendingRestock>> dueByWarehouse = new HashMap<>();
+        int delivered = 0;
+
+        synchronized (schedule) {
+            while (!schedule.isEmpty() && !schedule.peek().dueAt.isAfter(now)) {
+                PendingRestock restock = schedule.poll();
+                dueByWarehouse.computeIfAbsent(restock.key.getWarehouseId(), k -> new ArrayList<>()).add(restock);
+            }
+        }
+
+        for (Map.Entry<UUID, List<PendingRestock>> entry: dueByWarehouse.entrySet()) {
+            List<OrderItem> items = new ArrayList<>(entry.getValue().size());
+            for (PendingRestock restock: entry.getValue()) {
+                items.add(new OrderItem(restock.key.getProductId(), restock.quantity));
+            }
+            try {
+                inventoryService.restockItems(entry.getKey(), items);
+                delivered += items.size();
+            } catch (WarehouseCapacityExceededException e) {
+                rejectedRestocks.add(items.size());
+            }
+
+            // Only now stop counting the quantity as on order, so the position never dips
+            // while a delivery is in flight
+            for (PendingRestock restock: entry.getValue()) {
+                onOrder.computeIfPresent(restock.key, (k, outstanding) ->
+                        outstanding == restock.quantity ? null : outstanding - restock.quantity);
+            }
+        }
+        deliveredRestocks.add(delivered);
+        return delivered;
+    }
+
+    /**
+     * Returns when the next scheduled restock is due, if any.
+     */
+    public Optional<Instant> nextDueAt() {
+        synchronized (schedule) {
+            return schedule.isEmpty() ? Optional.empty() : Optional.of(schedule.peek().dueAt);
+        }
+    }
+
+    public int getQuantityOnOrder(UUID warehouseId, UUID productId) {
+        return onOrder.getOrDefault(new InventoryKey(warehouseId, productId), 0);
+    }
+
+    public long getScheduledRestocks() {
+        return scheduledRestocks.sum();
+    }
+
+    public long getDeliveredRestocks() {
+        return deliveredRestocks.sum();
+    }
+
+    public long getRejectedRestocks() {
+        return rejectedRestocks.sum();
+    }
+
+    private ReplenishmentPolicy policyFor(InventoryKey key) {
+        ReplenishmentPolicy policy = cellPolicies.get(key);
+        if (policy == null) {
+            policy = productPolicies.get(key.getProductId());
+        }
+        if (policy == null) {
+            policy = warehousePolicies.get(key.getWarehouseId());
+        }
+        return policy;
+    }
+
+    private static final class PendingRestock {
+        private final InventoryKey key;
+        private final int quantity;
+        private final Instant dueAt;
+        private final long sequence;
+
+        private PendingRestock(InventoryKey key, int quantity, Instant dueAt, long sequence) {
+            this.key = key;
+            this.quantity = quantity;
+            this.dueAt = dueAt;
+            this.sequence = sequence;
+        }
+
+        private static Comparator<PendingRestock> order() {
+            return Comparator.<PendingRestock, Instant>comparing(r -> r.dueAt)
+                    .thenComparingLong(r -> r.sequence);
+        }
+    }
+}
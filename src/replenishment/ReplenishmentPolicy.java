@@ -0,0 +1,53 @@
+package replenishment;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * An (s, S) policy: once the inventory position of a cell drops to the reorder point s,
+ * order enough to bring it back up to S, delivered after the lead time.
+ */
+public final class ReplenishmentPolicy {
+    private final int reorderPoint;
+    private final int orderUpToLevel;
+    private final Duration leadTime;
+
+    public ReplenishmentPolicy(int reorderPoint, int orderUpToLevel, Duration leadTime) {
+        Objects.requireNonNull(leadTime, "leadTime cannot be null");
+        if (reorderPoint < 0) {
+            throw new IllegalArgumentException("reorderPoint cannot be negative: " + reorderPoint);
+        }
+        if (orderUpToLevel <= reorderPoint) {
+            throw new IllegalArgumentException(
+                    "orderUpToLevel must be above the reorder point: " + orderUpToLevel + " <= " + reorderPoint);
+        }
+        if (leadTime.isNegative()) {
+            throw new IllegalArgumentException("leadTime cannot be negative: " + leadTime);
+        }
+
+        this.reorderPoint = reorderPoint;
+        this.orderUpToLevel = orderUpToLevel;
+        this.leadTime = leadTime;
+    }
+
+    public int getReorderPoint() {
+        return reorderPoint;
+    }
+
+    public int getOrderUpToLevel() {
+        return orderUpToLevel;
+    }
+
+    public Duration getLeadTime() {
+        return leadTime;
+    }
+
+    @Override
+    public String toString() {
+        return "ReplenishmentPolicy{" +
+                "reorderPoint=" + reorderPoint +
+                ", orderUpToLevel=" + orderUpToLevel +
+                ", leadTime=" + leadTime +
+                '}';
+    }
+}
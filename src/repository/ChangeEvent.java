@@ -0,0 +1,55 @@
+package repository;
+
+import java.util.UUID;
+
+/**
+ * One change to an entity, with the values before and after it.
+ *
+ * Sequence numbers are assigned by the publisher in the order changes were applied, with no
+ * gaps, so a subscriber that sees a gap knows events were dropped for it. Before is null for
+ * inserts, after is null for deletes.
+ */
+public class ChangeEvent<T> {
+    private final long sequence;
+    private final ChangeType type;
+    private final UUID id;
+    private final T before;
+    private final T after;
+
+    public ChangeEvent(long sequence, ChangeType type, UUID id, T before, T after) {
+        this.sequence = sequence;
+        this.type = type;
+        this.id = id;
+        this.before = before;
+        this.after = after;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public ChangeType getType() {
+        return type;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public T getBefore() {
+        return before;
+    }
+
+    public T getAfter() {
+        return after;
+    }
+
+    @Override
+    public String toString() {
+        return "ChangeEvent{" +
+                "sequence=" + sequence +
+                ", type=" + type +
+                ", id=" + id +
+                '}';
+    }
+}
@@ -0,0 +1,291 @@
+package repository;
+
+import exceptions.ChangeStreamOverflowException;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Change-data-capture stream: a {@link Flow.Publisher} of batches of {@link ChangeEvent}s.
+ *
+ * Writers call {@link #publish}, which numbers the event and appends it to every
+ * subscriber's bounded buffer without waiting for anyone. Each subscriber is drained by
+ * its own serialized task on the executor, and each unit of demand it requests is one
+ * batch of up to maxBatchSize buffered events, so a subscriber that keeps up receives
+ * small batches and one that falls behind catches up in large ones. When a buffer is full
+ * the subscriber's {@link OverflowPolicy} decides what gives; writers are never stalled.
+ *
+ * With no subscribers, publish returns at once and events are not numbered.
+ *
+ * Sequence numbers come from one atomic counter and each subscriber's buffer has its own
+ * lock, so writers publishing different ids only meet on the buffers they append to. Events
+ * for one id reach every subscriber in sequence order as long as the caller publishes them
+ * in write order; events for different ids published at the same moment may be buffered
+ * slightly out of sequence order.
+ */
+public class ChangePublisher<T> implements Flow.Publisher<List<ChangeEvent<T>>>, AutoCloseable {
+    public static final int DEFAULT_BUFFER_CAPACITY = 8192;
+    public static final int DEFAULT_MAX_BATCH_SIZE = 256;
+
+    private final Executor executor;
+    private final List<ChangeSubscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final LongAdder dropped = new LongAdder();
+    private final AtomicLong sequence = new AtomicLong();
+    // Written under this, together with the subscription list
+    private volatile boolean closed;
+
+    public ChangePublisher() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param executor runs subscriber callbacks; one task per subscriber at a time
+     */
+    public ChangePublisher(Executor executor) {
+        this.executor = Objects.requireNonNull(executor, "executor cannot be null");
+    }
+
+    public boolean hasSubscribers() {
+        return !subscriptions.isEmpty();
+    }
+
+    public int getSubscriberCount() {
+        return subscriptions.size();
+    }
+
+    /**
+     * Sequence number of the last published event.
+     */
+    public long getSequence() {
+        return sequence.get();
+    }
+
+    /**
+     * Events lost to full buffers, summed over subscribers.
+     */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    /**
+     * Publishes one change. Callers that need events for the same id in write order must
+     * publish while they still hold whatever orders those writes.
+     */
+    public void publish(ChangeType type, UUID id, T before, T after) {
+        if (subscriptions.isEmpty() || closed) {
+            return;
+        }
+        ChangeEvent<T> event = new ChangeEvent<>(sequence.incrementAndGet(), type, id, before, after);
+        for (ChangeSubscription subscription: subscriptions) {
+            subscription.offer(event);
+        }
+    }
+
+    /**
+     * Subscribes with the default buffer capacity and batch size, dropping the oldest
+     * events on overflow.
+     */
+    @Override
+    public void subscribe(Flow.Subscriber<? super List<ChangeEvent<T>>> subscriber) {
+        subscribe(subscriber, DEFAULT_BUFFER_CAPACITY, DEFAULT_MAX_BATCH_SIZE, OverflowPolicy.DROP_OLDEST);
+    }
+
+    public void subscribe(Flow.Subscriber<? super List<ChangeEvent<T>>> subscriber,
+                          int bufferCapacity,
+                          int maxBatchSize,
+                          OverflowPolicy overflowPolicy) {
+        Objects.requireNonNull(subscriber, "subscriber cannot be null");
+        Objects.requireNonNull(overflowPolicy, "overflowPolicy cannot be null");
+        if (bufferCapacity <= 0) {
+            throw new IllegalArgumentException("bufferCapacity must be positive: " + bufferCapacity);
+        }
+        if (maxBatchSize <= 0) {
+            throw new IllegalArgumentException("maxBatchSize must be positive: " + maxBatchSize);
+        }
+        ChangeSubscription subscription = new ChangeSubscription(subscriber, bufferCapacity, maxBatchSize, overflowPolicy);
+        synchronized (this) {
+            if (closed) {
+                subscription.completed = true;
+            } else {
+                subscriptions.add(subscription);
+            }
+        }
+        subscription.signal();
+    }
+
+    /**
+     * Stops accepting events; subscribers get onComplete once their buffers are drained.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        }
+        for (ChangeSubscription subscription: subscriptions) {
+            subscription.completed = true;
+            subscription.signal();
+        }
+        subscriptions.clear();
+    }
+
+    private final class ChangeSubscription implements Flow.Subscription, Runnable {
+        private final Flow.Subscriber<? super List<ChangeEvent<T>>> subscriber;
+        private final int bufferCapacity;
+        private final int maxBatchSize;
+        private final OverflowPolicy overflowPolicy;
+        // Guarded by this
+        private final ArrayDeque<ChangeEvent<T>> buffer = new ArrayDeque<>();
+        private final AtomicLong demand = new AtomicLong();
+        // Number of pending signals; the task that moves it off zero does the draining
+        private final AtomicInteger pending = new AtomicInteger();
+        private volatile boolean cancelled;
+        private volatile boolean completed;
+        private volatile Throwable error;
+        // Only touched by the draining task
+        private boolean subscribed;
+        private boolean terminated;
+
+        private ChangeSubscription(Flow.Subscriber<? super List<ChangeEvent<T>>> subscriber,
+                                   int bufferCapacity,
+                                   int maxBatchSize,
+                                   OverflowPolicy overflowPolicy) {
+            this.subscriber = subscriber;
+            this.bufferCapacity = bufferCapacity;
+            this.maxBatchSize = maxBatchSize;
+            this.overflowPolicy = overflowPolicy;
+        }
+
+        private void offer(ChangeEvent<T> event) {
+            synchronized (this) {
+                // A publish racing with close() must not append behind onComplete
+                if (cancelled || completed || error != null) {
+                    return;
+                }
+                if (buffer.size() == bufferCapacity) {
+                    dropped.increment();
+                    switch (overflowPolicy) {
+                        case DROP_OLDEST:
+                            buffer.pollFirst();
+                            break;
+                        case DROP_NEWEST:
+                            return;
+                        default:
+                            subscriptions.remove(this);
+                            error = new ChangeStreamOverflowException(bufferCapacity, buffer.peekFirst().getSequence() - 1);
+                            buffer.clear();
+                            signal();
+                            return;
+                    }
+                }
+                buffer.addLast(event);
+            }
+            signal();
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                error = new IllegalArgumentException("request must be positive: " + n);
+            } else {
+                demand.accumulateAndGet(n, (current, added) -> current + added < 0 ? Long.MAX_VALUE : current + added);
+            }
+            signal();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            subscriptions.remove(this);
+            synchronized (this) {
+                buffer.clear();
+            }
+        }
+
+        private void signal() {
+            if (pending.getAndIncrement() == 0) {
+                try {
+                    executor.execute(this);
+                } catch (RejectedExecutionException e) {
+                    cancel();
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            int missed = 1;
+            do {
+                drain();
+                missed = pending.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void drain() {
+            if (!subscribed) {
+                subscribed = true;
+                try {
+                    subscriber.onSubscribe(this);
+                } catch (RuntimeException e) {
+                    cancel();
+                }
+            }
+            while (!terminated) {
+                if (cancelled) {
+                    terminated = true;
+                    return;
+                }
+                Throwable failure = error;
+                if (failure != null) {
+                    terminated = true;
+                    cancel();
+                    subscriber.onError(failure);
+                    return;
+                }
+                List<ChangeEvent<T>> batch = null;
+                boolean empty;
+                synchronized (this) {
+                    empty = buffer.isEmpty();
+                    if (!empty && demand.get() > 0) {
+                        int size = Math.min(maxBatchSize, buffer.size());
+                        batch = new ArrayList<>(size);
+                        for (int i = 0; i < size; i++) {
+                            batch.add(buffer.pollFirst());
+                        }
+                    }
+                }
+                if (empty) {
+                    if (completed) {
+                        terminated = true;
+                        subscriber.onComplete();
+                    }
+                    return;
+                }
+                if (batch == null) {
+                    return; // No demand; request() signals again
+                }
+                if (demand.get() != Long.MAX_VALUE) {
+                    demand.decrementAndGet();
+                }
+                try {
+                    subscriber.onNext(batch);
+                } catch (RuntimeException e) {
+                    cancel();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package repository;
+
+public enum ChangeType {
+    INSERT,
+    UPDATE,
+    DELETE
+}
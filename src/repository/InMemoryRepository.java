@@ -1,17 +1,31 @@
 package repository;
 
+import domain.model.Location;
+import domain.model.LocationTable;
+import domain.model.Versioned;
+
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
 
 public class InMemoryRepository <T> implements InMemoryRepositoryInterface<T> {
     private final Map<UUID, T> storage;
+    private final List<SecondaryIndex<T>> indexes;
+    private final ChangePublisher<T> changes = new ChangePublisher<>();
+    private volatile VersionStore<T> versions;
 
     public InMemoryRepository() {
         this.storage = new ConcurrentHashMap<>();
+        this.indexes = new CopyOnWriteArrayList<>();
     }
     @Override
     public T save(UUID id, T entity) {
-         storage.put(id, entity);
+         storage.compute(id, (key, current) -> {
+             onSave(current, entity);
+             track(current == null ? ChangeType.INSERT : ChangeType.UPDATE, id, current, entity);
+             return entity;
+         });
          return entity;
      }
 
@@ -24,10 +38,101 @@ public class InMemoryRepository <T> implements InMemoryRepositoryInterface<T> {
      }
 
      public void deleteById(UUID id) {
-        storage.remove(id);
+        storage.computeIfPresent(id, (key, current) -> {
+            for (SecondaryIndex<T> index: indexes) {
+                index.onDelete(current);
+            }
+            track(ChangeType.DELETE, id, current, null);
+            return null;
+        });
      }
 
      public boolean existsById(UUID id) {
         return storage.containsKey(id);
      }
+
+    @Override
+    public boolean compareAndSave(UUID id, long expectedVersion, T entity) {
+        T current = storage.get(id);
+        if (current == null || versionOf(current) != expectedVersion) {
+            return false;
+        }
+        boolean[] replaced = new boolean[1];
+        storage.computeIfPresent(id, (key, latest) -> {
+            // Only succeeds if nobody replaced current meanwhile
+            if (latest != current) {
+                return latest;
+            }
+            replaced[0] = true;
+            onSave(current, entity);
+            track(ChangeType.UPDATE, id, current, entity);
+            return entity;
+        });
+        return replaced[0];
+    }
+
+    @Override
+    public <K> UniqueIndex<K, T> createUniqueIndex(Function<T, K> keyExtractor) {
+        UniqueIndex<K, T> index = new UniqueIndex<>(keyExtractor);
+        indexes.add(index);
+        storage.values().forEach(entity -> index.onSave(null, entity));
+        return index;
+    }
+
+    /**
+     * Creates an index from coordinates to the entities located there, populated from the
+     * current contents and maintained on every subsequent write.
+     */
+    public LocationIndex<T> createLocationIndex(LocationTable locations, Function<T, Location> locationExtractor) {
+        LocationIndex<T> index = new LocationIndex<>(locations, locationExtractor);
+        indexes.add(index);
+        storage.values().forEach(entity -> index.onSave(null, entity));
+        return index;
+    }
+
+    /**
+     * Change stream of every save, compare-and-save and delete, with the entity before and
+     * after. Writes only pay for it while someone is subscribed.
+     */
+    public ChangePublisher<T> getChanges() {
+        return changes;
+    }
+
+    /**
+     * Keeps a version of every entity written from now on, for {@link Snapshot} reads of
+     * this repository alongside the other stores of the manager. Call it once, before the
+     * repository is shared with writers.
+     */
+    public VersionStore<T> enableSnapshots(SnapshotManager manager) {
+        VersionStore<T> store = manager.createStore();
+        storage.forEach(store::seed);
+        versions = store;
+        return store;
+    }
+
+    // Writes update the indexes, record versions and publish inside the map's per-key lock,
+    // so indexes, versions and events for one id follow the order its writes were applied
+
+    private void onSave(T previous, T entity) {
+        for (SecondaryIndex<T> index: indexes) {
+            index.onSave(previous, entity);
+        }
+    }
+
+    private void track(ChangeType type, UUID id, T before, T after) {
+        VersionStore<T> store = versions;
+        if (store != null) {
+            store.record(id, after);
+        }
+        if (changes.hasSubscribers()) {
+            changes.publish(type, id, before, after);
+        }
+    }
+
+    static long versionOf(Object entity) {
+        if (!(entity instanceof Versioned)) {
+            throw new IllegalArgumentException(entity.getClass().getSimpleName() + " does not carry a version");
+        }
+        return ((Versioned) entity).getVersion();
+    }
 }
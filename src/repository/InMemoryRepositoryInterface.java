@@ -3,6 +3,9 @@ package repository;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 public interface InMemoryRepositoryInterface<T> {
     T save (UUID id, T entity);
@@ -10,4 +13,46 @@ public interface InMemoryRepositoryInterface<T> {
     List<T> findAll();
     void deleteById(UUID id);
     boolean existsById(UUID id);
+
+    /**
+     * Replaces the entity stored under id only if the stored entity is still at
+     * expectedVersion. Entities must implement {@link domain.model.Versioned}.
+     *
+     * @return true if the entity was replaced, false if it is missing or was changed concurrently
+     */
+    boolean compareAndSave(UUID id, long expectedVersion, T entity);
+
+    /**
+     * Creates an index over a derived key, populated from the current contents and
+     * maintained on every subsequent write.
+     */
+    <K> UniqueIndex<K, T> createUniqueIndex(Function<T, K> keyExtractor);
+
+    /**
+     * Runs a command with exclusive ownership of the entities that routingKey maps to.
+     * Plain repositories have no owners and run the command on the caller's thread.
+     */
+    default <R> R execute(UUID routingKey, Supplier<R> command) {
+        return command.get();
+    }
+
+    /**
+     * Like {@link #execute(UUID, Supplier)}, but hands the command to the owner without
+     * waiting for it. Plain repositories run it on the caller's thread and return a
+     * completed future; exceptions complete the future exceptionally.
+     */
+    default <R> CompletableFuture<R> executeAsync(UUID routingKey, Supplier<R> command) {
+        try {
+            return CompletableFuture.completedFuture(command.get());
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    default void execute(UUID routingKey, Runnable command) {
+        execute(routingKey, () -> {
+            command.run();
+            return null;
+        });
+    }
 }
@@ -0,0 +1,241 @@
+package repository;
+
+import domain.model.Location;
+import domain.model.LocationTable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Secondary index from coordinates to the entities located there. Created through a
+ * repository, which keeps it current on every save, compare-and-save and delete, so an
+ * entity moved with a setter is found at its new location once it is saved again.
+ *
+ * There are no per-location collections. Each indexed entity takes one entry in parallel
+ * arrays: the entity, the handle of its location in the index's {@link LocationTable}, and
+ * links into two chained hash tables, one by coordinates and one by entity identity. Moving
+ * or removing an entity finds its entry by identity and relinks it without a scan; a lookup
+ * walks one coordinate bucket and compares coordinates by handle. Entries of removed
+ * entities are reused.
+ *
+ * Writers and readers take the index's lock for the duration of one update or lookup.
+ */
+public class LocationIndex<T> extends SecondaryIndex<T> {
+    private static final int NONE = -1;
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final LocationTable locations;
+    private final Function<T, Location> locationExtractor;
+    // Guarded by this
+    private Object[] entities = new Object[INITIAL_CAPACITY]; // null for a free entry
+    private int[] handles = new int[INITIAL_CAPACITY];
+    private int[] coordinateNext = new int[INITIAL_CAPACITY]; // also chains the free entries
+    private int[] coordinatePrevious = new int[INITIAL_CAPACITY];
+    private int[] identityNext = new int[INITIAL_CAPACITY];
+    private int[] coordinateBuckets = emptyBuckets(INITIAL_CAPACITY);
+    private int[] identityBuckets = emptyBuckets(INITIAL_CAPACITY);
+    private int used; // entries handed out so far, free or not
+    private int free = NONE;
+    private int size;
+
+    LocationIndex(LocationTable locations, Function<T, Location> locationExtractor) {
+        this.locations = Objects.requireNonNull(locations, "locations cannot be null");
+        this.locationExtractor = Objects.requireNonNull(locationExtractor, "locationExtractor cannot be null");
+    }
+
+    /**
+     * Entities at the location's coordinates, which is what {@link Location#equals} compares.
+     */
+    public List<T> find(Location location) {
+        if (location == null) {
+            return List.of();
+        }
+        List<T> found = new ArrayList<>();
+        synchronized (this) {
+            int bucket = hash(location.getLatitude(), location.getLongtitude()) & (coordinateBuckets.length - 1);
+            for (int entry = coordinateBuckets[bucket]; entry != NONE; entry = coordinateNext[entry]) {
+                if (locations.isAt(handles[entry], location)) {
+                    found.add(entityAt(entry));
+                }
+            }
+        }
+        return found;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    @Override
+    void onSave(T previous, T entity) {
+        int handle = locations.intern(locationExtractor.apply(entity));
+        synchronized (this) {
+            int entry = previous == null ? NONE : entryOf(previous);
+            if (entry == NONE) {
+                entry = entryOf(entity);
+            }
+            if (entry == NONE) {
+                if (handle != NONE) {
+                    add(entity, handle);
+                }
+                return;
+            }
+            if (handle == NONE) {
+                remove(entry);
+                return;
+            }
+            if (entities[entry] != entity) {
+                unlinkIdentity(entry);
+                entities[entry] = entity;
+                linkIdentity(entry);
+            }
+            if (handles[entry] != handle) {
+                unlinkCoordinates(entry);
+                handles[entry] = handle;
+                linkCoordinates(entry);
+            }
+        }
+    }
+
+    @Override
+    synchronized void onDelete(T removed) {
+        int entry = entryOf(removed);
+        if (entry != NONE) {
+            remove(entry);
+        }
+    }
+
+    // The methods below are called with the lock held
+
+    private void add(T entity, int handle) {
+        int entry;
+        if (free != NONE) {
+            entry = free;
+            free = coordinateNext[entry];
+        } else {
+            if (used == entities.length) {
+                grow();
+            }
+            entry = used++;
+        }
+        entities[entry] = entity;
+        handles[entry] = handle;
+        linkIdentity(entry);
+        linkCoordinates(entry);
+        size++;
+        if (size > coordinateBuckets.length) {
+            rehash(coordinateBuckets.length * 2);
+        }
+    }
+
+    private void remove(int entry) {
+        unlinkIdentity(entry);
+        unlinkCoordinates(entry);
+        entities[entry] = null;
+        coordinateNext[entry] = free;
+        free = entry;
+        size--;
+    }
+
+    private int entryOf(Object entity) {
+        int entry = identityBuckets[identityBucket(entity)];
+        while (entry != NONE && entities[entry] != entity) {
+            entry = identityNext[entry];
+        }
+        return entry;
+    }
+
+    private void linkIdentity(int entry) {
+        int bucket = identityBucket(entities[entry]);
+        identityNext[entry] = identityBuckets[bucket];
+        identityBuckets[bucket] = entry;
+    }
+
+    private void unlinkIdentity(int entry) {
+        int bucket = identityBucket(entities[entry]);
+        if (identityBuckets[bucket] == entry) {
+            identityBuckets[bucket] = identityNext[entry];
+            return;
+        }
+        int before = identityBuckets[bucket];
+        while (identityNext[before] != entry) {
+            before = identityNext[before];
+        }
+        identityNext[before] = identityNext[entry];
+    }
+
+    private void linkCoordinates(int entry) {
+        int bucket = coordinateBucket(handles[entry]);
+        int head = coordinateBuckets[bucket];
+        coordinateNext[entry] = head;
+        coordinatePrevious[entry] = NONE;
+        if (head != NONE) {
+            coordinatePrevious[head] = entry;
+        }
+        coordinateBuckets[bucket] = entry;
+    }
+
+    private void unlinkCoordinates(int entry) {
+        int next = coordinateNext[entry];
+        int previous = coordinatePrevious[entry];
+        if (previous == NONE) {
+            coordinateBuckets[coordinateBucket(handles[entry])] = next;
+        } else {
+            coordinateNext[previous] = next;
+        }
+        if (next != NONE) {
+            coordinatePrevious[next] = previous;
+        }
+    }
+
+    private void grow() {
+        int capacity = entities.length * 2;
+        entities = Arrays.copyOf(entities, capacity);
+        handles = Arrays.copyOf(handles, capacity);
+        coordinateNext = Arrays.copyOf(coordinateNext, capacity);
+        coordinatePrevious = Arrays.copyOf(coordinatePrevious, capacity);
+        identityNext = Arrays.copyOf(identityNext, capacity);
+    }
+
+    private void rehash(int bucketCount) {
+        coordinateBuckets = emptyBuckets(bucketCount);
+        identityBuckets = emptyBuckets(bucketCount);
+        for (int entry = 0; entry < used; entry++) {
+            if (entities[entry] != null) {
+                linkIdentity(entry);
+                linkCoordinates(entry);
+            }
+        }
+    }
+
+    private int coordinateBucket(int handle) {
+        return hash(locations.getLatitude(handle), locations.getLongitude(handle)) & (coordinateBuckets.length - 1);
+    }
+
+    private int identityBucket(Object entity) {
+        int h = System.identityHashCode(entity);
+        return (h ^ (h >>> 16)) & (identityBuckets.length - 1);
+    }
+
+    @SuppressWarnings("unchecked")
+    private T entityAt(int entry) {
+        return (T) entities[entry];
+    }
+
+    private static int[] emptyBuckets(int count) {
+        int[] buckets = new int[count];
+        Arrays.fill(buckets, NONE);
+        return buckets;
+    }
+
+    private static int hash(double latitude, double longitude) {
+        long h = Double.doubleToLongBits(latitude) * 0x9E3779B97F4A7C15L
+                + Double.doubleToLongBits(longitude) * 0xC2B2AE3D27D4EB4FL;
+        h ^= h >>> 29;
+        h *= 0xBF58476D1CE4E5B9L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -0,0 +1,21 @@
+package repository;
+
+/**
+ * What a {@link ChangePublisher} does when a subscriber's buffer is full. Writers never
+ * wait for a subscriber, so one of these always applies.
+ */
+public enum OverflowPolicy {
+    /**
+     * Discard the oldest buffered event; the subscriber sees a gap in sequence numbers.
+     */
+    DROP_OLDEST,
+    /**
+     * Discard the new event; the subscriber sees a gap in sequence numbers.
+     */
+    DROP_NEWEST,
+    /**
+     * Cancel the subscription and signal onError with a {@link exceptions.ChangeStreamOverflowException},
+     * for subscribers that cannot tolerate gaps and would rather resynchronize.
+     */
+    CANCEL
+}
@@ -0,0 +1,12 @@
+package repository;
+
+/**
+ * Index that a repository keeps current on every save, compare-and-save and delete, inside
+ * the per-key lock of the write.
+ */
+abstract class SecondaryIndex<T> {
+
+    abstract void onSave(T previous, T entity);
+
+    abstract void onDelete(T removed);
+}
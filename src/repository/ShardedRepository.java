@@ -0,0 +1,199 @@
+package repository;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Repository whose entities are hash-partitioned across N shards by a routing key
+ * (e.g. the warehouse id of an inventory item).
+ *
+ * Each shard is owned by a single writer thread. Saves, deletes and commands passed
+ * to {@link #execute(UUID, Supplier)} are queued to the owning thread and applied one
+ * at a time, so entities that are mutated in place never see two writers at once.
+ * Lookups by id read the shard maps directly and never wait for the writer.
+ *
+ * Reads are not isolated. {@link #findById(UUID)} and {@link #findAll()} hand out the
+ * stored objects themselves, so an entity that its owner mutates in place may be seen
+ * half-updated, and a findAll is not a point-in-time view across entities or shards.
+ * Reads that need a consistent entity must run as a command on the owning shard; reads
+ * that need a consistent view of many entities should go through a {@link Snapshot}.
+ *
+ * The routing key of an entity must not change after it has been saved.
+ */
+public class ShardedRepository<T> implements InMemoryRepositoryInterface<T>, AutoCloseable {
+    private final List<Shard<T>> shards;
+    private final Function<T, UUID> routingKey;
+    private final List<UniqueIndex<?, T>> indexes = new CopyOnWriteArrayList<>();
+
+    public ShardedRepository(int shardCount, Function<T, UUID> routingKey) {
+        if (shardCount <= 0) {
+            throw new IllegalArgumentException("shardCount must be positive: " + shardCount);
+        }
+        this.routingKey = Objects.requireNonNull(routingKey, "routingKey cannot be null");
+        this.shards = new ArrayList<>(shardCount);
+        for (int i = 0; i < shardCount; i++) {
+            shards.add(new Shard<>(i));
+        }
+    }
+
+    public int getShardCount() {
+        return shards.size();
+    }
+
+    public int shardIndexFor(UUID key) {
+        int hash = key.hashCode();
+        return Math.floorMod(hash ^ (hash >>> 16), shards.size());
+    }
+
+    @Override
+    public T save(UUID id, T entity) {
+        Shard<T> shard = shardFor(routingKey.apply(entity));
+        return shard.run(() -> {
+            T previous = shard.storage.put(id, entity);
+            indexes.forEach(index -> index.onSave(previous, entity));
+            return entity;
+        });
+    }
+
+    @Override
+    public Optional<T> findById(UUID id) {
+        for (Shard<T> shard: shards) {
+            T entity = shard.storage.get(id);
+            if (entity != null) {
+                return Optional.of(entity);
+            }
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public List<T> findAll() {
+        List<T> result = new ArrayList<>();
+        for (Shard<T> shard: shards) {
+            result.addAll(shard.storage.values());
+        }
+        return result;
+    }
+
+    @Override
+    public void deleteById(UUID id) {
+        for (Shard<T> shard: shards) {
+            if (shard.storage.containsKey(id)) {
+                shard.run(() -> {
+                    T removed = shard.storage.remove(id);
+                    if (removed != null) {
+                        indexes.forEach(index -> index.onDelete(removed));
+                    }
+                    return removed;
+                });
+                return;
+            }
+        }
+    }
+
+    @Override
+    public boolean existsById(UUID id) {
+        return findById(id).isPresent();
+    }
+
+    @Override
+    public boolean compareAndSave(UUID id, long expectedVersion, T entity) {
+        Shard<T> shard = shardFor(routingKey.apply(entity));
+        return shard.run(() -> {
+            T current = shard.storage.get(id);
+            if (current == null || InMemoryRepository.versionOf(current) != expectedVersion) {
+                return false;
+            }
+            shard.storage.put(id, entity);
+            indexes.forEach(index -> index.onSave(current, entity));
+            return true;
+        });
+    }
+
+    @Override
+    public <K> UniqueIndex<K, T> createUniqueIndex(Function<T, K> keyExtractor) {
+        UniqueIndex<K, T> index = new UniqueIndex<>(keyExtractor);
+        indexes.add(index);
+        findAll().forEach(entity -> index.onSave(null, entity));
+        return index;
+    }
+
+    /**
+     * Runs the command on the thread that owns routingKey's shard and waits for the result.
+     * Exceptions thrown by the command are rethrown to the caller unchanged.
+     */
+    @Override
+    public <R> R execute(UUID routingKey, Supplier<R> command) {
+        return shardFor(routingKey).run(command);
+    }
+
+    /**
+     * Queues the command to the thread that owns routingKey's shard; the future completes
+     * on that thread.
+     */
+    @Override
+    public <R> CompletableFuture<R> executeAsync(UUID routingKey, Supplier<R> command) {
+        return shardFor(routingKey).runAsync(command);
+    }
+
+    @Override
+    public void close() {
+        shards.forEach(shard -> shard.writer.shutdown());
+    }
+
+    private Shard<T> shardFor(UUID key) {
+        Objects.requireNonNull(key, "routing key cannot be null");
+        return shards.get(shardIndexFor(key));
+    }
+
+    private static final class Shard<T> {
+        private final Map<UUID, T> storage = new ConcurrentHashMap<>();
+        private final ExecutorService writer;
+        private volatile Thread owner;
+
+        private Shard(int index) {
+            this.writer = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "repository-shard-" + index);
+                thread.setDaemon(true);
+                owner = thread;
+                return thread;
+            });
+        }
+
+        private <R> CompletableFuture<R> runAsync(Supplier<R> command) {
+            if (Thread.currentThread() == owner) {
+                try {
+                    return CompletableFuture.completedFuture(command.get());
+                } catch (RuntimeException e) {
+                    return CompletableFuture.failedFuture(e);
+                }
+            }
+            return CompletableFuture.supplyAsync(command, writer);
+        }
+
+        private <R> R run(Supplier<R> command) {
+            // Commands issued by the owner itself (nested calls) must not queue behind themselves
+            if (Thread.currentThread() == owner) {
+                return command.get();
+            }
+            try {
+                return CompletableFuture.supplyAsync(command, writer).join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                if (e.getCause() instanceof Error) {
+                    throw (Error) e.getCause();
+                }
+                throw e;
+            }
+        }
+    }
+}
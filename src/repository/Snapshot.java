@@ -0,0 +1,43 @@
+package repository;
+
+/**
+ * A reader's view of every {@link VersionStore} of one {@link SnapshotManager} as of a
+ * logical timestamp. Reads through it see the same state however long they take and
+ * whatever writers do meanwhile. Close it when done, since it keeps old versions alive.
+ */
+public final class Snapshot implements AutoCloseable {
+    private final SnapshotManager manager;
+    volatile long timestamp;
+    private volatile boolean closed;
+
+    Snapshot(SnapshotManager manager, long timestamp) {
+        this.manager = manager;
+        this.timestamp = timestamp;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        manager.close(this);
+    }
+
+    void checkReadable(SnapshotManager storeManager) {
+        if (storeManager != manager) {
+            throw new IllegalArgumentException("Snapshot belongs to another snapshot manager");
+        }
+        if (closed) {
+            throw new IllegalStateException("Snapshot at " + timestamp + " is closed");
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package repository;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Logical clock and reader registry shared by a group of {@link VersionStore}s, so that one
+ * {@link Snapshot} reads all of them as of the same point.
+ *
+ * Every recorded write takes the next timestamp. A snapshot takes the current timestamp
+ * and sees, in every store, exactly the writes stamped at or before it: a prefix of the
+ * global write order. Writes are not grouped into transactions, so a snapshot may fall
+ * between the steps of one fulfillment (stock reserved, order not yet ALLOCATED), but
+ * never inside a single entity's update.
+ *
+ * Reclamation: the manager keeps a watermark that no open snapshot is older than. A write
+ * drops the versions of its entity that lie behind what a snapshot at the watermark would
+ * see, and everything but the newest version when no snapshot is open. When the oldest
+ * snapshot closes, the closing reader sweeps every store for what writes left behind:
+ * entities not written since and deleted entities. A snapshot that is never closed pins
+ * every version written after it.
+ */
+public class SnapshotManager {
+    static final long PENDING = Long.MAX_VALUE;
+
+    private final AtomicLong clock = new AtomicLong();
+    private final AtomicInteger openCount = new AtomicInteger();
+    private final Set<Snapshot> open = ConcurrentHashMap.newKeySet();
+    private final AtomicLong watermark = new AtomicLong();
+    private final List<VersionStore<?>> stores = new CopyOnWriteArrayList<>();
+    private final ReentrantLock sweeping = new ReentrantLock();
+
+    /**
+     * Creates an empty store whose versions are stamped by this manager's clock.
+     */
+    public <T> VersionStore<T> createStore() {
+        VersionStore<T> store = new VersionStore<>(this);
+        stores.add(store);
+        return store;
+    }
+
+    /**
+     * Opens a snapshot of every store as of now. Never waits for writers.
+     */
+    public Snapshot open() {
+        // Counted before reading the clock, so a writer that still sees no open snapshot
+        // has already taken a timestamp this snapshot will see
+        openCount.incrementAndGet();
+        // Registered with a timestamp that is safe for sure before the real one is read,
+        // so a watermark computed meanwhile cannot overtake it
+        Snapshot snapshot = new Snapshot(this, watermark.get());
+        open.add(snapshot);
+        snapshot.timestamp = clock.get();
+        return snapshot;
+    }
+
+    public long getTimestamp() {
+        return clock.get();
+    }
+
+    public int getOpenSnapshotCount() {
+        return openCount.get();
+    }
+
+    /**
+     * Timestamp no open snapshot is older than; versions only it could need are reclaimable.
+     */
+    public long getWatermark() {
+        return watermark.get();
+    }
+
+    long nextTimestamp() {
+        return clock.incrementAndGet();
+    }
+
+    /**
+     * Oldest timestamp a reader may still read at, or -1 if versions behind the newest are
+     * needed by nobody. Called by writers right after stamping their version.
+     */
+    long reclaimBelow() {
+        return openCount.get() == 0 ? -1 : watermark.get();
+    }
+
+    void close(Snapshot snapshot) {
+        open.remove(snapshot);
+        openCount.decrementAndGet();
+
+        long previous = watermark.get();
+        // The clock is read before the scan: a snapshot missed by the scan reads the clock later
+        long oldest = clock.get();
+        for (Snapshot other: open) {
+            oldest = Math.min(oldest, other.timestamp);
+        }
+        long current = watermark.accumulateAndGet(oldest, Math::max);
+        // A reader that finds a sweep running leaves its advance to it
+        while (current > previous && sweeping.tryLock()) {
+            try {
+                for (VersionStore<?> store: stores) {
+                    store.reclaim();
+                }
+            } finally {
+                sweeping.unlock();
+            }
+            previous = current;
+            current = watermark.get();
+        }
+    }
+}
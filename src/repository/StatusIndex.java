@@ -0,0 +1,148 @@
+package repository;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Secondary index that partitions entity ids into one bucket per status.
+ * Buckets are ordered by creation time, so "all entities in status S" costs
+ * O(result) and "how many entities are in status S" costs O(1).
+ *
+ * Moves between buckets are applied atomically per entity id: a concurrent
+ * reader may see the entity leave the old bucket slightly before it shows up
+ * in the new one, but the counters and buckets never drift apart. Each move
+ * carries the entity version that produced it, and moves older than the one
+ * already applied are ignored, so racing writers cannot reorder the index.
+ */
+public class StatusIndex<S extends Enum<S>> {
+    private final Map<UUID, Entry<S>> entries;
+    private final EnumMap<S, NavigableSet<Entry<S>>> buckets;
+    private final EnumMap<S, LongAdder> counters;
+
+    public StatusIndex(Class<S> statusType) {
+        this.entries = new ConcurrentHashMap<>();
+        this.buckets = new EnumMap<>(statusType);
+        this.counters = new EnumMap<>(statusType);
+
+        for (S status: statusType.getEnumConstants()) {
+            buckets.put(status, new ConcurrentSkipListSet<>(Entry.order()));
+            counters.put(status, new LongAdder());
+        }
+    }
+
+    public void add(UUID id, S status, LocalDateTime createdAt) {
+        add(id, status, createdAt, 0);
+    }
+
+    public void add(UUID id, S status, LocalDateTime createdAt, long version) {
+        Objects.requireNonNull(id, "id cannot be null");
+        Objects.requireNonNull(status, "status cannot be null");
+        Objects.requireNonNull(createdAt, "createdAt cannot be null");
+
+        entries.compute(id, (key, previous) -> {
+            if (previous != null) {
+                unlink(previous);
+            }
+            Entry<S> entry = new Entry<>(id, status, createdAt, version);
+            link(entry);
+            return entry;
+        });
+    }
+
+    /**
+     * Moves an indexed entity to a new status bucket as of the given entity version.
+     * Unknown ids and versions not newer than the indexed one are ignored.
+     */
+    public void update(UUID id, S status, long version) {
+        Objects.requireNonNull(status, "status cannot be null");
+
+        entries.computeIfPresent(id, (key, previous) -> {
+            if (previous.version >= version) {
+                return previous;
+            }
+            unlink(previous);
+            Entry<S> entry = new Entry<>(id, status, previous.createdAt, version);
+            link(entry);
+            return entry;
+        });
+    }
+
+    public void remove(UUID id) {
+        entries.computeIfPresent(id, (key, previous) -> {
+            unlink(previous);
+            return null;
+        });
+    }
+
+    /**
+     * Returns ids in the given status, oldest first.
+     */
+    public List<UUID> findByStatus(S status) {
+        return collect(buckets.get(status));
+    }
+
+    /**
+     * Returns ids in the given status created strictly before the cutoff, oldest first.
+     */
+    public List<UUID> findByStatusCreatedBefore(S status, LocalDateTime cutoff) {
+        Objects.requireNonNull(cutoff, "cutoff cannot be null");
+        return collect(buckets.get(status).headSet(Entry.lowerBound(cutoff), false));
+    }
+
+    public long count(S status) {
+        return counters.get(status).sum();
+    }
+
+    public Map<S, Long> counts() {
+        Map<S, Long> result = new LinkedHashMap<>();
+        counters.forEach((status, counter) -> result.put(status, counter.sum()));
+        return result;
+    }
+
+    private void link(Entry<S> entry) {
+        buckets.get(entry.status).add(entry);
+        counters.get(entry.status).increment();
+    }
+
+    private void unlink(Entry<S> entry) {
+        if (buckets.get(entry.status).remove(entry)) {
+            counters.get(entry.status).decrement();
+        }
+    }
+
+    private static <S extends Enum<S>> List<UUID> collect(Set<Entry<S>> bucket) {
+        List<UUID> ids = new ArrayList<>();
+        for (Entry<S> entry: bucket) {
+            ids.add(entry.id);
+        }
+        return ids;
+    }
+
+    private static final class Entry<S> {
+        private static final UUID MIN_ID = new UUID(Long.MIN_VALUE, Long.MIN_VALUE);
+
+        private final UUID id;
+        private final S status;
+        private final LocalDateTime createdAt;
+        private final long version;
+
+        private Entry(UUID id, S status, LocalDateTime createdAt, long version) {
+            this.id = id;
+            this.status = status;
+            this.createdAt = createdAt;
+            this.version = version;
+        }
+
+        private static <S> Comparator<Entry<S>> order() {
+            return Comparator.<Entry<S>, LocalDateTime>comparing(e -> e.createdAt)
+                    .thenComparing(e -> e.id);
+        }
+
+        private static <S> Entry<S> lowerBound(LocalDateTime createdAt) {
+            return new Entry<>(MIN_ID, null, createdAt, 0);
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package repository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Secondary index from a timestamp to entity ids, partitioned into fixed-width time buckets
+ * (hourly by default), overall and per group (for example per warehouse).
+ *
+ * Each bucket keeps its entries in parallel arrays sorted by time. Appends are usually in
+ * time order and land at the end; late arrivals are shifted in from the tail. A range query
+ * only visits the buckets that overlap the range, binary-searches the two edge buckets and
+ * copies the inner ones whole, so it costs O(buckets in range + result) however much
+ * history is indexed.
+ *
+ * Entries are never removed. Writers lock one bucket at a time; readers see every entry
+ * added before the query started.
+ */
+public class TimeBucketIndex {
+    private final long bucketNanos;
+    private final NavigableMap<Long, Bucket> all = new ConcurrentSkipListMap<>();
+    private final Map<UUID, NavigableMap<Long, Bucket>> byGroup = new ConcurrentHashMap<>();
+
+    public TimeBucketIndex() {
+        this(Duration.ofHours(1));
+    }
+
+    public TimeBucketIndex(Duration bucketWidth) {
+        this.bucketNanos = bucketWidth.toNanos();
+        if (bucketNanos <= 0) {
+            throw new IllegalArgumentException("bucketWidth must be positive: " + bucketWidth);
+        }
+    }
+
+    public void add(UUID id, UUID group, LocalDateTime time) {
+        Objects.requireNonNull(id, "id cannot be null");
+        Objects.requireNonNull(group, "group cannot be null");
+        long nanos = toNanos(Objects.requireNonNull(time, "time cannot be null"));
+        long bucket = Math.floorDiv(nanos, bucketNanos);
+
+        all.computeIfAbsent(bucket, k -> new Bucket()).add(nanos, id);
+        byGroup.computeIfAbsent(group, k -> new ConcurrentSkipListMap<>())
+                .computeIfAbsent(bucket, k -> new Bucket()).add(nanos, id);
+    }
+
+    /**
+     * Returns ids with a time in [from, to), in time order.
+     */
+    public List<UUID> find(LocalDateTime from, LocalDateTime to) {
+        return find(all, from, to);
+    }
+
+    /**
+     * Returns ids of the group with a time in [from, to), in time order.
+     */
+    public List<UUID> find(UUID group, LocalDateTime from, LocalDateTime to) {
+        NavigableMap<Long, Bucket> buckets = byGroup.get(group);
+        return buckets == null ? List.of() : find(buckets, from, to);
+    }
+
+    public long count(LocalDateTime from, LocalDateTime to) {
+        return count(all, from, to);
+    }
+
+    public long count(UUID group, LocalDateTime from, LocalDateTime to) {
+        NavigableMap<Long, Bucket> buckets = byGroup.get(group);
+        return buckets == null ? 0 : count(buckets, from, to);
+    }
+
+    /**
+     * Buckets a query over [from, to) visits; useful to check that a query stays local.
+     */
+    public int bucketsInRange(LocalDateTime from, LocalDateTime to) {
+        return range(all, toNanos(from), toNanos(to)).size();
+    }
+
+    private List<UUID> find(NavigableMap<Long, Bucket> buckets, LocalDateTime from, LocalDateTime to) {
+        long fromNanos = toNanos(from);
+        long toNanos = toNanos(to);
+        List<UUID> ids = new ArrayList<>();
+        for (Bucket bucket: range(buckets, fromNanos, toNanos).values()) {
+            bucket.collect(fromNanos, toNanos, ids);
+        }
+        return ids;
+    }
+
+    private long count(NavigableMap<Long, Bucket> buckets, LocalDateTime from, LocalDateTime to) {
+        long fromNanos = toNanos(from);
+        long toNanos = toNanos(to);
+        long count = 0;
+        for (Bucket bucket: range(buckets, fromNanos, toNanos).values()) {
+            count += bucket.count(fromNanos, toNanos);
+        }
+        return count;
+    }
+
+    private NavigableMap<Long, Bucket> range(NavigableMap<Long, Bucket> buckets, long fromNanos, long toNanos) {
+        if (fromNanos >= toNanos) {
+            return Collections.emptyNavigableMap();
+        }
+        return buckets.subMap(Math.floorDiv(fromNanos, bucketNanos), true, Math.floorDiv(toNanos - 1, bucketNanos), true);
+    }
+
+    // Only ordering matters, so any fixed offset would do
+    private static long toNanos(LocalDateTime time) {
+        return Math.addExact(Math.multiplyExact(time.toEpochSecond(ZoneOffset.UTC), 1_000_000_000L), time.getNano());
+    }
+
+    private static final class Bucket {
+        private long[] times = new long[16];
+        private UUID[] ids = new UUID[16];
+        private int size;
+
+        synchronized void add(long time, UUID id) {
+            if (size == times.length) {
+                times = Arrays.copyOf(times, size * 2);
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            // Insertion from the tail: in-order appends do not move anything
+            int at = size;
+            while (at > 0 && times[at - 1] > time) {
+                at--;
+            }
+            System.arraycopy(times, at, times, at + 1, size - at);
+            System.arraycopy(ids, at, ids, at + 1, size - at);
+            times[at] = time;
+            ids[at] = id;
+            size++;
+        }
+
+        synchronized void collect(long from, long to, List<UUID> out) {
+            int end = lowerBound(to);
+            for (int i = lowerBound(from); i < end; i++) {
+                out.add(ids[i]);
+            }
+        }
+
+        synchronized int count(long from, long to) {
+            return lowerBound(to) - lowerBound(from);
+        }
+
+        /**
+         * First index with a time at or after the given time.
+         */
+        private int lowerBound(long time) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (times[mid] < time) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
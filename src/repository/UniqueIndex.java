@@ -0,0 +1,47 @@
+package repository;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Secondary index mapping a derived key (e.g. warehouse + product) to the single entity
+ * that has it. Created through a repository, which keeps it current on every save,
+ * compare-and-save and delete, including writes that bypass the services.
+ */
+public class UniqueIndex<K, T> extends SecondaryIndex<T> {
+    private final Function<T, K> keyExtractor;
+    private final Map<K, T> entries;
+
+    UniqueIndex(Function<T, K> keyExtractor) {
+        this.keyExtractor = Objects.requireNonNull(keyExtractor, "keyExtractor cannot be null");
+        this.entries = new ConcurrentHashMap<>();
+    }
+
+    public Optional<T> find(K key) {
+        return Optional.ofNullable(entries.get(key));
+    }
+
+    public boolean contains(K key) {
+        return entries.containsKey(key);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    @Override
+    void onSave(T previous, T entity) {
+        if (previous != null) {
+            onDelete(previous);
+        }
+        entries.put(keyExtractor.apply(entity), entity);
+    }
+
+    @Override
+    void onDelete(T removed) {
+        entries.remove(keyExtractor.apply(removed), removed);
+    }
+}
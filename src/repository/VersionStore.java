@@ -0,0 +1,216 @@
+package repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.function.Consumer;
+
+/**
+ * Multi-version copy of a set of entities for {@link Snapshot} reads.
+ *
+ * Each entity id maps to a chain of versions, newest first, each stamped with the
+ * {@link SnapshotManager}'s clock; a deletion is a version without a value. A snapshot
+ * reads the first version of each chain stamped at or before its timestamp. Stored values
+ * must not change after they are recorded: immutable entities are recorded as they are,
+ * mutable ones as detached copies.
+ *
+ * Writers link the new version first and stamp it afterwards, so a reader never misses a
+ * version stamped before its snapshot; a reader that meets a version still being stamped
+ * waits the few instructions until it is. Writes of one id must be serialized by the
+ * caller, as the repositories and the warehouse owners already do.
+ */
+public class VersionStore<T> {
+    // Head of a chain whose entity was deleted and reclaimed; reads as absent
+    private static final Version<?> DEAD = new Version<>(null, null, Long.MIN_VALUE);
+
+    private final SnapshotManager manager;
+    private final Map<UUID, Chain<T>> chains = new ConcurrentHashMap<>();
+
+    VersionStore(SnapshotManager manager) {
+        this.manager = manager;
+    }
+
+    /**
+     * Records the new state of an entity, or its deletion when value is null.
+     */
+    public void record(UUID id, T value) {
+        Chain<T> chain = chains.get(id);
+        Version<T> version;
+        while (true) {
+            if (chain == null) {
+                chain = new Chain<>(null);
+                Chain<T> existing = chains.putIfAbsent(id, chain);
+                if (existing != null) {
+                    chain = existing;
+                }
+            }
+            Version<T> head = chain.head;
+            if (head != DEAD) {
+                version = new Version<>(value, head, SnapshotManager.PENDING);
+                // Only fails if a sweep retired the chain meanwhile
+                if (chain.casHead(head, version)) {
+                    break;
+                }
+            }
+            chains.remove(id, chain);
+            chain = null;
+        }
+        version.timestamp = manager.nextTimestamp();
+        long reclaimBelow = manager.reclaimBelow();
+        if (reclaimBelow < 0) {
+            version.older = null;
+            if (value == null) {
+                retire(id, chain, version);
+            }
+        } else {
+            trim(version, reclaimBelow);
+        }
+    }
+
+    /**
+     * Adds an entity as it was before any recorded write, unless the store already has
+     * versions of it. For filling a store from the current contents when snapshots start.
+     */
+    public void seed(UUID id, T value) {
+        chains.putIfAbsent(id, new Chain<>(new Version<>(value, null, 0)));
+    }
+
+    public Optional<T> findById(Snapshot snapshot, UUID id) {
+        snapshot.checkReadable(manager);
+        Chain<T> chain = chains.get(id);
+        return chain == null ? Optional.empty() : Optional.ofNullable(visible(chain.head, snapshot.timestamp));
+    }
+
+    public List<T> findAll(Snapshot snapshot) {
+        List<T> entities = new ArrayList<>();
+        forEach(snapshot, entities::add);
+        return entities;
+    }
+
+    public void forEach(Snapshot snapshot, Consumer<? super T> action) {
+        snapshot.checkReadable(manager);
+        long timestamp = snapshot.timestamp;
+        for (Chain<T> chain: chains.values()) {
+            T value = visible(chain.head, timestamp);
+            if (value != null) {
+                action.accept(value);
+            }
+        }
+    }
+
+    /**
+     * Versions currently retained, over all entities, including deletions.
+     */
+    public long getVersionCount() {
+        long count = 0;
+        for (Chain<T> chain: chains.values()) {
+            for (Version<T> version = chain.head; version != null && version != DEAD; version = version.older) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Drops every version no open snapshot can see, including whole deleted entities.
+     */
+    void reclaim() {
+        // The clock is read first: a snapshot opened after the open count is read sees it
+        long now = manager.getTimestamp();
+        long reclaimBelow = manager.reclaimBelow();
+        long watermark = reclaimBelow < 0 ? now : reclaimBelow;
+        for (Map.Entry<UUID, Chain<T>> entry: chains.entrySet()) {
+            Chain<T> chain = entry.getValue();
+            Version<T> head = chain.head;
+            if (head == DEAD) {
+                continue;
+            }
+            Version<T> kept = trim(head, watermark);
+            if (kept == head && head != null && head.value == null) {
+                retire(entry.getKey(), chain, head);
+            }
+        }
+    }
+
+    /**
+     * Removes a deleted entity whose deletion every open snapshot already sees, unless a
+     * write got in first. A writer that finds the chain retired starts a new one.
+     */
+    @SuppressWarnings("unchecked")
+    private void retire(UUID id, Chain<T> chain, Version<T> tombstone) {
+        if (chain.casHead(tombstone, (Version<T>) DEAD)) {
+            chains.remove(id, chain);
+        }
+    }
+
+    /**
+     * Cuts the chain behind the newest version a snapshot at the watermark would read;
+     * nothing behind it is visible to any open snapshot. Returns that version, or null if
+     * the whole chain is newer.
+     */
+    private static <T> Version<T> trim(Version<T> head, long watermark) {
+        for (Version<T> version = head; version != null; version = version.older) {
+            if (version.timestamp <= watermark) {
+                version.older = null;
+                return version;
+            }
+        }
+        return null;
+    }
+
+    private static <T> T visible(Version<T> head, long timestamp) {
+        for (Version<T> version = head; version != null; version = version.older) {
+            long stamped = version.timestamp;
+            for (int spins = 0; stamped == SnapshotManager.PENDING; spins++) {
+                // Linked but not stamped yet; its writer may already hold a timestamp at or before ours
+                if (spins < 100) {
+                    Thread.onSpinWait();
+                } else {
+                    Thread.yield();
+                }
+                stamped = version.timestamp;
+            }
+            if (stamped <= timestamp) {
+                return version.value;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Versions of one entity. Linking a version swaps the head in place, so a write costs
+     * one map lookup rather than a lookup and a put.
+     */
+    private static final class Chain<T> {
+        @SuppressWarnings("rawtypes")
+        private static final AtomicReferenceFieldUpdater<Chain, Version> HEAD =
+                AtomicReferenceFieldUpdater.newUpdater(Chain.class, Version.class, "head");
+
+        private volatile Version<T> head;
+
+        private Chain(Version<T> head) {
+            this.head = head;
+        }
+
+        private boolean casHead(Version<T> expected, Version<T> version) {
+            return HEAD.compareAndSet(this, expected, version);
+        }
+    }
+
+    private static final class Version<T> {
+        private final T value;
+        // Only ever cut to null, once no open snapshot can reach past this version
+        private Version<T> older;
+        private volatile long timestamp;
+
+        private Version(T value, Version<T> older, long timestamp) {
+            this.value = value;
+            this.older = older;
+            this.timestamp = timestamp;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package scheduling;
+
+import java.time.Duration;
+
+/**
+ * Service classes for {@link OrderScheduler}. An order is dispatched by its deadline plus
+ * its class's offset, so at equal deadlines express beats standard and standard beats bulk,
+ * while a bulk order whose deadline is far enough ahead of the others still goes first.
+ */
+public enum OrderPriority {
+    EXPRESS(Duration.ZERO),
+    STANDARD(Duration.ofMinutes(5)),
+    BULK(Duration.ofMinutes(30));
+
+    private final Duration deadlineOffset;
+
+    OrderPriority(Duration deadlineOffset) {
+        this.deadlineOffset = deadlineOffset;
+    }
+
+    public Duration getDeadlineOffset() {
+        return deadlineOffset;
+    }
+}
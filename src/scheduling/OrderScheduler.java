@@ -0,0 +1,253 @@
+package scheduling;
+
+import metrics.LatencyHistogram;
+import service.FulfillmentResult;
+import service.OrderFulfillmentService;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Deadline-aware queue in front of {@link OrderFulfillmentService}, drained by a pool of
+ * worker threads.
+ *
+ * Orders are dispatched earliest-key-first, where an order's key is
+ * {@code min(deadline + class offset, submitted + maxWait)}. The class offset (see
+ * {@link OrderPriority}) lets express orders overtake bulk orders with similar deadlines;
+ * the maxWait cap is the aging rule: once an order has waited maxWait it outranks every
+ * order submitted after it, so no class starves however much urgent work keeps arriving.
+ * Keys never change after submission, so the queue is a {@link ConcurrentSkipListSet} and
+ * both submit and dispatch cost O(log n) without a global lock.
+ *
+ * Workers call {@link OrderFulfillmentService#tryFulfillOrder} and complete the future
+ * returned by {@link #submit} with its result. Time comes from the given clock so
+ * simulations can drive deadlines.
+ */
+public class OrderScheduler implements AutoCloseable {
+    private final OrderFulfillmentService fulfillmentService;
+    private final Clock clock;
+    private final Duration maxWait;
+    private final int workerCount;
+    private final ConcurrentSkipListSet<Entry> queue = new ConcurrentSkipListSet<>(Entry.order());
+    private final Semaphore queued = new Semaphore(0);
+    private final AtomicLong sequence = new AtomicLong();
+    private final Map<OrderPriority, ClassCounters> counters = new EnumMap<>(OrderPriority.class);
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile boolean running;
+    private volatile boolean closed;
+    private volatile Instant startedAt;
+
+    public OrderScheduler(OrderFulfillmentService fulfillmentService, int workers, Duration maxWait, Clock clock) {
+        this.fulfillmentService = Objects.requireNonNull(fulfillmentService, "fulfillmentService cannot be null");
+        this.clock = Objects.requireNonNull(clock, "clock cannot be null");
+        this.maxWait = Objects.requireNonNull(maxWait, "maxWait cannot be null");
+        if (workers <= 0) {
+            throw new IllegalArgumentException("workers must be positive: " + workers);
+        }
+        if (maxWait.isNegative() || maxWait.isZero()) {
+            throw new IllegalArgumentException("maxWait must be positive: " + maxWait);
+        }
+        this.workerCount = workers;
+        for (OrderPriority priority: OrderPriority.values()) {
+            counters.put(priority, new ClassCounters());
+        }
+    }
+
+    /**
+     * Starts the workers. Orders submitted before this wait in the queue.
+     *
+     * @throws IllegalStateException if the scheduler is closed
+     */
+    public synchronized void start() {
+        if (closed) {
+            throw new IllegalStateException("Scheduler is closed");
+        }
+        if (running) {
+            return;
+        }
+        running = true;
+        startedAt = clock.instant();
+        for (int w = 0; w < workerCount; w++) {
+            Thread worker = new Thread(this::work, "order-scheduler-" + w);
+            worker.setDaemon(true);
+            workers.add(worker);
+            worker.start();
+        }
+    }
+
+    /**
+     * Queues an order for fulfillment.
+     *
+     * @return completes with the fulfillment result once a worker has processed the order,
+     *         or is cancelled if the scheduler closes first
+     * @throws IllegalStateException if the scheduler is closed
+     */
+    public CompletableFuture<FulfillmentResult> submit(UUID orderId, OrderPriority priority, Instant deadline) {
+        Objects.requireNonNull(orderId, "orderId cannot be null");
+        Objects.requireNonNull(priority, "priority cannot be null");
+        Objects.requireNonNull(deadline, "deadline cannot be null");
+        if (closed) {
+            throw new IllegalStateException("Scheduler is closed");
+        }
+
+        Instant now = clock.instant();
+        Instant byDeadline = deadline.plus(priority.getDeadlineOffset());
+        Instant byAge = now.plus(maxWait);
+        Entry entry = new Entry(orderId, priority, deadline, now,
+                byDeadline.isBefore(byAge) ? byDeadline : byAge, sequence.getAndIncrement());
+
+        ClassCounters classCounters = counters.get(priority);
+        classCounters.submitted.increment();
+        classCounters.queued.increment();
+        queue.add(entry);
+        queued.release();
+        // A close that drained the queue before the add would leave this entry behind
+        if (closed && queue.remove(entry)) {
+            classCounters.queued.decrement();
+            entry.result.cancel(false);
+        }
+        return entry.result;
+    }
+
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    public PriorityClassStatistics getStatistics(OrderPriority priority) {
+        ClassCounters classCounters = counters.get(priority);
+        Instant started = startedAt;
+        Duration elapsed = started == null ? Duration.ZERO : Duration.between(started, clock.instant());
+        return new PriorityClassStatistics(priority,
+                classCounters.submitted.sum(),
+                classCounters.queued.sum(),
+                classCounters.completed.sum(),
+                classCounters.fulfilled.sum(),
+                classCounters.deadlineMisses.sum(),
+                classCounters.queueWait.getValueAtPercentile(99),
+                elapsed);
+    }
+
+    public Map<OrderPriority, PriorityClassStatistics> getStatistics() {
+        Map<OrderPriority, PriorityClassStatistics> statistics = new EnumMap<>(OrderPriority.class);
+        for (OrderPriority priority: OrderPriority.values()) {
+            statistics.put(priority, getStatistics(priority));
+        }
+        return statistics;
+    }
+
+    /**
+     * Stops the workers once they finish their current order. Orders still queued, and
+     * any submitted while closing, are cancelled.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            closed = true;
+            running = false;
+        }
+        for (Thread worker: workers) {
+            worker.interrupt();
+        }
+        for (Thread worker: workers) {
+            try {
+                worker.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        Entry entry;
+        while ((entry = queue.pollFirst()) != null) {
+            counters.get(entry.priority).queued.decrement();
+            entry.result.cancel(false);
+        }
+    }
+
+    private void work() {
+        while (running) {
+            try {
+                queued.acquire();
+            } catch (InterruptedException e) {
+                return;
+            }
+            Entry entry = queue.pollFirst();
+            if (entry != null) {
+                process(entry);
+            }
+        }
+    }
+
+    private void process(Entry entry) {
+        ClassCounters classCounters = counters.get(entry.priority);
+        classCounters.queued.decrement();
+        Instant dispatched = clock.instant();
+        classCounters.queueWait.recordValue(Math.max(0, Duration.between(entry.submitted, dispatched).toNanos()));
+
+        FulfillmentResult result;
+        try {
+            result = fulfillmentService.tryFulfillOrder(entry.orderId);
+        } catch (RuntimeException e) {
+            finish(entry, classCounters);
+            entry.result.completeExceptionally(e);
+            return;
+        }
+        if (result.isFulfilled()) {
+            classCounters.fulfilled.increment();
+        }
+        finish(entry, classCounters);
+        entry.result.complete(result);
+    }
+
+    private void finish(Entry entry, ClassCounters classCounters) {
+        classCounters.completed.increment();
+        if (clock.instant().isAfter(entry.deadline)) {
+            classCounters.deadlineMisses.increment();
+        }
+    }
+
+    private static final class ClassCounters {
+        private final LongAdder submitted = new LongAdder();
+        private final LongAdder queued = new LongAdder();
+        private final LongAdder completed = new LongAdder();
+        private final LongAdder fulfilled = new LongAdder();
+        private final LongAdder deadlineMisses = new LongAdder();
+        private final LatencyHistogram queueWait = new LatencyHistogram();
+    }
+
+    private static final class Entry {
+        private final UUID orderId;
+        private final OrderPriority priority;
+        private final Instant deadline;
+        private final Instant submitted;
+        private final Instant key;
+        private final long sequence;
+        private final CompletableFuture<FulfillmentResult> result = new CompletableFuture<>();
+
+        private Entry(UUID orderId, OrderPriority priority, Instant deadline, Instant submitted, Instant key, long sequence) {
+            this.orderId = orderId;
+            this.priority = priority;
+            this.deadline = deadline;
+            this.submitted = submitted;
+            this.key = key;
+            this.sequence = sequence;
+        }
+
+        // The sequence breaks ties, so equal keys dispatch in submission order and never collide
+        private static Comparator<Entry> order() {
+            return Comparator.<Entry, Instant>comparing(e -> e.key).thenComparingLong(e -> e.sequence);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package scheduling;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Snapshot of one priority class in an {@link OrderScheduler}.
+ */
+public class PriorityClassStatistics {
+    private final OrderPriority priority;
+    private final long submitted;
+    private final long queued;
+    private final long completed;
+    private final long fulfilled;
+    private final long deadlineMisses;
+    private final long p99QueueWaitNanos;
+    private final Duration elapsed;
+
+    public PriorityClassStatistics(OrderPriority priority,
+                                   long submitted,
+                                   long queued,
+                                   long completed,
+                                   long fulfilled,
+                                   long deadlineMisses,
+                                   long p99QueueWaitNanos,
+                                   Duration elapsed) {
+        this.priority = priority;
+        this.submitted = submitted;
+        this.queued = queued;
+        this.completed = completed;
+        this.fulfilled = fulfilled;
+        this.deadlineMisses = deadlineMisses;
+        this.p99QueueWaitNanos = p99QueueWaitNanos;
+        this.elapsed = elapsed;
+    }
+
+    public OrderPriority getPriority() {
+        return priority;
+    }
+
+    public long getSubmitted() {
+        return submitted;
+    }
+
+    /**
+     * Orders waiting for a worker.
+     */
+    public long getQueued() {
+        return queued;
+    }
+
+    /**
+     * Orders a worker has finished with, whatever the outcome.
+     */
+    public long getCompleted() {
+        return completed;
+    }
+
+    public long getFulfilled() {
+        return fulfilled;
+    }
+
+    /**
+     * Completed orders that finished after their deadline, fulfilled or not.
+     */
+    public long getDeadlineMisses() {
+        return deadlineMisses;
+    }
+
+    public long getP99QueueWaitNanos() {
+        return p99QueueWaitNanos;
+    }
+
+    /**
+     * Completed orders per second since the scheduler started.
+     */
+    public double getThroughput() {
+        double seconds = elapsed.toNanos() / 1e9;
+        return seconds <= 0 ? 0 : completed / seconds;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT,
+                "PriorityClassStatistics{priority=%s, submitted=%d, queued=%d, completed=%d, fulfilled=%d, " +
+                        "deadlineMisses=%d, p99QueueWait=%.3fms, throughput=%.1f/s}",
+                priority, submitted, queued, completed, fulfilled, deadlineMisses,
+                p99QueueWaitNanos / 1e6, getThroughput());
+    }
+}
@@ -0,0 +1,224 @@
+package search;
+
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+
+/**
+ * Compressed (radix) trie from terms to int postings. Each edge carries a run of
+ * characters, so chains of single-child nodes collapse into one node, and children are
+ * kept sorted by their first character so traversals run in lexicographic term order.
+ *
+ * Not thread-safe; {@link TextIndex} guards it with a read-write lock.
+ */
+final class RadixTrie {
+    private static final Node[] NO_CHILDREN = new Node[0];
+    private static final int[] NO_POSTINGS = new int[0];
+
+    private final Node root = new Node(new char[0]);
+    private int nodes = 1;
+
+    /**
+     * Adds a posting to the term, creating the term if needed.
+     */
+    void add(String term, int posting) {
+        Node node = root;
+        int i = 0;
+        while (i < term.length()) {
+            Node child = node.child(term.charAt(i));
+            if (child == null) {
+                child = new Node(term.substring(i).toCharArray());
+                node.addChild(child);
+                nodes++;
+                node = child;
+                break;
+            }
+            int common = commonPrefixLength(child.label, term, i);
+            if (common < child.label.length) {
+                split(child, common);
+            }
+            node = child;
+            i += common;
+        }
+        node.addPosting(posting);
+    }
+
+    /**
+     * Visits the postings of every term that starts with the prefix, in lexicographic
+     * term order, until the visitor returns false.
+     */
+    void visitPrefix(String prefix, IntPredicate visitor) {
+        Node node = root;
+        int i = 0;
+        while (i < prefix.length()) {
+            Node child = node.child(prefix.charAt(i));
+            if (child == null) {
+                return;
+            }
+            for (int j = 0; j < child.label.length && i < prefix.length(); j++, i++) {
+                if (child.label[j] != prefix.charAt(i)) {
+                    return;
+                }
+            }
+            node = child;
+        }
+        visitSubtree(node, visitor);
+    }
+
+    /**
+     * Visits, in lexicographic order, the postings of every term that starts with the same
+     * character as the given term and is exactly {@code edits} Levenshtein edits away from
+     * it, until the visitor returns false.
+     *
+     * Like Lucene's fuzzy prefix length, fixing the first character confines the walk to one
+     * branch of the root; typos rarely hit the first letter. The branch is walked depth first
+     * with one row of the edit distance matrix per character, and abandoned as soon as every
+     * cell of a row exceeds the allowed edits.
+     */
+    void visitAtDistance(String term, int edits, IntPredicate visitor) {
+        Node first = term.isEmpty() ? null : root.child(term.charAt(0));
+        if (first == null) {
+            return;
+        }
+        // A term longer than the query by more than the allowed edits can never match
+        int[][] rows = new int[term.length() + edits + 2][term.length() + 1];
+        for (int j = 0; j <= term.length(); j++) {
+            rows[0][j] = j;
+        }
+        walk(first, term, edits, rows, 0, visitor);
+    }
+
+    private static boolean visitPostings(Node node, IntPredicate visitor) {
+        for (int p = 0; p < node.postingCount; p++) {
+            if (!visitor.test(node.postings[p])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    int nodeCount() {
+        return nodes;
+    }
+
+    private boolean walk(Node node, String term, int maxEdits, int[][] rows, int depth, IntPredicate visitor) {
+        int n = term.length();
+        for (char c: node.label) {
+            if (depth + 1 >= rows.length) {
+                return true;
+            }
+            int[] previous = rows[depth];
+            int[] row = rows[depth + 1];
+            int i = depth + 1;
+            // Only cells with |i - j| <= maxEdits can stay within maxEdits; cells just outside
+            // the band are set above it so the next row reads them as out of reach
+            int low = Math.max(1, i - maxEdits);
+            int high = Math.min(n, i + maxEdits);
+            row[low - 1] = low == 1 ? i : maxEdits + 1;
+            int best = row[low - 1];
+            for (int j = low; j <= high; j++) {
+                int substitution = previous[j - 1] + (term.charAt(j - 1) == c ? 0 : 1);
+                row[j] = Math.min(substitution, Math.min(previous[j] + 1, row[j - 1] + 1));
+                best = Math.min(best, row[j]);
+            }
+            if (high < n) {
+                row[high + 1] = maxEdits + 1;
+            }
+            if (best > maxEdits) {
+                return true;
+            }
+            depth++;
+        }
+        // Cells outside the band are stale, but a term that far from n in length is out of reach anyway
+        if (Math.abs(depth - n) <= maxEdits && rows[depth][n] == maxEdits && !visitPostings(node, visitor)) {
+            return false;
+        }
+        for (Node child: node.children) {
+            if (!walk(child, term, maxEdits, rows, depth, visitor)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean visitSubtree(Node node, IntPredicate visitor) {
+        if (!visitPostings(node, visitor)) {
+            return false;
+        }
+        for (Node child: node.children) {
+            if (!visitSubtree(child, visitor)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void split(Node node, int at) {
+        Node rest = new Node(Arrays.copyOfRange(node.label, at, node.label.length));
+        rest.children = node.children;
+        rest.postings = node.postings;
+        rest.postingCount = node.postingCount;
+
+        // The node keeps its place under its parent, since its first character is unchanged
+        node.label = Arrays.copyOf(node.label, at);
+        node.children = new Node[] {rest};
+        node.postings = NO_POSTINGS;
+        node.postingCount = 0;
+        nodes++;
+    }
+
+    private static int commonPrefixLength(char[] label, String term, int offset) {
+        int max = Math.min(label.length, term.length() - offset);
+        int i = 0;
+        while (i < max && label[i] == term.charAt(offset + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    static final class Node {
+        private char[] label;
+        private Node[] children = NO_CHILDREN;
+        private int[] postings = NO_POSTINGS;
+        private int postingCount;
+
+        private Node(char[] label) {
+            this.label = label;
+        }
+
+        private Node child(char c) {
+            int low = 0;
+            int high = children.length - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                char first = children[mid].label[0];
+                if (first < c) {
+                    low = mid + 1;
+                } else if (first > c) {
+                    high = mid - 1;
+                } else {
+                    return children[mid];
+                }
+            }
+            return null;
+        }
+
+        private void addChild(Node child) {
+            int at = 0;
+            while (at < children.length && children[at].label[0] < child.label[0]) {
+                at++;
+            }
+            Node[] grown = new Node[children.length + 1];
+            System.arraycopy(children, 0, grown, 0, at);
+            grown[at] = child;
+            System.arraycopy(children, at, grown, at + 1, children.length - at);
+            children = grown;
+        }
+
+        private void addPosting(int posting) {
+            if (postingCount == postings.length) {
+                postings = Arrays.copyOf(postings, Math.max(2, postingCount * 2));
+            }
+            postings[postingCount++] = posting;
+        }
+    }
+}
@@ -0,0 +1,317 @@
+package search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory type-ahead index from the words of a few text fields to entity ids.
+ *
+ * Fields are split into lower-case tokens of letters or digits, so "jane.doe7@example.com"
+ * is found by "jane", "doe 7" or "exam". Every distinct token of a document is stored once in a
+ * {@link RadixTrie}.
+ *
+ * - {@link #searchPrefix}: every query token must be a prefix of some document token.
+ *   The longest query token drives a lexicographic walk of the trie below that prefix,
+ *   and the walk stops at the limit, so its cost follows the limit rather than the index
+ *   size. Exact token matches come first.
+ * - {@link #searchFuzzy}: every query token must be within a few edits of some document
+ *   token that starts with the same letter (see {@link #maxEditsFor}). The allowed
+ *   distance is widened one edit at a time until the limit is reached, and closer matches
+ *   rank first.
+ *
+ * Updates and removals leave stale postings behind, which queries skip. The trie is
+ * rebuilt once stale documents outnumber live ones.
+ *
+ * Thread-safe: queries share a read lock, and updates take the write lock.
+ */
+public class TextIndex {
+    private static final int MIN_STALE_BEFORE_REBUILD = 1024;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<UUID, Integer> slotsById = new HashMap<>();
+    private RadixTrie trie = new RadixTrie();
+    // Per slot: the document id (null once stale) and its tokens joined by spaces
+    private UUID[] ids = new UUID[16];
+    private String[] texts = new String[16];
+    private int slots;
+
+    /**
+     * Indexes the document's fields, replacing whatever was indexed for the id before.
+     * Null fields are skipped.
+     */
+    public void put(UUID id, String... fields) {
+        Objects.requireNonNull(id, "id cannot be null");
+        Set<String> tokens = new LinkedHashSet<>();
+        for (String field: fields) {
+            if (field != null) {
+                tokens.addAll(Arrays.asList(tokenize(field)));
+            }
+        }
+        String text = String.join(" ", tokens);
+
+        lock.writeLock().lock();
+        try {
+            Integer previous = slotsById.get(id);
+            if (previous != null) {
+                if (texts[previous].equals(text)) {
+                    return;
+                }
+                retire(previous);
+            }
+            int slot = allocate(id, text);
+            slotsById.put(id, slot);
+            for (String token: tokens) {
+                trie.add(token, slot);
+            }
+            rebuildIfMostlyStale();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return true if the id was indexed
+     */
+    public boolean remove(UUID id) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slotsById.remove(id);
+            if (slot == null) {
+                return false;
+            }
+            retire(slot);
+            rebuildIfMostlyStale();
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slotsById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns up to limit ids of documents that have, for every query token, a token
+     * starting with it. Exact matches of the longest query token come first, then
+     * lexicographic order of the matching token.
+     */
+    public List<UUID> searchPrefix(String query, int limit) {
+        checkLimit(limit);
+        String[] terms = tokenize(query);
+        if (terms.length == 0) {
+            return List.of();
+        }
+        int driver = longest(terms);
+        List<UUID> results = new ArrayList<>(Math.min(limit, 64));
+
+        lock.readLock().lock();
+        try {
+            trie.visitPrefix(terms[driver], slot -> {
+                collect(slot, terms, driver, false, results);
+                return results.size() < limit;
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
+        return results;
+    }
+
+    /**
+     * Returns up to limit ids of documents that have, for every query token, a token within
+     * {@link #maxEditsFor} edits of it, closest matches of the longest query token first.
+     */
+    public List<UUID> searchFuzzy(String query, int limit) {
+        checkLimit(limit);
+        String[] terms = tokenize(query);
+        if (terms.length == 0) {
+            return List.of();
+        }
+        int driver = longest(terms);
+        List<UUID> results = new ArrayList<>(Math.min(limit, 64));
+
+        lock.readLock().lock();
+        try {
+            // Widen one edit at a time: each walk is far cheaper than the next, and a typo
+            // usually finds enough documents at one edit to skip the two-edit walk entirely
+            int maxEdits = maxEditsFor(terms[driver].length());
+            for (int edits = 0; edits <= maxEdits && results.size() < limit; edits++) {
+                trie.visitAtDistance(terms[driver], edits, slot -> {
+                    collect(slot, terms, driver, true, results);
+                    return results.size() < limit;
+                });
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return results;
+    }
+
+    /**
+     * Edits allowed for a fuzzy query token: none up to 2 characters, one up to 5, two beyond.
+     */
+    public static int maxEditsFor(int termLength) {
+        return termLength <= 2 ? 0 : termLength <= 5 ? 1 : 2;
+    }
+
+    /**
+     * Splits text into lower-case runs of letters or of digits, so "jdoe42@example.com"
+     * gives "jdoe", "42", "example" and "com".
+     */
+    public static String[] tokenize(String text) {
+        if (text == null) {
+            return new String[0];
+        }
+        List<String> tokens = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            char c = i < text.length() ? text.charAt(i) : ' ';
+            boolean wordChar = Character.isLetterOrDigit(c);
+            boolean boundary = start >= 0 && (!wordChar || Character.isDigit(c) != Character.isDigit(text.charAt(start)));
+            if (boundary) {
+                tokens.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                start = -1;
+            }
+            if (wordChar && start < 0) {
+                start = i;
+            }
+        }
+        return tokens.toArray(new String[0]);
+    }
+
+    private void collect(int slot, String[] terms, int driver, boolean fuzzy, List<UUID> results) {
+        UUID id = ids[slot];
+        // Skip stale slots and documents already found through another of their tokens
+        if (id == null || results.contains(id)) {
+            return;
+        }
+        for (int t = 0; t < terms.length; t++) {
+            if (t != driver && !containsToken(texts[slot], terms[t], fuzzy)) {
+                return;
+            }
+        }
+        results.add(id);
+    }
+
+    private static boolean containsToken(String text, String term, boolean fuzzy) {
+        int start = 0;
+        while (start < text.length()) {
+            int end = text.indexOf(' ', start);
+            if (end < 0) {
+                end = text.length();
+            }
+            if (fuzzy ? withinEdits(text, start, end, term, maxEditsFor(term.length()))
+                      : text.startsWith(term, start) && start + term.length() <= end) {
+                return true;
+            }
+            start = end + 1;
+        }
+        return false;
+    }
+
+    /**
+     * Bounded Levenshtein distance check between text[start, end) and term.
+     */
+    static boolean withinEdits(String text, int start, int end, String term, int maxEdits) {
+        int length = end - start;
+        // Same rule as the trie walk: the first character has to match
+        if (length == 0 || text.charAt(start) != term.charAt(0) || Math.abs(length - term.length()) > maxEdits) {
+            return false;
+        }
+        int[] previous = new int[term.length() + 1];
+        int[] row = new int[term.length() + 1];
+        for (int j = 0; j <= term.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= length; i++) {
+            row[0] = i;
+            int best = i;
+            char c = text.charAt(start + i - 1);
+            for (int j = 1; j <= term.length(); j++) {
+                int substitution = previous[j - 1] + (term.charAt(j - 1) == c ? 0 : 1);
+                row[j] = Math.min(substitution, Math.min(previous[j] + 1, row[j - 1] + 1));
+                best = Math.min(best, row[j]);
+            }
+            if (best > maxEdits) {
+                return false;
+            }
+            int[] swap = previous;
+            previous = row;
+            row = swap;
+        }
+        return previous[term.length()] <= maxEdits;
+    }
+
+    private int allocate(UUID id, String text) {
+        if (slots == ids.length) {
+            ids = Arrays.copyOf(ids, slots * 2);
+            texts = Arrays.copyOf(texts, slots * 2);
+        }
+        ids[slots] = id;
+        texts[slots] = text;
+        return slots++;
+    }
+
+    private void retire(int slot) {
+        ids[slot] = null;
+        texts[slot] = null;
+    }
+
+    private void rebuildIfMostlyStale() {
+        int stale = slots - slotsById.size();
+        if (stale < MIN_STALE_BEFORE_REBUILD || stale <= slotsById.size()) {
+            return;
+        }
+        UUID[] oldIds = ids;
+        String[] oldTexts = texts;
+        int oldSlots = slots;
+
+        trie = new RadixTrie();
+        ids = new UUID[Math.max(16, slotsById.size() * 2)];
+        texts = new String[ids.length];
+        slots = 0;
+        for (int old = 0; old < oldSlots; old++) {
+            if (oldIds[old] == null) {
+                continue;
+            }
+            int slot = allocate(oldIds[old], oldTexts[old]);
+            slotsById.put(oldIds[old], slot);
+            if (!oldTexts[old].isEmpty()) {
+                for (String token: oldTexts[old].split(" ")) {
+                    trie.add(token, slot);
+                }
+            }
+        }
+    }
+
+    private static int longest(String[] terms) {
+        int longest = 0;
+        for (int t = 1; t < terms.length; t++) {
+            if (terms[t].length() >= terms[longest].length()) {
+                longest = t;
+            }
+        }
+        return longest;
+    }
+
+    private static void checkLimit(int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("limit must be positive: " + limit);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package service;
+
+import domain.model.Location;
+import domain.model.Order;
+import domain.model.OrderItem;
+import domain.model.Warehouse;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Warehouse search outcome for one order: the items to reserve per warehouse, or the
+ * reason the order was rejected before anything was reserved. Shared by the synchronous
+ * and asynchronous fulfillment paths so both allocate the same way.
+ */
+final class Allocation {
+    private final Order order;
+    private final Location customerLocation;
+    private final Map<Warehouse, List<OrderItem>> warehouseItems;
+    private final FulfillmentResult rejection;
+
+    private Allocation(Order order, Location customerLocation, Map<Warehouse, List<OrderItem>> warehouseItems, FulfillmentResult rejection) {
+        this.order = order;
+        this.customerLocation = customerLocation;
+        this.warehouseItems = warehouseItems;
+        this.rejection = rejection;
+    }
+
+    static Allocation planned(Order order, Location customerLocation, Map<Warehouse, List<OrderItem>> warehouseItems) {
+        return new Allocation(order, customerLocation, warehouseItems, null);
+    }
+
+    static Allocation rejected(FulfillmentResult rejection) {
+        return new Allocation(null, null, Map.of(), rejection);
+    }
+
+    boolean isRejected() {
+        return rejection != null;
+    }
+
+    FulfillmentResult getRejection() {
+        return rejection;
+    }
+
+    Order getOrder() {
+        return order;
+    }
+
+    Location getCustomerLocation() {
+        return customerLocation;
+    }
+
+    /**
+     * Items to reserve per warehouse, in reservation order.
+     */
+    Map<Warehouse, List<OrderItem>> getWarehouseItems() {
+        return warehouseItems;
+    }
+}
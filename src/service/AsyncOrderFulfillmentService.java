@@ -0,0 +1,131 @@
+package service;
+
+import domain.model.Order;
+import domain.model.OrderItem;
+import domain.model.OrderStatus;
+import domain.model.Shipment;
+import domain.model.Warehouse;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking counterparts of {@link OrderService#createOrder},
+ * {@link OrderFulfillmentService#tryFulfillOrder} and {@link OrderFulfillmentService#shipOrder}.
+ *
+ * Fulfillment runs as a chain of stages on the executors in {@link FulfillmentExecutors}:
+ * warehouse search, then reservation, then shipment creation. Every inventory access goes
+ * through the asynchronous inventory calls (stock checks while searching, reservations and
+ * releases, deductions while shipping), so with a sharded inventory no executor thread
+ * waits for a shard's writer; the chain resumes on the stage's executor once the writer is
+ * done. No stage blocks, so the number of orders in flight is bounded by memory, not by
+ * threads.
+ *
+ * Allocation rules and outcomes are the same as {@link OrderFulfillmentService#tryFulfillOrder}:
+ * every expected rejection, saturation included, completes the future normally with a
+ * {@link FulfillmentResult}. Unexpected failures complete it exceptionally.
+ */
+public class AsyncOrderFulfillmentService {
+    private final OrderService orderService;
+    private final OrderFulfillmentService fulfillmentService;
+    private final ShipmentService shipmentService;
+    private final InventoryService inventoryService;
+    private final FulfillmentExecutors executors;
+
+    public AsyncOrderFulfillmentService(OrderService orderService,
+                                        OrderFulfillmentService fulfillmentService,
+                                        ShipmentService shipmentService,
+                                        InventoryService inventoryService,
+                                        FulfillmentExecutors executors) {
+        this.orderService = Objects.requireNonNull(orderService, "orderService cannot be null");
+        this.fulfillmentService = Objects.requireNonNull(fulfillmentService, "fulfillmentService cannot be null");
+        this.shipmentService = Objects.requireNonNull(shipmentService, "shipmentService cannot be null");
+        this.inventoryService = Objects.requireNonNull(inventoryService, "inventoryService cannot be null");
+        this.executors = Objects.requireNonNull(executors, "executors cannot be null");
+    }
+
+    public CompletableFuture<Order> createOrderAsync(UUID customerId, List<OrderItem> orderItems, boolean isTransactional) {
+        return CompletableFuture.supplyAsync(
+                () -> orderService.createOrder(customerId, orderItems, isTransactional), executors.getOrderExecutor());
+    }
+
+    public CompletableFuture<FulfillmentResult> fulfillOrderAsync(UUID orderId) {
+        Objects.requireNonNull(orderId, "orderId cannot be null");
+        return fulfillmentService.planAllocationAsync(orderId, executors.getSearchExecutor())
+                .thenComposeAsync(allocation -> {
+                    if (allocation.isRejected()) {
+                        return CompletableFuture.completedFuture(allocation.getRejection());
+                    }
+                    Iterator<Map.Entry<Warehouse, List<OrderItem>>> remaining = allocation.getWarehouseItems().entrySet().iterator();
+                    return reserveNext(remaining, new ArrayList<>())
+                            .thenComposeAsync(reserved -> reserved.isFulfilled() ? complete(allocation) : CompletableFuture.completedFuture(reserved),
+                                    executors.getShipmentExecutor());
+                }, executors.getReservationExecutor());
+    }
+
+    /**
+     * Ships every shipment of the order in parallel, then marks the order SHIPPED.
+     */
+    public CompletableFuture<Void> shipOrderAsync(UUID orderId) {
+        Objects.requireNonNull(orderId, "orderId cannot be null");
+        return CompletableFuture.supplyAsync(() -> shipmentService.getShipmentsByOrder(orderId), executors.getShipmentExecutor())
+                .thenCompose(shipments -> {
+                    CompletableFuture<?>[] shipped = new CompletableFuture<?>[shipments.size()];
+                    for (int i = 0; i < shipped.length; i++) {
+                        Shipment shipment = shipments.get(i);
+                        shipped[i] = CompletableFuture.supplyAsync(
+                                () -> shipmentService.shipOrderItemsAsync(shipment.getId()), executors.getShipmentExecutor())
+                                .thenCompose(deducted -> deducted);
+                    }
+                    return CompletableFuture.allOf(shipped);
+                })
+                .thenRunAsync(() -> orderService.updateStatus(orderId, OrderStatus.SHIPPED), executors.getOrderExecutor());
+    }
+
+    /**
+     * Reserves one warehouse at a time, in allocation order, like the synchronous path, and
+     * releases earlier reservations if a later warehouse falls short.
+     */
+    private CompletableFuture<FulfillmentResult> reserveNext(Iterator<Map.Entry<Warehouse, List<OrderItem>>> remaining,
+                                                             List<Map.Entry<Warehouse, List<OrderItem>>> reserved) {
+        if (!remaining.hasNext()) {
+            return CompletableFuture.completedFuture(FulfillmentResult.fulfilled());
+        }
+        Map.Entry<Warehouse, List<OrderItem>> entry = remaining.next();
+        UUID warehouseId = entry.getKey().getId();
+        return inventoryService.tryReserveStockAsync(warehouseId, entry.getValue())
+                .thenComposeAsync(shortProduct -> {
+                    if (shortProduct.isEmpty()) {
+                        reserved.add(entry);
+                        return reserveNext(remaining, reserved);
+                    }
+                    return release(reserved).thenApply(done -> FulfillmentResult.insufficientStock(shortProduct.get(), warehouseId));
+                }, executors.getReservationExecutor());
+    }
+
+    /**
+     * Shipment stage: claims the order like {@link OrderFulfillmentService#complete}, giving
+     * the reservations back without waiting if the claim is lost.
+     */
+    private CompletableFuture<FulfillmentResult> complete(Allocation allocation) {
+        if (!fulfillmentService.claim(allocation)) {
+            return release(new ArrayList<>(allocation.getWarehouseItems().entrySet()))
+                    .thenApply(done -> FulfillmentResult.orderNotPending());
+        }
+        fulfillmentService.createShipments(allocation);
+        return CompletableFuture.completedFuture(FulfillmentResult.fulfilled());
+    }
+
+    private CompletableFuture<Void> release(List<Map.Entry<Warehouse, List<OrderItem>>> reserved) {
+        CompletableFuture<?>[] released = new CompletableFuture<?>[reserved.size()];
+        for (int i = 0; i < released.length; i++) {
+            released[i] = inventoryService.releaseStockAsync(reserved.get(i).getKey().getId(), reserved.get(i).getValue());
+        }
+        return CompletableFuture.allOf(released);
+    }
+}
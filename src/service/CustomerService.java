@@ -2,18 +2,44 @@ package service;
 
 import domain.model.Customer;
 import domain.model.Location;
+import domain.model.LocationTable;
 import exceptions.CustomerNotFoundException;
 import repository.InMemoryRepository;
+import repository.LocationIndex;
+import search.TextIndex;
 
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.UUID;
 
 public class CustomerService {
     private final InMemoryRepository<Customer> storage;
+    private final LocationTable locations;
+    private final TextIndex searchIndex = new TextIndex();
+    private final LocationIndex<Customer> locationIndex;
 
     public CustomerService(InMemoryRepository<Customer> storage) {
+        this(storage, new LocationTable());
+    }
+
+    /**
+     * Customers already in storage are indexed for search; later ones are indexed when they
+     * are created through this service, with their locations in the table. The location index
+     * is kept by the repository and follows every save, including moves and bulk loads.
+     */
+    public CustomerService(InMemoryRepository<Customer> storage, LocationTable locations) {
         this.storage = storage;
+        this.locations = Objects.requireNonNull(locations, "locations cannot be null");
+        this.locationIndex = storage.createLocationIndex(locations, Customer::getLocation);
+        storage.findAll().forEach(this::index);
+    }
+
+    /**
+     * Indexes a customer for search that was saved straight into storage, as {@link bulk.BulkLoader} does.
+     */
+    public void onLoaded(Customer customer) {
+        index(customer);
     }
 
     public Customer createCustomer(String name, Location location, String email) {
@@ -21,9 +47,10 @@ public class CustomerService {
         Objects.requireNonNull(location, "Customer location cannot be null");
         Objects.requireNonNull(email, "Customer location cannot be null");
 
-        Customer customer = new Customer(name, location, email);
+        Customer customer = new Customer(name, location, email, locations);
 
         storage.save(customer.getId(), customer);
+        index(customer);
         return customer;
     }
     public Customer getCustomerById(UUID customerId) {
@@ -47,9 +74,37 @@ public class CustomerService {
         return storage.findAll();
     }
 
-    public List<Customer> findAllCustomersInLocation(Location location) {
-        return storage.findAll().stream()
-                .filter(cs -> cs.getLocation().equals(location))
+    /**
+     * Type-ahead search: customers whose name or email has, for every word of the query,
+     * a word starting with it.
+     */
+    public List<Customer> searchCustomers(String query, int limit) {
+        return resolve(searchIndex.searchPrefix(query, limit));
+    }
+
+    /**
+     * Typo-tolerant search: customers whose name or email has, for every word of the
+     * query, a word within one or two edits of it.
+     */
+    public List<Customer> searchCustomersFuzzy(String query, int limit) {
+        return resolve(searchIndex.searchFuzzy(query, limit));
+    }
+
+    private void index(Customer customer) {
+        searchIndex.put(customer.getId(), customer.getName(), customer.getEmail());
+    }
+
+    private List<Customer> resolve(List<UUID> customerIds) {
+        return customerIds.stream()
+                .map(storage::findById)
+                .flatMap(Optional::stream)
                 .toList();
     }
+
+    /**
+     * Customers at the location's coordinates, as of their last save.
+     */
+    public List<Customer> findAllCustomersInLocation(Location location) {
+        return locationIndex.find(location);
+    }
 }
@@ -0,0 +1,75 @@
+package service;
+
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Executors for the stages of {@link AsyncOrderFulfillmentService}. Every stage defaults
+ * to the common pool; every setter returns the config so callers override only what they
+ * need, for example a small dedicated pool for the CPU-heavy warehouse search.
+ */
+public class FulfillmentExecutors {
+    private Executor orderExecutor = ForkJoinPool.commonPool();
+    private Executor searchExecutor = ForkJoinPool.commonPool();
+    private Executor reservationExecutor = ForkJoinPool.commonPool();
+    private Executor shipmentExecutor = ForkJoinPool.commonPool();
+
+    /**
+     * Runs order creation and marks shipped orders SHIPPED.
+     */
+    public Executor getOrderExecutor() {
+        return orderExecutor;
+    }
+
+    /**
+     * Runs the warehouse search that decides what to reserve where.
+     */
+    public Executor getSearchExecutor() {
+        return searchExecutor;
+    }
+
+    /**
+     * Issues stock reservations and releases, and resumes once the warehouse's owner has applied them.
+     */
+    public Executor getReservationExecutor() {
+        return reservationExecutor;
+    }
+
+    /**
+     * Creates shipments (marking the order ALLOCATED) and ships them.
+     */
+    public Executor getShipmentExecutor() {
+        return shipmentExecutor;
+    }
+
+    public FulfillmentExecutors setOrderExecutor(Executor orderExecutor) {
+        this.orderExecutor = Objects.requireNonNull(orderExecutor, "orderExecutor cannot be null");
+        return this;
+    }
+
+    public FulfillmentExecutors setSearchExecutor(Executor searchExecutor) {
+        this.searchExecutor = Objects.requireNonNull(searchExecutor, "searchExecutor cannot be null");
+        return this;
+    }
+
+    public FulfillmentExecutors setReservationExecutor(Executor reservationExecutor) {
+        this.reservationExecutor = Objects.requireNonNull(reservationExecutor, "reservationExecutor cannot be null");
+        return this;
+    }
+
+    public FulfillmentExecutors setShipmentExecutor(Executor shipmentExecutor) {
+        this.shipmentExecutor = Objects.requireNonNull(shipmentExecutor, "shipmentExecutor cannot be null");
+        return this;
+    }
+
+    /**
+     * Runs every stage on the same executor.
+     */
+    public FulfillmentExecutors setAll(Executor executor) {
+        return setOrderExecutor(executor)
+                .setSearchExecutor(executor)
+                .setReservationExecutor(executor)
+                .setShipmentExecutor(executor);
+    }
+}
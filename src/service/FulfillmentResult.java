@@ -0,0 +1,101 @@
+package service;
+
+import java.util.UUID;
+
+/**
+ * Outcome of {@link OrderFulfillmentService#tryFulfillOrder}: either fulfilled, or the
+ * reason the order was rejected with the product and warehouse involved where known.
+ * Rejections are ordinary return values, so a burst of unfillable orders costs no
+ * exceptions and no message strings.
+ */
+public final class FulfillmentResult {
+
+    public enum Reason {
+        /** Stock is reserved, shipments are created and the order is ALLOCATED. */
+        FULFILLED,
+        ORDER_NOT_FOUND,
+        /** The order is no longer CREATED, for example already allocated or cancelled. */
+        ORDER_NOT_PENDING,
+        /** No warehouse has the stock; for transactional orders, no single warehouse has all of it. */
+        NO_WAREHOUSE_WITH_STOCK,
+        /** Stock was taken by a concurrent order between choosing a warehouse and reserving. */
+        INSUFFICIENT_STOCK,
+        /** Warehouses have the stock but all of their pick/pack queues are full; retry later. */
+        WAREHOUSES_SATURATED
+    }
+
+    private static final FulfillmentResult FULFILLED = new FulfillmentResult(Reason.FULFILLED, null, null);
+    private static final FulfillmentResult ORDER_NOT_FOUND = new FulfillmentResult(Reason.ORDER_NOT_FOUND, null, null);
+    private static final FulfillmentResult ORDER_NOT_PENDING = new FulfillmentResult(Reason.ORDER_NOT_PENDING, null, null);
+    private static final FulfillmentResult WAREHOUSES_SATURATED = new FulfillmentResult(Reason.WAREHOUSES_SATURATED, null, null);
+
+    private final Reason reason;
+    private final UUID productId;
+    private final UUID warehouseId;
+
+    private FulfillmentResult(Reason reason, UUID productId, UUID warehouseId) {
+        this.reason = reason;
+        this.productId = productId;
+        this.warehouseId = warehouseId;
+    }
+
+    public static FulfillmentResult fulfilled() {
+        return FULFILLED;
+    }
+
+    public static FulfillmentResult orderNotFound() {
+        return ORDER_NOT_FOUND;
+    }
+
+    public static FulfillmentResult orderNotPending() {
+        return ORDER_NOT_PENDING;
+    }
+
+    public static FulfillmentResult warehousesSaturated() {
+        return WAREHOUSES_SATURATED;
+    }
+
+    /**
+     * @param productId the first product no warehouse could supply, or null if the stock
+     *                  exists but is split across warehouses
+     */
+    public static FulfillmentResult noWarehouseWithStock(UUID productId) {
+        return new FulfillmentResult(Reason.NO_WAREHOUSE_WITH_STOCK, productId, null);
+    }
+
+    public static FulfillmentResult insufficientStock(UUID productId, UUID warehouseId) {
+        return new FulfillmentResult(Reason.INSUFFICIENT_STOCK, productId, warehouseId);
+    }
+
+    // Getters
+    public Reason getReason() {
+        return reason;
+    }
+
+    public boolean isFulfilled() {
+        return reason == Reason.FULFILLED;
+    }
+
+    /**
+     * The product that caused the rejection, or null if none applies.
+     */
+    public UUID getProductId() {
+        return productId;
+    }
+
+    /**
+     * The warehouse that caused the rejection, or null if none applies.
+     */
+    public UUID getWarehouseId() {
+        return warehouseId;
+    }
+
+    @Override
+    public String toString() {
+        return "FulfillmentResult{" +
+                "reason=" + reason +
+                ", productId='" + productId + '\'' +
+                ", warehouseId='" + warehouseId + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,14 @@
+package service;
+
+import domain.model.InventoryItem;
+
+/**
+ * Callback for every stock movement applied by {@link InventoryService}.
+ *
+ * Listeners run synchronously on the thread that owns the item's warehouse, right after
+ * the item was changed, so they see the new quantities and must return quickly. The deltas
+ * are the change in available and reserved quantity caused by that one operation.
+ */
+public interface InventoryChangeListener {
+    void onInventoryChanged(InventoryItem item, int availableDelta, int reservedDelta);
+}
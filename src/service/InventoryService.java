@@ -1,37 +1,113 @@
 package service;
 
 import domain.model.InventoryItem;
+import domain.model.InventoryKey;
 import domain.model.OrderItem;
 import domain.model.Product;
 import domain.model.Warehouse;
 import exceptions.InsufficientStockException;
 import exceptions.InventoryItemNotFoundException;
 import exceptions.ProductNotFoundException;
+import exceptions.SupplyChainException;
+import exceptions.WarehouseCapacityExceededException;
 import exceptions.WarehouseNotFoundException;
+import repository.ChangePublisher;
+import repository.ChangeType;
 import repository.InMemoryRepository;
 import repository.InMemoryRepositoryInterface;
+import repository.SnapshotManager;
+import repository.UniqueIndex;
+import repository.VersionStore;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
 
+/**
+ * Stock operations on inventory items.
+ *
+ * Every read and mutation is routed by warehouse through
+ * {@link InMemoryRepositoryInterface#execute(UUID, java.util.function.Supplier)}. With a
+ * {@link repository.ShardedRepository} keyed by warehouse id this makes the owning shard's
+ * writer thread the only one that touches a warehouse's items; with a plain repository
+ * commands run on the caller's thread as before.
+ */
 public class InventoryService {
-    private final InMemoryRepository<InventoryItem> storage;
+    private final InMemoryRepositoryInterface<InventoryItem> storage;
     private final InMemoryRepository<Product> productRepository;
     private final InMemoryRepository<Warehouse> warehouseRepository;
+    private final UniqueIndex<InventoryKey, InventoryItem> itemIndex;
+    private final List<InventoryChangeListener> listeners = new CopyOnWriteArrayList<>();
+    private final WarehouseUtilizationTracker utilizationTracker = new WarehouseUtilizationTracker();
+    private final ChangePublisher<InventoryItem> changes = new ChangePublisher<>();
+    private volatile VersionStore<InventoryItem> versions;
 
-    public InventoryService(InMemoryRepository<InventoryItem> storage, 
+    public InventoryService(InMemoryRepositoryInterface<InventoryItem> storage,
                            InMemoryRepository<Product> productRepository,
                            InMemoryRepository<Warehouse> warehouseRepository) {
         this.storage = storage;
         this.productRepository = productRepository;
         this.warehouseRepository = warehouseRepository;
+        this.itemIndex = storage.createUniqueIndex(InventoryKey::of);
+        for (InventoryItem item: storage.findAll()) {
+            utilizationTracker.onInventoryChanged(item, item.getAvailableQuantity(), item.getReservedQuantity());
+        }
+        this.listeners.add(utilizationTracker);
+    }
+
+    public WarehouseUtilizationTracker getUtilizationTracker() {
+        return utilizationTracker;
+    }
+
+    /**
+     * Change stream of every stock movement. Items are mutated in place, so events carry
+     * detached copies of the item before and after the movement. Published on the thread
+     * that owns the warehouse, so events for one item are in the order they were applied.
+     */
+    public ChangePublisher<InventoryItem> getChanges() {
+        return changes;
+    }
+
+    /**
+     * Keeps a detached copy of every item after each stock movement from now on, for
+     * {@link repository.Snapshot} reads of inventory alongside the other stores of the
+     * manager. Recorded on the thread that owns the warehouse, like change events. Call it
+     * once, before stock starts moving.
+     */
+    public VersionStore<InventoryItem> enableSnapshots(SnapshotManager manager) {
+        VersionStore<InventoryItem> store = manager.createStore();
+        for (InventoryItem item: storage.findAll()) {
+            store.seed(item.getId(), copyOf(item));
+        }
+        versions = store;
+        return store;
+    }
+
+    public void addInventoryChangeListener(InventoryChangeListener listener) {
+        listeners.add(Objects.requireNonNull(listener, "listener cannot be null"));
+    }
+
+    public void removeInventoryChangeListener(InventoryChangeListener listener) {
+        listeners.remove(listener);
     }
+
     private Optional<InventoryItem> findInventoryItem(UUID warehouseId, UUID productId) {
-        List<InventoryItem> items = storage.findAll();
-        return items.stream()
-                .filter(it -> it.getProductId().equals(productId) && it.getWarehouseId().equals(warehouseId))
-                .findFirst();
+        return itemIndex.find(new InventoryKey(warehouseId, productId));
+    }
+
+    /**
+     * Counts an item that was saved straight into storage, as {@link bulk.BulkLoader} does,
+     * and tells the listeners about its stock as if it had just been added.
+     */
+    public void onLoaded(InventoryItem item) {
+        storage.execute(item.getWarehouseId(), () -> {
+            notifyListeners(ChangeType.INSERT, item, item.getAvailableQuantity(), item.getReservedQuantity());
+            return null;
+        });
     }
 
     /**
@@ -55,53 +131,141 @@ public class InventoryService {
             throw new WarehouseNotFoundException("Warehouse " + warehouseId + " not found");
         }
         
-        // Check if inventory item already exists
-        Optional<InventoryItem> existingItem = findInventoryItem(warehouseId, productId);
-        if (existingItem.isPresent()) {
-            throw new IllegalArgumentException(
-                "Inventory item already exists for product " + productId + 
-                " in warehouse " + warehouseId + ". Use restockWarehouse() to add more quantity."
-            );
-        }
-        
         // Validate quantity
         if (initialQuantity < 0) {
             throw new IllegalArgumentException("Initial quantity cannot be negative: " + initialQuantity);
         }
-        
-        // Create and save new inventory item
-        InventoryItem newItem = new InventoryItem(productId, warehouseId, initialQuantity);
-        storage.save(newItem.getId(), newItem);
-        
-        return newItem;
+
+        return storage.execute(warehouseId, () -> {
+            // Check if inventory item already exists
+            Optional<InventoryItem> existingItem = findInventoryItem(warehouseId, productId);
+            if (existingItem.isPresent()) {
+                throw new IllegalArgumentException(
+                    "Inventory item already exists for product " + productId +
+                    " in warehouse " + warehouseId + ". Use restockWarehouse() to add more quantity."
+                );
+            }
+
+            // Create and save new inventory item
+            InventoryItem newItem = new InventoryItem(productId, warehouseId, initialQuantity);
+            storage.save(newItem.getId(), newItem);
+            notifyListeners(ChangeType.INSERT, newItem, initialQuantity, 0);
+
+            return newItem;
+        });
     }
 
 
+    /**
+     * Reserves stock for every item, or for none of them if any item is short.
+     *
+     * @throws InventoryItemNotFoundException if the warehouse does not carry one of the products
+     * @throws InsufficientStockException if one of the products does not have enough available stock
+     */
     public void reserveStock(UUID warehouseId, List<OrderItem> orderItems) {
+        storage.execute(warehouseId, () -> {
+            int shortItem = findShortItem(warehouseId, orderItems);
+            if (shortItem >= 0) {
+                throw shortage(warehouseId, orderItems, shortItem);
+            }
+            reserveStockOnOwner(warehouseId, orderItems);
+        });
+    }
 
-        for (OrderItem item: orderItems) {
-            UUID productId = item.getProductId();
-            int quantity = item.getQuantity();
-            Optional<InventoryItem> inventoryItemOpt = findInventoryItem(warehouseId, productId);
+    /**
+     * Like {@link #reserveStock}, but reports a shortage instead of throwing, so rejecting an
+     * order allocates nothing beyond the returned Optional.
+     *
+     * @return the first product that could not be reserved, or empty if every item was reserved
+     */
+    public Optional<UUID> tryReserveStock(UUID warehouseId, List<OrderItem> orderItems) {
+        return storage.execute(warehouseId, () -> {
+            int shortItem = findShortItem(warehouseId, orderItems);
+            if (shortItem >= 0) {
+                return Optional.of(orderItems.get(shortItem).getProductId());
+            }
+            reserveStockOnOwner(warehouseId, orderItems);
+            return Optional.<UUID>empty();
+        });
+    }
 
-            if (inventoryItemOpt.isEmpty()) {
-                throw new InventoryItemNotFoundException(warehouseId, productId);
+    /**
+     * {@link #tryReserveStock} without waiting for the warehouse's owner: with a sharded
+     * repository the future completes on the shard's writer thread, so dependent stages
+     * should continue on an executor of their own.
+     */
+    public CompletableFuture<Optional<UUID>> tryReserveStockAsync(UUID warehouseId, List<OrderItem> orderItems) {
+        return storage.executeAsync(warehouseId, () -> {
+            int shortItem = findShortItem(warehouseId, orderItems);
+            if (shortItem >= 0) {
+                return Optional.of(orderItems.get(shortItem).getProductId());
+            }
+            reserveStockOnOwner(warehouseId, orderItems);
+            return Optional.<UUID>empty();
+        });
+    }
+
+    /**
+     * Returns the index of the first item whose product is missing or short, counting earlier
+     * lines for the same product, or -1 if all items can be reserved.
+     */
+    private int findShortItem(UUID warehouseId, List<OrderItem> orderItems) {
+        for (int i = 0; i < orderItems.size(); i++) {
+            Optional<InventoryItem> inventoryItem = findInventoryItem(warehouseId, orderItems.get(i).getProductId());
+            if (inventoryItem.isEmpty() || inventoryItem.get().getAvailableQuantity() < requestedUpTo(orderItems, i)) {
+                return i;
             }
+        }
+        return -1;
+    }
+
+    private SupplyChainException shortage(UUID warehouseId, List<OrderItem> orderItems, int shortItem) {
+        UUID productId = orderItems.get(shortItem).getProductId();
+        Optional<InventoryItem> inventoryItem = findInventoryItem(warehouseId, productId);
+        if (inventoryItem.isEmpty()) {
+            return new InventoryItemNotFoundException(productId, warehouseId);
+        }
+        return new InsufficientStockException(productId, warehouseId,
+                requestedUpTo(orderItems, shortItem), inventoryItem.get().getAvailableQuantity());
+    }
 
-            InventoryItem inventoryItem = inventoryItemOpt.get();
-            if (inventoryItem.getAvailableQuantity() < quantity) {
-                throw new InsufficientStockException(productId, warehouseId, quantity, inventoryItem.getAvailableQuantity());
+    private static int requestedUpTo(List<OrderItem> orderItems, int index) {
+        UUID productId = orderItems.get(index).getProductId();
+        int quantity = 0;
+        for (int i = 0; i <= index; i++) {
+            if (orderItems.get(i).getProductId().equals(productId)) {
+                quantity += orderItems.get(i).getQuantity();
             }
+        }
+        return quantity;
+    }
 
-            inventoryItem.reserve(quantity);
+    private void reserveStockOnOwner(UUID warehouseId, List<OrderItem> orderItems) {
+        for (OrderItem item: orderItems) {
+            InventoryItem inventoryItem = findInventoryItem(warehouseId, item.getProductId()).orElseThrow();
+            inventoryItem.reserve(item.getQuantity());
+            notifyListeners(inventoryItem, -item.getQuantity(), item.getQuantity());
         }
     }
 
     public void releaseStock(UUID warehouseId, UUID productId, int quantity) {
+        storage.execute(warehouseId, () -> releaseStockOnOwner(warehouseId, productId, quantity));
+    }
+
+    public CompletableFuture<Void> releaseStockAsync(UUID warehouseId, List<OrderItem> orderItems) {
+        return storage.executeAsync(warehouseId, () -> {
+            for (OrderItem item: orderItems) {
+                releaseStockOnOwner(warehouseId, item.getProductId(), item.getQuantity());
+            }
+            return null;
+        });
+    }
+
+    private void releaseStockOnOwner(UUID warehouseId, UUID productId, int quantity) {
         Optional<InventoryItem> inventoryItemOpt= findInventoryItem(warehouseId, productId);
 
         if (inventoryItemOpt.isEmpty()) {
-            throw new InventoryItemNotFoundException(warehouseId, productId);
+            throw new InventoryItemNotFoundException(productId, warehouseId);
         }
         InventoryItem inventoryItem = inventoryItemOpt.get();
 
@@ -112,20 +276,95 @@ public class InventoryService {
         }
 
         inventoryItem.release(quantity);
+        notifyListeners(inventoryItem, quantity, -quantity);
     }
 
+    /**
+     * Adds stock to an existing inventory item.
+     *
+     * @throws WarehouseCapacityExceededException if the warehouse would hold more units than its max capacity
+     */
     public void restockWarehouse(UUID warehouseId, UUID productId, int quantity) {
+        storage.execute(warehouseId, () -> {
+            checkCapacity(warehouseId, quantity);
+            restockWarehouseOnOwner(warehouseId, productId, quantity);
+        });
+    }
+
+    /**
+     * Restocks several products of one warehouse in a single command on the warehouse's owner.
+     * Either the whole batch fits into the warehouse's capacity and is applied, or nothing is.
+     *
+     * @throws WarehouseCapacityExceededException if the batch does not fit
+     */
+    public void restockItems(UUID warehouseId, List<OrderItem> items) {
+        storage.execute(warehouseId, () -> {
+            long quantity = 0;
+            for (OrderItem item: items) {
+                quantity += item.getQuantity();
+            }
+            checkCapacity(warehouseId, quantity);
+
+            for (OrderItem item: items) {
+                restockWarehouseOnOwner(warehouseId, item.getProductId(), item.getQuantity());
+            }
+        });
+    }
+
+    /**
+     * Adds stock arriving at a warehouse, for example from a transfer, creating the
+     * product's inventory item there if the warehouse does not carry it yet.
+     *
+     * @throws WarehouseCapacityExceededException if the warehouse would hold more units than its max capacity
+     */
+    public void receiveStock(UUID warehouseId, UUID productId, int quantity) {
+        if (productRepository.findById(productId).isEmpty()) {
+            throw new ProductNotFoundException("Product " + productId + " not found");
+        }
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Received quantity must be positive: " + quantity);
+        }
+        storage.execute(warehouseId, () -> {
+            checkCapacity(warehouseId, quantity);
+            if (findInventoryItem(warehouseId, productId).isPresent()) {
+                restockWarehouseOnOwner(warehouseId, productId, quantity);
+                return;
+            }
+            InventoryItem newItem = new InventoryItem(productId, warehouseId, quantity);
+            storage.save(newItem.getId(), newItem);
+            notifyListeners(ChangeType.INSERT, newItem, quantity, 0);
+        });
+    }
+
+    private void restockWarehouseOnOwner(UUID warehouseId, UUID productId, int quantity) {
         Optional<InventoryItem> inventoryItemOpt= findInventoryItem(warehouseId, productId);
 
         if (inventoryItemOpt.isEmpty()) {
-            throw new InventoryItemNotFoundException(warehouseId, productId);
+            throw new InventoryItemNotFoundException(productId, warehouseId);
         }
         InventoryItem inventoryItem = inventoryItemOpt.get();
 
         inventoryItem.restock(quantity);
+        notifyListeners(inventoryItem, quantity, 0);
     }
 
     public void deductStock(UUID warehouseId, UUID productId, int quantity) {
+        storage.execute(warehouseId, () -> deductStockOnOwner(warehouseId, productId, quantity));
+    }
+
+    /**
+     * Deducts every item's reserved stock on the warehouse's owner without waiting for it.
+     */
+    public CompletableFuture<Void> deductStockAsync(UUID warehouseId, List<OrderItem> orderItems) {
+        return storage.executeAsync(warehouseId, () -> {
+            for (OrderItem item: orderItems) {
+                deductStockOnOwner(warehouseId, item.getProductId(), item.getQuantity());
+            }
+            return null;
+        });
+    }
+
+    private void deductStockOnOwner(UUID warehouseId, UUID productId, int quantity) {
         Optional<InventoryItem> inventoryItemOpt= findInventoryItem(warehouseId, productId);
 
         if (inventoryItemOpt.isEmpty()) {
@@ -133,27 +372,89 @@ public class InventoryService {
         }
         InventoryItem inventoryItem = inventoryItemOpt.get();
         inventoryItem.deduct(quantity);
+        notifyListeners(inventoryItem, 0, -quantity);
     }
 
-    public int getAvailableQuantity(UUID warehouseId, UUID productId) {
-        Optional<InventoryItem> inventoryItemOpt= findInventoryItem(warehouseId, productId);
+    private void checkCapacity(UUID warehouseId, long quantity) {
+        Optional<Warehouse> warehouse = warehouseRepository.findById(warehouseId);
+        if (warehouse.isEmpty()) {
+            return;
+        }
+        int maxCapacity = warehouse.get().getMaxCapacity();
+        long usedUnits = utilizationTracker.getUsedUnits(warehouseId);
+        if (usedUnits + quantity > maxCapacity) {
+            throw new WarehouseCapacityExceededException(warehouseId, quantity, usedUnits, maxCapacity);
+        }
+    }
 
-        if (inventoryItemOpt.isEmpty()) {
-            throw new InventoryItemNotFoundException(warehouseId, productId);
+    private void notifyListeners(InventoryItem item, int availableDelta, int reservedDelta) {
+        notifyListeners(ChangeType.UPDATE, item, availableDelta, reservedDelta);
+    }
+
+    private void notifyListeners(ChangeType type, InventoryItem item, int availableDelta, int reservedDelta) {
+        for (InventoryChangeListener listener: listeners) {
+            listener.onInventoryChanged(item, availableDelta, reservedDelta);
+        }
+        VersionStore<InventoryItem> store = versions;
+        if (store == null && !changes.hasSubscribers()) {
+            return;
+        }
+        InventoryItem after = copyOf(item);
+        if (store != null) {
+            store.record(item.getId(), after);
         }
+        if (changes.hasSubscribers()) {
+            InventoryItem before = type == ChangeType.INSERT ? null : new InventoryItem(item.getId(), item.getProductId(),
+                    item.getWarehouseId(), item.getReservedQuantity() - reservedDelta, item.getAvailableQuantity() - availableDelta);
+            changes.publish(type, item.getId(), before, after);
+        }
+    }
+
+    private static InventoryItem copyOf(InventoryItem item) {
+        return new InventoryItem(item.getId(), item.getProductId(), item.getWarehouseId(),
+                item.getReservedQuantity(), item.getAvailableQuantity());
+    }
+
+    public int getAvailableQuantity(UUID warehouseId, UUID productId) {
+        return storage.execute(warehouseId, () -> {
+            Optional<InventoryItem> inventoryItemOpt= findInventoryItem(warehouseId, productId);
+
+            if (inventoryItemOpt.isEmpty()) {
+                throw new InventoryItemNotFoundException(productId, warehouseId);
+            }
+
+            return inventoryItemOpt.get().getAvailableQuantity();
+        });
+    }
 
-        return inventoryItemOpt.get().getAvailableQuantity();
+    /**
+     * Largest available quantity of a product in any one of several warehouses; warehouses
+     * that do not carry the product count as zero.
+     */
+    public int getLargestAvailableQuantity(Collection<UUID> warehouseIds, UUID productId) {
+        int largest = 0;
+        for (UUID warehouseId: warehouseIds) {
+            largest = Math.max(largest, storage.execute(warehouseId, () ->
+                    findInventoryItem(warehouseId, productId).map(InventoryItem::getAvailableQuantity).orElse(0)));
+        }
+        return largest;
     }
 
     public boolean canFulfillItems(UUID warehouseId, List<OrderItem> items) {
         if (items == null) { throw new IllegalArgumentException("Inventory item list cannot be null"); }
         if (items.isEmpty()) { throw new IllegalArgumentException("Inventory items list cannot be empty"); }
 
-        for (OrderItem item: items) {
-            Optional<InventoryItem> inventoryItemOpt = findInventoryItem(warehouseId, item.getProductId());
-            if (inventoryItemOpt.isEmpty()) { return false; }
-            if (inventoryItemOpt.get().getAvailableQuantity() < item.getQuantity()) { return false; }
-        }
-        return true;
+        // Same check as a reservation makes, so lines repeating a product are summed
+        return storage.execute(warehouseId, () -> findShortItem(warehouseId, items) < 0);
+    }
+
+    /**
+     * Like {@link #canFulfillItems}, without waiting for the warehouse's owner.
+     */
+    public CompletableFuture<Boolean> canFulfillItemsAsync(UUID warehouseId, List<OrderItem> items) {
+        if (items == null) { throw new IllegalArgumentException("Inventory item list cannot be null"); }
+        if (items.isEmpty()) { throw new IllegalArgumentException("Inventory items list cannot be empty"); }
+
+        return storage.executeAsync(warehouseId, () -> findShortItem(warehouseId, items) < 0);
     }
 }
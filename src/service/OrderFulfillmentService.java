@@ -1,13 +1,18 @@
 package service;
 
 import domain.model.*;
-import exceptions.NoAvailableWarehouseException;
-import exceptions.OrderNotFoundException;
+import exceptions.WarehouseSaturatedException;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 public class OrderFulfillmentService {
     private final OrderService orderService;
@@ -33,57 +38,262 @@ public class OrderFulfillmentService {
         this.customerService = customerService;
     }
 
+    /**
+     * Allocates an order to warehouses and reserves its stock.
+     *
+     * @return false if the order does not exist, is not CREATED, or no warehouse has the stock
+     * @throws WarehouseSaturatedException if warehouses have the stock but all of their
+     *         pick/pack queues are full; the order is left untouched and can be retried later
+     */
     public boolean fulfillOrder(UUID orderId) {
-        Objects.requireNonNull(orderId, "orderId cannot be null");
+        FulfillmentResult result = tryFulfillOrder(orderId);
+        if (result.getReason() == FulfillmentResult.Reason.WAREHOUSES_SATURATED) {
+            throw new WarehouseSaturatedException("All warehouses with stock for order " + orderId + " are saturated");
+        }
+        return result.isFulfilled();
+    }
 
-        try {
-            Order order = orderService.getOrderById(orderId);
-            Location customerLocation =
-                    customerService.getCustomerLocation(order.getCustomerId());
+    /**
+     * Allocates an order to warehouses and reserves its stock, reporting every expected
+     * rejection as a result instead of an exception.
+     *
+     * Stock is reserved before any shipment is created, and all of an order's reservations
+     * succeed or none are kept, so a rejected order leaves inventory and shipments untouched.
+     * Transactional orders go to the cheapest unsaturated warehouse that has every item;
+     * other orders are split per item, skipping items no warehouse has.
+     */
+    public FulfillmentResult tryFulfillOrder(UUID orderId) {
+        Allocation allocation = planAllocation(orderId);
+        if (allocation.isRejected()) {
+            return allocation.getRejection();
+        }
+        FulfillmentResult reserved = reserve(allocation);
+        return reserved.isFulfilled() ? complete(allocation) : reserved;
+    }
 
+    /**
+     * Warehouse search stage: picks the warehouses and items to reserve, without reserving.
+     */
+    Allocation planAllocation(UUID orderId) {
+        Allocation pending = findPending(orderId);
+        if (pending.isRejected()) {
+            return pending;
+        }
+        Order order = pending.getOrder();
+        Location customerLocation = pending.getCustomerLocation();
+        if (order.isTransactional()) {
+            List<Warehouse> warehouses = warehouseService.findWarehousesWithStock(order.getOrderItems(), customerLocation);
+            if (warehouses.isEmpty()) {
+                return Allocation.rejected(FulfillmentResult.noWarehouseWithStock(order.getOrderItems().size() == 1
+                        ? order.getOrderItems().get(0).getProductId()
+                        : firstUnavailable(order.getOrderItems(), customerLocation)));
+            }
+            return allocateSingleWarehouse(order, customerLocation, warehouses);
+        }
+        List<List<Warehouse>> candidates = new ArrayList<>();
+        for (OrderItem orderItem: order.getOrderItems()) {
+            candidates.add(warehouseService.findWarehousesWithStock(Collections.singletonList(orderItem), customerLocation));
+        }
+        return allocatePerItem(order, customerLocation, candidates);
+    }
+
+    /**
+     * Like {@link #planAllocation}, but stock checks are handed to the warehouses' owners
+     * instead of waited for; the rest of the search runs on the executor.
+     */
+    CompletableFuture<Allocation> planAllocationAsync(UUID orderId, Executor executor) {
+        return CompletableFuture.supplyAsync(() -> findPending(orderId), executor).thenCompose(pending -> {
+            if (pending.isRejected()) {
+                return CompletableFuture.completedFuture(pending);
+            }
+            Order order = pending.getOrder();
+            Location customerLocation = pending.getCustomerLocation();
             if (order.isTransactional()) {
-                Warehouse warehouse =
-                        warehouseService.findSingleOptimalWarehouseForOrderItems(
-                                order.getOrderItems(), customerLocation);
-
-                shipmentService.createShipment(
-                        orderId,
-                        order.getCustomerId(),
-                        warehouse.getId(),
-                        customerLocation,
-                        order.getOrderItems()
-                );
-
-                inventoryService.reserveStock(
-                        warehouse.getId(),
-                        order.getOrderItems()
-                );
-            } else {
-                Map<Warehouse, List<OrderItem>> warehouseToOrderItems =
-                        warehouseService.findWarehousesForOrderItems(
-                                order.getOrderItems(), customerLocation);
-
-                for (Map.Entry<Warehouse, List<OrderItem>> entry: warehouseToOrderItems.entrySet()) {
-                    Warehouse warehouse = entry.getKey();
-                    List<OrderItem> items = entry.getValue();
-                    
-                    // Create shipment
-                    shipmentService.createShipment(
-                            orderId,
-                            order.getCustomerId(),
-                            warehouse.getId(),
-                            customerLocation,
-                            items);
-                    
-                    // Reserve inventory for this warehouse
-                    inventoryService.reserveStock(warehouse.getId(), items);
+                return warehouseService.findWarehousesWithStockAsync(order.getOrderItems(), customerLocation)
+                        .thenComposeAsync(warehouses -> {
+                            if (!warehouses.isEmpty()) {
+                                return CompletableFuture.completedFuture(allocateSingleWarehouse(order, customerLocation, warehouses));
+                            }
+                            if (order.getOrderItems().size() == 1) {
+                                return CompletableFuture.completedFuture(Allocation.rejected(
+                                        FulfillmentResult.noWarehouseWithStock(order.getOrderItems().get(0).getProductId())));
+                            }
+                            return firstUnavailableAsync(order.getOrderItems(), customerLocation)
+                                    .thenApply(product -> Allocation.rejected(FulfillmentResult.noWarehouseWithStock(product)));
+                        }, executor);
+            }
+            List<CompletableFuture<List<Warehouse>>> candidates = new ArrayList<>();
+            for (OrderItem orderItem: order.getOrderItems()) {
+                candidates.add(warehouseService.findWarehousesWithStockAsync(Collections.singletonList(orderItem), customerLocation));
+            }
+            return CompletableFuture.allOf(candidates.toArray(new CompletableFuture<?>[0]))
+                    .thenApplyAsync(done -> allocatePerItem(order, customerLocation, joinAll(candidates)), executor);
+        });
+    }
+
+    /**
+     * Reservation stage: reserves every warehouse's items, or none of them if one falls short.
+     */
+    FulfillmentResult reserve(Allocation allocation) {
+        List<Map.Entry<Warehouse, List<OrderItem>>> reserved = new ArrayList<>(allocation.getWarehouseItems().size());
+        for (Map.Entry<Warehouse, List<OrderItem>> entry: allocation.getWarehouseItems().entrySet()) {
+            UUID warehouseId = entry.getKey().getId();
+            Optional<UUID> shortProduct = inventoryService.tryReserveStock(warehouseId, entry.getValue());
+            if (shortProduct.isPresent()) {
+                // Give back what earlier warehouses reserved so the order is all-or-nothing
+                release(reserved);
+                return FulfillmentResult.insufficientStock(shortProduct.get(), warehouseId);
+            }
+            reserved.add(entry);
+        }
+        return FulfillmentResult.fulfilled();
+    }
+
+    private void release(List<Map.Entry<Warehouse, List<OrderItem>>> reserved) {
+        for (Map.Entry<Warehouse, List<OrderItem>> done: reserved) {
+            for (OrderItem orderItem: done.getValue()) {
+                inventoryService.releaseStock(done.getKey().getId(), orderItem.getProductId(), orderItem.getQuantity());
+            }
+        }
+    }
+
+    /**
+     * Shipment stage, once everything is reserved: claims the order, then creates one
+     * shipment per warehouse. If a concurrent fulfillment or a cancel changed the order since
+     * it was planned, the reservations are given back and no shipment is created.
+     */
+    FulfillmentResult complete(Allocation allocation) {
+        if (!claim(allocation)) {
+            release(new ArrayList<>(allocation.getWarehouseItems().entrySet()));
+            return FulfillmentResult.orderNotPending();
+        }
+        createShipments(allocation);
+        return FulfillmentResult.fulfilled();
+    }
+
+    /**
+     * Moves the version of the order that was planned from CREATED to ALLOCATED.
+     *
+     * @return false if the order changed since it was planned
+     */
+    boolean claim(Allocation allocation) {
+        return orderService.compareAndUpdateStatus(allocation.getOrder(), OrderStatus.ALLOCATED);
+    }
+
+    /**
+     * One shipment per warehouse of a claimed allocation.
+     */
+    void createShipments(Allocation allocation) {
+        Order order = allocation.getOrder();
+        for (Map.Entry<Warehouse, List<OrderItem>> entry: allocation.getWarehouseItems().entrySet()) {
+            shipmentService.createShipment(
+                    order.getId(),
+                    order.getCustomerId(),
+                    entry.getKey().getId(),
+                    allocation.getCustomerLocation(),
+                    entry.getValue());
+        }
+    }
+
+    // The order if it exists and is still CREATED, with its customer's location
+    private Allocation findPending(UUID orderId) {
+        Objects.requireNonNull(orderId, "orderId cannot be null");
+
+        Optional<Order> found = orderService.findOrderById(orderId);
+        if (found.isEmpty()) {
+            return Allocation.rejected(FulfillmentResult.orderNotFound());
+        }
+        Order order = found.get();
+        if (order.getStatus() != OrderStatus.CREATED) {
+            return Allocation.rejected(FulfillmentResult.orderNotPending());
+        }
+        return Allocation.planned(order, customerService.getCustomerLocation(order.getCustomerId()), Map.of());
+    }
+
+    private Allocation allocateSingleWarehouse(Order order, Location customerLocation, List<Warehouse> warehouses) {
+        Warehouse warehouse = warehouseService.firstUnsaturatedOrNull(warehouses);
+        if (warehouse == null) {
+            return Allocation.rejected(FulfillmentResult.warehousesSaturated());
+        }
+        return Allocation.planned(order, customerLocation, Map.of(warehouse, order.getOrderItems()));
+    }
+
+    /**
+     * @param candidates warehouses with stock for each item, in item order
+     */
+    private Allocation allocatePerItem(Order order, Location customerLocation, List<List<Warehouse>> candidates) {
+        Map<Warehouse, List<OrderItem>> warehouseToOrderItems = new LinkedHashMap<>();
+        UUID unavailableProduct = null;
+        OrderItemList orderItems = order.getOrderItems();
+        for (int i = 0; i < orderItems.size(); i++) {
+            OrderItem orderItem = orderItems.get(i);
+            List<Warehouse> warehouses = candidates.get(i);
+            if (warehouses.isEmpty()) {
+                if (unavailableProduct == null) {
+                    unavailableProduct = orderItem.getProductId();
                 }
+                continue;
+            }
+            Warehouse warehouse = warehouseService.firstUnsaturatedOrNull(warehouses);
+            if (warehouse == null) {
+                return Allocation.rejected(FulfillmentResult.warehousesSaturated());
             }
-            orderService.updateStatus(order.getId(), OrderStatus.ALLOCATED);
-            return true;
-        } catch (NoAvailableWarehouseException | OrderNotFoundException e) {
-            return false;
+            warehouseToOrderItems.computeIfAbsent(warehouse, k -> new ArrayList<>()).add(orderItem);
+        }
+        if (warehouseToOrderItems.isEmpty()) {
+            return Allocation.rejected(FulfillmentResult.noWarehouseWithStock(unavailableProduct));
+        }
+        return Allocation.planned(order, customerLocation, warehouseToOrderItems);
+    }
+
+    /**
+     * First product no warehouse has enough of on its own, summing lines that repeat it;
+     * null if each product is available somewhere but no warehouse has all of them.
+     */
+    private UUID firstUnavailable(List<OrderItem> orderItems, Location customerLocation) {
+        for (OrderItem product: productTotals(orderItems)) {
+            if (warehouseService.findWarehousesWithStock(Collections.singletonList(product), customerLocation).isEmpty()) {
+                return product.getProductId();
+            }
+        }
+        return null;
+    }
+
+    private CompletableFuture<UUID> firstUnavailableAsync(List<OrderItem> orderItems, Location customerLocation) {
+        List<OrderItem> products = productTotals(orderItems);
+        List<CompletableFuture<List<Warehouse>>> candidates = new ArrayList<>(products.size());
+        for (OrderItem product: products) {
+            candidates.add(warehouseService.findWarehousesWithStockAsync(Collections.singletonList(product), customerLocation));
+        }
+        return CompletableFuture.allOf(candidates.toArray(new CompletableFuture<?>[0])).thenApply(done -> {
+            for (int i = 0; i < products.size(); i++) {
+                if (candidates.get(i).join().isEmpty()) {
+                    return products.get(i).getProductId();
+                }
+            }
+            return null;
+        });
+    }
+
+    // One line per product, with the quantities of lines repeating it summed
+    private static List<OrderItem> productTotals(List<OrderItem> orderItems) {
+        Map<UUID, Integer> quantities = new LinkedHashMap<>();
+        for (OrderItem orderItem: orderItems) {
+            quantities.merge(orderItem.getProductId(), orderItem.getQuantity(), Integer::sum);
+        }
+        List<OrderItem> products = new ArrayList<>(quantities.size());
+        for (Map.Entry<UUID, Integer> entry: quantities.entrySet()) {
+            products.add(new OrderItem(entry.getKey(), entry.getValue()));
+        }
+        return products;
+    }
+
+    private static <T> List<T> joinAll(List<CompletableFuture<T>> futures) {
+        List<T> values = new ArrayList<>(futures.size());
+        for (CompletableFuture<T> future: futures) {
+            values.add(future.join());
         }
+        return values;
     }
 
     public void shipOrder(UUID orderId) {
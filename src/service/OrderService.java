@@ -3,28 +3,38 @@ package service;
 import domain.model.Order;
 import domain.model.OrderItem;
 import domain.model.OrderStatus;
+import exceptions.InvalidOrderStateException;
 import exceptions.OrderNotFoundException;
 import repository.InMemoryRepository;
+import repository.StatusIndex;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.UUID;
 
 public class OrderService {
 
     private final InMemoryRepository<Order> storage;
+    private final StatusIndex<OrderStatus> statusIndex;
 
     public OrderService(InMemoryRepository<Order> storage) {
         this.storage = storage;
+        this.statusIndex = new StatusIndex<>(OrderStatus.class);
+        for (Order order: storage.findAll()) {
+            statusIndex.add(order.getId(), order.getStatus(), order.getCreatedAt(), order.getVersion());
+        }
     }
 
     public Order createOrder(UUID customerId, List<OrderItem> orderItems, boolean isTransactional) {
         Objects.requireNonNull(customerId, "customerId cannot be null");
         Objects.requireNonNull(orderItems, "orderItems cannot be null");
         if (orderItems.isEmpty()) { throw new IllegalArgumentException("orderItems cannot be empty"); }
-        Order order = new Order(customerId, List.copyOf(orderItems), isTransactional);
+        Order order = new Order(customerId, orderItems, isTransactional);
 
         storage.save(order.getId(), order);
+        statusIndex.add(order.getId(), order.getStatus(), order.getCreatedAt(), order.getVersion());
         return order;
     }
 
@@ -33,20 +43,93 @@ public class OrderService {
             .orElseThrow(() -> new OrderNotFoundException("Order: " + id + " not found"));
     }
 
+    public Optional<Order> findOrderById(UUID id) {
+        return storage.findById(id);
+    }
+
     public List<Order> getOrdersByCustomer(UUID customerId) {
         return storage.findAll().stream()
                 .filter(od -> od.getCustomerId().equals(customerId))
                 .toList();
     }
 
+    /**
+     * Orders currently in the given status, oldest first. Costs O(result).
+     */
+    public List<Order> getOrdersByStatus(OrderStatus status) {
+        return resolve(statusIndex.findByStatus(status));
+    }
+
+    /**
+     * Orders in the given status created before the cutoff, oldest first.
+     * Intended for timeout sweepers, e.g. ALLOCATED orders older than 10 minutes.
+     */
+    public List<Order> getOrdersByStatusCreatedBefore(OrderStatus status, LocalDateTime cutoff) {
+        return resolve(statusIndex.findByStatusCreatedBefore(status, cutoff));
+    }
+
+    public long countOrdersByStatus(OrderStatus status) {
+        return statusIndex.count(status);
+    }
+
+    /**
+     * Moves the order to a new status without locking: the current version is read,
+     * the transition validated, and a new version compare-and-saved, retrying if another
+     * writer got there first. Setting the status the order already has is a no-op.
+     *
+     * @throws InvalidOrderStateException if the lifecycle does not allow the transition
+     */
     public void updateStatus(UUID orderId, OrderStatus status) {
-        Order order = getOrderById(orderId);
-        order.setStatus(status);
-        storage.save(orderId, order);
+        Objects.requireNonNull(status, "status cannot be null");
+
+        while (true) {
+            Order current = getOrderById(orderId);
+            if (current.getStatus() == status) {
+                return;
+            }
+            if (!current.getStatus().canTransitionTo(status)) {
+                throw new InvalidOrderStateException(orderId, current.getStatus(), status);
+            }
+
+            Order updated = current.withStatus(status);
+            if (storage.compareAndSave(orderId, current.getVersion(), updated)) {
+                statusIndex.update(orderId, status, updated.getVersion());
+                return;
+            }
+        }
+    }
+
+    /**
+     * Moves the order to a new status only if it is still the given version, so exactly
+     * one of several callers acting on the same read of an order wins.
+     *
+     * @return false if the order changed or was removed since expected was read
+     * @throws InvalidOrderStateException if the lifecycle does not allow the transition
+     */
+    public boolean compareAndUpdateStatus(Order expected, OrderStatus status) {
+        Objects.requireNonNull(expected, "expected cannot be null");
+        Objects.requireNonNull(status, "status cannot be null");
+        if (!expected.getStatus().canTransitionTo(status)) {
+            throw new InvalidOrderStateException(expected.getId(), expected.getStatus(), status);
+        }
+
+        Order updated = expected.withStatus(status);
+        if (!storage.compareAndSave(expected.getId(), expected.getVersion(), updated)) {
+            return false;
+        }
+        statusIndex.update(expected.getId(), status, updated.getVersion());
+        return true;
     }
 
     public void cancelOrder(UUID orderId) {
         updateStatus(orderId, OrderStatus.CANCELLED);
     }
+
+    private List<Order> resolve(List<UUID> orderIds) {
+        return orderIds.stream()
+                .map(storage::findById)
+                .flatMap(Optional::stream)
+                .toList();
+    }
     
 }
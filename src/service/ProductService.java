@@ -4,16 +4,31 @@ import domain.model.Product;
 import domain.model.ProductType;
 import exceptions.ProductNotFoundException;
 import repository.InMemoryRepository;
+import search.TextIndex;
 
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.UUID;
 
 public class ProductService {
     private InMemoryRepository<Product> storage;
+    private final TextIndex searchIndex = new TextIndex();
 
+    /**
+     * Products already in storage are indexed for search; later changes are indexed when
+     * they go through this service.
+     */
     public ProductService (InMemoryRepository<Product> storage) {
         this.storage = storage;
+        storage.findAll().forEach(this::index);
+    }
+
+    /**
+     * Indexes a product that was saved straight into storage, as {@link bulk.BulkLoader} does.
+     */
+    public void onLoaded(Product product) {
+        index(product);
     }
 
     public Product createNewProduct(String name, ProductType type, String description) {
@@ -22,6 +37,7 @@ public class ProductService {
 
         Product product = new Product(name, type, description);
         storage.save(product.getId(), product);
+        index(product);
         return product;
     }
 
@@ -49,10 +65,12 @@ public class ProductService {
         product.setType(type);
         product.setDescription(description);
         storage.save(id, product);
+        index(product);
     }
 
     public void deleteProduct(UUID id) {
         storage.deleteById(id);
+        searchIndex.remove(id);
     }
 
     public List<Product> getAllProducts() {
@@ -62,6 +80,33 @@ public class ProductService {
     public void deleteAllProductsByType(ProductType type) {
         storage.findAll().stream()
                 .filter(pr -> pr.getType() == type)
-                .forEach(pr -> storage.deleteById(pr.getId()));
+                .forEach(pr -> deleteProduct(pr.getId()));
+    }
+
+    /**
+     * Type-ahead search: products whose name or description has, for every word of the
+     * query, a word starting with it.
+     */
+    public List<Product> searchProducts(String query, int limit) {
+        return resolve(searchIndex.searchPrefix(query, limit));
+    }
+
+    /**
+     * Typo-tolerant search: products whose name or description has, for every word of the
+     * query, a word within one or two edits of it.
+     */
+    public List<Product> searchProductsFuzzy(String query, int limit) {
+        return resolve(searchIndex.searchFuzzy(query, limit));
+    }
+
+    private void index(Product product) {
+        searchIndex.put(product.getId(), product.getName(), product.getDescription());
+    }
+
+    private List<Product> resolve(List<UUID> productIds) {
+        return productIds.stream()
+                .map(storage::findById)
+                .flatMap(Optional::stream)
+                .toList();
     }
 }
@@ -1,24 +1,79 @@
 package service;
 
 import domain.model.Location;
+import domain.model.LocationTable;
 import domain.model.OrderItem;
 import domain.model.Shipment;
 import domain.model.ShipmentStatus;
+import exceptions.InvalidShipmentStateException;
 import exceptions.ShipmentNotFoundException;
+import metrics.LatencyHistogram;
+import metrics.RollingLatencyHistogram;
 import repository.InMemoryRepository;
+import repository.StatusIndex;
+import repository.TimeBucketIndex;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 public class ShipmentService {
+    // Create-to-ship latency is kept per warehouse over the last few hours, in hourly slices
+    private static final Duration SHIP_LATENCY_SLICE = Duration.ofHours(1);
+    private static final int SHIP_LATENCY_SLICES = 4;
+
     private InMemoryRepository<Shipment> storage;
     private final InventoryService inventoryService;
+    private final StatusIndex<ShipmentStatus> statusIndex;
+    private final WarehouseStations stations;
+    private final LocationTable locations;
+    private final Map<UUID, ConcurrentLinkedQueue<UUID>> shipmentsByOrder = new ConcurrentHashMap<>();
+    private final TimeBucketIndex createdIndex = new TimeBucketIndex();
+    private final TimeBucketIndex shippedIndex = new TimeBucketIndex();
+    private final Map<UUID, RollingLatencyHistogram> shipLatency = new ConcurrentHashMap<>();
 
     public ShipmentService(InMemoryRepository<Shipment> storage,
                            InventoryService inventoryService) {
+        this(storage, inventoryService, new WarehouseStations());
+    }
+
+    public ShipmentService(InMemoryRepository<Shipment> storage,
+                           InventoryService inventoryService,
+                           WarehouseStations stations) {
+        this(storage, inventoryService, stations, new LocationTable());
+    }
+
+    /**
+     * Shipments already in storage are indexed like ones created through this service.
+     *
+     * @param stations queues that every new shipment joins at its warehouse and leaves once it is no longer CREATED
+     * @param locations table that shipments created through this service intern their destination into
+     */
+    public ShipmentService(InMemoryRepository<Shipment> storage,
+                           InventoryService inventoryService,
+                           WarehouseStations stations,
+                           LocationTable locations) {
         this.storage = storage;
         this.inventoryService = inventoryService;
+        this.statusIndex = new StatusIndex<>(ShipmentStatus.class);
+        for (Shipment shipment: storage.findAll()) {
+            statusIndex.add(shipment.getId(), shipment.getStatus(), shipment.getCreatedAt(), shipment.getVersion());
+            shipmentsByOrder.computeIfAbsent(shipment.getOrderId(), k -> new ConcurrentLinkedQueue<>()).add(shipment.getId());
+            createdIndex.add(shipment.getId(), shipment.getWarehouseId(), shipment.getCreatedAt());
+            if (shipment.getStatus() == ShipmentStatus.SHIPPED && shipment.getShippedAt() != null) {
+                recordShipped(shipment);
+            }
+        }
+        this.stations = Objects.requireNonNull(stations, "stations cannot be null");
+        this.locations = Objects.requireNonNull(locations, "locations cannot be null");
     }
 
     public Shipment createShipment(UUID orderId,
@@ -33,10 +88,15 @@ public class ShipmentService {
                         warehouseId,
                         customerId,
                         destination,
-                        shipmentItems
+                        shipmentItems,
+                        locations
                 );
 
         storage.save(shipment.getId(), shipment);
+        statusIndex.add(shipment.getId(), shipment.getStatus(), shipment.getCreatedAt(), shipment.getVersion());
+        shipmentsByOrder.computeIfAbsent(orderId, k -> new ConcurrentLinkedQueue<>()).add(shipment.getId());
+        createdIndex.add(shipment.getId(), warehouseId, shipment.getCreatedAt());
+        stations.enqueue(warehouseId);
         return shipment;
     }
 
@@ -45,30 +105,116 @@ public class ShipmentService {
                 .orElseThrow(() -> new ShipmentNotFoundException("Shipment: " + id.toString() + " not found"));
     }
 
+    /**
+     * Shipments created for the order, whether through this service or before it was built.
+     * Costs O(result).
+     */
     public List<Shipment> getShipmentsByOrder(UUID orderId) {
-        return storage.findAll().stream()
-                .filter(sh -> sh.getOrderId().equals(orderId))
-                .toList();
+        ConcurrentLinkedQueue<UUID> shipmentIds = shipmentsByOrder.get(orderId);
+        return shipmentIds == null ? List.of() : resolve(List.copyOf(shipmentIds));
     }
 
-    public void updateShipmentStatus(UUID shipmentId, ShipmentStatus status) {
-        Optional<Shipment> shipmentOpt = storage.findById(shipmentId);
+    /**
+     * Shipments currently in the given status, oldest first. Costs O(result).
+     */
+    public List<Shipment> getShipmentsByStatus(ShipmentStatus status) {
+        return resolve(statusIndex.findByStatus(status));
+    }
 
-        if (shipmentOpt.isEmpty()) {
-            throw new ShipmentNotFoundException("Shipment: " + shipmentId.toString() + " not found");
-        }
+    public List<Shipment> getShipmentsByStatusCreatedBefore(ShipmentStatus status, LocalDateTime cutoff) {
+        return resolve(statusIndex.findByStatusCreatedBefore(status, cutoff));
+    }
+
+    public long countShipmentsByStatus(ShipmentStatus status) {
+        return statusIndex.count(status);
+    }
 
-        Shipment shipment = shipmentOpt.get();
-        shipment.setStatus(status);
+    /**
+     * Shipments created in [from, to), oldest first. Only the hourly buckets overlapping the
+     * window are read, so the cost follows the window rather than the shipment history.
+     */
+    public List<Shipment> getShipmentsCreatedBetween(LocalDateTime from, LocalDateTime to) {
+        return resolve(createdIndex.find(from, to));
+    }
 
-        storage.deleteById(shipmentId);
-        storage.save(shipment.getId(), shipment);
+    public List<Shipment> getShipmentsCreatedBetween(UUID warehouseId, LocalDateTime from, LocalDateTime to) {
+        return resolve(createdIndex.find(warehouseId, from, to));
+    }
+
+    /**
+     * Shipments shipped in [from, to), in shipping order. Costs O(hours in window + result).
+     */
+    public List<Shipment> getShipmentsShippedBetween(LocalDateTime from, LocalDateTime to) {
+        return resolve(shippedIndex.find(from, to));
+    }
+
+    public List<Shipment> getShipmentsShippedBetween(UUID warehouseId, LocalDateTime from, LocalDateTime to) {
+        return resolve(shippedIndex.find(warehouseId, from, to));
+    }
 
+    public long countShipmentsShippedBetween(UUID warehouseId, LocalDateTime from, LocalDateTime to) {
+        return shippedIndex.count(warehouseId, from, to);
+    }
+
+    /**
+     * Create-to-ship latency in nanoseconds of the warehouse's shipments shipped in the
+     * last few hours, as a copy to read percentiles from.
+     */
+    public LatencyHistogram getShipLatency(UUID warehouseId) {
+        RollingLatencyHistogram latency = shipLatency.get(warehouseId);
+        return latency == null ? new LatencyHistogram() : latency.snapshot(toNanos(LocalDateTime.now()));
+    }
+
+    /**
+     * Moves the shipment to a new status with a validated, lock-free compare-and-save,
+     * retrying on concurrent updates. Shipping stamps shippedAt.
+     *
+     * @throws InvalidShipmentStateException if the lifecycle does not allow the transition
+     */
+    public void updateShipmentStatus(UUID shipmentId, ShipmentStatus status) {
+        transition(shipmentId, status);
+    }
+
+    /**
+     * @return true if this call moved the shipment, false if it already had the status
+     */
+    private boolean transition(UUID shipmentId, ShipmentStatus status) {
+        Objects.requireNonNull(status, "status cannot be null");
+
+        while (true) {
+            Shipment current = getShipmentById(shipmentId);
+            if (current.getStatus() == status) {
+                return false;
+            }
+            if (!current.getStatus().canTransitionTo(status)) {
+                throw new InvalidShipmentStateException(shipmentId, current.getStatus(), status);
+            }
+
+            LocalDateTime shippedAt = status == ShipmentStatus.SHIPPED ? LocalDateTime.now() : current.getShippedAt();
+            Shipment updated = current.withStatus(status, shippedAt);
+            if (storage.compareAndSave(shipmentId, current.getVersion(), updated)) {
+                statusIndex.update(shipmentId, status, updated.getVersion());
+                if (current.getStatus() == ShipmentStatus.CREATED) {
+                    stations.complete(current.getWarehouseId());
+                }
+                if (status == ShipmentStatus.SHIPPED) {
+                    recordShipped(updated);
+                }
+                return true;
+            }
+        }
     }
 
     public void cancelShipment(UUID shipmentId) { updateShipmentStatus(shipmentId, ShipmentStatus.CANCELLED); }
 
-    public void shipOrderItems(UUID shipmentId) {
+    /**
+     * @return true if this call shipped the items, false if the shipment was already shipped
+     */
+    public boolean shipOrderItems(UUID shipmentId) {
+        // Claim the transition first so concurrent callers cannot deduct the same stock twice
+        if (!transition(shipmentId, ShipmentStatus.SHIPPED)) {
+            return false;
+        }
         Shipment shipment = getShipmentById(shipmentId);
         List<OrderItem> orderItems = shipment.getShipmentItems();
 
@@ -77,8 +223,39 @@ public class ShipmentService {
                 orderItem.getProductId(),
                 orderItem.getQuantity())
         );
+        return true;
+    }
+
+    /**
+     * Like {@link #shipOrderItems}, handing the stock deduction to the warehouse's owner
+     * instead of waiting for it.
+     */
+    public CompletableFuture<Boolean> shipOrderItemsAsync(UUID shipmentId) {
+        if (!transition(shipmentId, ShipmentStatus.SHIPPED)) {
+            return CompletableFuture.completedFuture(false);
+        }
+        Shipment shipment = getShipmentById(shipmentId);
+        return inventoryService.deductStockAsync(shipment.getWarehouseId(), shipment.getShipmentItems())
+                .thenApply(done -> true);
+    }
 
-        updateShipmentStatus(shipmentId, ShipmentStatus.SHIPPED);
+    private void recordShipped(Shipment shipment) {
+        shippedIndex.add(shipment.getId(), shipment.getWarehouseId(), shipment.getShippedAt());
+        long shippedAt = toNanos(shipment.getShippedAt());
+        long latency = Math.max(0, shippedAt - toNanos(shipment.getCreatedAt()));
+        shipLatency.computeIfAbsent(shipment.getWarehouseId(),
+                k -> new RollingLatencyHistogram(SHIP_LATENCY_SLICE, SHIP_LATENCY_SLICES)).recordValue(shippedAt, latency);
+    }
+
+    private static long toNanos(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000_000L + time.getNano();
+    }
+
+    private List<Shipment> resolve(List<UUID> shipmentIds) {
+        return shipmentIds.stream()
+                .map(storage::findById)
+                .flatMap(Optional::stream)
+                .toList();
     }
 
 
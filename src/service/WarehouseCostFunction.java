@@ -0,0 +1,44 @@
+package service;
+
+import domain.model.Location;
+import domain.model.Warehouse;
+
+import java.time.Duration;
+
+/**
+ * Ranks candidate warehouses for a delivery; lower is better.
+ */
+public interface WarehouseCostFunction {
+    double cost(Warehouse warehouse, Location destination);
+
+    /**
+     * Adds the expected pick/pack wait at the warehouse, converted to distance units, so a
+     * busy hub loses to a slightly further idle one.
+     */
+    default WarehouseCostFunction plusExpectedWait(WarehouseStations stations, double distancePerSecondOfWait) {
+        if (distancePerSecondOfWait < 0) {
+            throw new IllegalArgumentException("distancePerSecondOfWait cannot be negative: " + distancePerSecondOfWait);
+        }
+        return (warehouse, destination) -> {
+            Duration wait = stations.getExpectedWait(warehouse.getId());
+            return cost(warehouse, destination) + distancePerSecondOfWait * (wait.toNanos() / 1e9);
+        };
+    }
+
+    static WarehouseCostFunction distance() {
+        return Warehouse::distanceTo;
+    }
+
+    /**
+     * Distance plus a penalty that grows linearly with utilization. The penalty is in
+     * distance units: a completely full warehouse counts as {@code fullWarehousePenalty}
+     * further away than an empty one at the same distance.
+     */
+    static WarehouseCostFunction distanceAndUtilization(WarehouseUtilizationTracker tracker, double fullWarehousePenalty) {
+        if (fullWarehousePenalty < 0) {
+            throw new IllegalArgumentException("fullWarehousePenalty cannot be negative: " + fullWarehousePenalty);
+        }
+        return (warehouse, destination) ->
+                warehouse.distanceTo(destination) + fullWarehousePenalty * tracker.getUtilization(warehouse);
+    }
+}
@@ -2,27 +2,66 @@ package service;
 
 import domain.model.InventoryItem;
 import domain.model.Location;
+import domain.model.LocationTable;
 import domain.model.OrderItem;
 import domain.model.Warehouse;
 import exceptions.NoAvailableWarehouseException;
+import exceptions.WarehouseSaturatedException;
 import exceptions.WarehouseNotFoundException;
 import repository.InMemoryRepository;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 
 public class WarehouseService {
     private final InMemoryRepository<Warehouse> storage;
     private final InventoryService inventoryService;
+    private final WarehouseCostFunction costFunction;
+    private final WarehouseStations stations;
+    private final LocationTable locations;
 
     public WarehouseService(InMemoryRepository<Warehouse> inMemoryRepository, 
     InventoryService inventoryService) {
+        this(inMemoryRepository, inventoryService, WarehouseCostFunction.distance());
+    }
+
+    public WarehouseService(InMemoryRepository<Warehouse> inMemoryRepository,
+                            InventoryService inventoryService,
+                            WarehouseCostFunction costFunction) {
+        this(inMemoryRepository, inventoryService, costFunction, new WarehouseStations());
+    }
+
+    public WarehouseService(InMemoryRepository<Warehouse> inMemoryRepository,
+                            InventoryService inventoryService,
+                            WarehouseCostFunction costFunction,
+                            WarehouseStations stations) {
+        this(inMemoryRepository, inventoryService, costFunction, stations, new LocationTable());
+    }
+
+    /**
+     * @param stations pick/pack queues; warehouses whose queue is full are skipped by routing
+     * @param locations table that warehouses created through this service intern their location into
+     */
+    public WarehouseService(InMemoryRepository<Warehouse> inMemoryRepository,
+                            InventoryService inventoryService,
+                            WarehouseCostFunction costFunction,
+                            WarehouseStations stations,
+                            LocationTable locations) {
         this.storage = inMemoryRepository;
         this.inventoryService = inventoryService;
+        this.costFunction = Objects.requireNonNull(costFunction, "costFunction cannot be null");
+        this.stations = Objects.requireNonNull(stations, "stations cannot be null");
+        this.locations = Objects.requireNonNull(locations, "locations cannot be null");
     }
 
-    public void createWarehouse(String name, Location location, int maxCapacity) {
-        Warehouse warehouse = new Warehouse(name, location, maxCapacity);
+    public Warehouse createWarehouse(String name, Location location, int maxCapacity) {
+        Warehouse warehouse = new Warehouse(name, location, maxCapacity, locations);
         storage.save(warehouse.getId(), warehouse);
+        return warehouse;
+    }
+
+    public WarehouseStations getStations() {
+        return stations;
     }
 
     public Optional<Warehouse> getWarehouseById(UUID id) {
@@ -45,21 +84,80 @@ public class WarehouseService {
         storage.deleteById(id);
     }
 
-    private List<Warehouse> findAvailableWarehousesForOrderItems(List<OrderItem> orderItems, Location location) {
-        return getAllWarehouses().stream()
-                .filter(wh -> inventoryService.canFulfillItems(wh.getId(), orderItems))
-                .sorted(Comparator.comparingDouble(wh -> wh.distanceTo(location)))
-                .toList();
+    /**
+     * Warehouses that have stock for every item, cheapest first by the cost function.
+     * Saturation is not considered.
+     */
+    public List<Warehouse> findWarehousesWithStock(List<OrderItem> orderItems, Location location) {
+        List<Warehouse> warehouses = new ArrayList<>();
+        for (Warehouse warehouse: getAllWarehouses()) {
+            if (inventoryService.canFulfillItems(warehouse.getId(), orderItems)) {
+                warehouses.add(warehouse);
+            }
+        }
+        return byCost(warehouses, location);
+    }
+
+    /**
+     * Like {@link #findWarehousesWithStock}, asking every warehouse at once without waiting
+     * for any owner. The future completes on whichever thread answers last.
+     */
+    public CompletableFuture<List<Warehouse>> findWarehousesWithStockAsync(List<OrderItem> orderItems, Location location) {
+        List<Warehouse> candidates = getAllWarehouses();
+        List<CompletableFuture<Boolean>> answers = new ArrayList<>(candidates.size());
+        for (Warehouse warehouse: candidates) {
+            answers.add(inventoryService.canFulfillItemsAsync(warehouse.getId(), orderItems));
+        }
+        return CompletableFuture.allOf(answers.toArray(new CompletableFuture<?>[0])).thenApply(done -> {
+            List<Warehouse> warehouses = new ArrayList<>();
+            for (int i = 0; i < candidates.size(); i++) {
+                if (answers.get(i).join()) {
+                    warehouses.add(candidates.get(i));
+                }
+            }
+            return byCost(warehouses, location);
+        });
+    }
+
+    private List<Warehouse> byCost(List<Warehouse> warehouses, Location location) {
+        if (warehouses.size() > 1) {
+            warehouses.sort(Comparator.comparingDouble(wh -> costFunction.cost(wh, location)));
+        }
+        return warehouses;
     }
 
+    /**
+     * @throws NoAvailableWarehouseException if no warehouse has stock for every item
+     * @throws WarehouseSaturatedException if the warehouses that have stock all have full queues
+     */
     public Warehouse findSingleOptimalWarehouseForOrderItems(List<OrderItem> orderItems, Location location) {
-        List<Warehouse> warehouses = findAvailableWarehousesForOrderItems(orderItems, location);
+        List<Warehouse> warehouses = findWarehousesWithStock(orderItems, location);
 
         if (warehouses.isEmpty()) {
             throw new NoAvailableWarehouseException("No single available warehouse found for orderItems (Transactional)");
         }
 
-        return warehouses.get(0);
+        return firstUnsaturated(warehouses);
+    }
+
+    private Warehouse firstUnsaturated(List<Warehouse> warehouses) {
+        Warehouse warehouse = firstUnsaturatedOrNull(warehouses);
+        if (warehouse == null) {
+            throw new WarehouseSaturatedException(warehouses.size());
+        }
+        return warehouse;
+    }
+
+    /**
+     * Returns the first warehouse whose pick/pack queue has room, or null if all are full.
+     */
+    Warehouse firstUnsaturatedOrNull(List<Warehouse> warehouses) {
+        for (Warehouse warehouse: warehouses) {
+            if (!stations.isSaturated(warehouse.getId())) {
+                return warehouse;
+            }
+        }
+        return null;
     }
 
     public Map<Warehouse, List<OrderItem>> findWarehousesForOrderItems(List<OrderItem> orderItems, Location location) {
@@ -72,10 +170,10 @@ public class WarehouseService {
 
         Map<Warehouse, List<OrderItem>> warehouseToOrderItems = new HashMap<>();
         for (OrderItem orderItem: orderItems) {
-            List<Warehouse> warehouses = findAvailableWarehousesForOrderItems(Collections.singletonList(orderItem), location);
+            List<Warehouse> warehouses = findWarehousesWithStock(Collections.singletonList(orderItem), location);
 
             if (!warehouses.isEmpty()) {
-                warehouseToOrderItems.computeIfAbsent(warehouses.get(0), k -> new ArrayList<>()).add(orderItem);
+                warehouseToOrderItems.computeIfAbsent(firstUnsaturated(warehouses), k -> new ArrayList<>()).add(orderItem);
             }
         }
 
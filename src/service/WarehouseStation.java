@@ -0,0 +1,94 @@
+package service;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pick/pack model of one warehouse: a multi-server queue with a fixed number of parallel
+ * lanes, each taking the same processing time per shipment.
+ *
+ * The queue depth counts shipments that were routed to the warehouse and have not left
+ * the CREATED status yet, whether they are being worked on or still waiting for a lane.
+ */
+public class WarehouseStation {
+    private final int lanes;
+    private final Duration processingTime;
+    private final int maxQueueDepth;
+    private final AtomicInteger queueDepth = new AtomicInteger();
+    private final AtomicInteger peakQueueDepth = new AtomicInteger();
+    private final LongAdder completed = new LongAdder();
+
+    public WarehouseStation(int lanes, Duration processingTime, int maxQueueDepth) {
+        if (lanes <= 0) {
+            throw new IllegalArgumentException("lanes must be positive: " + lanes);
+        }
+        if (processingTime == null || processingTime.isNegative()) {
+            throw new IllegalArgumentException("processingTime cannot be null or negative: " + processingTime);
+        }
+        if (maxQueueDepth < lanes) {
+            throw new IllegalArgumentException("maxQueueDepth must be at least the number of lanes: " + maxQueueDepth);
+        }
+
+        this.lanes = lanes;
+        this.processingTime = processingTime;
+        this.maxQueueDepth = maxQueueDepth;
+    }
+
+    public int getLanes() {
+        return lanes;
+    }
+
+    public Duration getProcessingTime() {
+        return processingTime;
+    }
+
+    public int getMaxQueueDepth() {
+        return maxQueueDepth;
+    }
+
+    public int getQueueDepth() {
+        return queueDepth.get();
+    }
+
+    public int getPeakQueueDepth() {
+        return peakQueueDepth.get();
+    }
+
+    public long getCompleted() {
+        return completed.sum();
+    }
+
+    /**
+     * Shipments per second this station can process when every lane is busy.
+     */
+    public double getMaxThroughput() {
+        return processingTime.isZero() ? Double.POSITIVE_INFINITY : lanes / (processingTime.toNanos() / 1e9);
+    }
+
+    /**
+     * Time a newly routed shipment waits for a free lane, given the current queue: zero
+     * while a lane is idle, then one processing time per full round of lanes ahead of it.
+     */
+    public Duration getExpectedWait() {
+        int waiting = queueDepth.get() - lanes + 1;
+        if (waiting <= 0) {
+            return Duration.ZERO;
+        }
+        return processingTime.multipliedBy(waiting).dividedBy(lanes);
+    }
+
+    public boolean isSaturated() {
+        return queueDepth.get() >= maxQueueDepth;
+    }
+
+    void enqueue() {
+        int depth = queueDepth.incrementAndGet();
+        peakQueueDepth.accumulateAndGet(depth, Math::max);
+    }
+
+    void complete() {
+        queueDepth.decrementAndGet();
+        completed.increment();
+    }
+}
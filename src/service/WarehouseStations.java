@@ -0,0 +1,53 @@
+package service;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of {@link WarehouseStation}s, shared by the services that route shipments to
+ * warehouses and move them through their lifecycle.
+ *
+ * Warehouses without a configured station have unlimited throughput: they never wait and
+ * are never saturated. Saturation is checked when routing, so concurrent routers can push a
+ * queue a few shipments past its maximum depth.
+ */
+public class WarehouseStations {
+    private final Map<UUID, WarehouseStation> stations = new ConcurrentHashMap<>();
+
+    public WarehouseStation configure(UUID warehouseId, int lanes, Duration processingTime, int maxQueueDepth) {
+        WarehouseStation station = new WarehouseStation(lanes, processingTime, maxQueueDepth);
+        stations.put(warehouseId, station);
+        return station;
+    }
+
+    public Optional<WarehouseStation> find(UUID warehouseId) {
+        return Optional.ofNullable(stations.get(warehouseId));
+    }
+
+    public Duration getExpectedWait(UUID warehouseId) {
+        WarehouseStation station = stations.get(warehouseId);
+        return station == null ? Duration.ZERO : station.getExpectedWait();
+    }
+
+    public boolean isSaturated(UUID warehouseId) {
+        WarehouseStation station = stations.get(warehouseId);
+        return station != null && station.isSaturated();
+    }
+
+    void enqueue(UUID warehouseId) {
+        WarehouseStation station = stations.get(warehouseId);
+        if (station != null) {
+            station.enqueue();
+        }
+    }
+
+    void complete(UUID warehouseId) {
+        WarehouseStation station = stations.get(warehouseId);
+        if (station != null) {
+            station.complete();
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package service;
+
+import domain.model.InventoryItem;
+import domain.model.Warehouse;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps the number of units stored per warehouse (available plus reserved) up to date
+ * from inventory change events, so reading it is a single counter sum instead of a scan
+ * over the warehouse's items.
+ *
+ * Counters are striped {@link LongAdder}s: shard writers and callers updating different
+ * items of the same warehouse do not contend on one cache line. {@link InventoryService}
+ * counts the items already stored when it is created; items saved straight into the
+ * repository afterwards, bypassing the service, are not counted.
+ */
+public class WarehouseUtilizationTracker implements InventoryChangeListener {
+    private final Map<UUID, LongAdder> usedUnits = new ConcurrentHashMap<>();
+
+    @Override
+    public void onInventoryChanged(InventoryItem item, int availableDelta, int reservedDelta) {
+        int delta = availableDelta + reservedDelta;
+        if (delta != 0) {
+            usedUnits.computeIfAbsent(item.getWarehouseId(), k -> new LongAdder()).add(delta);
+        }
+    }
+
+    public long getUsedUnits(UUID warehouseId) {
+        LongAdder units = usedUnits.get(warehouseId);
+        return units == null ? 0 : units.sum();
+    }
+
+    /**
+     * Returns the fraction of the warehouse's capacity in use, 1.0 or more when full.
+     */
+    public double getUtilization(Warehouse warehouse) {
+        if (warehouse.getMaxCapacity() <= 0) {
+            return 1.0;
+        }
+        return getUsedUnits(warehouse.getId()) / (double) warehouse.getMaxCapacity();
+    }
+}
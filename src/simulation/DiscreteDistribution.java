@@ -0,0 +1,61 @@
+package simulation;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Samples indexes 0..n-1 with fixed relative weights, by binary search over the
+ * cumulative distribution. Sampling allocates nothing and costs O(log n).
+ */
+public final class DiscreteDistribution {
+    private final double[] cumulative;
+
+    public DiscreteDistribution(double... weights) {
+        if (weights.length == 0) {
+            throw new IllegalArgumentException("weights cannot be empty");
+        }
+        this.cumulative = new double[weights.length];
+        double total = 0;
+        for (int i = 0; i < weights.length; i++) {
+            if (weights[i] < 0 || Double.isNaN(weights[i])) {
+                throw new IllegalArgumentException("weights cannot be negative: " + weights[i]);
+            }
+            total += weights[i];
+            cumulative[i] = total;
+        }
+        if (total <= 0) {
+            throw new IllegalArgumentException("weights must not all be zero");
+        }
+        for (int i = 0; i < cumulative.length; i++) {
+            cumulative[i] /= total;
+        }
+    }
+
+    /**
+     * Zipf distribution over ranks 0..n-1: rank r has weight 1 / (r + 1)^exponent.
+     */
+    public static DiscreteDistribution zipf(int n, double exponent) {
+        if (n <= 0) {
+            throw new IllegalArgumentException("n must be positive: " + n);
+        }
+        double[] weights = new double[n];
+        for (int rank = 0; rank < n; rank++) {
+            weights[rank] = 1.0 / Math.pow(rank + 1, exponent);
+        }
+        return new DiscreteDistribution(weights);
+    }
+
+    public int size() {
+        return cumulative.length;
+    }
+
+    public double probability(int index) {
+        return index == 0 ? cumulative[0] : cumulative[index] - cumulative[index - 1];
+    }
+
+    public int sample(SplittableRandom random) {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        // A miss returns -(insertion point) - 1; the insertion point is the sampled index
+        return Math.min(index >= 0 ? index + 1 : -index - 1, cumulative.length - 1);
+    }
+}
@@ -0,0 +1,166 @@
+package simulation;
+
+import domain.model.Order;
+import metrics.LatencyHistogram;
+import service.OrderFulfillmentService;
+import service.OrderService;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-loop, in-process load generator for the order flow
+ * createOrder -> fulfillOrder -> shipOrder (ship only when fulfillment succeeded).
+ *
+ * Flows are scheduled at a fixed arrival rate independent of how fast the services
+ * respond: flow i is due at start + i / rate and is handed to worker i mod workers. A worker
+ * that falls behind starts its next flows late, but their latency is still measured from
+ * the time they were due. That keeps queueing delay in the numbers instead of silently
+ * lowering the offered load (coordinated omission).
+ *
+ * Each worker draws orders from its own seeded {@link OrderStream}, with fresh seeds for
+ * every run, so a sequence of runs offers the same orders each time it is repeated.
+ * A driver runs one load step at a time.
+ */
+public class LoadDriver {
+    private final OrderService orderService;
+    private final OrderFulfillmentService fulfillmentService;
+    private final Workload workload;
+    private final int workers;
+    private long runs;
+
+    public LoadDriver(OrderService orderService,
+                      OrderFulfillmentService fulfillmentService,
+                      Workload workload,
+                      int workers) {
+        this.orderService = Objects.requireNonNull(orderService, "orderService cannot be null");
+        this.fulfillmentService = Objects.requireNonNull(fulfillmentService, "fulfillmentService cannot be null");
+        this.workload = Objects.requireNonNull(workload, "workload cannot be null");
+        if (workers <= 0) {
+            throw new IllegalArgumentException("workers must be positive: " + workers);
+        }
+        this.workers = workers;
+    }
+
+    /**
+     * Offers flows at a fixed rate for the given duration and waits for all of them to finish.
+     */
+    public LoadResult run(double ratePerSecond, Duration duration) {
+        if (!(ratePerSecond > 0)) {
+            throw new IllegalArgumentException("ratePerSecond must be positive: " + ratePerSecond);
+        }
+        long flows = Math.max(1, (long) (ratePerSecond * duration.toNanos() / 1e9));
+        double intervalNanos = 1e9 / ratePerSecond;
+
+        LatencyHistogram responseTime = new LatencyHistogram();
+        LatencyHistogram serviceTime = new LatencyHistogram();
+        LongAdder fulfilled = new LongAdder();
+        LongAdder failed = new LongAdder();
+
+        long seed = runs++ * workers;
+        List<Thread> threads = new ArrayList<>(workers);
+        long start = System.nanoTime() + 10_000_000;
+        for (int w = 0; w < workers; w++) {
+            int worker = w;
+            OrderStream orders = workload.orders(seed + worker);
+            Thread thread = new Thread(() -> {
+                for (long i = worker; i < flows; i += workers) {
+                    long intended = start + (long) (i * intervalNanos);
+                    waitUntil(intended);
+
+                    long started = System.nanoTime();
+                    try {
+                        if (runFlow(orders.next())) {
+                            fulfilled.increment();
+                        }
+                    } catch (RuntimeException e) {
+                        failed.increment();
+                    }
+                    long finished = System.nanoTime();
+                    responseTime.recordValue(finished - intended);
+                    serviceTime.recordValue(finished - started);
+                }
+            }, "load-driver-" + w);
+            thread.setDaemon(true);
+            threads.add(thread);
+            thread.start();
+        }
+
+        for (Thread thread: threads) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+        return new LoadResult(ratePerSecond, flows / elapsedSeconds, flows,
+                fulfilled.sum(), failed.sum(), responseTime, serviceTime);
+    }
+
+    /**
+     * Runs fixed-rate steps starting at {@code initialRate}, multiplying the rate by
+     * {@code factor} each step, until the system stops keeping up: the achieved rate drops
+     * below 95% of the target or the p99 response time exceeds {@code p99Limit}. The last
+     * result is the first step past the knee, unless {@code maxSteps} ran out first.
+     */
+    public List<LoadResult> ramp(double initialRate, double factor, int maxSteps, Duration stepDuration, Duration p99Limit) {
+        if (!(factor > 1)) {
+            throw new IllegalArgumentException("factor must be above 1: " + factor);
+        }
+        List<LoadResult> results = new ArrayList<>();
+        double rate = initialRate;
+        for (int step = 0; step < maxSteps; step++) {
+            LoadResult result = run(rate, stepDuration);
+            results.add(result);
+            if (!isSustainable(result, p99Limit)) {
+                break;
+            }
+            rate *= factor;
+        }
+        return results;
+    }
+
+    /**
+     * Returns the highest-rate result in a ramp that was still sustainable, if any.
+     */
+    public static LoadResult knee(List<LoadResult> ramp, Duration p99Limit) {
+        LoadResult knee = null;
+        for (LoadResult result: ramp) {
+            if (isSustainable(result, p99Limit)) {
+                knee = result;
+            }
+        }
+        return knee;
+    }
+
+    private static boolean isSustainable(LoadResult result, Duration p99Limit) {
+        return result.getAchievedRate() >= result.getTargetRate() * 0.95
+                && result.getResponseTime().getValueAtPercentile(99) <= p99Limit.toNanos();
+    }
+
+    private boolean runFlow(OrderRequest request) {
+        Order order = request.submit(orderService);
+        if (!fulfillmentService.fulfillOrder(order.getId())) {
+            return false;
+        }
+        fulfillmentService.shipOrder(order.getId());
+        return true;
+    }
+
+    private static void waitUntil(long deadline) {
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            if (remaining > 50_000) {
+                LockSupport.parkNanos(remaining - 20_000);
+            } else {
+                Thread.onSpinWait();
+            }
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package simulation;
+
+import metrics.LatencyHistogram;
+
+import java.util.Locale;
+
+/**
+ * Outcome of one fixed-rate {@link LoadDriver} run.
+ *
+ * Response time is measured from the moment each flow was scheduled to start, so it
+ * includes any time the flow spent waiting because the system fell behind. Service time
+ * is measured from when the flow actually started and hides that queueing.
+ */
+public class LoadResult {
+    private final double targetRate;
+    private final double achievedRate;
+    private final long completed;
+    private final long fulfilled;
+    private final long failed;
+    private final LatencyHistogram responseTime;
+    private final LatencyHistogram serviceTime;
+
+    public LoadResult(double targetRate,
+                      double achievedRate,
+                      long completed,
+                      long fulfilled,
+                      long failed,
+                      LatencyHistogram responseTime,
+                      LatencyHistogram serviceTime) {
+        this.targetRate = targetRate;
+        this.achievedRate = achievedRate;
+        this.completed = completed;
+        this.fulfilled = fulfilled;
+        this.failed = failed;
+        this.responseTime = responseTime;
+        this.serviceTime = serviceTime;
+    }
+
+    public double getTargetRate() {
+        return targetRate;
+    }
+
+    public double getAchievedRate() {
+        return achievedRate;
+    }
+
+    public long getCompleted() {
+        return completed;
+    }
+
+    /**
+     * Flows whose order was fulfilled and shipped.
+     */
+    public long getFulfilled() {
+        return fulfilled;
+    }
+
+    /**
+     * Flows that ended in an exception, for example backpressure from saturated warehouses.
+     */
+    public long getFailed() {
+        return failed;
+    }
+
+    public LatencyHistogram getResponseTime() {
+        return responseTime;
+    }
+
+    public LatencyHistogram getServiceTime() {
+        return serviceTime;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT,
+                "LoadResult{target=%.0f/s, achieved=%.0f/s, completed=%d, fulfilled=%d, failed=%d, " +
+                        "p50=%.3fms, p99=%.3fms, p99.9=%.3fms, max=%.3fms, serviceP99=%.3fms}",
+                targetRate, achievedRate, completed, fulfilled, failed,
+                responseTime.getValueAtPercentile(50) / 1e6,
+                responseTime.getValueAtPercentile(99) / 1e6,
+                responseTime.getValueAtPercentile(99.9) / 1e6,
+                responseTime.getMaxValue() / 1e6,
+                serviceTime.getValueAtPercentile(99) / 1e6);
+    }
+}
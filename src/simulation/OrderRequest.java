@@ -0,0 +1,48 @@
+package simulation;
+
+import domain.model.Order;
+import domain.model.OrderItem;
+import service.OrderService;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * One generated order, not yet known to any service.
+ */
+public final class OrderRequest {
+    private final UUID customerId;
+    private final List<OrderItem> orderItems;
+    private final boolean transactional;
+
+    public OrderRequest(UUID customerId, List<OrderItem> orderItems, boolean transactional) {
+        this.customerId = customerId;
+        this.orderItems = orderItems;
+        this.transactional = transactional;
+    }
+
+    public UUID getCustomerId() {
+        return customerId;
+    }
+
+    public List<OrderItem> getOrderItems() {
+        return orderItems;
+    }
+
+    public boolean isTransactional() {
+        return transactional;
+    }
+
+    public Order submit(OrderService orderService) {
+        return orderService.createOrder(customerId, orderItems, transactional);
+    }
+
+    @Override
+    public String toString() {
+        return "OrderRequest{" +
+                "customerId=" + customerId +
+                ", orderItems=" + orderItems +
+                ", transactional=" + transactional +
+                '}';
+    }
+}
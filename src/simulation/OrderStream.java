@@ -0,0 +1,86 @@
+package simulation;
+
+import domain.model.OrderItem;
+import domain.model.OrderItemList;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Endless, lazily generated sequence of orders for an installed {@link Workload}.
+ *
+ * Each order picks a uniformly random customer (customers are already concentrated around
+ * cities), a line count from the configured distribution, distinct products by Zipf
+ * popularity and a quantity of 1..maxQuantityPerLine per line. Nothing is materialized
+ * ahead of time, and two streams with the same seed yield the same orders.
+ */
+public class OrderStream implements Iterator<OrderRequest> {
+    private static final int MAX_DUPLICATE_RETRIES = 8;
+
+    private final UUID[] customerIds;
+    private final UUID[] productIds;
+    private final DiscreteDistribution popularity;
+    private final DiscreteDistribution lineCounts;
+    private final int maxQuantityPerLine;
+    private final double transactionalRatio;
+    private final SplittableRandom random;
+    private final int[] ranks;
+
+    OrderStream(UUID[] customerIds, UUID[] productIds, DiscreteDistribution popularity, WorkloadConfig config, long seed) {
+        this.customerIds = customerIds;
+        this.productIds = productIds;
+        this.popularity = popularity;
+        this.lineCounts = new DiscreteDistribution(config.getLineCountWeights());
+        this.maxQuantityPerLine = config.getMaxQuantityPerLine();
+        this.transactionalRatio = config.getTransactionalRatio();
+        this.random = new SplittableRandom(seed);
+        this.ranks = new int[Math.min(lineCounts.size(), productIds.length)];
+    }
+
+    @Override
+    public boolean hasNext() {
+        return true;
+    }
+
+    @Override
+    public OrderRequest next() {
+        int lines = Math.min(lineCounts.sample(random) + 1, ranks.length);
+        List<OrderItem> orderItems = new ArrayList<>(lines);
+
+        for (int line = 0; line < lines; line++) {
+            int rank = popularity.sample(random);
+            for (int retry = 0; retry < MAX_DUPLICATE_RETRIES && contains(ranks, line, rank); retry++) {
+                rank = popularity.sample(random);
+            }
+            if (contains(ranks, line, rank)) {
+                // A heavily skewed catalogue keeps producing the same few products; ship fewer lines
+                break;
+            }
+            ranks[line] = rank;
+            orderItems.add(new OrderItem(productIds[rank], 1 + random.nextInt(maxQuantityPerLine)));
+        }
+
+        UUID customerId = customerIds[random.nextInt(customerIds.length)];
+        return new OrderRequest(customerId, OrderItemList.of(orderItems), random.nextDouble() < transactionalRatio);
+    }
+
+    /**
+     * Returns this stream as an infinite sequential {@link Stream}; use limit() to bound it.
+     */
+    public Stream<OrderRequest> stream() {
+        return Stream.generate(this::next);
+    }
+
+    private static boolean contains(int[] values, int length, int value) {
+        for (int i = 0; i < length; i++) {
+            if (values[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
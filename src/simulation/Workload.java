@@ -0,0 +1,77 @@
+package simulation;
+
+import domain.model.Customer;
+import domain.model.Location;
+import domain.model.Product;
+import domain.model.Warehouse;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Master data installed by a {@link WorkloadGenerator}, plus factories for order streams
+ * over it. Products are listed by popularity rank, most popular first.
+ */
+public class Workload {
+    private static final long ORDER_SEED_SALT = 0x9E3779B97F4A7C15L;
+
+    private final WorkloadConfig config;
+    private final List<Location> cities;
+    private final List<Product> productsByRank;
+    private final List<Customer> customers;
+    private final List<Warehouse> warehouses;
+    private final DiscreteDistribution popularity;
+    private final UUID[] productIds;
+    private final UUID[] customerIds;
+
+    Workload(WorkloadConfig config,
+             List<Location> cities,
+             List<Product> productsByRank,
+             List<Customer> customers,
+             List<Warehouse> warehouses,
+             DiscreteDistribution popularity) {
+        this.config = config;
+        this.cities = List.copyOf(cities);
+        this.productsByRank = List.copyOf(productsByRank);
+        this.customers = List.copyOf(customers);
+        this.warehouses = List.copyOf(warehouses);
+        this.popularity = popularity;
+        this.productIds = productsByRank.stream().map(Product::getId).toArray(UUID[]::new);
+        this.customerIds = customers.stream().map(Customer::getId).toArray(UUID[]::new);
+    }
+
+    public List<Location> getCities() {
+        return cities;
+    }
+
+    public List<Product> getProductsByRank() {
+        return productsByRank;
+    }
+
+    public List<Customer> getCustomers() {
+        return customers;
+    }
+
+    public List<Warehouse> getWarehouses() {
+        return warehouses;
+    }
+
+    /**
+     * Share of order lines that go to the product at the given popularity rank.
+     */
+    public double getPopularity(int rank) {
+        return popularity.probability(rank);
+    }
+
+    /**
+     * Returns a new order stream seeded from the workload seed, so every call replays the
+     * same orders.
+     */
+    public OrderStream orders() {
+        return orders(config.getSeed() ^ ORDER_SEED_SALT);
+    }
+
+    public OrderStream orders(long seed) {
+        return new OrderStream(customerIds, productIds, popularity, config, seed);
+    }
+}
@@ -0,0 +1,194 @@
+package simulation;
+
+import java.util.Objects;
+
+/**
+ * Shape of a synthetic workload. Defaults describe a mid-sized network; every setter
+ * returns the config so tests can override just what they need.
+ */
+public class WorkloadConfig {
+    private long seed = 42;
+    private double mapSize = 1000;
+
+    private int products = 10_000;
+    private double popularitySkew = 1.0;
+
+    private int cities = 25;
+    private double citySizeSkew = 1.1;
+    private double citySpread = 15;
+    private int customers = 50_000;
+
+    private int warehouses = 40;
+    private int unitsPerHub = 500_000;
+    private double capacityHeadroom = 1.5;
+
+    private double[] lineCountWeights = {0.45, 0.25, 0.15, 0.1, 0.05};
+    private int maxQuantityPerLine = 5;
+    private double transactionalRatio = 0.3;
+
+    // Getters
+    public long getSeed() {
+        return seed;
+    }
+
+    public double getMapSize() {
+        return mapSize;
+    }
+
+    public int getProducts() {
+        return products;
+    }
+
+    public double getPopularitySkew() {
+        return popularitySkew;
+    }
+
+    public int getCities() {
+        return cities;
+    }
+
+    public double getCitySizeSkew() {
+        return citySizeSkew;
+    }
+
+    public double getCitySpread() {
+        return citySpread;
+    }
+
+    public int getCustomers() {
+        return customers;
+    }
+
+    public int getWarehouses() {
+        return warehouses;
+    }
+
+    public int getUnitsPerHub() {
+        return unitsPerHub;
+    }
+
+    public double getCapacityHeadroom() {
+        return capacityHeadroom;
+    }
+
+    public double[] getLineCountWeights() {
+        return lineCountWeights.clone();
+    }
+
+    public int getMaxQuantityPerLine() {
+        return maxQuantityPerLine;
+    }
+
+    public double getTransactionalRatio() {
+        return transactionalRatio;
+    }
+
+    // Setters
+    public WorkloadConfig setSeed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    public WorkloadConfig setMapSize(double mapSize) {
+        this.mapSize = positive(mapSize, "mapSize");
+        return this;
+    }
+
+    public WorkloadConfig setProducts(int products) {
+        this.products = (int) positive(products, "products");
+        return this;
+    }
+
+    /**
+     * Zipf exponent of product popularity; 0 is uniform, around 1 is typical retail.
+     */
+    public WorkloadConfig setPopularitySkew(double popularitySkew) {
+        this.popularitySkew = notNegative(popularitySkew, "popularitySkew");
+        return this;
+    }
+
+    public WorkloadConfig setCities(int cities) {
+        this.cities = (int) positive(cities, "cities");
+        return this;
+    }
+
+    public WorkloadConfig setCitySizeSkew(double citySizeSkew) {
+        this.citySizeSkew = notNegative(citySizeSkew, "citySizeSkew");
+        return this;
+    }
+
+    /**
+     * Standard deviation of customer positions around their city center, in map units.
+     */
+    public WorkloadConfig setCitySpread(double citySpread) {
+        this.citySpread = notNegative(citySpread, "citySpread");
+        return this;
+    }
+
+    public WorkloadConfig setCustomers(int customers) {
+        this.customers = (int) positive(customers, "customers");
+        return this;
+    }
+
+    public WorkloadConfig setWarehouses(int warehouses) {
+        this.warehouses = (int) positive(warehouses, "warehouses");
+        return this;
+    }
+
+    /**
+     * Units stocked by the largest warehouse; smaller ones stock proportionally less.
+     */
+    public WorkloadConfig setUnitsPerHub(int unitsPerHub) {
+        this.unitsPerHub = (int) positive(unitsPerHub, "unitsPerHub");
+        return this;
+    }
+
+    /**
+     * Max capacity of each warehouse as a multiple of its initial stock.
+     */
+    public WorkloadConfig setCapacityHeadroom(double capacityHeadroom) {
+        if (capacityHeadroom < 1) {
+            throw new IllegalArgumentException("capacityHeadroom must be at least 1: " + capacityHeadroom);
+        }
+        this.capacityHeadroom = capacityHeadroom;
+        return this;
+    }
+
+    /**
+     * Relative weights of orders with 1, 2, 3, ... lines.
+     */
+    public WorkloadConfig setLineCountWeights(double... lineCountWeights) {
+        Objects.requireNonNull(lineCountWeights, "lineCountWeights cannot be null");
+        // Rejects negative or all-zero weights up front
+        new DiscreteDistribution(lineCountWeights);
+        this.lineCountWeights = lineCountWeights.clone();
+        return this;
+    }
+
+    public WorkloadConfig setMaxQuantityPerLine(int maxQuantityPerLine) {
+        this.maxQuantityPerLine = (int) positive(maxQuantityPerLine, "maxQuantityPerLine");
+        return this;
+    }
+
+    public WorkloadConfig setTransactionalRatio(double transactionalRatio) {
+        if (transactionalRatio < 0 || transactionalRatio > 1) {
+            throw new IllegalArgumentException("transactionalRatio must be between 0 and 1: " + transactionalRatio);
+        }
+        this.transactionalRatio = transactionalRatio;
+        return this;
+    }
+
+    private static double positive(double value, String name) {
+        if (!(value > 0)) {
+            throw new IllegalArgumentException(name + " must be positive: " + value);
+        }
+        return value;
+    }
+
+    private static double notNegative(double value, String name) {
+        if (!(value >= 0)) {
+            throw new IllegalArgumentException(name + " cannot be negative: " + value);
+        }
+        return value;
+    }
+}
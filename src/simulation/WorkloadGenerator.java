@@ -0,0 +1,128 @@
+package simulation;
+
+import domain.model.Customer;
+import domain.model.Location;
+import domain.model.Product;
+import domain.model.ProductType;
+import domain.model.Warehouse;
+import service.CustomerService;
+import service.InventoryService;
+import service.ProductService;
+import service.WarehouseService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.SplittableRandom;
+
+/**
+ * Seeded generator of synthetic supply chain networks.
+ *
+ * - Cities get uniformly random centers on a square map and Zipf-distributed sizes.
+ * - Products get Zipf-distributed popularity by rank (rank 0 sells the most).
+ * - Customers pick a city by size and are scattered normally around its center.
+ * - Warehouses sit in the largest cities first. A warehouse's size follows its city, with
+ *   the biggest one stocking {@code unitsPerHub} units. It carries the most popular part of
+ *   the catalogue in proportion to its size, and per-product stock follows popularity.
+ *
+ * Everything is created through the services, so their validation and indexes apply.
+ * Entity ids come from the services and differ between runs; everything else, including
+ * the order streams of the returned {@link Workload}, is determined by the seed.
+ */
+public class WorkloadGenerator {
+    private static final ProductType[] PRODUCT_TYPES = ProductType.values();
+    private static final double MIN_WAREHOUSE_SIZE = 0.05;
+
+    private final WorkloadConfig config;
+
+    public WorkloadGenerator(WorkloadConfig config) {
+        this.config = Objects.requireNonNull(config, "config cannot be null");
+    }
+
+    public Workload install(ProductService productService,
+                            CustomerService customerService,
+                            WarehouseService warehouseService,
+                            InventoryService inventoryService) {
+        SplittableRandom random = new SplittableRandom(config.getSeed());
+
+        List<Location> cities = new ArrayList<>(config.getCities());
+        for (int c = 0; c < config.getCities(); c++) {
+            cities.add(new Location("City-" + c, random.nextDouble() * config.getMapSize(), random.nextDouble() * config.getMapSize()));
+        }
+        DiscreteDistribution citySizes = DiscreteDistribution.zipf(config.getCities(), config.getCitySizeSkew());
+
+        DiscreteDistribution popularity = DiscreteDistribution.zipf(config.getProducts(), config.getPopularitySkew());
+        List<Product> products = new ArrayList<>(config.getProducts());
+        for (int rank = 0; rank < config.getProducts(); rank++) {
+            ProductType type = PRODUCT_TYPES[random.nextInt(PRODUCT_TYPES.length)];
+            products.add(productService.createNewProduct(String.format("SKU-%07d", rank), type, "Popularity rank " + rank));
+        }
+
+        List<Customer> customers = new ArrayList<>(config.getCustomers());
+        for (int i = 0; i < config.getCustomers(); i++) {
+            Location city = cities.get(citySizes.sample(random));
+            Location location = scatter(random, city, config.getCitySpread(), city.getName());
+            customers.add(customerService.createCustomer("Customer-" + i, location, "customer" + i + "@example.com"));
+        }
+
+        List<Warehouse> warehouses = new ArrayList<>(config.getWarehouses());
+        for (int w = 0; w < config.getWarehouses(); w++) {
+            int cityIndex = w % config.getCities();
+            Location city = cities.get(cityIndex);
+            double size = Math.max(MIN_WAREHOUSE_SIZE, Math.sqrt(citySizes.probability(cityIndex) / citySizes.probability(0)));
+            warehouses.add(stockWarehouse(random, warehouseService, inventoryService, products, popularity,
+                    "Warehouse-" + w, scatter(random, city, config.getCitySpread() * 2, city.getName()), size));
+        }
+
+        return new Workload(config, cities, products, customers, warehouses, popularity);
+    }
+
+    private Warehouse stockWarehouse(SplittableRandom random,
+                                     WarehouseService warehouseService,
+                                     InventoryService inventoryService,
+                                     List<Product> products,
+                                     DiscreteDistribution popularity,
+                                     String name,
+                                     Location location,
+                                     double size) {
+        int breadth = Math.max(1, (int) Math.round(products.size() * size));
+        double stockedPopularity = 0;
+        for (int rank = 0; rank < breadth; rank++) {
+            stockedPopularity += popularity.probability(rank);
+        }
+
+        // Per-product stock follows popularity, with +-20% noise between warehouses
+        double units = config.getUnitsPerHub() * size;
+        int[] quantities = new int[breadth];
+        long totalUnits = 0;
+        for (int rank = 0; rank < breadth; rank++) {
+            double share = popularity.probability(rank) / stockedPopularity;
+            quantities[rank] = Math.max(1, (int) Math.round(units * share * (0.8 + 0.4 * random.nextDouble())));
+            totalUnits += quantities[rank];
+        }
+
+        int maxCapacity = (int) Math.min(Integer.MAX_VALUE, Math.ceil(totalUnits * config.getCapacityHeadroom()));
+        Warehouse warehouse = warehouseService.createWarehouse(name, location, maxCapacity);
+        for (int rank = 0; rank < breadth; rank++) {
+            inventoryService.addInventoryItem(warehouse.getId(), products.get(rank).getId(), quantities[rank]);
+        }
+        return warehouse;
+    }
+
+    private Location scatter(SplittableRandom random, Location center, double spread, String name) {
+        double latitude = clamp(center.getLatitude() + gaussian(random) * spread);
+        double longitude = clamp(center.getLongtitude() + gaussian(random) * spread);
+        return new Location(name, latitude, longitude);
+    }
+
+    private double clamp(double coordinate) {
+        return Math.max(0, Math.min(config.getMapSize(), coordinate));
+    }
+
+    private static double gaussian(SplittableRandom random) {
+        // Box-Muller; SplittableRandom has no nextGaussian before Java 17
+        double u = 1.0 - random.nextDouble();
+        double v = random.nextDouble();
+        return Math.sqrt(-2 * Math.log(u)) * Math.cos(2 * Math.PI * v);
+    }
+}
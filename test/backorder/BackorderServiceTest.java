@@ -0,0 +1,159 @@
+package test.backorder;
+
+import backorder.BackorderOrdering;
+import backorder.BackorderService;
+import domain.model.Location;
+import domain.model.Order;
+import domain.model.OrderItem;
+import domain.model.OrderStatus;
+import domain.model.Product;
+import domain.model.ProductType;
+import domain.model.Warehouse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import repository.InMemoryRepository;
+import scheduling.OrderPriority;
+import service.CustomerService;
+import service.FulfillmentResult;
+import service.InventoryService;
+import service.OrderFulfillmentService;
+import service.OrderService;
+import service.ShipmentService;
+import service.WarehouseService;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BackorderServiceTest {
+
+    private InventoryService inventoryService;
+    private WarehouseService warehouseService;
+    private CustomerService customerService;
+    private OrderService orderService;
+    private OrderFulfillmentService fulfillmentService;
+    private UUID productId;
+    private UUID otherProductId;
+    private UUID customerId;
+    private Warehouse near;
+    private Warehouse far;
+
+    @BeforeEach
+    void setUp() {
+        InMemoryRepository<Product> productRepository = new InMemoryRepository<>();
+        InMemoryRepository<Warehouse> warehouseRepository = new InMemoryRepository<>();
+        inventoryService = new InventoryService(new InMemoryRepository<>(), productRepository, warehouseRepository);
+        warehouseService = new WarehouseService(warehouseRepository, inventoryService);
+        customerService = new CustomerService(new InMemoryRepository<>());
+        orderService = new OrderService(new InMemoryRepository<>());
+        ShipmentService shipmentService = new ShipmentService(new InMemoryRepository<>(), inventoryService);
+        fulfillmentService = new OrderFulfillmentService(orderService, warehouseService, shipmentService, inventoryService, customerService);
+
+        Product product = new Product("Product", ProductType.MECHANICAL, "Test");
+        productRepository.save(product.getId(), product);
+        productId = product.getId();
+        Product other = new Product("Other", ProductType.MECHANICAL, "Test");
+        productRepository.save(other.getId(), other);
+        otherProductId = other.getId();
+        near = warehouseService.createWarehouse("Near", new Location("N", 0, 0), 10_000);
+        far = warehouseService.createWarehouse("Far", new Location("F", 500, 500), 10_000);
+        inventoryService.addInventoryItem(near.getId(), productId, 0);
+        inventoryService.addInventoryItem(far.getId(), productId, 0);
+        customerId = customerService.createCustomer("Customer", new Location("C", 1, 1), "c@example.com").getId();
+    }
+
+    @Test
+    void restockAndRelease_wakeOnlyOrdersTheNewStockCovers_inFifoOrder() {
+        BackorderService backorders = service(BackorderOrdering.FIFO);
+        CompletableFuture<FulfillmentResult> first = backorders.fulfillOrBackorder(createOrder(2).getId(), OrderPriority.STANDARD);
+        CompletableFuture<FulfillmentResult> second = backorders.fulfillOrBackorder(createOrder(3).getId(), OrderPriority.STANDARD);
+        CompletableFuture<FulfillmentResult> third = backorders.fulfillOrBackorder(createOrder(1).getId(), OrderPriority.EXPRESS);
+        assertEquals(3, backorders.getWaitingCount(productId, near.getId()));
+
+        inventoryService.restockWarehouse(near.getId(), productId, 2);
+        assertTrue(first.join().isFulfilled());
+        assertFalse(second.isDone());
+        assertEquals(1, backorders.getWakeups());
+
+        // Three units go to the second order even though the third one would fit first
+        inventoryService.restockWarehouse(near.getId(), productId, 3);
+        assertTrue(second.join().isFulfilled());
+        assertFalse(third.isDone());
+
+        inventoryService.releaseStock(near.getId(), productId, 1);
+        assertTrue(third.join().isFulfilled());
+        assertEquals(0, backorders.getBackorderCount());
+        assertEquals(3, backorders.getFulfilledFromBackorder());
+        assertEquals(3, backorders.getWakeups());
+    }
+
+    @Test
+    void priorityOrdering_givesScarceStockToTheHigherClass() {
+        BackorderService backorders = service(BackorderOrdering.PRIORITY);
+        Order bulk = createOrder(1);
+        Order express = createOrder(1);
+        CompletableFuture<FulfillmentResult> bulkResult = backorders.fulfillOrBackorder(bulk.getId(), OrderPriority.BULK);
+        CompletableFuture<FulfillmentResult> expressResult = backorders.fulfillOrBackorder(express.getId(), OrderPriority.EXPRESS);
+
+        inventoryService.restockWarehouse(near.getId(), productId, 1);
+
+        assertTrue(expressResult.join().isFulfilled());
+        assertFalse(bulkResult.isDone());
+        assertEquals(OrderStatus.CREATED, orderService.getOrderById(bulk.getId()).getStatus());
+
+        assertTrue(backorders.cancel(bulk.getId()));
+        assertTrue(bulkResult.isCancelled());
+        inventoryService.restockWarehouse(near.getId(), productId, 1);
+        assertEquals(OrderStatus.CREATED, orderService.getOrderById(bulk.getId()).getStatus());
+    }
+
+    @Test
+    void stockInAnotherRegion_doesNotWakeTheQueue() {
+        BackorderService backorders = service(BackorderOrdering.FIFO);
+        CompletableFuture<FulfillmentResult> result = backorders.fulfillOrBackorder(createOrder(1).getId(), OrderPriority.STANDARD);
+
+        inventoryService.restockWarehouse(far.getId(), productId, 5);
+        assertEquals(0, backorders.getWakeups());
+        assertEquals(1, backorders.getWaitingCount(productId, near.getId()));
+        assertEquals(0, backorders.getWaitingCount(productId, far.getId()));
+
+        inventoryService.restockWarehouse(near.getId(), productId, 1);
+        assertTrue(result.join().isFulfilled());
+        assertEquals(0, backorders.getWaitingCount(productId, near.getId()));
+    }
+
+    @Test
+    void transactionalOrder_waitsForTheProductThatIsShort_withoutRetryingInALoop() {
+        BackorderService backorders = service(BackorderOrdering.FIFO);
+        inventoryService.restockWarehouse(near.getId(), productId, 5);
+        inventoryService.addInventoryItem(near.getId(), otherProductId, 0);
+        Order order = orderService.createOrder(customerId,
+                List.of(new OrderItem(productId, 1), new OrderItem(otherProductId, 1)), true);
+
+        CompletableFuture<FulfillmentResult> result = backorders.fulfillOrBackorder(order.getId(), OrderPriority.STANDARD);
+
+        assertFalse(result.isDone());
+        assertEquals(0, backorders.getWakeups());
+        assertEquals(0, backorders.getWaitingCount(productId, near.getId()));
+        assertEquals(1, backorders.getWaitingCount(otherProductId, near.getId()));
+
+        inventoryService.restockWarehouse(near.getId(), otherProductId, 1);
+        assertTrue(result.join().isFulfilled());
+        assertEquals(1, backorders.getWakeups());
+        assertEquals(0, backorders.getRequeued());
+    }
+
+    private BackorderService service(BackorderOrdering ordering) {
+        // Retries run on the restocking thread, so every assertion sees their outcome
+        return new BackorderService(orderService, fulfillmentService, inventoryService, warehouseService, customerService,
+                ordering, BackorderService.DEFAULT_REGION_SIZE, Runnable::run);
+    }
+
+    private Order createOrder(int quantity) {
+        return orderService.createOrder(customerId, List.of(new OrderItem(productId, quantity)), false);
+    }
+}
@@ -0,0 +1,169 @@
+package test.bulk;
+
+import bulk.BulkFormat;
+import bulk.BulkLoadReport;
+import bulk.BulkLoader;
+import domain.model.Customer;
+import domain.model.InventoryItem;
+import domain.model.Location;
+import domain.model.LocationTable;
+import domain.model.Product;
+import domain.model.ProductType;
+import domain.model.Warehouse;
+import exceptions.WarehouseCapacityExceededException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import repository.InMemoryRepository;
+import service.CustomerService;
+import service.InventoryService;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class BulkLoaderTest {
+
+    @TempDir
+    Path directory;
+
+    private InMemoryRepository<Product> productRepository;
+    private InMemoryRepository<Customer> customerRepository;
+    private InMemoryRepository<Warehouse> warehouseRepository;
+    private InMemoryRepository<InventoryItem> inventoryRepository;
+    private BulkLoader bulkLoader;
+
+    private final UUID productId = UUID.randomUUID();
+    private final UUID warehouseId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        productRepository = new InMemoryRepository<>();
+        customerRepository = new InMemoryRepository<>();
+        warehouseRepository = new InMemoryRepository<>();
+        inventoryRepository = new InMemoryRepository<>();
+        bulkLoader = new BulkLoader(productRepository, customerRepository, warehouseRepository, inventoryRepository,
+                new LocationTable());
+    }
+
+    @Test
+    void loadsCsvMasterDataPreservingIds() throws IOException {
+        Path products = write("products.csv",
+                "id,name,type,description",
+                productId + ",\"Drill, cordless\",MECHANICAL,\"18V \"\"pro\"\"\"",
+                ",Screw,MECHANICAL,");
+        Path warehouses = write("warehouses.csv",
+                "id,name,location,latitude,longitude,maxCapacity",
+                warehouseId + ",Hub,Berlin,52.5,13.4,1000");
+
+        BulkLoadReport productReport = bulkLoader.loadProducts(products, BulkFormat.CSV);
+        BulkLoadReport warehouseReport = bulkLoader.loadWarehouses(warehouses, BulkFormat.CSV);
+
+        assertEquals(2, productReport.getLoaded());
+        assertEquals(1, warehouseReport.getLoaded());
+        Product drill = productRepository.findById(productId).orElseThrow();
+        assertEquals("Drill, cordless", drill.getName());
+        assertEquals("18V \"pro\"", drill.getDescription());
+        assertEquals(ProductType.MECHANICAL, drill.getType());
+        assertEquals(1000, warehouseRepository.findById(warehouseId).orElseThrow().getMaxCapacity());
+    }
+
+    @Test
+    void loadsNdjsonInventoryAndRejectsBadRows() throws IOException {
+        productRepository.save(productId, new Product(productId, "Drill", ProductType.MECHANICAL, null));
+        warehouseRepository.save(warehouseId, new Warehouse(warehouseId, "Hub", null, 1000, new LocationTable()));
+        UUID otherProductId = UUID.randomUUID();
+        productRepository.save(otherProductId, new Product(otherProductId, "Saw", ProductType.MECHANICAL, null));
+
+        Path inventory = write("inventory.ndjson",
+                "{\"productId\": \"" + productId + "\", \"warehouseId\": \"" + warehouseId + "\", \"availableQuantity\": 40, \"reservedQuantity\": 2}",
+                "{\"productId\": \"" + productId + "\", \"warehouseId\": \"" + warehouseId + "\", \"availableQuantity\": 99}",
+                "{\"productId\": \"" + UUID.randomUUID() + "\", \"warehouseId\": \"" + warehouseId + "\", \"availableQuantity\": 5}",
+                "{\"productId\": \"" + otherProductId + "\", \"warehouseId\": \"" + warehouseId + "\", \"availableQuantity\": -1}",
+                "not json");
+
+        BulkLoadReport report = bulkLoader.loadInventory(inventory, BulkFormat.NDJSON);
+
+        assertEquals(1, report.getLoaded());
+        assertEquals(4, report.getRejected());
+
+        InventoryService inventoryService = new InventoryService(inventoryRepository, productRepository, warehouseRepository);
+        assertEquals(40, inventoryService.getAvailableQuantity(warehouseId, productId));
+    }
+
+    @Test
+    void rejectsInventoryForCellsThatAlreadyExist() throws IOException {
+        productRepository.save(productId, new Product(productId, "Drill", ProductType.MECHANICAL, null));
+        warehouseRepository.save(warehouseId, new Warehouse(warehouseId, "Hub", null, 1000, new LocationTable()));
+        InventoryItem existing = new InventoryItem(productId, warehouseId, 10);
+        inventoryRepository.save(existing.getId(), existing);
+
+        Path inventory = write("inventory.csv",
+                "id,productId,warehouseId,reservedQuantity,availableQuantity",
+                UUID.randomUUID() + "," + productId + "," + warehouseId + ",0,50");
+
+        BulkLoadReport report = bulkLoader.loadInventory(inventory, BulkFormat.CSV);
+
+        assertEquals(0, report.getLoaded());
+        assertEquals(1, report.getRejected());
+        assertEquals(1, inventoryRepository.findAll().size());
+    }
+
+    @Test
+    void rejectsRowsWhoseIdIsAlreadyTaken() throws IOException {
+        productRepository.save(productId, new Product(productId, "Drill", ProductType.MECHANICAL, null));
+        warehouseRepository.save(warehouseId, new Warehouse(warehouseId, "Hub", null, 1000, new LocationTable()));
+        UUID sawId = UUID.randomUUID();
+        productRepository.save(sawId, new Product(sawId, "Saw", ProductType.MECHANICAL, null));
+        UUID hammerId = UUID.randomUUID();
+        productRepository.save(hammerId, new Product(hammerId, "Hammer", ProductType.MECHANICAL, null));
+        InventoryItem existing = new InventoryItem(hammerId, warehouseId, 10);
+        inventoryRepository.save(existing.getId(), existing);
+        UUID sharedId = UUID.randomUUID();
+
+        Path inventory = write("inventory.csv",
+                "id,productId,warehouseId,reservedQuantity,availableQuantity",
+                sharedId + "," + productId + "," + warehouseId + ",0,50",
+                sharedId + "," + sawId + "," + warehouseId + ",0,60",
+                existing.getId() + "," + sawId + "," + warehouseId + ",0,70");
+
+        BulkLoadReport report = bulkLoader.loadInventory(inventory, BulkFormat.CSV);
+
+        assertEquals(1, report.getLoaded());
+        assertEquals(2, report.getRejected());
+        assertEquals(2, inventoryRepository.findAll().size());
+        assertEquals(10, inventoryRepository.findById(existing.getId()).orElseThrow().getAvailableQuantity());
+        InventoryService inventoryService = new InventoryService(inventoryRepository, productRepository, warehouseRepository);
+        assertEquals(10, inventoryService.getAvailableQuantity(warehouseId, hammerId));
+    }
+
+    @Test
+    void registeredServicesSeeRowsLoadedIntoALiveGraph() throws IOException {
+        productRepository.save(productId, new Product(productId, "Drill", ProductType.MECHANICAL, null));
+        warehouseRepository.save(warehouseId, new Warehouse(warehouseId, "Hub", null, 100, new LocationTable()));
+        InventoryService inventoryService = new InventoryService(inventoryRepository, productRepository, warehouseRepository);
+        CustomerService customerService = new CustomerService(customerRepository);
+        bulkLoader.onCustomerLoaded(customerService::onLoaded).onInventoryLoaded(inventoryService::onLoaded);
+
+        bulkLoader.loadInventory(write("inventory.csv",
+                "id,productId,warehouseId,reservedQuantity,availableQuantity",
+                "," + productId + "," + warehouseId + ",10,80"), BulkFormat.CSV);
+        bulkLoader.loadCustomers(write("customers.csv",
+                "id,name,location,latitude,longitude,email",
+                ",Ada Lovelace,London,51.5,-0.1,ada@example.com"), BulkFormat.CSV);
+
+        assertEquals(90, inventoryService.getUtilizationTracker().getUsedUnits(warehouseId));
+        assertThrows(WarehouseCapacityExceededException.class,
+                () -> inventoryService.restockWarehouse(warehouseId, productId, 20));
+        assertEquals(1, customerService.searchCustomers("ada", 10).size());
+        assertEquals(1, customerService.findAllCustomersInLocation(new Location("London", 51.5, -0.1)).size());
+    }
+
+    private Path write(String name, String... lines) throws IOException {
+        return Files.write(directory.resolve(name), String.join("\n", lines).getBytes());
+    }
+}
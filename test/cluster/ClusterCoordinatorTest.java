@@ -0,0 +1,176 @@
+package test.cluster;
+
+import cluster.ClusterCoordinator;
+import cluster.PartitionNode;
+import domain.model.Customer;
+import domain.model.Location;
+import domain.model.LocationTable;
+import domain.model.Order;
+import domain.model.OrderItem;
+import domain.model.OrderStatus;
+import domain.model.Product;
+import domain.model.ProductType;
+import domain.model.Warehouse;
+import exceptions.CustomerNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import repository.InMemoryRepository;
+import service.CustomerService;
+import service.OrderService;
+import service.ShipmentService;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ClusterCoordinatorTest {
+
+    private PartitionNode firstNode;
+    private PartitionNode secondNode;
+    private ClusterCoordinator coordinator;
+    private OrderService orderService;
+    private ShipmentService shipmentService;
+    private Customer customer;
+    private Warehouse nearWarehouse;
+    private Warehouse farWarehouse;
+    private Product plentiful;
+    private Product scarce;
+
+    @BeforeEach
+    void setUp() {
+        firstNode = PartitionNode.start(0);
+        secondNode = PartitionNode.start(0);
+        orderService = new OrderService(new InMemoryRepository<>());
+        shipmentService = new ShipmentService(new InMemoryRepository<>(), null);
+        CustomerService customerService = new CustomerService(new InMemoryRepository<>());
+        coordinator = new ClusterCoordinator(
+                List.of(loopback(firstNode), loopback(secondNode)), orderService, shipmentService, customerService);
+
+        customer = customerService.createCustomer("Customer", new Location("Home", 0, 0), "customer@example.com");
+        plentiful = new Product("Plentiful", ProductType.MECHANICAL, "Test");
+        scarce = new Product("Scarce", ProductType.ELECTRONIC, "Test");
+        coordinator.registerProduct(plentiful);
+        coordinator.registerProduct(scarce);
+
+        // The near warehouse only stocks the plentiful product, the far one has both
+        nearWarehouse = new Warehouse("Near", new Location("Near", 1, 1), 10_000, new LocationTable());
+        farWarehouse = new Warehouse("Far", new Location("Far", 50, 50), 10_000, new LocationTable());
+        coordinator.registerWarehouse(nearWarehouse, 0);
+        coordinator.registerWarehouse(farWarehouse, 1);
+        coordinator.addInventoryItem(nearWarehouse.getId(), plentiful.getId(), 1000);
+        coordinator.addInventoryItem(farWarehouse.getId(), plentiful.getId(), 1000);
+        coordinator.addInventoryItem(farWarehouse.getId(), scarce.getId(), 10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        coordinator.close();
+        firstNode.close();
+        secondNode.close();
+    }
+
+    @Test
+    void fulfillOrder_transactionalOrderGoesToSinglePartitionThatHasEverything() {
+        Order order = orderService.createOrder(customer.getId(),
+                List.of(new OrderItem(plentiful.getId(), 5), new OrderItem(scarce.getId(), 2)), true);
+
+        assertTrue(coordinator.fulfillOrder(order.getId()));
+
+        assertEquals(OrderStatus.ALLOCATED, orderService.getOrderById(order.getId()).getStatus());
+        assertEquals(1000, coordinator.getAvailableQuantity(nearWarehouse.getId(), plentiful.getId()));
+        assertEquals(995, coordinator.getAvailableQuantity(farWarehouse.getId(), plentiful.getId()));
+        assertEquals(8, coordinator.getAvailableQuantity(farWarehouse.getId(), scarce.getId()));
+    }
+
+    @Test
+    void fulfillOrder_nonTransactionalOrderCommitsOnBothPartitions() {
+        Order order = orderService.createOrder(customer.getId(),
+                List.of(new OrderItem(plentiful.getId(), 5), new OrderItem(scarce.getId(), 2)), false);
+
+        assertTrue(coordinator.fulfillOrder(order.getId()));
+
+        assertEquals(995, coordinator.getAvailableQuantity(nearWarehouse.getId(), plentiful.getId()));
+        assertEquals(8, coordinator.getAvailableQuantity(farWarehouse.getId(), scarce.getId()));
+        Set<UUID> shippingWarehouses = shipmentService.getShipmentsByOrder(order.getId()).stream()
+                .map(shipment -> shipment.getWarehouseId())
+                .collect(Collectors.toSet());
+        assertEquals(Set.of(nearWarehouse.getId(), farWarehouse.getId()), shippingWarehouses);
+    }
+
+    @Test
+    void fulfillOrder_returnsFalseWhenNoWarehouseHasStock() {
+        Order order = orderService.createOrder(customer.getId(), List.of(new OrderItem(scarce.getId(), 11)), true);
+
+        assertFalse(coordinator.fulfillOrder(order.getId()));
+        assertEquals(OrderStatus.CREATED, orderService.getOrderById(order.getId()).getStatus());
+        assertEquals(10, coordinator.getAvailableQuantity(farWarehouse.getId(), scarce.getId()));
+    }
+
+    @Test
+    void concurrentOrders_abortedTransactionsReleaseTheirReservations() {
+        List<CompletableFuture<Boolean>> results = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            Order order = orderService.createOrder(customer.getId(),
+                    List.of(new OrderItem(plentiful.getId(), 1), new OrderItem(scarce.getId(), 1)), false);
+            results.add(coordinator.fulfillOrderAsync(order.getId()));
+        }
+        long fulfilled = results.stream().filter(CompletableFuture::join).count();
+
+        // Every fulfilled order holds exactly one unit of the plentiful product in the near
+        // warehouse; orders whose scarce-item PREPARE lost the race must have given it back
+        assertEquals(1000 - fulfilled, coordinator.getAvailableQuantity(nearWarehouse.getId(), plentiful.getId()));
+        assertEquals(0, coordinator.getAvailableQuantity(farWarehouse.getId(), scarce.getId()));
+        assertEquals(fulfilled, orderService.countOrdersByStatus(OrderStatus.ALLOCATED));
+    }
+
+    @Test
+    void fulfillOrder_rejectsOrdersAlreadyFulfilledOrWithUnknownCustomer() {
+        Order order = orderService.createOrder(customer.getId(), List.of(new OrderItem(scarce.getId(), 3)), true);
+        CompletableFuture<Boolean> first = coordinator.fulfillOrderAsync(order.getId());
+        CompletableFuture<Boolean> overlapping = coordinator.fulfillOrderAsync(order.getId());
+
+        assertTrue(first.join());
+        assertFalse(overlapping.join());
+        assertFalse(coordinator.fulfillOrder(order.getId()));
+        assertEquals(7, coordinator.getAvailableQuantity(farWarehouse.getId(), scarce.getId()));
+        assertEquals(1, shipmentService.getShipmentsByOrder(order.getId()).size());
+
+        Order orphan = orderService.createOrder(UUID.randomUUID(), List.of(new OrderItem(scarce.getId(), 1)), true);
+        CompletableFuture<Boolean> failed = coordinator.fulfillOrderAsync(orphan.getId());
+        CompletionException thrown = assertThrows(CompletionException.class, failed::join);
+        assertTrue(thrown.getCause() instanceof CustomerNotFoundException);
+    }
+
+    @Test
+    void prepare_releasesEarlierReservationsWhenALaterOneFails() {
+        // Closer than the near warehouse and on the same node as the far one
+        Warehouse closest = new Warehouse("Closest", new Location("Closest", 0.5, 0.5), 10_000, new LocationTable());
+        coordinator.registerWarehouse(closest, 1);
+        coordinator.addInventoryItem(closest.getId(), plentiful.getId(), 100);
+        // Each scarce line fits on its own, both together do not
+        Order order = orderService.createOrder(customer.getId(), List.of(new OrderItem(plentiful.getId(), 5),
+                new OrderItem(scarce.getId(), 6), new OrderItem(scarce.getId(), 6)), false);
+
+        assertFalse(coordinator.fulfillOrder(order.getId()));
+
+        assertEquals(100, coordinator.getAvailableQuantity(closest.getId(), plentiful.getId()));
+        assertEquals(10, coordinator.getAvailableQuantity(farWarehouse.getId(), scarce.getId()));
+        assertEquals(OrderStatus.CREATED, orderService.getOrderById(order.getId()).getStatus());
+    }
+
+    private static InetSocketAddress loopback(PartitionNode node) {
+        return new InetSocketAddress(InetAddress.getLoopbackAddress(), node.getPort());
+    }
+}
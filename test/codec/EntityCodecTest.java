@@ -0,0 +1,142 @@
+package test.codec;
+
+import codec.EntityCodec;
+import domain.model.*;
+import exceptions.CodecException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EntityCodecTest {
+
+    private ByteBuffer buffer;
+    private Location location;
+    private final LocationTable locations = new LocationTable();
+
+    @BeforeEach
+    void setUp() {
+        buffer = ByteBuffer.allocate(4096);
+        location = new Location("München Süd", 48.1, 11.5);
+    }
+
+    @Test
+    void order_roundTrips() {
+        List<OrderItem> items = List.of(new OrderItem(UUID.randomUUID(), 3), new OrderItem(UUID.randomUUID(), 7));
+        Order order = new Order(UUID.randomUUID(), UUID.randomUUID(), items, OrderStatus.ALLOCATED, true,
+                LocalDateTime.of(2024, 3, 1, 12, 30, 15, 123_456_000), 4);
+
+        Order decoded = roundTrip(order, EntityCodec::writeOrder, EntityCodec::readOrder);
+
+        assertEquals(order.getId(), decoded.getId());
+        assertEquals(order.getCustomerId(), decoded.getCustomerId());
+        assertEquals(order.getOrderItems(), decoded.getOrderItems());
+        assertEquals(OrderStatus.ALLOCATED, decoded.getStatus());
+        assertTrue(decoded.isTransactional());
+        assertEquals(order.getCreatedAt(), decoded.getCreatedAt());
+        assertEquals(4, decoded.getVersion());
+    }
+
+    @Test
+    void shipment_roundTripsIncludingNullShippedAt() {
+        Shipment shipment = new Shipment(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(), location,
+                List.of(new OrderItem(UUID.randomUUID(), 1)), locations);
+
+        Shipment decoded = roundTrip(shipment, EntityCodec::writeShipment, in -> EntityCodec.readShipment(in, locations));
+
+        assertEquals(shipment.getId(), decoded.getId());
+        assertEquals(shipment.getOrderId(), decoded.getOrderId());
+        assertEquals(shipment.getWarehouseId(), decoded.getWarehouseId());
+        assertEquals(shipment.getCustomerId(), decoded.getCustomerId());
+        assertLocation(location, decoded.getDestination());
+        assertEquals(shipment.getShipmentItems(), decoded.getShipmentItems());
+        assertEquals(ShipmentStatus.CREATED, decoded.getStatus());
+        assertEquals(shipment.getCreatedAt().withNano(shipment.getCreatedAt().getNano() / 1000 * 1000), decoded.getCreatedAt());
+        assertNull(decoded.getShippedAt());
+    }
+
+    @Test
+    void masterDataAndInventory_roundTrip() {
+        Product product = new Product("Bohrmaschine ⚙", ProductType.MECHANICAL, null);
+        Customer customer = new Customer("ACME", location, "ops@acme.test", locations);
+        Warehouse warehouse = new Warehouse("Hub", null, 500, locations);
+        InventoryItem item = new InventoryItem(UUID.randomUUID(), product.getId(), warehouse.getId(), 5, 95);
+
+        for (Object entity: List.of(product, customer, warehouse, item)) {
+            EntityCodec.write(buffer, entity);
+        }
+        buffer.flip();
+
+        // Decoded as another graph would, into its own table
+        LocationTable decodedLocations = new LocationTable();
+        Product decodedProduct = (Product) EntityCodec.read(buffer, decodedLocations);
+        assertEquals(product.getId(), decodedProduct.getId());
+        assertEquals(product.getName(), decodedProduct.getName());
+        assertEquals(ProductType.MECHANICAL, decodedProduct.getType());
+        assertNull(decodedProduct.getDescription());
+
+        Customer decodedCustomer = (Customer) EntityCodec.read(buffer, decodedLocations);
+        assertEquals(customer.getId(), decodedCustomer.getId());
+        assertEquals("ops@acme.test", decodedCustomer.getEmail());
+        assertLocation(location, decodedCustomer.getLocation());
+
+        Warehouse decodedWarehouse = (Warehouse) EntityCodec.read(buffer, decodedLocations);
+        assertEquals(warehouse.getId(), decodedWarehouse.getId());
+        assertNull(decodedWarehouse.getLocation());
+        assertEquals(500, decodedWarehouse.getMaxCapacity());
+
+        InventoryItem decodedItem = (InventoryItem) EntityCodec.read(buffer, decodedLocations);
+        assertEquals(item.getId(), decodedItem.getId());
+        assertEquals(5, decodedItem.getReservedQuantity());
+        assertEquals(95, decodedItem.getAvailableQuantity());
+
+        assertFalse(buffer.hasRemaining());
+    }
+
+    @Test
+    void directBuffersRoundTripStrings() {
+        ByteBuffer direct = ByteBuffer.allocateDirect(256);
+        Product product = new Product("Säge", ProductType.WOODEN, "Ünïcödé 😀");
+
+        EntityCodec.writeProduct(direct, product);
+        direct.flip();
+
+        assertEquals("Ünïcödé 😀", EntityCodec.readProduct(direct).getDescription());
+    }
+
+    @Test
+    void rejectsUnknownSchemaVersions() {
+        EntityCodec.writeOrderItem(buffer, new OrderItem(UUID.randomUUID(), 1));
+        buffer.put(1, (byte) 99);
+        buffer.flip();
+
+        assertThrows(CodecException.class, () -> EntityCodec.readOrderItem(buffer));
+    }
+
+    private <T> T roundTrip(T entity, Writer<T> writer, Reader<T> reader) {
+        writer.write(buffer, entity);
+        buffer.flip();
+        T decoded = reader.read(buffer);
+        assertFalse(buffer.hasRemaining());
+        return decoded;
+    }
+
+    private static void assertLocation(Location expected, Location actual) {
+        assertEquals(expected.getName(), actual.getName());
+        assertEquals(expected.getLatitude(), actual.getLatitude());
+        assertEquals(expected.getLongtitude(), actual.getLongtitude());
+    }
+
+    private interface Writer<T> {
+        void write(ByteBuffer buffer, T entity);
+    }
+
+    private interface Reader<T> {
+        T read(ByteBuffer buffer);
+    }
+}
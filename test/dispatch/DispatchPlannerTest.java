@@ -0,0 +1,119 @@
+package test.dispatch;
+
+import dispatch.DispatchPlan;
+import dispatch.DispatchPlanner;
+import dispatch.Route;
+import domain.model.Location;
+import domain.model.OrderItem;
+import domain.model.Product;
+import domain.model.Shipment;
+import domain.model.ShipmentStatus;
+import domain.model.Warehouse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import repository.InMemoryRepository;
+import service.InventoryService;
+import service.ShipmentService;
+import service.WarehouseService;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class DispatchPlannerTest {
+
+    private WarehouseService warehouseService;
+    private ShipmentService shipmentService;
+    private UUID productId;
+
+    @BeforeEach
+    void setUp() {
+        InMemoryRepository<Product> productRepository = new InMemoryRepository<>();
+        InMemoryRepository<Warehouse> warehouseRepository = new InMemoryRepository<>();
+        InventoryService inventoryService = new InventoryService(new InMemoryRepository<>(), productRepository, warehouseRepository);
+        warehouseService = new WarehouseService(warehouseRepository, inventoryService);
+        shipmentService = new ShipmentService(new InMemoryRepository<>(), inventoryService);
+        productId = UUID.randomUUID();
+    }
+
+    @Test
+    void plan_routesEveryCreatedShipmentOnceWithinCapacity() {
+        Random random = new Random(1);
+        List<Warehouse> warehouses = new ArrayList<>();
+        for (int w = 0; w < 3; w++) {
+            warehouses.add(warehouseService.createWarehouse("W" + w, new Location("W" + w, w * 50, 0), 1000));
+        }
+        Set<UUID> created = new HashSet<>();
+        for (int s = 0; s < 300; s++) {
+            Warehouse warehouse = warehouses.get(s % warehouses.size());
+            created.add(ship(warehouse, warehouse.getLocation().getLatitude() + random.nextDouble() * 10 - 5,
+                    random.nextDouble() * 10 - 5, 1 + random.nextInt(4)).getId());
+        }
+        Shipment shipped = ship(warehouses.get(0), 1, 1, 1);
+        shipmentService.updateShipmentStatus(shipped.getId(), ShipmentStatus.SHIPPED);
+
+        DispatchPlan plan = new DispatchPlanner(shipmentService, warehouseService, 20).plan();
+
+        Set<UUID> routed = new HashSet<>();
+        for (Route route: plan.getRoutes()) {
+            assertTrue(route.getLoad() <= 20);
+            for (UUID shipmentId: route.getShipmentIds()) {
+                assertTrue(routed.add(shipmentId), "routed twice: " + shipmentId);
+                assertEquals(route.getWarehouseId(), shipmentService.getShipmentById(shipmentId).getWarehouseId());
+            }
+        }
+        assertEquals(created, routed);
+        assertEquals(300, plan.getShipmentCount());
+        assertTrue(plan.getTotalDistance() < plan.getDirectDistance() / 2);
+    }
+
+    @Test
+    void plan_chainsStopsAlongOneRoadIntoOneRoute() {
+        Warehouse warehouse = warehouseService.createWarehouse("W", new Location("W", 0, 0), 1000);
+        for (int s = 4; s >= 1; s--) {
+            ship(warehouse, s, 0, 1);
+        }
+
+        DispatchPlan plan = new DispatchPlanner(shipmentService, warehouseService, 10).plan();
+
+        assertEquals(1, plan.getVehicleCount());
+        assertEquals(8.0, plan.getTotalDistance(), 1e-9);
+        assertEquals(20.0, plan.getDirectDistance(), 1e-9);
+    }
+
+    @Test
+    void plan_isTheSameOnParallelPoolAsSequentially() {
+        Random random = new Random(7);
+        Warehouse warehouse = warehouseService.createWarehouse("W", new Location("W", 0, 0), 1000);
+        for (int s = 0; s < 500; s++) {
+            ship(warehouse, random.nextDouble() * 20 - 10, random.nextDouble() * 20 - 10, 1 + random.nextInt(3));
+        }
+        ForkJoinPool sequential = new ForkJoinPool(1);
+        ForkJoinPool parallel = new ForkJoinPool(4);
+        try {
+            DispatchPlan one = new DispatchPlanner(shipmentService, warehouseService, 15, 50, sequential).plan();
+            DispatchPlan four = new DispatchPlanner(shipmentService, warehouseService, 15, 50, parallel).plan();
+
+            assertEquals(one.getVehicleCount(), four.getVehicleCount());
+            assertEquals(one.getTotalDistance(), four.getTotalDistance(), 1e-9);
+            for (int r = 0; r < one.getVehicleCount(); r++) {
+                assertEquals(one.getRoutes().get(r).getShipmentIds(), four.getRoutes().get(r).getShipmentIds());
+            }
+        } finally {
+            sequential.shutdown();
+            parallel.shutdown();
+        }
+    }
+
+    private Shipment ship(Warehouse warehouse, double lat, double lon, int quantity) {
+        return shipmentService.createShipment(UUID.randomUUID(), UUID.randomUUID(), warehouse.getId(),
+                new Location("C", lat, lon), List.of(new OrderItem(productId, quantity)));
+    }
+}
@@ -0,0 +1,128 @@
+package test.domain;
+
+import domain.model.Customer;
+import domain.model.Location;
+import domain.model.LocationTable;
+import domain.model.OrderItem;
+import domain.model.Shipment;
+import domain.model.ShipmentStatus;
+import domain.model.Warehouse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import repository.InMemoryRepository;
+import service.CustomerService;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LocationTableTest {
+
+    private LocationTable table;
+    private double base;
+
+    @BeforeEach
+    void setUp() {
+        table = new LocationTable();
+        base = 40;
+    }
+
+    @Test
+    void intern_sharesOneEntryPerDistinctLocation() {
+        int first = table.intern(new Location("Depot", base, 2.5));
+        int same = table.intern(new Location("Depot", base, 2.5));
+        int renamed = table.intern(new Location("Other", base, 2.5));
+
+        assertEquals(first, same);
+        assertNotEquals(first, renamed);
+        assertEquals(2, table.size());
+        assertEquals("Depot", table.getName(first));
+        assertEquals(base, table.getLatitude(first));
+        assertEquals(2.5, table.getLongitude(first));
+        // A materialized location carries its handle back without a lookup
+        assertEquals(first, table.intern(table.get(first)));
+        assertEquals(LocationTable.NONE, table.intern(null));
+        assertNull(table.get(LocationTable.NONE));
+    }
+
+    @Test
+    void tables_copyLocationsFromOtherTablesByValue() {
+        LocationTable other = new LocationTable();
+        other.intern(new Location("Filler", 0, 0));
+        Location depot = table.get(table.intern(new Location("Depot", base, 3)));
+
+        Warehouse warehouse = new Warehouse("Hub", depot, 100, other);
+
+        assertEquals(2, other.size());
+        assertEquals(1, warehouse.getLocationHandle());
+        assertEquals("Depot", other.getName(warehouse.getLocationHandle()));
+        assertTrue(other.isAt(warehouse.getLocationHandle(), depot));
+        assertEquals(1, table.size());
+    }
+
+    @Test
+    void equals_comparesCoordinatesWithoutRecursing() {
+        Location location = new Location("A", base, 1);
+
+        assertEquals(location, new Location("B", base, 1));
+        assertEquals(location.hashCode(), new Location("B", base, 1).hashCode());
+        assertNotEquals(location, new Location("A", base, 1.5));
+        assertNotEquals(location, null);
+        assertEquals(location, table.get(table.intern(location)));
+    }
+
+    @Test
+    void entities_keepHandles_andCustomerQueriesMatchByCoordinates() {
+        Location home = new Location("Home", base, 7);
+        CustomerService customerService = new CustomerService(new InMemoryRepository<>(), table);
+        Customer first = customerService.createCustomer("First", home, "first@example.com");
+        Customer second = customerService.createCustomer("Second", new Location("Home", base, 7), "second@example.com");
+        Customer neighbour = customerService.createCustomer("Neighbour", new Location("Next door", base, 7), "n@example.com");
+        customerService.createCustomer("Elsewhere", new Location("Home", base, 8), "e@example.com");
+
+        assertEquals(first.getLocationHandle(), second.getLocationHandle());
+        Shipment shipment = new Shipment(UUID.randomUUID(), UUID.randomUUID(), first.getId(), first.getLocation(),
+                List.of(new OrderItem(UUID.randomUUID(), 1)), table);
+        assertEquals(first.getLocationHandle(), shipment.getDestinationHandle());
+        assertEquals(shipment.getDestinationHandle(),
+                shipment.withStatus(ShipmentStatus.SHIPPED, null).getDestinationHandle());
+
+        Set<UUID> found = customerService.findAllCustomersInLocation(home).stream()
+                .map(Customer::getId)
+                .collect(Collectors.toSet());
+        assertEquals(Set.of(first.getId(), second.getId(), neighbour.getId()), found);
+        assertTrue(customerService.findAllCustomersInLocation(null).isEmpty());
+    }
+
+    @Test
+    void customerQueries_followCustomersSavedMovedAndDeletedOutsideTheService() {
+        InMemoryRepository<Customer> repository = new InMemoryRepository<>();
+        Customer stored = new Customer("Stored", new Location("Depot", base, 9), "s@example.com", table);
+        repository.save(stored.getId(), stored);
+        CustomerService customerService = new CustomerService(repository, table);
+        Customer moved = customerService.createCustomer("Moved", new Location("Depot", base, 9), "m@example.com");
+        // Saved straight into storage, as a bulk load does, and from another graph's table
+        Customer loaded = new Customer("Loaded", new Location("Depot", base, 9), "l@example.com", new LocationTable());
+        repository.save(loaded.getId(), loaded);
+        assertEquals(Set.of(stored.getId(), moved.getId(), loaded.getId()), idsAt(customerService, 9));
+
+        moved.setLocation(new Location("Away", base, 10));
+        repository.save(moved.getId(), moved);
+        repository.deleteById(loaded.getId());
+
+        assertEquals(Set.of(stored.getId()), idsAt(customerService, 9));
+        assertEquals(Set.of(moved.getId()), idsAt(customerService, 10));
+    }
+
+    private Set<UUID> idsAt(CustomerService customerService, double longitude) {
+        return customerService.findAllCustomersInLocation(new Location("Query", base, longitude)).stream()
+                .map(Customer::getId)
+                .collect(Collectors.toSet());
+    }
+}
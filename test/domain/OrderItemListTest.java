@@ -0,0 +1,49 @@
+package test.domain;
+
+import domain.model.Order;
+import domain.model.OrderItem;
+import domain.model.OrderItemList;
+import domain.model.OrderStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class OrderItemListTest {
+
+    private List<OrderItem> items;
+
+    @BeforeEach
+    void setUp() {
+        items = new ArrayList<>(List.of(new OrderItem(UUID.randomUUID(), 2), new OrderItem(UUID.randomUUID(), 3)));
+    }
+
+    @Test
+    void of_copiesMutableSourceOnce() {
+        OrderItemList list = OrderItemList.of(items);
+        items.clear();
+
+        assertEquals(2, list.size());
+        assertEquals(5, list.totalQuantity());
+        assertSame(list, OrderItemList.of(list));
+        assertThrows(UnsupportedOperationException.class, () -> list.add(new OrderItem(UUID.randomUUID(), 1)));
+        assertThrows(NullPointerException.class, () -> OrderItemList.of(Arrays.asList(list.get(0), null)));
+    }
+
+    @Test
+    void order_sharesItemsAcrossReadsAndVersions() {
+        Order order = new Order(UUID.randomUUID(), items, false);
+        Order allocated = order.withStatus(OrderStatus.ALLOCATED);
+
+        assertSame(order.getOrderItems(), order.getOrderItems());
+        assertSame(order.getOrderItems(), allocated.getOrderItems());
+        assertEquals(items, order.getOrderItems());
+    }
+}
@@ -0,0 +1,66 @@
+package test.metrics;
+
+import metrics.LatencyHistogram;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LatencyHistogramTest {
+
+    private LatencyHistogram histogram;
+
+    @BeforeEach
+    void setUp() {
+        histogram = new LatencyHistogram();
+    }
+
+    @Test
+    void smallValues_areCountedExactly() {
+        for (long value = 1; value <= 100; value++) {
+            histogram.recordValue(value);
+        }
+
+        assertEquals(50, histogram.getValueAtPercentile(50));
+        assertEquals(99, histogram.getValueAtPercentile(99));
+        assertEquals(100, histogram.getValueAtPercentile(100));
+        assertEquals(50.5, histogram.getMean(), 1e-9);
+    }
+
+    @Test
+    void largeValues_stayWithinRelativePrecision() {
+        for (long value = 1; value <= 1_000_000; value++) {
+            histogram.recordValue(value * 1_000);
+        }
+
+        for (double percentile: new double[] {10, 50, 90, 99, 99.9}) {
+            double expected = percentile / 100 * 1_000_000_000L;
+            double actual = histogram.getValueAtPercentile(percentile);
+            assertTrue(Math.abs(actual - expected) / expected < 1.0 / 64, "p" + percentile + "=" + actual);
+        }
+        assertEquals(1_000_000_000L, histogram.getValueAtPercentile(100));
+        assertEquals(1_000_000_000L, histogram.getMaxValue());
+    }
+
+    @Test
+    void add_mergesCountsAndMaximum() {
+        LatencyHistogram other = new LatencyHistogram();
+        histogram.recordValue(10);
+        other.recordValue(5_000_000);
+        other.recordValue(20);
+
+        histogram.add(other);
+
+        assertEquals(3, histogram.getTotalCount());
+        assertEquals(5_000_000, histogram.getMaxValue());
+        assertEquals(20, histogram.getValueAtPercentile(60));
+        assertTrue(histogram.percentileReport(1.0).contains("TotalCount = 3"));
+    }
+
+    @Test
+    void recordValue_rejectsNegativeValues() {
+        assertThrows(IllegalArgumentException.class, () -> histogram.recordValue(-1));
+    }
+}
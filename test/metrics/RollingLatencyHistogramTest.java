@@ -0,0 +1,32 @@
+package test.metrics;
+
+import metrics.RollingLatencyHistogram;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class RollingLatencyHistogramTest {
+
+    private static final long HOUR = Duration.ofHours(1).toNanos();
+
+    @Test
+    void snapshot_onlyCoversTheWindow() {
+        RollingLatencyHistogram histogram = new RollingLatencyHistogram(Duration.ofHours(1), 3);
+        histogram.recordValue(0, 1000);
+        histogram.recordValue(HOUR, 10);
+        histogram.recordValue(2 * HOUR + 1, 20);
+
+        assertEquals(3, histogram.snapshot(2 * HOUR).getTotalCount());
+        assertEquals(1000, histogram.snapshot(2 * HOUR).getMaxValue());
+
+        // Hour 3 takes over hour 0's slot, and late values for hour 0 are dropped
+        histogram.recordValue(3 * HOUR, 30);
+        histogram.recordValue(5, 2000);
+
+        assertEquals(3, histogram.snapshot(3 * HOUR).getTotalCount());
+        assertEquals(30, histogram.snapshot(3 * HOUR).getMaxValue());
+        assertEquals(1, histogram.snapshot(5 * HOUR).getTotalCount());
+    }
+}
@@ -0,0 +1,173 @@
+package test.network;
+
+import domain.model.Location;
+import domain.model.OrderItem;
+import domain.model.Product;
+import domain.model.ProductType;
+import domain.model.TransferOrder;
+import domain.model.TransferStatus;
+import domain.model.Warehouse;
+import exceptions.InvalidTransferStateException;
+import exceptions.NoRouteException;
+import network.FulfillmentOption;
+import network.NodeTier;
+import network.TransferPlanner;
+import network.TransferService;
+import network.TransportNetwork;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import repository.InMemoryRepository;
+import service.InventoryService;
+import service.WarehouseService;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TransferServiceTest {
+
+    private ManualClock clock;
+    private InMemoryRepository<Product> productRepository;
+    private InventoryService inventoryService;
+    private TransportNetwork network;
+    private TransferService transferService;
+    private UUID productId;
+    private Warehouse dc;
+    private Warehouse east;
+    private Warehouse west;
+
+    @BeforeEach
+    void setUp() {
+        productRepository = new InMemoryRepository<>();
+        InMemoryRepository<Warehouse> warehouseRepository = new InMemoryRepository<>();
+        inventoryService = new InventoryService(new InMemoryRepository<>(), productRepository, warehouseRepository);
+        WarehouseService warehouseService = new WarehouseService(warehouseRepository, inventoryService);
+        clock = new ManualClock(Instant.parse("2024-01-01T00:00:00Z"));
+        network = new TransportNetwork();
+        transferService = new TransferService(new InMemoryRepository<>(), inventoryService, network, clock);
+
+        Product product = new Product("Product", ProductType.MECHANICAL, "Test");
+        productRepository.save(product.getId(), product);
+        productId = product.getId();
+        dc = warehouseService.createWarehouse("DC", new Location("DC", 50, 0), 10_000);
+        east = warehouseService.createWarehouse("East", new Location("E", 100, 0), 10_000);
+        west = warehouseService.createWarehouse("West", new Location("W", 0, 0), 10_000);
+        network.addWarehouse(dc, NodeTier.DISTRIBUTION_CENTER);
+        network.addWarehouse(east, NodeTier.REGIONAL_WAREHOUSE);
+        network.addWarehouse(west, NodeTier.REGIONAL_WAREHOUSE);
+        network.setLane(west.getId(), dc.getId(), 5, Duration.ofHours(6));
+        network.setLane(dc.getId(), east.getId(), 5, Duration.ofHours(6));
+        inventoryService.addInventoryItem(west.getId(), productId, 10);
+    }
+
+    @Test
+    void transfer_reservesThenMovesStockAlongTheRoute() {
+        TransferOrder transfer = transferService.createTransfer(productId, west.getId(), east.getId(), 4);
+        assertEquals(List.of(west.getId(), dc.getId(), east.getId()), transfer.getRoute());
+        assertEquals(6, inventoryService.getAvailableQuantity(west.getId(), productId));
+
+        transferService.dispatch(transfer.getId());
+        clock.advance(Duration.ofHours(11));
+        assertEquals(0, transferService.receiveArrived());
+        clock.advance(Duration.ofHours(1));
+        assertEquals(1, transferService.receiveArrived());
+
+        assertEquals(TransferStatus.RECEIVED, transferService.getTransferById(transfer.getId()).getStatus());
+        assertEquals(4, inventoryService.getAvailableQuantity(east.getId(), productId));
+        assertEquals(6, inventoryService.getAvailableQuantity(west.getId(), productId));
+        assertThrows(InvalidTransferStateException.class, () -> transferService.cancel(transfer.getId()));
+        assertThrows(NoRouteException.class, () -> transferService.createTransfer(productId, east.getId(), west.getId(), 1));
+    }
+
+    @Test
+    void dispatch_returnsTheTransferToReservedWhenTheDeductionFails() {
+        TransferOrder transfer = transferService.createTransfer(productId, west.getId(), east.getId(), 4);
+        inventoryService.releaseStock(west.getId(), productId, 4);
+
+        assertThrows(RuntimeException.class, () -> transferService.dispatch(transfer.getId()));
+        assertEquals(TransferStatus.RESERVED, transferService.getTransferById(transfer.getId()).getStatus());
+
+        inventoryService.reserveStock(west.getId(), List.of(new OrderItem(productId, 4)));
+        transferService.dispatch(transfer.getId());
+        assertEquals(TransferStatus.IN_TRANSIT, transferService.getTransferById(transfer.getId()).getStatus());
+    }
+
+    @Test
+    void receiveArrived_requeuesTheRestOfTheBatchWhenAReceiveFails() {
+        TransferOrder first = transferService.createTransfer(productId, west.getId(), east.getId(), 2);
+        TransferOrder second = transferService.createTransfer(productId, west.getId(), east.getId(), 3);
+        transferService.dispatch(first.getId());
+        transferService.dispatch(second.getId());
+        clock.advance(Duration.ofHours(12));
+
+        Product product = productRepository.findById(productId).orElseThrow();
+        productRepository.deleteById(productId);
+        assertThrows(RuntimeException.class, () -> transferService.receiveArrived());
+        assertEquals(TransferStatus.IN_TRANSIT, transferService.getTransferById(first.getId()).getStatus());
+        assertEquals(TransferStatus.IN_TRANSIT, transferService.getTransferById(second.getId()).getStatus());
+
+        productRepository.save(productId, product);
+        assertEquals(2, transferService.receiveArrived());
+        assertEquals(5, inventoryService.getAvailableQuantity(east.getId(), productId));
+    }
+
+    @Test
+    void planner_prefersTransferThenShipWhenLastMileDominates() {
+        TransferPlanner planner = new TransferPlanner(network, inventoryService, 1);
+        Location nearEast = new Location("C", 101, 0);
+
+        FulfillmentOption option = planner.plan(productId, 3, nearEast).orElseThrow();
+        assertTrue(option.isTransfer());
+        assertEquals(west.getId(), option.getSourceWarehouseId());
+        assertEquals(east.getId(), option.getShipFromWarehouseId());
+        assertEquals(11, option.getCost(), 1e-9);
+        assertEquals(Duration.ofHours(12), option.getTransferTime());
+
+        TransferOrder transfer = transferService.createTransfer(option);
+        transferService.cancel(transfer.getId());
+        assertEquals(10, inventoryService.getAvailableQuantity(west.getId(), productId));
+
+        // Expensive lanes make the long direct delivery cheaper
+        network.setLane(dc.getId(), east.getId(), 500, Duration.ofHours(6));
+        FulfillmentOption direct = planner.plan(productId, 3, nearEast).orElseThrow();
+        assertFalse(direct.isTransfer());
+        assertEquals(west.getId(), direct.getShipFromWarehouseId());
+        assertTrue(planner.plan(productId, 11, nearEast).isEmpty());
+    }
+
+    private static final class ManualClock extends Clock {
+        private Instant now;
+
+        private ManualClock(Instant now) {
+            this.now = now;
+        }
+
+        private void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
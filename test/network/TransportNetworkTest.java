@@ -0,0 +1,83 @@
+package test.network;
+
+import domain.model.Location;
+import network.NetworkPath;
+import network.NodeTier;
+import network.TransportNetwork;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TransportNetworkTest {
+
+    private TransportNetwork network;
+    private UUID supplier;
+    private UUID dcNorth;
+    private UUID dcSouth;
+    private UUID regional;
+
+    @BeforeEach
+    void setUp() {
+        network = new TransportNetwork();
+        supplier = UUID.randomUUID();
+        dcNorth = UUID.randomUUID();
+        dcSouth = UUID.randomUUID();
+        regional = UUID.randomUUID();
+        network.addNode(supplier, NodeTier.SUPPLIER, new Location("S", 0, 0));
+        network.addNode(dcNorth, NodeTier.DISTRIBUTION_CENTER, new Location("N", 10, 10));
+        network.addNode(dcSouth, NodeTier.DISTRIBUTION_CENTER, new Location("D", 10, -10));
+        network.addNode(regional, NodeTier.REGIONAL_WAREHOUSE, new Location("R", 20, 0));
+
+        network.setLane(supplier, dcNorth, 5, Duration.ofDays(2));
+        network.setLane(supplier, dcSouth, 3, Duration.ofDays(3));
+        network.setLane(dcNorth, regional, 4, Duration.ofDays(1));
+        network.setLane(dcSouth, regional, 4, Duration.ofDays(1));
+    }
+
+    @Test
+    void shortestPath_followsCheapestLanesAndSumsTransitTimes() {
+        NetworkPath path = network.shortestPath(supplier, regional).orElseThrow();
+
+        assertEquals(List.of(supplier, dcSouth, regional), path.getNodes());
+        assertEquals(7, path.getCost());
+        assertEquals(Duration.ofDays(4), path.getTransitTime());
+        assertEquals(2, path.getLaneCount());
+        assertEquals(0, network.pathCost(regional, regional));
+        // Lanes are directed
+        assertTrue(network.shortestPath(regional, supplier).isEmpty());
+        assertEquals(Double.POSITIVE_INFINITY, network.pathCost(regional, supplier));
+    }
+
+    @Test
+    void laneChanges_invalidateCachedPaths() {
+        network.shortestPath(supplier, regional);
+        network.pathCost(dcNorth, regional);
+        assertEquals(2, network.getCachedSourceCount());
+
+        network.setLane(dcSouth, regional, 9, Duration.ofDays(1));
+        assertEquals(0, network.getCachedSourceCount());
+        assertEquals(List.of(supplier, dcNorth, regional), network.shortestPath(supplier, regional).orElseThrow().getNodes());
+
+        network.removeLane(dcNorth, regional);
+        assertEquals(12, network.pathCost(supplier, regional));
+
+        network.removeNode(dcSouth);
+        assertTrue(network.shortestPath(supplier, regional).isEmpty());
+        assertEquals(List.of(dcNorth), network.getNodes(NodeTier.DISTRIBUTION_CENTER));
+    }
+
+    @Test
+    void readdingANode_keepsItsLanes() {
+        network.addNode(dcSouth, NodeTier.DISTRIBUTION_CENTER, new Location("D2", 12, -10));
+
+        assertEquals(7, network.pathCost(supplier, regional));
+        assertEquals(12, network.getLocation(dcSouth).orElseThrow().getLatitude());
+        assertEquals(9, network.getVersion());
+    }
+}
@@ -0,0 +1,109 @@
+package test.pipeline;
+
+import domain.model.InventoryItem;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import pipeline.InventoryCommandPipeline;
+import pipeline.InventoryCommandResult;
+import pipeline.InventoryCommandType;
+import repository.InMemoryRepository;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class InventoryCommandPipelineTest {
+
+    private InventoryCommandPipeline pipeline;
+    private InventoryItem item;
+
+    @BeforeEach
+    void setUp() {
+        InMemoryRepository<InventoryItem> storage = new InMemoryRepository<>();
+        item = new InventoryItem(UUID.randomUUID(), UUID.randomUUID(), 100);
+        storage.save(item.getId(), item);
+        pipeline = new InventoryCommandPipeline(storage, 8);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pipeline.close();
+    }
+
+    @Test
+    void submit_appliesCommandsAndReportsResults() {
+        assertEquals(InventoryCommandResult.SUCCESS, pipeline.reserve(item.getWarehouseId(), item.getProductId(), 30));
+        assertEquals(InventoryCommandResult.SUCCESS, pipeline.deduct(item.getWarehouseId(), item.getProductId(), 10));
+        assertEquals(InventoryCommandResult.SUCCESS, pipeline.release(item.getWarehouseId(), item.getProductId(), 20));
+        assertEquals(InventoryCommandResult.SUCCESS, pipeline.restock(item.getWarehouseId(), item.getProductId(), 5));
+
+        assertEquals(95, item.getAvailableQuantity());
+        assertEquals(0, item.getReservedQuantity());
+    }
+
+    @Test
+    void submit_reportsFailuresWithoutApplyingThem() {
+        assertEquals(InventoryCommandResult.INSUFFICIENT_AVAILABLE, pipeline.reserve(item.getWarehouseId(), item.getProductId(), 101));
+        assertEquals(InventoryCommandResult.INSUFFICIENT_RESERVED, pipeline.release(item.getWarehouseId(), item.getProductId(), 1));
+        assertEquals(InventoryCommandResult.ITEM_NOT_FOUND, pipeline.restock(UUID.randomUUID(), item.getProductId(), 1));
+
+        assertEquals(100, item.getAvailableQuantity());
+    }
+
+    @Test
+    void publish_wrapsAroundTheRingFromSeveralProducers() throws InterruptedException {
+        Thread[] producers = new Thread[4];
+        for (int p = 0; p < producers.length; p++) {
+            producers[p] = new Thread(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    pipeline.publish(InventoryCommandType.RESTOCK, item.getWarehouseId(), item.getProductId(), 1);
+                }
+            });
+            producers[p].start();
+        }
+        for (Thread producer: producers) {
+            producer.join();
+        }
+        pipeline.awaitDrained();
+
+        assertEquals(4100, item.getAvailableQuantity());
+        assertEquals(4000, pipeline.getStatistics().getCommands());
+    }
+
+    @Test
+    void submit_failingCommandCompletesAndConsumerKeepsGoing() {
+        InMemoryRepository<InventoryItem> storage = new InMemoryRepository<>();
+        InventoryItem broken = new InventoryItem(UUID.randomUUID(), UUID.randomUUID(), 10) {
+            @Override
+            public void restock(int quantity) {
+                throw new IllegalStateException("broken item");
+            }
+        };
+        storage.save(broken.getId(), broken);
+        try (InventoryCommandPipeline failing = new InventoryCommandPipeline(storage, 4)) {
+            for (int i = 0; i < 10; i++) {
+                assertEquals(InventoryCommandResult.FAILED, failing.restock(broken.getWarehouseId(), broken.getProductId(), 1));
+            }
+            assertEquals(InventoryCommandResult.SUCCESS, failing.reserve(broken.getWarehouseId(), broken.getProductId(), 4));
+            assertEquals(6, broken.getAvailableQuantity());
+        }
+
+        assertEquals(InventoryCommandResult.INVALID_QUANTITY,
+                pipeline.restock(item.getWarehouseId(), item.getProductId(), Integer.MAX_VALUE));
+        assertEquals(100, item.getAvailableQuantity());
+    }
+
+    @Test
+    void close_rejectsLaterPublishes() {
+        pipeline.publish(InventoryCommandType.RESTOCK, item.getWarehouseId(), item.getProductId(), 1);
+        pipeline.close();
+
+        assertEquals(101, item.getAvailableQuantity());
+        assertThrows(IllegalStateException.class,
+                () -> pipeline.publish(InventoryCommandType.RESTOCK, item.getWarehouseId(), item.getProductId(), 1));
+        pipeline.awaitDrained();
+        assertEquals(101, item.getAvailableQuantity());
+    }
+}
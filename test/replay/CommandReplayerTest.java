@@ -0,0 +1,119 @@
+package test.replay;
+
+import domain.model.Location;
+import domain.model.Order;
+import domain.model.OrderItem;
+import domain.model.OrderStatus;
+import domain.model.Product;
+import domain.model.ProductType;
+import exceptions.CodecException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import replay.CommandRecorder;
+import replay.CommandReplayer;
+import replay.ReplayResult;
+import replay.ServiceGraph;
+import replay.StateDigest;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CommandReplayerTest {
+
+    @TempDir
+    Path directory;
+
+    private ServiceGraph graph;
+    private UUID productId;
+    private UUID warehouseId;
+    private UUID customerId;
+
+    @BeforeEach
+    void setUp() {
+        graph = new ServiceGraph();
+        Product product = new Product("Product", ProductType.MECHANICAL, "Test");
+        graph.getProductRepository().save(product.getId(), product);
+        productId = product.getId();
+        warehouseId = graph.getWarehouseService().createWarehouse("Warehouse", new Location("W", 0, 0), 10_000).getId();
+        graph.getInventoryService().addInventoryItem(warehouseId, productId, 5);
+        customerId = graph.getCustomerService().createCustomer("Customer", new Location("C", 1, 1), "c@example.com").getId();
+    }
+
+    @Test
+    void replay_atMaxSpeed_reproducesOutcomesAndState() throws IOException {
+        Path log = directory.resolve("commands.log");
+        try (CommandRecorder recorder = new CommandRecorder(graph, log)) {
+            Order shipped = recorder.createOrder(customerId, List.of(new OrderItem(productId, 3)), false);
+            assertTrue(recorder.fulfillOrder(shipped.getId()));
+            recorder.shipOrder(shipped.getId());
+
+            Order tooLarge = recorder.createOrder(customerId, List.of(new OrderItem(productId, 4)), true);
+            assertFalse(recorder.tryFulfillOrder(tooLarge.getId()).isFulfilled());
+            recorder.restockWarehouse(warehouseId, productId, 10);
+            assertTrue(recorder.fulfillOrder(tooLarge.getId()));
+
+            Order cancelled = recorder.createOrder(customerId, List.of(new OrderItem(productId, 1)), false);
+            recorder.cancelOrder(cancelled.getId());
+            assertThrows(RuntimeException.class, () -> recorder.shipOrder(UUID.randomUUID()));
+            assertEquals(10, recorder.getCommandCount());
+        }
+
+        ReplayResult result = new CommandReplayer(CommandReplayer.MAX_SPEED).replay(log);
+
+        assertEquals(10, result.getCommands());
+        assertEquals(0, result.getMismatchedOutcomes());
+        assertTrue(result.isDigestMatch(), result.getReplayedDigest() + " vs " + result.getRecordedDigest());
+        assertEquals(StateDigest.of(graph), result.getReplayedDigest());
+        assertEquals(3, result.getReplayedDigest().getOrders());
+        assertEquals(1, result.getGraph().getOrderService().getOrdersByStatus(OrderStatus.CANCELLED).size());
+        assertEquals(8, result.getGraph().getInventoryService().getAvailableQuantity(warehouseId, productId));
+    }
+
+    @Test
+    void replay_atRecordedSpeed_keepsTheGapsBetweenCommands() throws Exception {
+        Path log = directory.resolve("timed.log");
+        try (CommandRecorder recorder = new CommandRecorder(graph, log)) {
+            recorder.restockWarehouse(warehouseId, productId, 1);
+            Thread.sleep(100);
+            recorder.restockWarehouse(warehouseId, productId, 1);
+        }
+
+        ReplayResult realTime = new CommandReplayer(1).replay(log);
+        ReplayResult fast = new CommandReplayer(4).replay(log);
+
+        assertTrue(realTime.getRecordedDuration().toMillis() >= 100);
+        assertTrue(realTime.getReplayDuration().compareTo(realTime.getRecordedDuration()) >= 0);
+        assertTrue(fast.getReplayDuration().compareTo(fast.getRecordedDuration().dividedBy(4)) >= 0);
+        assertTrue(realTime.isDigestMatch());
+        assertTrue(fast.isDigestMatch());
+    }
+
+    @Test
+    void recorder_rejectsGraphsThatAlreadyHaveOrders() {
+        graph.getOrderService().createOrder(customerId, List.of(new OrderItem(productId, 1)), false);
+
+        assertThrows(IllegalStateException.class, () -> new CommandRecorder(graph, directory.resolve("orders.log")));
+    }
+
+    @Test
+    void replay_ofTruncatedLog_isRejected() throws IOException {
+        Path log = directory.resolve("full.log");
+        try (CommandRecorder recorder = new CommandRecorder(graph, log)) {
+            recorder.restockWarehouse(warehouseId, productId, 1);
+        }
+        byte[] bytes = Files.readAllBytes(log);
+        Path truncated = Files.write(directory.resolve("truncated.log"), Arrays.copyOf(bytes, bytes.length - 10));
+
+        assertThrows(CodecException.class, () -> new CommandReplayer(CommandReplayer.MAX_SPEED).replay(truncated));
+    }
+}
@@ -0,0 +1,138 @@
+package test.replenishment;
+
+import domain.model.Location;
+import domain.model.LocationTable;
+import domain.model.OrderItem;
+import domain.model.Product;
+import domain.model.ProductType;
+import domain.model.Warehouse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import replenishment.ReplenishmentEngine;
+import replenishment.ReplenishmentPolicy;
+import repository.InMemoryRepository;
+import service.InventoryService;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ReplenishmentEngineTest {
+
+    private InventoryService inventoryService;
+    private ReplenishmentEngine engine;
+    private ManualClock clock;
+    private UUID warehouseId;
+    private UUID productId;
+    private UUID otherProductId;
+
+    @BeforeEach
+    void setUp() {
+        InMemoryRepository<Product> productRepository = new InMemoryRepository<>();
+        InMemoryRepository<Warehouse> warehouseRepository = new InMemoryRepository<>();
+        inventoryService = new InventoryService(new InMemoryRepository<>(), productRepository, warehouseRepository);
+        clock = new ManualClock(Instant.parse("2024-01-01T00:00:00Z"));
+        engine = new ReplenishmentEngine(inventoryService, clock);
+
+        Product product = new Product("Product", ProductType.MECHANICAL, "Test");
+        Product otherProduct = new Product("Other", ProductType.MECHANICAL, "Test");
+        Warehouse warehouse = new Warehouse("Warehouse", new Location("W", 0, 0), 10_000, new LocationTable());
+        productRepository.save(product.getId(), product);
+        productRepository.save(otherProduct.getId(), otherProduct);
+        warehouseRepository.save(warehouse.getId(), warehouse);
+        productId = product.getId();
+        otherProductId = otherProduct.getId();
+        warehouseId = warehouse.getId();
+
+        inventoryService.addInventoryItem(warehouseId, productId, 100);
+        inventoryService.addInventoryItem(warehouseId, otherProductId, 100);
+    }
+
+    @Test
+    void reserveBelowReorderPoint_schedulesRestockUpToLevelAfterLeadTime() {
+        engine.setProductPolicy(productId, new ReplenishmentPolicy(20, 100, Duration.ofHours(2)));
+
+        inventoryService.reserveStock(warehouseId, List.of(new OrderItem(productId, 85)));
+
+        assertEquals(85, engine.getQuantityOnOrder(warehouseId, productId));
+        assertEquals(Optional.of(clock.instant().plus(Duration.ofHours(2))), engine.nextDueAt());
+
+        clock.advance(Duration.ofHours(1));
+        assertEquals(0, engine.processDue());
+        assertEquals(15, inventoryService.getAvailableQuantity(warehouseId, productId));
+
+        clock.advance(Duration.ofHours(1));
+        assertEquals(1, engine.processDue());
+        assertEquals(100, inventoryService.getAvailableQuantity(warehouseId, productId));
+        assertEquals(0, engine.getQuantityOnOrder(warehouseId, productId));
+    }
+
+    @Test
+    void outstandingOrdersCountTowardsThePosition() {
+        engine.setProductPolicy(productId, new ReplenishmentPolicy(20, 100, Duration.ofHours(1)));
+
+        inventoryService.reserveStock(warehouseId, List.of(new OrderItem(productId, 90)));
+        inventoryService.reserveStock(warehouseId, List.of(new OrderItem(productId, 5)));
+
+        // Position is 5 available + 90 on order, well above the reorder point
+        assertEquals(1, engine.getScheduledRestocks());
+        assertEquals(90, engine.getQuantityOnOrder(warehouseId, productId));
+    }
+
+    @Test
+    void cellPolicyOverridesWarehousePolicyAndCellsWithoutPolicyAreIgnored() {
+        engine.setWarehousePolicy(warehouseId, new ReplenishmentPolicy(50, 200, Duration.ZERO));
+        engine.setPolicy(warehouseId, otherProductId, new ReplenishmentPolicy(10, 30, Duration.ZERO));
+
+        inventoryService.reserveStock(warehouseId, List.of(new OrderItem(productId, 60), new OrderItem(otherProductId, 60)));
+
+        // 40 <= 50 under the warehouse policy, but 40 > 10 under the cell policy
+        assertEquals(160, engine.getQuantityOnOrder(warehouseId, productId));
+        assertEquals(0, engine.getQuantityOnOrder(warehouseId, otherProductId));
+
+        assertEquals(1, engine.processDue());
+        assertEquals(200, inventoryService.getAvailableQuantity(warehouseId, productId));
+    }
+
+    @Test
+    void policy_rejectsOrderUpToLevelNotAboveReorderPoint() {
+        assertThrows(IllegalArgumentException.class, () -> new ReplenishmentPolicy(10, 10, Duration.ZERO));
+        assertTrue(engine.getPolicy(warehouseId, productId).isEmpty());
+    }
+
+    private static final class ManualClock extends Clock {
+        private Instant now;
+
+        private ManualClock(Instant now) {
+            this.now = now;
+        }
+
+        private void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
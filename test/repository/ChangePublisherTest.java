@@ -0,0 +1,166 @@
+package test.repository;
+
+import domain.model.InventoryItem;
+import domain.model.Location;
+import domain.model.LocationTable;
+import domain.model.Product;
+import domain.model.ProductType;
+import domain.model.Warehouse;
+import exceptions.ChangeStreamOverflowException;
+import org.junit.jupiter.api.Test;
+import repository.ChangeEvent;
+import repository.ChangePublisher;
+import repository.ChangeType;
+import repository.InMemoryRepository;
+import repository.OverflowPolicy;
+import service.InventoryService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ChangePublisherTest {
+
+    @Test
+    void repository_publishesOrderedBatchesWithBeforeAndAfter() throws Exception {
+        InMemoryRepository<String> repository = new InMemoryRepository<>();
+        RecordingSubscriber<String> subscriber = new RecordingSubscriber<>(Long.MAX_VALUE);
+        repository.getChanges().subscribe(subscriber, 100, 2, OverflowPolicy.CANCEL);
+        subscriber.awaitSubscribed();
+
+        UUID id = UUID.randomUUID();
+        repository.save(id, "v1");
+        repository.save(id, "v2");
+        repository.deleteById(id);
+        repository.deleteById(id);
+        repository.getChanges().close();
+        subscriber.awaitTerminated();
+
+        List<ChangeEvent<String>> events = subscriber.events();
+        assertEquals(3, events.size());
+        assertEquals(List.of(1L, 2L, 3L), events.stream().map(ChangeEvent::getSequence).toList());
+        assertEquals(List.of(ChangeType.INSERT, ChangeType.UPDATE, ChangeType.DELETE),
+                events.stream().map(ChangeEvent::getType).toList());
+        assertNull(events.get(0).getBefore());
+        assertEquals("v1", events.get(1).getBefore());
+        assertEquals("v2", events.get(1).getAfter());
+        assertNull(events.get(2).getAfter());
+        assertTrue(subscriber.batches.stream().allMatch(batch -> batch.size() <= 2));
+        assertTrue(subscriber.completed);
+    }
+
+    @Test
+    void slowSubscriber_doesNotStallWriters() throws Exception {
+        ChangePublisher<Integer> publisher = new ChangePublisher<>();
+        RecordingSubscriber<Integer> dropping = new RecordingSubscriber<>(0);
+        RecordingSubscriber<Integer> strict = new RecordingSubscriber<>(0);
+        publisher.subscribe(dropping, 10, 4, OverflowPolicy.DROP_OLDEST);
+        publisher.subscribe(strict, 10, 4, OverflowPolicy.CANCEL);
+        dropping.awaitSubscribed();
+        strict.awaitSubscribed();
+
+        // Nobody requests anything, yet all 100 publishes return
+        for (int i = 0; i < 100; i++) {
+            publisher.publish(ChangeType.INSERT, UUID.randomUUID(), null, i);
+        }
+        strict.awaitTerminated();
+        assertInstanceOf(ChangeStreamOverflowException.class, strict.error);
+        assertEquals(1, publisher.getSubscriberCount());
+
+        dropping.subscription.request(10);
+        publisher.close();
+        dropping.awaitTerminated();
+        // The newest 10 events survive, and the gap before them shows what was lost
+        assertEquals(91L, dropping.events().get(0).getSequence());
+        assertEquals(10, dropping.events().size());
+        assertEquals(100, publisher.getSequence());
+    }
+
+    @Test
+    void inventoryService_publishesStockMovementsAsSnapshots() throws Exception {
+        InMemoryRepository<Product> productRepository = new InMemoryRepository<>();
+        InMemoryRepository<Warehouse> warehouseRepository = new InMemoryRepository<>();
+        InventoryService inventoryService = new InventoryService(new InMemoryRepository<>(), productRepository, warehouseRepository);
+        Product product = new Product("Product", ProductType.MECHANICAL, "Test");
+        Warehouse warehouse = new Warehouse("Warehouse", new Location("W", 0, 0), 1000, new LocationTable());
+        productRepository.save(product.getId(), product);
+        warehouseRepository.save(warehouse.getId(), warehouse);
+
+        RecordingSubscriber<InventoryItem> subscriber = new RecordingSubscriber<>(Long.MAX_VALUE);
+        inventoryService.getChanges().subscribe(subscriber);
+        subscriber.awaitSubscribed();
+        inventoryService.addInventoryItem(warehouse.getId(), product.getId(), 10);
+        inventoryService.restockWarehouse(warehouse.getId(), product.getId(), 5);
+        inventoryService.getChanges().close();
+        subscriber.awaitTerminated();
+
+        List<ChangeEvent<InventoryItem>> events = subscriber.events();
+        assertEquals(2, events.size());
+        assertEquals(ChangeType.INSERT, events.get(0).getType());
+        assertEquals(10, events.get(0).getAfter().getAvailableQuantity());
+        assertEquals(10, events.get(1).getBefore().getAvailableQuantity());
+        assertEquals(15, events.get(1).getAfter().getAvailableQuantity());
+    }
+
+    private static final class RecordingSubscriber<T> implements Flow.Subscriber<List<ChangeEvent<T>>> {
+        private final long initialRequest;
+        private final List<List<ChangeEvent<T>>> batches = new ArrayList<>();
+        private final CountDownLatch subscribed = new CountDownLatch(1);
+        private final CountDownLatch terminated = new CountDownLatch(1);
+        private volatile Flow.Subscription subscription;
+        private volatile boolean completed;
+        private volatile Throwable error;
+
+        private RecordingSubscriber(long initialRequest) {
+            this.initialRequest = initialRequest;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            if (initialRequest > 0) {
+                subscription.request(initialRequest);
+            }
+            subscribed.countDown();
+        }
+
+        @Override
+        public synchronized void onNext(List<ChangeEvent<T>> batch) {
+            batches.add(batch);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+            terminated.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+            terminated.countDown();
+        }
+
+        private synchronized List<ChangeEvent<T>> events() {
+            List<ChangeEvent<T>> events = new ArrayList<>();
+            batches.forEach(events::addAll);
+            return events;
+        }
+
+        private void awaitSubscribed() throws InterruptedException {
+            assertTrue(subscribed.await(5, TimeUnit.SECONDS));
+        }
+
+        private void awaitTerminated() throws InterruptedException {
+            assertTrue(terminated.await(5, TimeUnit.SECONDS));
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package test.repository;
+
+import domain.model.Customer;
+import domain.model.Location;
+import domain.model.LocationTable;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import repository.InMemoryRepository;
+import repository.LocationIndex;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LocationIndexTest {
+
+    private LocationTable locations;
+    private InMemoryRepository<Customer> repository;
+    private LocationIndex<Customer> index;
+
+    @BeforeEach
+    void setUp() {
+        locations = new LocationTable();
+        repository = new InMemoryRepository<>();
+        index = repository.createLocationIndex(locations, Customer::getLocation);
+    }
+
+    @Test
+    void find_followsGrowthMovesAndDeletesAndReusesFreedEntries() {
+        List<Customer> customers = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            customers.add(save(new Customer("C" + i, new Location("P" + i % 10, i % 10, 0), "c" + i + "@example.com", locations)));
+        }
+        assertEquals(1000, index.size());
+        assertEquals(100, index.find(new Location("Query", 3, 0)).size());
+
+        for (int i = 0; i < 1000; i += 2) {
+            Customer customer = customers.get(i);
+            customer.setLocation(new Location("Moved", 20, 0));
+            save(customer);
+        }
+        for (int i = 1; i < 1000; i += 4) {
+            repository.deleteById(customers.get(i).getId());
+        }
+
+        assertEquals(750, index.size());
+        assertEquals(500, index.find(new Location("Query", 20, 0)).size());
+        assertEquals(0, index.find(new Location("Query", 2, 0)).size());
+        assertEquals(50, index.find(new Location("Query", 3, 0)).size());
+
+        for (int i = 0; i < 250; i++) {
+            save(new Customer("N" + i, new Location("New", 30, 0), "n" + i + "@example.com", locations));
+        }
+        assertEquals(1000, index.size());
+        assertEquals(250, index.find(new Location("Query", 30, 0)).size());
+        assertTrue(index.find(null).isEmpty());
+    }
+
+    @Test
+    void indexedCustomersWithoutALocation_leaveTheIndex() {
+        Customer customer = save(new Customer("C", new Location("Depot", 1, 1), "c@example.com", locations));
+        customer.setLocation(null);
+        save(customer);
+
+        assertEquals(0, index.size());
+        assertTrue(index.find(new Location("Depot", 1, 1)).isEmpty());
+    }
+
+    private Customer save(Customer customer) {
+        repository.save(customer.getId(), customer);
+        return customer;
+    }
+}
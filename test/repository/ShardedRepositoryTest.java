@@ -0,0 +1,109 @@
+package test.repository;
+
+import domain.model.InventoryItem;
+import domain.model.Location;
+import domain.model.LocationTable;
+import domain.model.OrderItem;
+import domain.model.Product;
+import domain.model.ProductType;
+import domain.model.Warehouse;
+import exceptions.InsufficientStockException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import repository.InMemoryRepository;
+import repository.ShardedRepository;
+import service.InventoryService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ShardedRepositoryTest {
+
+    private ShardedRepository<InventoryItem> inventoryRepository;
+    private InventoryService inventoryService;
+    private UUID warehouseId;
+    private UUID productId;
+
+    @BeforeEach
+    void setUp() {
+        inventoryRepository = new ShardedRepository<>(4, InventoryItem::getWarehouseId);
+        InMemoryRepository<Product> productRepository = new InMemoryRepository<>();
+        InMemoryRepository<Warehouse> warehouseRepository = new InMemoryRepository<>();
+        inventoryService = new InventoryService(inventoryRepository, productRepository, warehouseRepository);
+
+        Product product = new Product("Test Product", ProductType.ELECTRONIC, "Test");
+        Warehouse warehouse = new Warehouse("Test Warehouse", new Location("Test", 0, 0), 1000, new LocationTable());
+        productRepository.save(product.getId(), product);
+        warehouseRepository.save(warehouse.getId(), warehouse);
+        productId = product.getId();
+        warehouseId = warehouse.getId();
+
+        inventoryService.addInventoryItem(warehouseId, productId, 1000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        inventoryRepository.close();
+    }
+
+    @Test
+    void savedEntitiesAreVisibleAcrossShards() {
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 32; i++) {
+            InventoryItem item = new InventoryItem(UUID.randomUUID(), UUID.randomUUID(), i);
+            inventoryRepository.save(item.getId(), item);
+            ids.add(item.getId());
+        }
+
+        ids.forEach(id -> assertTrue(inventoryRepository.existsById(id)));
+        assertEquals(33, inventoryRepository.findAll().size());
+
+        inventoryRepository.deleteById(ids.get(0));
+        assertTrue(inventoryRepository.findById(ids.get(0)).isEmpty());
+    }
+
+    @Test
+    void execute_runsCommandsForOneKeyOnASingleWriter() {
+        List<String> writers = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            inventoryRepository.execute(warehouseId, () -> writers.add(Thread.currentThread().getName()));
+        }
+
+        assertEquals(1, writers.stream().distinct().count());
+        assertTrue(writers.get(0).startsWith("repository-shard-"));
+    }
+
+    @Test
+    void concurrentReservationsDoNotLoseUpdates() throws InterruptedException {
+        List<Thread> clients = new ArrayList<>();
+        for (int c = 0; c < 8; c++) {
+            Thread client = new Thread(() -> {
+                for (int i = 0; i < 100; i++) {
+                    inventoryService.reserveStock(warehouseId, List.of(new OrderItem(productId, 1)));
+                }
+            });
+            clients.add(client);
+            client.start();
+        }
+        for (Thread client: clients) {
+            client.join();
+        }
+
+        assertEquals(200, inventoryService.getAvailableQuantity(warehouseId, productId));
+    }
+
+    @Test
+    void execute_rethrowsCommandExceptionsUnchanged() {
+        List<OrderItem> orderItems = List.of(new OrderItem(productId, 5000));
+        assertThrows(
+                InsufficientStockException.class,
+                () -> inventoryService.reserveStock(warehouseId, orderItems)
+        );
+    }
+}
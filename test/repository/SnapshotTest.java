@@ -0,0 +1,112 @@
+package test.repository;
+
+import domain.model.InventoryItem;
+import domain.model.Location;
+import domain.model.Order;
+import domain.model.OrderItem;
+import domain.model.OrderStatus;
+import domain.model.Product;
+import domain.model.ProductType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import replay.ServiceGraph;
+import repository.Snapshot;
+import repository.SnapshotManager;
+import repository.VersionStore;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SnapshotTest {
+
+    private ServiceGraph graph;
+    private SnapshotManager manager;
+    private VersionStore<Order> orders;
+    private VersionStore<InventoryItem> inventory;
+    private UUID productId;
+    private UUID warehouseId;
+    private UUID customerId;
+
+    @BeforeEach
+    void setUp() {
+        graph = new ServiceGraph();
+        Product product = new Product("Product", ProductType.MECHANICAL, "Test");
+        graph.getProductRepository().save(product.getId(), product);
+        productId = product.getId();
+        warehouseId = graph.getWarehouseService().createWarehouse("Warehouse", new Location("W", 0, 0), 10_000).getId();
+        graph.getInventoryService().addInventoryItem(warehouseId, productId, 10);
+        customerId = graph.getCustomerService().createCustomer("Customer", new Location("C", 1, 1), "c@example.com").getId();
+
+        manager = new SnapshotManager();
+        orders = graph.getOrderRepository().enableSnapshots(manager);
+        inventory = graph.getInventoryService().enableSnapshots(manager);
+    }
+
+    @Test
+    void snapshot_keepsOrderStatus_whileNewSnapshotsSeeUpdates() {
+        Order order = graph.getOrderService().createOrder(customerId, List.of(new OrderItem(productId, 2)), false);
+
+        try (Snapshot before = manager.open()) {
+            graph.getOrderService().updateStatus(order.getId(), OrderStatus.CANCELLED);
+
+            assertEquals(OrderStatus.CREATED, orders.findById(before, order.getId()).get().getStatus());
+            try (Snapshot after = manager.open()) {
+                assertEquals(OrderStatus.CANCELLED, orders.findById(after, order.getId()).get().getStatus());
+                assertTrue(after.getTimestamp() > before.getTimestamp());
+            }
+            assertEquals(1, orders.findAll(before).size());
+        }
+    }
+
+    @Test
+    void snapshot_hidesLaterStockMovementsAndKeepsDeletedEntities() {
+        Order order = graph.getOrderService().createOrder(customerId, List.of(new OrderItem(productId, 1)), false);
+        Snapshot snapshot = manager.open();
+
+        graph.getInventoryService().reserveStock(warehouseId, List.of(new OrderItem(productId, 4)));
+        graph.getOrderRepository().deleteById(order.getId());
+        graph.getOrderService().createOrder(customerId, List.of(new OrderItem(productId, 3)), false);
+
+        InventoryItem item = inventory.findAll(snapshot).get(0);
+        assertEquals(10, item.getAvailableQuantity());
+        assertEquals(0, item.getReservedQuantity());
+        assertEquals(List.of(order.getId()), orders.findAll(snapshot).stream().map(Order::getId).collect(Collectors.toList()));
+
+        snapshot.close();
+        assertThrows(IllegalStateException.class, () -> orders.findAll(snapshot));
+        try (Snapshot latest = manager.open()) {
+            assertEquals(6, inventory.findAll(latest).get(0).getAvailableQuantity());
+            assertEquals(1, orders.findAll(latest).size());
+            assertTrue(orders.findById(latest, order.getId()).isEmpty());
+        }
+    }
+
+    @Test
+    void closingSnapshots_reclaimsVersionsNobodyCanRead() {
+        Snapshot first = manager.open();
+        for (int i = 0; i < 5; i++) {
+            graph.getInventoryService().restockWarehouse(warehouseId, productId, 1);
+        }
+        Snapshot second = manager.open();
+        for (int i = 0; i < 5; i++) {
+            graph.getInventoryService().restockWarehouse(warehouseId, productId, 1);
+        }
+        assertEquals(11, inventory.getVersionCount());
+
+        first.close();
+        // Only what the second snapshot reads and what came after it remain
+        assertEquals(6, inventory.getVersionCount());
+        assertEquals(15, inventory.findAll(second).get(0).getAvailableQuantity());
+
+        second.close();
+        assertEquals(1, inventory.getVersionCount());
+        assertEquals(0, manager.getOpenSnapshotCount());
+        graph.getInventoryService().restockWarehouse(warehouseId, productId, 1);
+        assertEquals(1, inventory.getVersionCount());
+    }
+}
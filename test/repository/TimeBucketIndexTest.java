@@ -0,0 +1,69 @@
+package test.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import repository.TimeBucketIndex;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class TimeBucketIndexTest {
+
+    private static final LocalDateTime MIDNIGHT = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    private TimeBucketIndex index;
+    private UUID warehouseA;
+    private UUID warehouseB;
+
+    @BeforeEach
+    void setUp() {
+        index = new TimeBucketIndex();
+        warehouseA = UUID.randomUUID();
+        warehouseB = UUID.randomUUID();
+    }
+
+    @Test
+    void find_returnsHalfOpenRangeInTimeOrderAcrossBuckets() {
+        UUID early = add(warehouseA, MIDNIGHT.plusMinutes(59));
+        UUID onHour = add(warehouseA, MIDNIGHT.plusHours(1));
+        UUID late = add(warehouseA, MIDNIGHT.plusHours(2).plusMinutes(30));
+        UUID middle = add(warehouseA, MIDNIGHT.plusMinutes(90)); // Out of order
+        add(warehouseA, MIDNIGHT.plusHours(3));
+
+        assertEquals(List.of(early, onHour, middle, late), index.find(MIDNIGHT.plusMinutes(59), MIDNIGHT.plusHours(3)));
+        assertEquals(List.of(onHour, middle), index.find(MIDNIGHT.plusHours(1), MIDNIGHT.plusHours(2)));
+        assertEquals(List.of(), index.find(MIDNIGHT.plusHours(2), MIDNIGHT.plusHours(2)));
+        assertEquals(4, index.count(MIDNIGHT, MIDNIGHT.plusHours(3)));
+    }
+
+    @Test
+    void find_perGroupOnlySeesThatGroup() {
+        UUID a = add(warehouseA, MIDNIGHT.plusMinutes(10));
+        UUID b = add(warehouseB, MIDNIGHT.plusMinutes(20));
+
+        assertEquals(List.of(a), index.find(warehouseA, MIDNIGHT, MIDNIGHT.plusHours(1)));
+        assertEquals(List.of(b), index.find(warehouseB, MIDNIGHT, MIDNIGHT.plusHours(1)));
+        assertEquals(List.of(), index.find(UUID.randomUUID(), MIDNIGHT, MIDNIGHT.plusHours(1)));
+        assertEquals(List.of(a, b), index.find(MIDNIGHT, MIDNIGHT.plusHours(1)));
+    }
+
+    @Test
+    void bucketsInRange_onlyCountsOverlappingHours() {
+        for (int hour = 0; hour < 24 * 7; hour++) {
+            add(warehouseA, MIDNIGHT.plusHours(hour).plusMinutes(5));
+        }
+
+        assertEquals(2, index.bucketsInRange(MIDNIGHT.plusHours(10).plusMinutes(30), MIDNIGHT.plusHours(12)));
+        assertEquals(24, index.bucketsInRange(MIDNIGHT.plusDays(3), MIDNIGHT.plusDays(4)));
+        assertEquals(24, index.count(MIDNIGHT.plusDays(3), MIDNIGHT.plusDays(4)));
+    }
+
+    private UUID add(UUID warehouseId, LocalDateTime time) {
+        UUID id = UUID.randomUUID();
+        index.add(id, warehouseId, time);
+        return id;
+    }
+}
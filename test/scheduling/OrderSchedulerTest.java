@@ -0,0 +1,193 @@
+package test.scheduling;
+
+import domain.model.Location;
+import domain.model.Order;
+import domain.model.OrderItem;
+import domain.model.OrderStatus;
+import domain.model.Product;
+import domain.model.ProductType;
+import domain.model.Warehouse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import repository.InMemoryRepository;
+import scheduling.OrderPriority;
+import scheduling.OrderScheduler;
+import scheduling.PriorityClassStatistics;
+import service.CustomerService;
+import service.FulfillmentResult;
+import service.InventoryService;
+import service.OrderFulfillmentService;
+import service.OrderService;
+import service.ShipmentService;
+import service.WarehouseService;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class OrderSchedulerTest {
+
+    private ManualClock clock;
+    private OrderService orderService;
+    private InventoryService inventoryService;
+    private OrderFulfillmentService fulfillmentService;
+    private OrderScheduler scheduler;
+    private UUID customerId;
+    private UUID warehouseId;
+    private UUID productId;
+
+    @BeforeEach
+    void setUp() {
+        InMemoryRepository<Product> productRepository = new InMemoryRepository<>();
+        InMemoryRepository<Warehouse> warehouseRepository = new InMemoryRepository<>();
+        inventoryService = new InventoryService(new InMemoryRepository<>(), productRepository, warehouseRepository);
+        WarehouseService warehouseService = new WarehouseService(warehouseRepository, inventoryService);
+        CustomerService customerService = new CustomerService(new InMemoryRepository<>());
+        orderService = new OrderService(new InMemoryRepository<>());
+        ShipmentService shipmentService = new ShipmentService(new InMemoryRepository<>(), inventoryService);
+        fulfillmentService = new OrderFulfillmentService(orderService, warehouseService, shipmentService, inventoryService, customerService);
+        clock = new ManualClock(Instant.parse("2024-01-01T00:00:00Z"));
+
+        Product product = new Product("Product", ProductType.MECHANICAL, "Test");
+        productRepository.save(product.getId(), product);
+        productId = product.getId();
+        warehouseId = warehouseService.createWarehouse("Warehouse", new Location("W", 0, 0), 10_000).getId();
+        customerId = customerService.createCustomer("Customer", new Location("C", 1, 1), "c@example.com").getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (scheduler != null) {
+            scheduler.close();
+        }
+    }
+
+    @Test
+    void shortage_goesToEarliestDeadlinePlusClassOffset() {
+        inventoryService.addInventoryItem(warehouseId, productId, 2);
+        scheduler = new OrderScheduler(fulfillmentService, 1, Duration.ofHours(1), clock);
+        Instant now = clock.instant();
+
+        // Dispatch keys: bulk 31m, standard 15m, express 20m, bulk 40m
+        CompletableFuture<FulfillmentResult> earlyBulk = submit(OrderPriority.BULK, now.plus(Duration.ofMinutes(1)));
+        CompletableFuture<FulfillmentResult> standard = submit(OrderPriority.STANDARD, now.plus(Duration.ofMinutes(10)));
+        CompletableFuture<FulfillmentResult> express = submit(OrderPriority.EXPRESS, now.plus(Duration.ofMinutes(20)));
+        CompletableFuture<FulfillmentResult> lateBulk = submit(OrderPriority.BULK, now.plus(Duration.ofMinutes(10)));
+        assertEquals(4, scheduler.getQueueSize());
+        scheduler.start();
+
+        assertTrue(await(standard).isFulfilled());
+        assertTrue(await(express).isFulfilled());
+        assertFalse(await(earlyBulk).isFulfilled());
+        assertFalse(await(lateBulk).isFulfilled());
+    }
+
+    @Test
+    void maxWait_letsAnOldOrderOvertakeNewerUrgentOnes() {
+        inventoryService.addInventoryItem(warehouseId, productId, 1);
+        scheduler = new OrderScheduler(fulfillmentService, 1, Duration.ofMinutes(10), clock);
+
+        Order bulk = createOrder();
+        CompletableFuture<FulfillmentResult> bulkResult = scheduler.submit(bulk.getId(), OrderPriority.BULK, clock.instant().plus(Duration.ofHours(1)));
+        clock.advance(Duration.ofMinutes(15));
+        Order express = createOrder();
+        CompletableFuture<FulfillmentResult> expressResult = scheduler.submit(express.getId(), OrderPriority.EXPRESS, clock.instant().plus(Duration.ofMinutes(1)));
+        scheduler.start();
+
+        assertTrue(await(bulkResult).isFulfilled());
+        assertFalse(await(expressResult).isFulfilled());
+        assertEquals(OrderStatus.ALLOCATED, orderService.getOrderById(bulk.getId()).getStatus());
+        assertEquals(OrderStatus.CREATED, orderService.getOrderById(express.getId()).getStatus());
+    }
+
+    @Test
+    void close_cancelsQueuedOrdersAndRejectsLaterSubmissions() {
+        scheduler = new OrderScheduler(fulfillmentService, 1, Duration.ofHours(1), clock);
+        CompletableFuture<FulfillmentResult> queued = submit(OrderPriority.STANDARD, clock.instant().plus(Duration.ofMinutes(5)));
+
+        scheduler.close();
+
+        assertTrue(queued.isCancelled());
+        assertEquals(0, scheduler.getQueueSize());
+        assertThrows(IllegalStateException.class,
+                () -> submit(OrderPriority.EXPRESS, clock.instant().plus(Duration.ofMinutes(5))));
+        assertThrows(IllegalStateException.class, scheduler::start);
+    }
+
+    @Test
+    void statistics_countCompletionsAndDeadlineMissesPerClass() {
+        inventoryService.addInventoryItem(warehouseId, productId, 10);
+        scheduler = new OrderScheduler(fulfillmentService, 2, Duration.ofHours(1), clock);
+        Instant now = clock.instant();
+
+        CompletableFuture<FulfillmentResult> late = submit(OrderPriority.EXPRESS, now.minusSeconds(1));
+        CompletableFuture<FulfillmentResult> onTime = submit(OrderPriority.EXPRESS, now.plus(Duration.ofMinutes(5)));
+        CompletableFuture<FulfillmentResult> bulk = submit(OrderPriority.BULK, now.plus(Duration.ofHours(2)));
+        assertEquals(2, scheduler.getStatistics(OrderPriority.EXPRESS).getQueued());
+        scheduler.start();
+        CompletableFuture.allOf(late, onTime, bulk).orTimeout(10, TimeUnit.SECONDS).join();
+
+        PriorityClassStatistics express = scheduler.getStatistics(OrderPriority.EXPRESS);
+        assertEquals(2, express.getSubmitted());
+        assertEquals(0, express.getQueued());
+        assertEquals(2, express.getCompleted());
+        assertEquals(2, express.getFulfilled());
+        assertEquals(1, express.getDeadlineMisses());
+        PriorityClassStatistics bulkStatistics = scheduler.getStatistics().get(OrderPriority.BULK);
+        assertEquals(1, bulkStatistics.getCompleted());
+        assertEquals(0, bulkStatistics.getDeadlineMisses());
+        assertEquals(0, scheduler.getStatistics(OrderPriority.STANDARD).getSubmitted());
+    }
+
+    private CompletableFuture<FulfillmentResult> submit(OrderPriority priority, Instant deadline) {
+        return scheduler.submit(createOrder().getId(), priority, deadline);
+    }
+
+    private Order createOrder() {
+        return orderService.createOrder(customerId, List.of(new OrderItem(productId, 1)), false);
+    }
+
+    private static FulfillmentResult await(CompletableFuture<FulfillmentResult> result) {
+        return result.orTimeout(10, TimeUnit.SECONDS).join();
+    }
+
+    private static final class ManualClock extends Clock {
+        // Read by the scheduler's workers
+        private volatile Instant now;
+
+        private ManualClock(Instant now) {
+            this.now = now;
+        }
+
+        private void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package test.search;
+
+import domain.model.Product;
+import domain.model.ProductType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import repository.InMemoryRepository;
+import search.TextIndex;
+import service.ProductService;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TextIndexTest {
+
+    private TextIndex index;
+    private UUID mouse;
+    private UUID mousepad;
+    private UUID keyboard;
+
+    @BeforeEach
+    void setUp() {
+        index = new TextIndex();
+        mouse = UUID.randomUUID();
+        mousepad = UUID.randomUUID();
+        keyboard = UUID.randomUUID();
+        index.put(mousepad, "Mousepad XL", "Large cloth pad");
+        index.put(mouse, "Wireless Mouse", "2.4GHz optical mouse");
+        index.put(keyboard, "Wireless Keyboard", "jane.doe@example.com");
+    }
+
+    @Test
+    void searchPrefix_ranksExactTokenFirstAndHonoursLimit() {
+        assertEquals(List.of(mouse, mousepad), index.searchPrefix("mou", 10));
+        assertEquals(List.of(mouse), index.searchPrefix("MOUSE", 1));
+        assertEquals(List.of(keyboard), index.searchPrefix("wire key", 10));
+        assertEquals(List.of(keyboard), index.searchPrefix("doe@exam", 10));
+        assertTrue(index.searchPrefix("wireless mousepad", 10).isEmpty());
+    }
+
+    @Test
+    void searchFuzzy_toleratesTyposClosestFirst() {
+        assertEquals(List.of(mouse), index.searchFuzzy("mose", 10));
+        assertEquals(List.of(keyboard), index.searchFuzzy("wirelss keybaord", 10));
+        assertEquals(List.of(mouse, keyboard), index.searchFuzzy("wireles", 10));
+        assertTrue(index.searchFuzzy("xy", 10).isEmpty());
+    }
+
+    @Test
+    void putAndRemove_replaceIndexedTokens() {
+        index.put(mouse, "Trackball");
+        assertEquals(List.of(mousepad), index.searchPrefix("mouse", 10));
+        assertEquals(List.of(mouse), index.searchPrefix("track", 10));
+
+        assertTrue(index.remove(mouse));
+        assertFalse(index.remove(mouse));
+        assertTrue(index.searchPrefix("track", 10).isEmpty());
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void manyUpdates_rebuildWithoutLosingDocuments() {
+        for (int i = 0; i < 5_000; i++) {
+            index.put(mouse, "Mouse revision " + i);
+        }
+
+        assertEquals(List.of(mouse), index.searchPrefix("revision 4999", 10));
+        assertTrue(index.searchPrefix("revision 4998", 10).isEmpty());
+        assertEquals(List.of(mousepad), index.searchPrefix("pad", 10));
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void productService_keepsSearchCurrent() {
+        ProductService productService = new ProductService(new InMemoryRepository<>());
+        Product cable = productService.createNewProduct("USB Cable", ProductType.ELECTRONIC, "Braided, 2m");
+        Product charger = productService.createNewProduct("USB Charger", ProductType.ELECTRONIC, "65W");
+
+        assertEquals(List.of(cable, charger), productService.searchProducts("usb", 10));
+
+        productService.updateProduct(cable.getId(), "Lightning Cable", ProductType.ELECTRONIC, "Braided, 1m");
+        productService.deleteProduct(charger.getId());
+
+        assertTrue(productService.searchProducts("usb", 10).isEmpty());
+        assertEquals(List.of(cable), productService.searchProductsFuzzy("lightnig", 10));
+    }
+
+    @Test
+    void searchFuzzy_matchesBruteForceEditDistance() {
+        TextIndex words = new TextIndex();
+        SplittableRandom random = new SplittableRandom(3);
+        Map<UUID, String> vocabulary = new HashMap<>();
+        for (int i = 0; i < 3_000; i++) {
+            StringBuilder word = new StringBuilder();
+            for (int c = 3 + random.nextInt(6); c > 0; c--) {
+                word.append((char) ('a' + random.nextInt(4)));
+            }
+            UUID id = UUID.randomUUID();
+            vocabulary.put(id, word.toString());
+            words.put(id, word.toString());
+        }
+
+        for (int q = 0; q < 200; q++) {
+            String query = vocabulary.values().stream().skip(random.nextInt(vocabulary.size())).findFirst().orElseThrow()
+                    + (char) ('a' + random.nextInt(4));
+            Set<UUID> expected = vocabulary.entrySet().stream()
+                    .filter(e -> e.getValue().charAt(0) == query.charAt(0)
+                            && levenshtein(e.getValue(), query) <= TextIndex.maxEditsFor(query.length()))
+                    .map(Map.Entry::getKey)
+                    .collect(Collectors.toSet());
+
+            assertEquals(expected, new HashSet<>(words.searchFuzzy(query, 10_000)), query);
+        }
+    }
+
+    private static int levenshtein(String a, String b) {
+        int[][] d = new int[a.length() + 1][b.length() + 1];
+        for (int i = 0; i <= a.length(); i++) {
+            for (int j = 0; j <= b.length(); j++) {
+                d[i][j] = i == 0 ? j : j == 0 ? i : Math.min(d[i - 1][j - 1] + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1),
+                        Math.min(d[i - 1][j], d[i][j - 1]) + 1);
+            }
+        }
+        return d[a.length()][b.length()];
+    }
+}
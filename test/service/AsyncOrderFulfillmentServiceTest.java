@@ -0,0 +1,238 @@
+package test.service;
+
+import domain.model.InventoryItem;
+import domain.model.Location;
+import domain.model.Order;
+import domain.model.OrderItem;
+import domain.model.OrderStatus;
+import domain.model.Product;
+import domain.model.ProductType;
+import domain.model.Warehouse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import repository.InMemoryRepository;
+import repository.ShardedRepository;
+import service.AsyncOrderFulfillmentService;
+import service.CustomerService;
+import service.FulfillmentExecutors;
+import service.FulfillmentResult;
+import service.InventoryService;
+import service.OrderFulfillmentService;
+import service.OrderService;
+import service.ShipmentService;
+import service.WarehouseService;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AsyncOrderFulfillmentServiceTest {
+
+    private ShardedRepository<InventoryItem> inventoryStorage;
+    private ExecutorService pool;
+    private InventoryService inventoryService;
+    private OrderService orderService;
+    private ShipmentService shipmentService;
+    private OrderFulfillmentService fulfillmentService;
+    private UUID customerId;
+    private Warehouse near;
+    private Warehouse far;
+    private UUID productA;
+    private UUID productB;
+
+    @BeforeEach
+    void setUp() {
+        InMemoryRepository<Product> productRepository = new InMemoryRepository<>();
+        InMemoryRepository<Warehouse> warehouseRepository = new InMemoryRepository<>();
+        inventoryStorage = new ShardedRepository<>(2, InventoryItem::getWarehouseId);
+        pool = Executors.newFixedThreadPool(2);
+        inventoryService = new InventoryService(inventoryStorage, productRepository, warehouseRepository);
+        WarehouseService warehouseService = new WarehouseService(warehouseRepository, inventoryService);
+        CustomerService customerService = new CustomerService(new InMemoryRepository<>());
+        orderService = new OrderService(new InMemoryRepository<>());
+        shipmentService = new ShipmentService(new InMemoryRepository<>(), inventoryService);
+        fulfillmentService = new OrderFulfillmentService(orderService, warehouseService, shipmentService, inventoryService, customerService);
+
+        Product a = new Product("A", ProductType.MECHANICAL, "Test");
+        Product b = new Product("B", ProductType.MECHANICAL, "Test");
+        productRepository.save(a.getId(), a);
+        productRepository.save(b.getId(), b);
+        productA = a.getId();
+        productB = b.getId();
+        near = warehouseService.createWarehouse("Near", new Location("N", 0, 0), 100_000);
+        far = warehouseService.createWarehouse("Far", new Location("F", 50, 50), 100_000);
+        inventoryService.addInventoryItem(near.getId(), productA, 10_000);
+        inventoryService.addInventoryItem(far.getId(), productB, 10_000);
+        customerId = customerService.createCustomer("Customer", new Location("C", 1, 1), "c@example.com").getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdown();
+        inventoryStorage.close();
+    }
+
+    @Test
+    void manyOrdersInFlight_runEveryStageOnItsExecutor() {
+        AtomicInteger orderTasks = new AtomicInteger();
+        AtomicInteger searchTasks = new AtomicInteger();
+        AtomicInteger reservationTasks = new AtomicInteger();
+        AtomicInteger shipmentTasks = new AtomicInteger();
+        AsyncOrderFulfillmentService async = service(new FulfillmentExecutors()
+                .setOrderExecutor(counting(orderTasks))
+                .setSearchExecutor(counting(searchTasks))
+                .setReservationExecutor(counting(reservationTasks))
+                .setShipmentExecutor(counting(shipmentTasks)));
+
+        List<CompletableFuture<Order>> flows = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            List<OrderItem> items = List.of(new OrderItem(productA, 1), new OrderItem(productB, 2));
+            flows.add(async.createOrderAsync(customerId, items, false)
+                    .thenCompose(order -> async.fulfillOrderAsync(order.getId())
+                            .thenCompose(result -> {
+                                assertTrue(result.isFulfilled());
+                                return async.shipOrderAsync(order.getId());
+                            })
+                            .thenApply(shipped -> order)));
+        }
+        CompletableFuture.allOf(flows.toArray(new CompletableFuture<?>[0])).orTimeout(30, TimeUnit.SECONDS).join();
+
+        for (CompletableFuture<Order> flow: flows) {
+            assertEquals(OrderStatus.SHIPPED, orderService.getOrderById(flow.join().getId()).getStatus());
+            assertEquals(2, shipmentService.getShipmentsByOrder(flow.join().getId()).size());
+        }
+        assertEquals(9_000, inventoryService.getAvailableQuantity(near.getId(), productA));
+        assertEquals(8_000, inventoryService.getAvailableQuantity(far.getId(), productB));
+        assertTrue(orderTasks.get() > 0 && searchTasks.get() > 0 && reservationTasks.get() > 0 && shipmentTasks.get() > 0);
+    }
+
+    @Test
+    void fulfillOrderAsync_releasesEarlierWarehousesWhenALaterOneFallsShort() {
+        // Another order takes all of B between the warehouse search and the reservations
+        AtomicBoolean raced = new AtomicBoolean();
+        Executor racingReservations = task -> {
+            if (raced.compareAndSet(false, true)) {
+                inventoryService.reserveStock(far.getId(), List.of(new OrderItem(productB, 10_000)));
+            }
+            pool.execute(task);
+        };
+        AsyncOrderFulfillmentService async = service(new FulfillmentExecutors().setAll(pool).setReservationExecutor(racingReservations));
+        Order order = orderService.createOrder(customerId, List.of(new OrderItem(productA, 5), new OrderItem(productB, 5)), false);
+
+        FulfillmentResult result = async.fulfillOrderAsync(order.getId()).orTimeout(10, TimeUnit.SECONDS).join();
+
+        assertEquals(FulfillmentResult.Reason.INSUFFICIENT_STOCK, result.getReason());
+        assertEquals(productB, result.getProductId());
+        assertEquals(10_000, inventoryService.getAvailableQuantity(near.getId(), productA));
+        assertEquals(OrderStatus.CREATED, orderService.getOrderById(order.getId()).getStatus());
+        assertEquals(0, shipmentService.getShipmentsByOrder(order.getId()).size());
+    }
+
+    @Test
+    void fulfillOrderAsync_overlappingFulfillmentsOfOneOrder_shipItOnce() throws InterruptedException {
+        // Both fulfillments are planned before either reserves
+        CountDownLatch bothPlanned = new CountDownLatch(2);
+        List<Runnable> held = new CopyOnWriteArrayList<>();
+        Executor holdingReservations = task -> {
+            if (bothPlanned.getCount() > 0) {
+                held.add(task);
+                bothPlanned.countDown();
+            } else {
+                pool.execute(task);
+            }
+        };
+        AsyncOrderFulfillmentService async = service(new FulfillmentExecutors().setAll(pool).setReservationExecutor(holdingReservations));
+        Order order = orderService.createOrder(customerId, List.of(new OrderItem(productA, 3)), false);
+
+        CompletableFuture<FulfillmentResult> first = async.fulfillOrderAsync(order.getId());
+        CompletableFuture<FulfillmentResult> second = async.fulfillOrderAsync(order.getId());
+        assertTrue(bothPlanned.await(10, TimeUnit.SECONDS));
+        held.forEach(pool::execute);
+
+        List<FulfillmentResult> results = List.of(
+                first.orTimeout(10, TimeUnit.SECONDS).join(), second.orTimeout(10, TimeUnit.SECONDS).join());
+        assertEquals(1, results.stream().filter(FulfillmentResult::isFulfilled).count());
+        assertTrue(results.stream().anyMatch(result -> result.getReason() == FulfillmentResult.Reason.ORDER_NOT_PENDING));
+        assertEquals(OrderStatus.ALLOCATED, orderService.getOrderById(order.getId()).getStatus());
+        assertEquals(1, shipmentService.getShipmentsByOrder(order.getId()).size());
+        assertEquals(9_997, inventoryService.getAvailableQuantity(near.getId(), productA));
+    }
+
+    @Test
+    void searchAndShipStages_doNotWaitForBusyShardWriters() throws InterruptedException {
+        // Stages run on the calling thread, so any wait for a writer would hold up the test
+        AsyncOrderFulfillmentService async = service(new FulfillmentExecutors().setAll(Runnable::run));
+        Order order = orderService.createOrder(customerId, List.of(new OrderItem(productA, 2), new OrderItem(productB, 3)), false);
+
+        CountDownLatch writersFree = blockWriters();
+        CompletableFuture<FulfillmentResult> fulfilled = assertTimeoutPreemptively(Duration.ofSeconds(5),
+                () -> async.fulfillOrderAsync(order.getId()));
+        assertFalse(fulfilled.isDone());
+        writersFree.countDown();
+        assertTrue(fulfilled.orTimeout(10, TimeUnit.SECONDS).join().isFulfilled());
+
+        writersFree = blockWriters();
+        CompletableFuture<Void> shipped = assertTimeoutPreemptively(Duration.ofSeconds(5),
+                () -> async.shipOrderAsync(order.getId()));
+        assertFalse(shipped.isDone());
+        writersFree.countDown();
+        shipped.orTimeout(10, TimeUnit.SECONDS).join();
+        assertEquals(OrderStatus.SHIPPED, orderService.getOrderById(order.getId()).getStatus());
+        assertEquals(9_998, inventoryService.getAvailableQuantity(near.getId(), productA));
+        assertEquals(0, inventoryStorage.findAll().stream().mapToInt(InventoryItem::getReservedQuantity).sum());
+    }
+
+    private CountDownLatch blockWriters() throws InterruptedException {
+        CountDownLatch free = new CountDownLatch(1);
+        Set<Integer> shards = new HashSet<>();
+        List<Warehouse> owners = new ArrayList<>();
+        for (Warehouse warehouse: List.of(near, far)) {
+            if (shards.add(inventoryStorage.shardIndexFor(warehouse.getId()))) {
+                owners.add(warehouse);
+            }
+        }
+        CountDownLatch blocked = new CountDownLatch(owners.size());
+        for (Warehouse warehouse: owners) {
+            inventoryStorage.executeAsync(warehouse.getId(), () -> {
+                blocked.countDown();
+                try {
+                    free.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return null;
+            });
+        }
+        assertTrue(blocked.await(10, TimeUnit.SECONDS));
+        return free;
+    }
+
+    private AsyncOrderFulfillmentService service(FulfillmentExecutors executors) {
+        return new AsyncOrderFulfillmentService(orderService, fulfillmentService, shipmentService, inventoryService, executors);
+    }
+
+    private Executor counting(AtomicInteger counter) {
+        return task -> {
+            counter.incrementAndGet();
+            pool.execute(task);
+        };
+    }
+}
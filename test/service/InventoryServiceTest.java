@@ -6,8 +6,11 @@ import domain.model.Product;
 import domain.model.ProductType;
 import domain.model.Warehouse;
 import domain.model.Location;
+import domain.model.LocationTable;
 import exceptions.InsufficientStockException;
 import exceptions.InventoryItemNotFoundException;
+import exceptions.NoAvailableWarehouseException;
+import exceptions.WarehouseCapacityExceededException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import repository.InMemoryRepository;
@@ -16,10 +19,13 @@ import service.InventoryService;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class InventoryServiceTest {
 
@@ -44,7 +50,7 @@ public class InventoryServiceTest {
         
         // Create mock product and warehouse
         Product product = new Product(productId, "Test Product", ProductType.ELECTRONIC, "Test");
-        Warehouse warehouse = new Warehouse(warehouseId, "Test Warehouse", new Location("Test", 0, 0), 1000);
+        Warehouse warehouse = new Warehouse(warehouseId, "Test Warehouse", new Location("Test", 0, 0), 1000, new LocationTable());
         
         productRepository.save(productId, product);
         warehouseRepository.save(warehouseId, warehouse);
@@ -142,6 +148,15 @@ public class InventoryServiceTest {
         assertEquals(false, answer);
     }
 
+    @Test
+    void canFulfillItems_sumsLinesForTheSameProduct() {
+        assertTrue(inventoryService.canFulfillItems(warehouseId, List.of(new OrderItem(productId, 60))));
+        assertFalse(inventoryService.canFulfillItems(warehouseId,
+                List.of(new OrderItem(productId, 60), new OrderItem(productId, 60))));
+        assertTrue(inventoryService.canFulfillItems(warehouseId,
+                List.of(new OrderItem(productId, 60), new OrderItem(productId, 40))));
+    }
+
     @Test
     void canFulfillItems_throwsIllegalArgumentExceptionIfListIsEmpty() {
        assertThrows(
@@ -149,4 +164,90 @@ public class InventoryServiceTest {
                () -> inventoryService.canFulfillItems(warehouseId, Collections.emptyList())
                     );
     }
+
+    @Test
+    void utilizationTracker_countsAvailableAndReservedUnits() {
+        Product product = new Product("Tracked Product", ProductType.ELECTRONIC, "Test");
+        productRepository.save(product.getId(), product);
+
+        inventoryService.addInventoryItem(warehouseId, product.getId(), 300);
+        inventoryService.reserveStock(warehouseId, List.of(new OrderItem(product.getId(), 50)));
+        inventoryService.deductStock(warehouseId, product.getId(), 20);
+
+        assertEquals(280, inventoryService.getUtilizationTracker().getUsedUnits(warehouseId));
+        assertEquals(0.28, inventoryService.getUtilizationTracker().getUtilization(warehouseRepository.findById(warehouseId).get()));
+    }
+
+    @Test
+    void restockWarehouse_throwsWarehouseCapacityExceededExceptionAboveMaxCapacity() {
+        Product product = new Product("Tracked Product", ProductType.ELECTRONIC, "Test");
+        productRepository.save(product.getId(), product);
+        inventoryService.addInventoryItem(warehouseId, product.getId(), 900);
+
+        assertThrows(
+                WarehouseCapacityExceededException.class,
+                () -> inventoryService.restockWarehouse(warehouseId, product.getId(), 101)
+        );
+        assertEquals(900, inventoryService.getAvailableQuantity(warehouseId, product.getId()));
+
+        inventoryService.restockWarehouse(warehouseId, product.getId(), 100);
+        assertEquals(1000, inventoryService.getAvailableQuantity(warehouseId, product.getId()));
+    }
+
+    @Test
+    void restockWarehouse_countsStockAlreadyStoredBeforeTheServiceWasCreated() {
+        Product product = new Product("Preloaded Product", ProductType.ELECTRONIC, "Test");
+        productRepository.save(product.getId(), product);
+        InventoryItem preloaded = new InventoryItem(UUID.randomUUID(), product.getId(), warehouseId, 50, 750);
+        inventoryRepository.save(preloaded.getId(), preloaded);
+
+        // The 100 units saved in setUp and the 800 above are all on hand
+        InventoryService service = new InventoryService(inventoryRepository, productRepository, warehouseRepository);
+
+        assertEquals(900, service.getUtilizationTracker().getUsedUnits(warehouseId));
+        assertThrows(WarehouseCapacityExceededException.class, () -> service.restockWarehouse(warehouseId, product.getId(), 900));
+        assertEquals(750, service.getAvailableQuantity(warehouseId, product.getId()));
+        service.restockWarehouse(warehouseId, product.getId(), 100);
+        assertEquals(1000, service.getUtilizationTracker().getUsedUnits(warehouseId));
+    }
+
+    @Test
+    void tryReserveStock_reservesAllItemsOrNone() {
+        Product product = new Product("Second Product", ProductType.ELECTRONIC, "Test");
+        productRepository.save(product.getId(), product);
+        inventoryService.addInventoryItem(warehouseId, product.getId(), 10);
+
+        Optional<UUID> shortProduct = inventoryService.tryReserveStock(warehouseId,
+                List.of(new OrderItem(productId, 40), new OrderItem(product.getId(), 11)));
+
+        assertEquals(Optional.of(product.getId()), shortProduct);
+        assertEquals(100, inventoryService.getAvailableQuantity(warehouseId, productId));
+
+        assertEquals(Optional.empty(), inventoryService.tryReserveStock(warehouseId,
+                List.of(new OrderItem(productId, 40), new OrderItem(product.getId(), 10))));
+        assertEquals(60, inventoryService.getAvailableQuantity(warehouseId, productId));
+        assertEquals(0, inventoryService.getAvailableQuantity(warehouseId, product.getId()));
+    }
+
+    @Test
+    void insufficientStockException_keepsItsStackTraceAndBuildsItsMessageLazily() {
+        InsufficientStockException e = assertThrows(
+                InsufficientStockException.class,
+                () -> inventoryService.reserveStock(warehouseId,
+                        List.of(new OrderItem(productId, 60), new OrderItem(productId, 60)))
+        );
+
+        assertTrue(e.getStackTrace().length > 0);
+        assertEquals(120, e.getRequestedQuantity());
+        assertTrue(e.getMessage().contains("available quantity=100"));
+        assertEquals(100, inventoryService.getAvailableQuantity(warehouseId, productId));
+
+        InsufficientStockException stackless = InsufficientStockException.stackless(productId, warehouseId, 120, 100);
+        assertEquals(0, stackless.getStackTrace().length);
+        assertEquals(e.getMessage(), stackless.getMessage());
+        NoAvailableWarehouseException none = NoAvailableWarehouseException.stackless("No warehouse for order");
+        assertEquals(0, none.getStackTrace().length);
+        assertEquals("No warehouse for order", none.getMessage());
+        assertTrue(new NoAvailableWarehouseException("No warehouse for order").getStackTrace().length > 0);
+    }
 }
@@ -4,6 +4,7 @@ import org.junit.jupiter.api.Test;
 import repository.InMemoryRepository;
 import service.*;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
@@ -164,6 +165,68 @@ public class OrderFulfillmentServiceTest {
         System.out.println("✅ Ship order test passed!");
     }
     
+    @Test
+    public void testShippedShipmentsAreIndexedByTimeAndWarehouse() {
+        UUID productId = productService.getProductByName("Product1").getId();
+        Order order = orderService.createOrder(
+            customerService.getCustomerByName("Google").getId(),
+            List.of(new OrderItem(productId, 5)),
+            true
+        );
+        LocalDateTime before = LocalDateTime.now().minusSeconds(1);
+        orderFulfillmentService.fulfillOrder(order.getId());
+        orderFulfillmentService.shipOrder(order.getId());
+        LocalDateTime after = LocalDateTime.now().plusSeconds(1);
+
+        Shipment shipment = shipmentService.getShipmentsByOrder(order.getId()).get(0);
+        UUID warehouseId = shipment.getWarehouseId();
+        assertEquals(List.of(shipment.getId()), shipmentService.getShipmentsCreatedBetween(warehouseId, before, after)
+                .stream().map(Shipment::getId).toList());
+        assertEquals(1, shipmentService.getShipmentsShippedBetween(before, after).size());
+        assertEquals(0, shipmentService.getShipmentsShippedBetween(after, after.plusHours(1)).size());
+        assertEquals(1, shipmentService.getShipLatency(warehouseId).getTotalCount());
+        assertEquals(0, shipmentService.getShipLatency(UUID.randomUUID()).getTotalCount());
+    }
+
+    @Test
+    public void testShipmentsStoredBeforeTheServiceAreFoundByOrder() {
+        UUID productId = productService.getProductByName("Product1").getId();
+        Order order = orderService.createOrder(
+            customerService.getCustomerByName("Google").getId(),
+            List.of(new OrderItem(productId, 5)),
+            true
+        );
+        orderFulfillmentService.fulfillOrder(order.getId());
+
+        ShipmentService rebuilt = new ShipmentService(shipmentStorage, inventoryService);
+
+        assertEquals(shipmentService.getShipmentsByOrder(order.getId()).stream().map(Shipment::getId).toList(),
+                rebuilt.getShipmentsByOrder(order.getId()).stream().map(Shipment::getId).toList());
+        assertEquals(1, rebuilt.getShipmentsByOrder(order.getId()).size());
+    }
+
+    @Test
+    public void testShipmentsStoredBeforeTheServiceAreIndexedByTime() {
+        UUID productId = productService.getProductByName("Product1").getId();
+        Order order = orderService.createOrder(
+            customerService.getCustomerByName("Google").getId(),
+            List.of(new OrderItem(productId, 5)),
+            true
+        );
+        LocalDateTime before = LocalDateTime.now().minusSeconds(1);
+        orderFulfillmentService.fulfillOrder(order.getId());
+        orderFulfillmentService.shipOrder(order.getId());
+        LocalDateTime after = LocalDateTime.now().plusSeconds(1);
+
+        ShipmentService rebuilt = new ShipmentService(shipmentStorage, inventoryService);
+
+        UUID warehouseId = rebuilt.getShipmentsByOrder(order.getId()).get(0).getWarehouseId();
+        assertEquals(1, rebuilt.getShipmentsCreatedBetween(warehouseId, before, after).size());
+        assertEquals(1, rebuilt.getShipmentsShippedBetween(before, after).size());
+        assertEquals(1, rebuilt.countShipmentsShippedBetween(warehouseId, before, after));
+        assertEquals(1, rebuilt.getShipLatency(warehouseId).getTotalCount());
+    }
+
     @Test
     public void testFulfillOrderWithInsufficientInventory() {
         // Try to order more than available
@@ -291,4 +354,29 @@ public class OrderFulfillmentServiceTest {
 
         System.out.println("✅ Optimal warehouse selection for distant customer test passed!");
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testTryFulfillOrderReportsReasonWithoutSideEffects() {
+        UUID product4 = productService.getProductByName("Product4").getId();
+        UUID warehouse3 = warehouseService.getWarehouseByName("Warehouse3").getId();
+        Order order = orderService.createOrder(customerService.getCustomerByName("Google").getId(),
+                List.of(new OrderItem(product4, 500)), false);
+        FulfillmentResult result = orderFulfillmentService.tryFulfillOrder(order.getId());
+
+        // Product4 exists only in Warehouse3 and is short there
+        assertEquals(FulfillmentResult.Reason.NO_WAREHOUSE_WITH_STOCK, result.getReason());
+        assertEquals(product4, result.getProductId());
+
+        List<OrderItem> orderItems = new ArrayList<>();
+        orderItems.add(new OrderItem(productService.getProductByName("Product1").getId(), 10));
+        orderItems.add(new OrderItem(product4, 5));
+        Order transactional = orderService.createOrder(customerService.getCustomerByName("Google").getId(), orderItems, true);
+        assertEquals(FulfillmentResult.Reason.FULFILLED, orderFulfillmentService.tryFulfillOrder(transactional.getId()).getReason());
+        assertEquals(FulfillmentResult.Reason.ORDER_NOT_PENDING, orderFulfillmentService.tryFulfillOrder(transactional.getId()).getReason());
+        assertEquals(FulfillmentResult.Reason.ORDER_NOT_FOUND, orderFulfillmentService.tryFulfillOrder(UUID.randomUUID()).getReason());
+
+        assertEquals(1, shipmentService.getShipmentsByOrder(transactional.getId()).size());
+        assertEquals(0, shipmentService.getShipmentsByOrder(order.getId()).size());
+        assertEquals(195, inventoryService.getAvailableQuantity(warehouse3, product4));
+    }
+}
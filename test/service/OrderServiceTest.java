@@ -0,0 +1,150 @@
+package test.service;
+
+import domain.model.Order;
+import domain.model.OrderItem;
+import domain.model.OrderStatus;
+import exceptions.InvalidOrderStateException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import repository.InMemoryRepository;
+import service.OrderService;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class OrderServiceTest {
+
+    private OrderService orderService;
+    private UUID customerId;
+    private List<OrderItem> orderItems;
+
+    @BeforeEach
+    void setUp() {
+        orderService = new OrderService(new InMemoryRepository<>());
+        customerId = UUID.randomUUID();
+        orderItems = List.of(new OrderItem(UUID.randomUUID(), 5));
+    }
+
+    @Test
+    void createOrder_isIndexedAsCreated() {
+        Order order = orderService.createOrder(customerId, orderItems, false);
+
+        assertEquals(1, orderService.countOrdersByStatus(OrderStatus.CREATED));
+        assertEquals(List.of(order.getId()), ids(orderService.getOrdersByStatus(OrderStatus.CREATED)));
+    }
+
+    @Test
+    void constructor_indexesOrdersAlreadyStored() {
+        InMemoryRepository<Order> storage = new InMemoryRepository<>();
+        Order created = new Order(customerId, orderItems, false);
+        Order allocated = new Order(customerId, orderItems, false).withStatus(OrderStatus.ALLOCATED);
+        storage.save(created.getId(), created);
+        storage.save(allocated.getId(), allocated);
+
+        OrderService service = new OrderService(storage);
+
+        assertEquals(1, service.countOrdersByStatus(OrderStatus.CREATED));
+        assertEquals(List.of(allocated.getId()), ids(service.getOrdersByStatus(OrderStatus.ALLOCATED)));
+        service.updateStatus(allocated.getId(), OrderStatus.SHIPPED);
+        assertEquals(0, service.countOrdersByStatus(OrderStatus.ALLOCATED));
+        assertEquals(1, service.countOrdersByStatus(OrderStatus.SHIPPED));
+    }
+
+    @Test
+    void updateStatus_movesOrderBetweenBucketsAndCounters() {
+        Order first = orderService.createOrder(customerId, orderItems, false);
+        Order second = orderService.createOrder(customerId, orderItems, true);
+
+        orderService.updateStatus(first.getId(), OrderStatus.ALLOCATED);
+
+        assertEquals(1, orderService.countOrdersByStatus(OrderStatus.CREATED));
+        assertEquals(1, orderService.countOrdersByStatus(OrderStatus.ALLOCATED));
+        assertEquals(List.of(second.getId()), ids(orderService.getOrdersByStatus(OrderStatus.CREATED)));
+        assertEquals(List.of(first.getId()), ids(orderService.getOrdersByStatus(OrderStatus.ALLOCATED)));
+
+        orderService.cancelOrder(first.getId());
+
+        assertEquals(0, orderService.countOrdersByStatus(OrderStatus.ALLOCATED));
+        assertEquals(1, orderService.countOrdersByStatus(OrderStatus.CANCELLED));
+    }
+
+    @Test
+    void getOrdersByStatusCreatedBefore_returnsOnlyOlderOrders() {
+        Order first = orderService.createOrder(customerId, orderItems, false);
+        Order second = orderService.createOrder(customerId, orderItems, false);
+
+        List<Order> all = orderService.getOrdersByStatusCreatedBefore(OrderStatus.CREATED, LocalDateTime.now().plusMinutes(1));
+        assertEquals(Set.of(first.getId(), second.getId()), new HashSet<>(ids(all)));
+
+        List<Order> none = orderService.getOrdersByStatusCreatedBefore(OrderStatus.CREATED, first.getCreatedAt());
+        assertTrue(none.isEmpty());
+    }
+
+    @Test
+    void updateStatus_rejectsTransitionsOutsideTheLifecycle() {
+        Order order = orderService.createOrder(customerId, orderItems, false);
+        orderService.cancelOrder(order.getId());
+
+        assertThrows(
+                InvalidOrderStateException.class,
+                () -> orderService.updateStatus(order.getId(), OrderStatus.ALLOCATED)
+        );
+        assertEquals(OrderStatus.CANCELLED, orderService.getOrderById(order.getId()).getStatus());
+    }
+
+    @Test
+    void updateStatus_bumpsVersionAndStaleCompareAndSaveFails() {
+        InMemoryRepository<Order> storage = new InMemoryRepository<>();
+        OrderService service = new OrderService(storage);
+        Order order = service.createOrder(customerId, orderItems, false);
+
+        service.updateStatus(order.getId(), OrderStatus.ALLOCATED);
+
+        Order current = service.getOrderById(order.getId());
+        assertEquals(1, current.getVersion());
+        assertFalse(storage.compareAndSave(order.getId(), order.getVersion(), order.withStatus(OrderStatus.CANCELLED)));
+        assertEquals(OrderStatus.ALLOCATED, service.getOrderById(order.getId()).getStatus());
+    }
+
+    @Test
+    void concurrentStatusUpdates_onlyOneWriterWinsEachTransition() throws InterruptedException {
+        Order order = orderService.createOrder(customerId, orderItems, false);
+        List<Thread> writers = new ArrayList<>();
+
+        for (int i = 0; i < 8; i++) {
+            OrderStatus target = i % 2 == 0 ? OrderStatus.ALLOCATED : OrderStatus.CANCELLED;
+            Thread writer = new Thread(() -> {
+                try {
+                    orderService.updateStatus(order.getId(), target);
+                } catch (InvalidOrderStateException e) {
+                    // Another writer already moved the order to a terminal status
+                }
+            });
+            writers.add(writer);
+            writer.start();
+        }
+        for (Thread writer: writers) {
+            writer.join();
+        }
+
+        long indexed = orderService.countOrdersByStatus(OrderStatus.ALLOCATED)
+                + orderService.countOrdersByStatus(OrderStatus.CANCELLED);
+        assertEquals(1, indexed);
+        assertEquals(0, orderService.countOrdersByStatus(OrderStatus.CREATED));
+        OrderStatus finalStatus = orderService.getOrderById(order.getId()).getStatus();
+        assertEquals(1, orderService.countOrdersByStatus(finalStatus));
+    }
+
+    private static List<UUID> ids(List<Order> orders) {
+        return orders.stream().map(Order::getId).toList();
+    }
+}
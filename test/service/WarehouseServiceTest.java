@@ -0,0 +1,118 @@
+package test.service;
+
+import domain.model.InventoryItem;
+import domain.model.Location;
+import domain.model.LocationTable;
+import domain.model.OrderItem;
+import domain.model.Product;
+import domain.model.ProductType;
+import domain.model.Shipment;
+import domain.model.Warehouse;
+import exceptions.WarehouseSaturatedException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import repository.InMemoryRepository;
+import service.InventoryService;
+import service.ShipmentService;
+import service.WarehouseCostFunction;
+import service.WarehouseService;
+import service.WarehouseStation;
+import service.WarehouseStations;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class WarehouseServiceTest {
+
+    private InventoryService inventoryService;
+    private InMemoryRepository<Warehouse> warehouseRepository;
+    private Warehouse nearButFull;
+    private Warehouse farButEmpty;
+    private List<OrderItem> orderItems;
+    private Location customerLocation;
+
+    @BeforeEach
+    void setUp() {
+        InMemoryRepository<InventoryItem> inventoryRepository = new InMemoryRepository<>();
+        InMemoryRepository<Product> productRepository = new InMemoryRepository<>();
+        warehouseRepository = new InMemoryRepository<>();
+        inventoryService = new InventoryService(inventoryRepository, productRepository, warehouseRepository);
+
+        Product product = new Product("Product", ProductType.ELECTRONIC, "Test");
+        productRepository.save(product.getId(), product);
+        nearButFull = new Warehouse("Near", new Location("Near", 10, 0), 100, new LocationTable());
+        farButEmpty = new Warehouse("Far", new Location("Far", 30, 0), 10_000, new LocationTable());
+        warehouseRepository.save(nearButFull.getId(), nearButFull);
+        warehouseRepository.save(farButEmpty.getId(), farButEmpty);
+
+        inventoryService.addInventoryItem(nearButFull.getId(), product.getId(), 95);
+        inventoryService.addInventoryItem(farButEmpty.getId(), product.getId(), 100);
+
+        orderItems = List.of(new OrderItem(product.getId(), 5));
+        customerLocation = new Location("Customer", 0, 0);
+    }
+
+    @Test
+    void findSingleOptimalWarehouse_prefersClosestByDefault() {
+        WarehouseService warehouseService = new WarehouseService(warehouseRepository, inventoryService);
+
+        assertEquals(nearButFull.getId(),
+                warehouseService.findSingleOptimalWarehouseForOrderItems(orderItems, customerLocation).getId());
+    }
+
+    @Test
+    void findSingleOptimalWarehouse_weighsUtilizationAgainstDistance() {
+        WarehouseCostFunction costFunction =
+                WarehouseCostFunction.distanceAndUtilization(inventoryService.getUtilizationTracker(), 50);
+        WarehouseService warehouseService = new WarehouseService(warehouseRepository, inventoryService, costFunction);
+
+        // Near: 10 + 50 * 0.95 = 57.5, far: 30 + 50 * 0.01 = 30.5
+        assertEquals(farButEmpty.getId(),
+                warehouseService.findSingleOptimalWarehouseForOrderItems(orderItems, customerLocation).getId());
+    }
+
+    @Test
+    void findSingleOptimalWarehouse_addsExpectedWaitAndAppliesBackpressure() {
+        WarehouseStations stations = new WarehouseStations();
+        WarehouseStation near = stations.configure(nearButFull.getId(), 2, Duration.ofSeconds(10), 4);
+        stations.configure(farButEmpty.getId(), 1, Duration.ofSeconds(10), 1);
+        WarehouseCostFunction costFunction = WarehouseCostFunction.distance().plusExpectedWait(stations, 3);
+        WarehouseService warehouseService = new WarehouseService(warehouseRepository, inventoryService, costFunction, stations);
+        ShipmentService shipmentService = new ShipmentService(new InMemoryRepository<>(), inventoryService, stations);
+
+        // Two lanes absorb the first two shipments without any wait
+        shipTo(shipmentService, nearButFull);
+        shipTo(shipmentService, nearButFull);
+        assertEquals(Duration.ofSeconds(5), near.getExpectedWait());
+        assertEquals(nearButFull.getId(),
+                warehouseService.findSingleOptimalWarehouseForOrderItems(orderItems, customerLocation).getId());
+
+        // Near now costs 10 + 3 * 10s of wait = 40, more than the idle far warehouse at 30
+        Shipment third = shipTo(shipmentService, nearButFull);
+        assertEquals(farButEmpty.getId(),
+                warehouseService.findSingleOptimalWarehouseForOrderItems(orderItems, customerLocation).getId());
+
+        shipTo(shipmentService, nearButFull);
+        assertTrue(near.isSaturated());
+
+        shipTo(shipmentService, farButEmpty);
+        assertThrows(
+                WarehouseSaturatedException.class,
+                () -> warehouseService.findSingleOptimalWarehouseForOrderItems(orderItems, customerLocation)
+        );
+
+        shipmentService.cancelShipment(third.getId());
+        assertEquals(3, near.getQueueDepth());
+        assertEquals(nearButFull.getId(),
+                warehouseService.findSingleOptimalWarehouseForOrderItems(orderItems, customerLocation).getId());
+    }
+
+    private Shipment shipTo(ShipmentService shipmentService, Warehouse warehouse) {
+        return shipmentService.createShipment(UUID.randomUUID(), UUID.randomUUID(), warehouse.getId(), customerLocation, orderItems);
+    }
+}
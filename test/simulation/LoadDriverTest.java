@@ -0,0 +1,81 @@
+package test.simulation;
+
+import domain.model.Product;
+import domain.model.Warehouse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import repository.InMemoryRepository;
+import service.CustomerService;
+import service.InventoryService;
+import service.OrderFulfillmentService;
+import service.OrderService;
+import service.ProductService;
+import service.ShipmentService;
+import service.WarehouseService;
+import simulation.LoadDriver;
+import simulation.LoadResult;
+import simulation.WorkloadConfig;
+import simulation.WorkloadGenerator;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LoadDriverTest {
+
+    private LoadDriver driver;
+
+    @BeforeEach
+    void setUp() {
+        InMemoryRepository<Product> productRepository = new InMemoryRepository<>();
+        InMemoryRepository<Warehouse> warehouseRepository = new InMemoryRepository<>();
+        InventoryService inventoryService = new InventoryService(new InMemoryRepository<>(), productRepository, warehouseRepository);
+        WarehouseService warehouseService = new WarehouseService(warehouseRepository, inventoryService);
+        CustomerService customerService = new CustomerService(new InMemoryRepository<>());
+        OrderService orderService = new OrderService(new InMemoryRepository<>());
+        ShipmentService shipmentService = new ShipmentService(new InMemoryRepository<>(), inventoryService);
+        OrderFulfillmentService fulfillmentService = new OrderFulfillmentService(
+                orderService, warehouseService, shipmentService, inventoryService, customerService);
+
+        WorkloadConfig config = new WorkloadConfig()
+                .setProducts(100)
+                .setCustomers(200)
+                .setCities(3)
+                .setWarehouses(4)
+                .setUnitsPerHub(100_000);
+        driver = new LoadDriver(orderService, fulfillmentService,
+                new WorkloadGenerator(config).install(new ProductService(productRepository), customerService, warehouseService, inventoryService),
+                2);
+    }
+
+    @Test
+    void run_offersEveryFlowAtTheTargetRate() {
+        LoadResult result = driver.run(500, Duration.ofMillis(400));
+
+        assertEquals(200, result.getCompleted());
+        assertEquals(200, result.getResponseTime().getTotalCount());
+        assertTrue(result.getFulfilled() > 190, result.toString());
+        assertTrue(result.getAchievedRate() > 400, result.toString());
+    }
+
+    @Test
+    void responseTime_includesServiceTime() {
+        LoadResult result = driver.run(1_000, Duration.ofMillis(200));
+
+        assertEquals(result.getCompleted(), result.getServiceTime().getTotalCount());
+        assertTrue(result.getResponseTime().getMean() >= result.getServiceTime().getMean());
+        assertTrue(result.getResponseTime().getMaxValue() >= result.getServiceTime().getMaxValue());
+    }
+
+    @Test
+    void ramp_stopsAtTheFirstUnsustainableStep() {
+        // A 1ns p99 limit can never be met, so only the first step runs
+        List<LoadResult> results = driver.ramp(200, 2, 5, Duration.ofMillis(100), Duration.ofNanos(1));
+
+        assertEquals(1, results.size());
+        assertNull(LoadDriver.knee(results, Duration.ofNanos(1)));
+    }
+}
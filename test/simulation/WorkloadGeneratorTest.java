@@ -0,0 +1,160 @@
+package test.simulation;
+
+import domain.model.Customer;
+import domain.model.Location;
+import domain.model.OrderItem;
+import domain.model.Product;
+import domain.model.Warehouse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import repository.InMemoryRepository;
+import service.CustomerService;
+import service.InventoryService;
+import service.OrderFulfillmentService;
+import service.OrderService;
+import service.ProductService;
+import service.ShipmentService;
+import service.WarehouseService;
+import simulation.DiscreteDistribution;
+import simulation.OrderRequest;
+import simulation.Workload;
+import simulation.WorkloadConfig;
+import simulation.WorkloadGenerator;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class WorkloadGeneratorTest {
+
+    private WorkloadConfig config;
+
+    @BeforeEach
+    void setUp() {
+        config = new WorkloadConfig()
+                .setProducts(200)
+                .setCustomers(500)
+                .setCities(5)
+                .setWarehouses(6)
+                .setUnitsPerHub(50_000);
+    }
+
+    @Test
+    void sameSeed_producesSameNetworkAndOrderStream() {
+        Workload first = install(config).workload;
+        Workload second = install(config).workload;
+
+        assertEquals(describe(first, first.orders().stream().limit(1000).collect(Collectors.toList())),
+                describe(second, second.orders().stream().limit(1000).collect(Collectors.toList())));
+    }
+
+    @Test
+    void orderLines_followZipfPopularity() {
+        Workload workload = install(config).workload;
+        int[] lines = new int[config.getProducts()];
+        UUID top = workload.getProductsByRank().get(0).getId();
+        UUID median = workload.getProductsByRank().get(config.getProducts() / 2).getId();
+
+        workload.orders().stream().limit(20_000).forEach(order -> {
+            assertEquals(order.getOrderItems().size(),
+                    order.getOrderItems().stream().map(OrderItem::getProductId).distinct().count());
+            for (OrderItem item: order.getOrderItems()) {
+                if (item.getProductId().equals(top)) {
+                    lines[0]++;
+                } else if (item.getProductId().equals(median)) {
+                    lines[1]++;
+                }
+            }
+        });
+
+        assertTrue(lines[0] > 20 * Math.max(1, lines[1]), "top=" + lines[0] + ", median=" + lines[1]);
+    }
+
+    @Test
+    void customersClusterAroundCities() {
+        Workload workload = install(config.setCitySpread(10)).workload;
+
+        long nearCity = workload.getCustomers().stream()
+                .filter(customer -> nearestCityDistance(workload, customer.getLocation()) < 40)
+                .count();
+        assertTrue(nearCity > workload.getCustomers().size() * 0.99);
+    }
+
+    @Test
+    void generatedOrders_canBeFulfilledThroughTheServices() {
+        Installed installed = install(config);
+        List<Boolean> results = installed.workload.orders().stream()
+                .limit(200)
+                .map(request -> request.submit(installed.orderService))
+                .map(order -> installed.fulfillmentService.fulfillOrder(order.getId()))
+                .collect(Collectors.toList());
+
+        assertTrue(results.stream().filter(Boolean::booleanValue).count() > 190);
+    }
+
+    @Test
+    void discreteDistribution_samplesEveryIndexWithItsWeight() {
+        DiscreteDistribution distribution = new DiscreteDistribution(1, 0, 3);
+        SplittableRandom random = new SplittableRandom(7);
+        int[] counts = new int[3];
+        for (int i = 0; i < 40_000; i++) {
+            counts[distribution.sample(random)]++;
+        }
+
+        assertEquals(0, counts[1]);
+        assertEquals(3.0, counts[2] / (double) counts[0], 0.15);
+    }
+
+    private static double nearestCityDistance(Workload workload, Location location) {
+        return workload.getCities().stream()
+                .mapToDouble(city -> city.calculateDistanceTo(location))
+                .min()
+                .orElseThrow();
+    }
+
+    private static String describe(Workload workload, List<OrderRequest> orders) {
+        List<UUID> productIds = workload.getProductsByRank().stream().map(Product::getId).collect(Collectors.toList());
+        List<UUID> customerIds = workload.getCustomers().stream().map(Customer::getId).collect(Collectors.toList());
+        StringBuilder description = new StringBuilder();
+        for (Warehouse warehouse: workload.getWarehouses()) {
+            description.append(warehouse.getName()).append(warehouse.getMaxCapacity())
+                    .append(warehouse.getLocation().getLatitude()).append(';');
+        }
+        for (OrderRequest order: orders) {
+            description.append(customerIds.indexOf(order.getCustomerId())).append(order.isTransactional());
+            for (OrderItem item: order.getOrderItems()) {
+                description.append(productIds.indexOf(item.getProductId())).append('x').append(item.getQuantity());
+            }
+            description.append(';');
+        }
+        return description.toString();
+    }
+
+    private static Installed install(WorkloadConfig config) {
+        return new Installed(config);
+    }
+
+    private static final class Installed {
+        private final OrderService orderService = new OrderService(new InMemoryRepository<>());
+        private final OrderFulfillmentService fulfillmentService;
+        private final Workload workload;
+
+        private Installed(WorkloadConfig config) {
+            InMemoryRepository<Product> productRepository = new InMemoryRepository<>();
+            InMemoryRepository<Warehouse> warehouseRepository = new InMemoryRepository<>();
+            InventoryService inventoryService = new InventoryService(new InMemoryRepository<>(), productRepository, warehouseRepository);
+            WarehouseService warehouseService = new WarehouseService(warehouseRepository, inventoryService);
+            CustomerService customerService = new CustomerService(new InMemoryRepository<>());
+            ShipmentService shipmentService = new ShipmentService(new InMemoryRepository<>(), inventoryService);
+
+            this.fulfillmentService = new OrderFulfillmentService(
+                    orderService, warehouseService, shipmentService, inventoryService, customerService);
+            this.workload = new WorkloadGenerator(config).install(
+                    new ProductService(productRepository), customerService, warehouseService, inventoryService);
+        }
+    }
+}